@@ -7,14 +7,18 @@ import com.kaylerrenslow.armaDialogCreator.control.ControlClass;
 import com.kaylerrenslow.armaDialogCreator.control.ControlProperty;
 import com.kaylerrenslow.armaDialogCreator.control.ControlPropertyLookup;
 import com.kaylerrenslow.armaDialogCreator.control.ControlPropertyLookupConstant;
+import com.kaylerrenslow.armaDialogCreator.control.ControlPropertyUpdate;
 import com.kaylerrenslow.armaDialogCreator.control.sv.*;
+import com.kaylerrenslow.armaDialogCreator.data.ApplicationData;
+import com.kaylerrenslow.armaDialogCreator.data.MacroDependent;
+import com.kaylerrenslow.armaDialogCreator.data.ProjectMacroRegistry;
 import com.kaylerrenslow.armaDialogCreator.expression.Env;
+import com.kaylerrenslow.armaDialogCreator.expression.ExpressionEvaluationException;
 import com.kaylerrenslow.armaDialogCreator.gui.uicanvas.*;
-import com.kaylerrenslow.armaDialogCreator.main.ArmaDialogCreator;
+import com.kaylerrenslow.armaDialogCreator.util.UpdateGroupListener;
 import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
 import com.kaylerrenslow.armaDialogCreator.util.ValueListener;
 import com.kaylerrenslow.armaDialogCreator.util.ValueObserver;
-import javafx.application.Platform;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.input.MouseButton;
 import javafx.scene.paint.Color;
@@ -22,12 +26,19 @@ import javafx.scene.paint.Paint;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Consumer;
+
 /**
  Base class for JavaFX canvas rendering of arma controls
 
  @author Kayler
  @since 05/20/2016. */
 public class ArmaControlRenderer extends SimpleCanvasComponent implements ViewportCanvasComponent {
+	/** Raster cache shared by all renderers. See {@link #paintFromRasterCache(GraphicsContext, CanvasContext)} */
+	private static final RasterCache rasterCache = new RasterCache(RasterCache.DEFAULT_BUDGET_BYTES);
+	/** Extra pixels around the renderer's bounds that are included in the raster cache image */
+	protected static final int RASTER_CACHE_MARGIN = 4;
+
 	protected final ArmaControl myControl;
 	/** Resolution of the control. Should not change the reference, but rather change the values inside the resolution. */
 	protected final ArmaResolution resolution;
@@ -42,11 +53,35 @@ public class ArmaControlRenderer extends SimpleCanvasComponent implements Viewpo
 	private final Runnable runnableRequestRender = new Runnable() {
 		@Override
 		public void run() {
+			rasterCache.invalidate(ArmaControlRenderer.this);
 			if (myControl.getDisplay() != null) {
 				myControl.getRenderUpdateGroup().update(getMyControl());
 			}
 		}
 	};
+	/**
+	 Re-evaluates the position expressions when a macro they use changes. Only the renderers that use the macro are
+	 notified, so editing a macro doesn't require the entire display to be recalculated.
+	 */
+	private final MacroDependent positionMacroDependent = new MacroDependent() {
+		@Override
+		public void macroUpdated(@NotNull String macroKey) {
+			FrameUpdateScheduler.getInstance().schedule(runnableRecalcMacroPosition);
+		}
+	};
+	/** Scheduled by {@link #positionMacroDependent} so that many macro edits only recalculate the position once per frame */
+	private final Runnable runnableRecalcMacroPosition = new Runnable() {
+		@Override
+		public void run() {
+			try {
+				resolutionUpdate(resolution);
+			} catch (ExpressionEvaluationException ignore) {
+				//the macro was removed or its value is no longer a number. keep the last position
+			}
+			//already on the JavaFX thread inside the scheduler, so render now instead of waiting another frame
+			runnableRequestRender.run();
+		}
+	};
 	/** Set by {@link #setMouseOver(int, int, boolean)} */
 	protected int mouseOverX,
 	/** Set by {@link #setMouseOver(int, int, boolean)} */
@@ -73,6 +108,19 @@ public class ArmaControlRenderer extends SimpleCanvasComponent implements Viewpo
 	/** False when the constructor finishes */
 	private boolean initializing = true;
 
+	/** Invalidates the raster cache image when a property of the control updates. Only added while the control is in a display. */
+	private final UpdateGroupListener<ControlPropertyUpdate> rasterCachePropertyListener = (group, data) -> {
+		rasterCache.invalidate(this);
+	};
+	/** True if {@link #rasterCachePropertyListener} is added to the control */
+	private boolean rasterCachePropertyListenerAdded = false;
+
+	/** True when painting from inside {@link #paintFromRasterCache(GraphicsContext, CanvasContext)} */
+	private boolean rasterCachePainting = false;
+	/** {@link CanvasContext} to use for {@link #rasterCachePainter} */
+	private CanvasContext rasterCacheContext;
+	private final Consumer<GraphicsContext> rasterCachePainter = gc -> paint(gc, rasterCacheContext);
+
 	public ArmaControlRenderer(@NotNull ArmaControl control, @NotNull ArmaResolution resolution, @NotNull Env env) {
 		super(0, 0, 0, 0);
 		this.resolution = resolution;
@@ -126,6 +174,7 @@ public class ArmaControlRenderer extends SimpleCanvasComponent implements Viewpo
 				} else {
 					throw new IllegalStateException("unmatched observer");
 				}
+				updatePositionMacroDependencies();
 				requestRender();
 			}
 		};
@@ -161,10 +210,55 @@ public class ArmaControlRenderer extends SimpleCanvasComponent implements Viewpo
 		} else {
 			setHSilent((SVExpression) hProperty.getValue());
 		}
+		updatePositionMacroDependencies();
+
+		setRasterCachePropertyListener(myControl.getDisplay() != null);
+		myControl.getDisplayObserver().addListener(new ValueListener<CanvasDisplay<ArmaControl>>() {
+			@Override
+			public void valueUpdated(@NotNull ValueObserver<CanvasDisplay<ArmaControl>> observer, CanvasDisplay<ArmaControl> oldValue, CanvasDisplay<ArmaControl> newValue) {
+				//once the control is removed from its display, the cache shouldn't keep its image or listen to it
+				rasterCache.invalidate(ArmaControlRenderer.this);
+				setRasterCachePropertyListener(newValue != null);
+			}
+		});
+		resolutionUpdateGroup.addListener((group, data) -> {
+			rasterCache.invalidate(this);
+		});
 
 		initializing = false;
 	}
 
+	private void setRasterCachePropertyListener(boolean add) {
+		if (add == rasterCachePropertyListenerAdded) {
+			return;
+		}
+		if (add) {
+			myControl.getPropertyUpdateGroup().addListener(rasterCachePropertyListener);
+		} else {
+			myControl.getPropertyUpdateGroup().removeListener(rasterCachePropertyListener);
+		}
+		rasterCachePropertyListenerAdded = add;
+	}
+
+	/** Tell the macro registry which macros the x, y, w, and h expressions use. See {@link #positionMacroDependent} */
+	private void updatePositionMacroDependencies() {
+		if (!(env instanceof ApplicationData.GlobalExpressionEnv)) {
+			return;
+		}
+		ProjectMacroRegistry registry = ((ApplicationData.GlobalExpressionEnv) env).getMacroRegistry();
+		if (registry == null) {
+			return;
+		}
+		registry.setDependencies(positionMacroDependent,
+				expressionOf(xProperty), expressionOf(yProperty), expressionOf(wProperty), expressionOf(hProperty)
+		);
+	}
+
+	@NotNull
+	private static String expressionOf(@NotNull ControlProperty property) {
+		return property.getValue() instanceof SVExpression ? ((SVExpression) property.getValue()).getExpression() : "";
+	}
+
 	/**
 	 Invoked when the x, y, width, or height of the control is updated. Default implementation does nothing.
 
@@ -180,14 +274,15 @@ public class ArmaControlRenderer extends SimpleCanvasComponent implements Viewpo
 	 the re-render must occur AFTER the renderer's internal values change. Invoke
 	 this whenever a new render needs to happen.
 	 <p>
+	 The render happens on the next frame with {@link FrameUpdateScheduler}, so requesting a render many times
+	 before the next frame only renders once.
+	 <p>
 	 This method can be invoked on any thread.
 	 */
 	public void requestRender() {
-		if (Thread.currentThread() != ArmaDialogCreator.getJavaFXThread()) {
-			Platform.runLater(runnableRequestRender);
-		} else {
-			runnableRequestRender.run();
-		}
+		//invalidate now in case something paints this renderer before the next frame
+		rasterCache.invalidate(this);
+		FrameUpdateScheduler.getInstance().schedule(runnableRequestRender);
 	}
 
 	/**
@@ -351,6 +446,63 @@ public class ArmaControlRenderer extends SimpleCanvasComponent implements Viewpo
 		requestRender();
 	}
 
+	/**
+	 Subclasses that support the raster cache should invoke this at the start of {@link #paint(GraphicsContext, CanvasContext)}.
+	 If true is returned, the renderer was painted and nothing else should be painted.
+	 <p>
+	 Only renderers whose editor painting (not preview painting) depends solely on the control's properties,
+	 position, and resolution should use this. Everything painted must be within the renderer's bounds
+	 plus {@link #getRasterCacheMargin()}.
+
+	 @return true if painted (possibly from a cached image), false if the renderer should paint itself
+	 */
+	protected final boolean paintFromRasterCache(@NotNull GraphicsContext gc, @NotNull CanvasContext canvasContext) {
+		if (rasterCachePainting || paintPreview(canvasContext) || !rasterCache.isEnabled()) {
+			return false;
+		}
+		int margin = getRasterCacheMargin() + (border != null ? border.getThickness() : 0);
+		rasterCachePainting = true;
+		rasterCacheContext = canvasContext;
+		try {
+			rasterCache.paint(this, gc, getLeftX() - margin, getTopY() - margin,
+					getWidth() + margin * 2, getHeight() + margin * 2, rasterCachePainter
+			);
+		} finally {
+			rasterCachePainting = false;
+			rasterCacheContext = null;
+		}
+		return true;
+	}
+
+	/**
+	 @return number of pixels outside of the renderer's bounds that the renderer may paint in editor mode.
+	 Default is {@link #RASTER_CACHE_MARGIN}
+	 @see #paintFromRasterCache(GraphicsContext, CanvasContext)
+	 */
+	protected int getRasterCacheMargin() {
+		return RASTER_CACHE_MARGIN;
+	}
+
+	/** @return the raster cache shared by all renderers */
+	@NotNull
+	public static RasterCache getRasterCache() {
+		return rasterCache;
+	}
+
+	@Override
+	public void setBackgroundColor(@NotNull Color paint) {
+		if (!paint.equals(backgroundColor)) {
+			rasterCache.invalidate(this);
+		}
+		super.setBackgroundColor(paint);
+	}
+
+	@Override
+	public void setBorder(@Nullable Border border) {
+		rasterCache.invalidate(this);
+		super.setBorder(border);
+	}
+
 	@Override
 	public void setEnabled(boolean enabled) {
 		super.setEnabled(enabled);
@@ -190,6 +190,9 @@ public class ButtonRenderer extends ArmaControlRenderer implements BasicTextRend
 
 	@Override
 	public void paint(@NotNull GraphicsContext gc, CanvasContext canvasContext) {
+		if (paintFromRasterCache(gc, canvasContext)) {
+			return;
+		}
 		boolean preview = paintPreview(canvasContext);
 
 		final int controlWidth = getWidth();
@@ -197,7 +200,7 @@ public class ButtonRenderer extends ArmaControlRenderer implements BasicTextRend
 
 		if (isEnabled()) {
 			if (preview) {
-				blinkControlHandler.paint(gc);
+				blinkControlHandler.paint(gc, canvasContext);
 			}
 			//won't draw shadow if not enabled
 			Paint old = gc.getStroke();
@@ -250,7 +253,7 @@ public class ButtonRenderer extends ArmaControlRenderer implements BasicTextRend
 				setBackgroundColor(colorBackgroundActive);
 				super.paint(gc, canvasContext);
 			} else if (focused) {
-				double ratio = focusedColorAlternator.updateAndGetRatio();
+				double ratio = focusedColorAlternator.updateAndGetRatio(canvasContext.getAnimations());
 				setBackgroundColor(
 						colorFocused.interpolate(colorFocused2 == null ? backgroundColor : colorFocused2, ratio)
 				);
@@ -274,6 +277,15 @@ public class ButtonRenderer extends ArmaControlRenderer implements BasicTextRend
 
 	}
 
+	@Override
+	protected int getRasterCacheMargin() {
+		//the shadow and border are painted outside of the bounds
+		int shadowX = (int) Math.abs(Math.round(getWidth() * offsetX));
+		int shadowY = (int) Math.abs(Math.round(getHeight() * offsetY));
+		int borderWidth = (int) Math.abs(Math.round(getWidth() * borderSize));
+		return Math.max(super.getRasterCacheMargin(), Math.max(borderWidth, Math.max(shadowX, shadowY)) + 1);
+	}
+
 	@NotNull
 	public Color getTextColor() {
 		return textRenderer.getTextColor();
@@ -134,7 +134,7 @@ public class ComboRenderer extends ArmaControlRenderer implements BasicTextRende
 			//in Arma 3, when combo is disabled, the arrow isn't visible
 		} else {
 			if (preview) {
-				blinkControlHandler.paint(gc);
+				blinkControlHandler.paint(gc, canvasContext);
 				if (this.mouseOver) {
 					canvasContext.paintLast(tooltipRenderFunc);
 				}
@@ -96,7 +96,7 @@ public class EditRenderer extends ArmaControlRenderer implements BasicTextRender
 			textRenderer.setTextColor(oldTextColor);
 		} else {
 			if (preview) {
-				blinkControlHandler.paint(gc);
+				blinkControlHandler.paint(gc, canvasContext);
 			}
 			super.paint(gc, canvasContext);
 			textRenderer.paint(gc);
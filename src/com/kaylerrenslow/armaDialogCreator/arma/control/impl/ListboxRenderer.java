@@ -150,7 +150,7 @@ public class ListboxRenderer extends ArmaControlRenderer implements BasicTextRen
 			textRenderer.setTextColor(oldTextColor);
 		} else {
 			if (preview) {
-				blinkControlHandler.paint(gc);
+				blinkControlHandler.paint(gc, canvasContext);
 				if (this.mouseOver) {
 					canvasContext.paintLast(tooltipRenderFunc);
 				}
@@ -161,7 +161,9 @@ public class ListboxRenderer extends ArmaControlRenderer implements BasicTextRen
 			final int textPadding = (int) (getWidth() * 0.025);
 			int leftTextX = x1 + textPadding;
 			int textHeight = textRenderer.getTextLineHeight();
-			double ratio = periodAlternator.updateAndGetRatio();
+			//the selected row only alternates colors while focused
+			boolean alternate = focused && (colorSelectBackground != null && colorSelectBackground2 != null || colorSelect2 != null);
+			double ratio = alternate ? periodAlternator.updateAndGetRatio(canvasContext.getAnimations()) : 0;
 			final int rowHeight = getRowPixelHeight();
 
 			scrollbarRenderer.paint(gc, preview, x2 - ScrollbarRenderer.SCROLLBAR_WIDTH, y1, controlHeight);
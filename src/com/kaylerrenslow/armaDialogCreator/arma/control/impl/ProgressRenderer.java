@@ -96,13 +96,13 @@ public class ProgressRenderer extends ArmaControlRenderer {
 		boolean preview = paintPreview(canvasContext);
 		if (preview) {
 			if (isEnabled()) {
-				blinkControlHandler.paint(gc);
+				blinkControlHandler.paint(gc, canvasContext);
 			}
 
 			if (this.mouseOver) {
 				canvasContext.paintLast(tooltipRenderFunc);
 			}
-			this.progress = progressAlternator.updateAndGetRatio();
+			this.progress = progressAlternator.updateAndGetRatio(canvasContext.getAnimations());
 		}
 
 		tintedTexture.setToPreviewMode(preview);
@@ -256,6 +256,9 @@ public class ShortcutButtonRenderer extends ArmaControlRenderer implements Basic
 
 	@Override
 	public void paint(@NotNull GraphicsContext gc, CanvasContext canvasContext) {
+		if (paintFromRasterCache(gc, canvasContext)) {
+			return;
+		}
 		boolean preview = paintPreview(canvasContext);
 
 		final int controlWidth = getWidth();
@@ -267,10 +270,9 @@ public class ShortcutButtonRenderer extends ArmaControlRenderer implements Basic
 
 		if (preview) {
 			if (isEnabled()) {
-				blinkControlHandler.paint(gc);
+				blinkControlHandler.paint(gc, canvasContext);
 			}
 
-			double ratio = focusedColorAlternator.updateAndGetRatio();
 			Color colorBackground = this.backgroundColor;
 			Color color = textRenderer.getTextColor();
 
@@ -287,19 +289,21 @@ public class ShortcutButtonRenderer extends ArmaControlRenderer implements Basic
 				//mouse is over the button
 				bgTexture = animTextureOver;
 				//interpolate "color" with "colorFocused"
+				//interpolate "colorBackgroundFocused" with "colorBackground2"
 				if (periodOverMillis > 0) {
+					focusedColorAlternator.setAlternateMillis(periodOverMillis);
+					double ratio = focusedColorAlternator.updateAndGetRatio(canvasContext.getAnimations());
 					textRenderer.setTextColor(colorFocused.interpolate(color2, ratio));
 					setBackgroundColor(colorBackgroundFocused.interpolate(colorBackground2, ratio));
 				}
-				//interpolate "colorBackgroundFocused" with "colorBackground2"
-				focusedColorAlternator.setAlternateMillis(periodOverMillis);
 			} else if (focused) {
 				bgTexture = animTextureFocused;
 				if (periodFocusMillis > 0) {
+					focusedColorAlternator.setAlternateMillis(periodFocusMillis);
+					double ratio = focusedColorAlternator.updateAndGetRatio(canvasContext.getAnimations());
 					textRenderer.setTextColor(color2.interpolate(colorFocused, ratio));
 					setBackgroundColor(colorBackground2.interpolate(colorBackgroundFocused, ratio));
 				}
-				focusedColorAlternator.setAlternateMillis(periodFocusMillis);
 			}
 
 			//paint the background texture/image
@@ -391,6 +395,13 @@ public class ShortcutButtonRenderer extends ArmaControlRenderer implements Basic
 		}
 	}
 
+	@Override
+	protected int getRasterCacheMargin() {
+		//the text and shortcut image aren't clipped to the bounds
+		int margin = Math.max(textRenderer.getTextWidth(), textRenderer.getTextLineHeight());
+		return Math.max(super.getRasterCacheMargin(), Math.max(margin, 30));
+	}
+
 	@NotNull
 	public Color getTextColor() {
 		return textRenderer.getTextColor();
@@ -129,9 +129,12 @@ public class StaticRenderer extends ArmaControlRenderer implements BasicTextRend
 	}
 
 	public void paint(@NotNull GraphicsContext gc, CanvasContext canvasContext) {
+		if (paintFromRasterCache(gc, canvasContext)) {
+			return;
+		}
 		boolean preview = paintPreview(canvasContext);
 		if (preview) {
-			blinkControlHandler.paint(gc);
+			blinkControlHandler.paint(gc, canvasContext);
 		}
 
 		switch (renderType) {
@@ -237,6 +240,22 @@ public class StaticRenderer extends ArmaControlRenderer implements BasicTextRend
 		}
 	}
 
+	@Override
+	protected int getRasterCacheMargin() {
+		int margin = super.getRasterCacheMargin();
+		if (renderType == RenderType.Frame) {
+			//frame text is painted above the frame
+			margin = Math.max(margin, textRenderer.getTextLineHeight());
+		}
+		Image img = pictureOrTextureHelper.getImage();
+		if (renderType == RenderType.ImageOrTexture && keepImageAspectRatio && img != null && img.getHeight() > 0) {
+			//the image width is allowed to surpass the bounds
+			int drawWidth = (int) Math.round(getHeight() * img.getWidth() / img.getHeight());
+			margin = Math.max(margin, (drawWidth - getWidth()) / 2 + 1);
+		}
+		return margin;
+	}
+
 	@Override
 	protected void positionUpdate(boolean initializingPosition) {
 		if (!initializingPosition) {
@@ -152,10 +152,13 @@ public class StructuredTextRenderer extends ArmaControlRenderer {
 	}
 
 	public void paint(@NotNull GraphicsContext gc, CanvasContext canvasContext) {
+		if (paintFromRasterCache(gc, canvasContext)) {
+			return;
+		}
 		boolean preview = paintPreview(canvasContext);
 
 		if (preview) {
-			blinkControlHandler.paint(gc);
+			blinkControlHandler.paint(gc, canvasContext);
 			if (this.mouseOver) {
 				canvasContext.paintLast(tooltipRenderFunc);
 			}
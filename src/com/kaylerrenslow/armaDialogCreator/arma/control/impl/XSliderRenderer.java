@@ -120,7 +120,7 @@ public class XSliderRenderer extends ArmaControlRenderer {
 		if (preview) {
 			progress = this.progress;
 			if (isEnabled()) {
-				blinkControlHandler.paint(gc);
+				blinkControlHandler.paint(gc, canvasContext);
 			}
 
 			if (this.mouseOver) {
@@ -1,5 +1,8 @@
 package com.kaylerrenslow.armaDialogCreator.arma.control.impl.utility;
 
+import com.kaylerrenslow.armaDialogCreator.gui.uicanvas.AnimationRegistry;
+import org.jetbrains.annotations.NotNull;
+
 /**
  Handles alternating between two things
 
@@ -8,6 +11,8 @@ package com.kaylerrenslow.armaDialogCreator.arma.control.impl.utility;
 public class AlternatorHelper {
 	private long alternateMillis;
 	private long lastUpdate;
+	/** {@link AnimationRegistry#getPaintCount()} of the last update */
+	private long lastPaint = Long.MIN_VALUE;
 	private boolean in = false;
 	private long durationPast = 0;
 
@@ -19,14 +24,44 @@ public class AlternatorHelper {
 		this.alternateMillis = alternateMillis;
 	}
 
-	public double updateAndGetRatio() {
-		long now = System.currentTimeMillis();
-		long timePast = now - lastUpdate;
-		lastUpdate = now;
+	/**
+	 Update the ratio based on an internal clock. While alternating, this is registered with the given registry so that the
+	 next frame is painted. So, this should only be invoked when the ratio is used for painting. If this wasn't invoked in the
+	 previous frame, the clock doesn't move, and the alternating continues from where it stopped.
+
+	 @param animations registry of the canvas being painted
+	 @return ratio between 0 and 1
+	 */
+	public double updateAndGetRatio(@NotNull AnimationRegistry animations) {
+		return updateAndGetRatio(animations, System.currentTimeMillis());
+	}
+
+	/**
+	 Same as {@link #updateAndGetRatio(AnimationRegistry)}, but with the given time instead of the current time
+
+	 @param animations registry of the canvas being painted
+	 @param nowMillis current {@link System#currentTimeMillis()}
+	 @return ratio between 0 and 1
+	 */
+	public double updateAndGetRatio(@NotNull AnimationRegistry animations, long nowMillis) {
+		long timePast = nowMillis - lastUpdate;
+		lastUpdate = nowMillis;
+		long paint = animations.getPaintCount();
+		boolean paintedLastFrame = lastPaint >= paint - 1;
+		lastPaint = paint;
 
 		if (alternateMillis <= 0) {
 			return 0;
 		}
+		animations.registerEffect(nowMillis);
+
+		if (!paintedLastFrame) {
+			//the ratio wasn't used for a while
+			timePast = 0;
+		} else {
+			//frames slower than the alternate time still move the clock
+			timePast %= alternateMillis;
+		}
 
 		if (in) {
 			durationPast += timePast;
@@ -3,6 +3,7 @@ package com.kaylerrenslow.armaDialogCreator.arma.control.impl.utility;
 import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaControlRenderer;
 import com.kaylerrenslow.armaDialogCreator.control.ControlPropertyLookupConstant;
 import com.kaylerrenslow.armaDialogCreator.control.sv.SVNumericValue;
+import com.kaylerrenslow.armaDialogCreator.gui.uicanvas.CanvasContext;
 import javafx.scene.canvas.GraphicsContext;
 import org.jetbrains.annotations.NotNull;
 
@@ -36,8 +37,9 @@ public class BlinkControlHandler {
 
 	/**
 	 Will manipulate {@link GraphicsContext#getGlobalAlpha()} based on an internal clock.
+	 While blinking, the blink is registered with {@link CanvasContext#getAnimations()} so that the next frame is painted.
 	 */
-	public void paint(@NotNull GraphicsContext gc) {
+	public void paint(@NotNull GraphicsContext gc, @NotNull CanvasContext canvasContext) {
 		long now = System.currentTimeMillis();
 		long timePast = now - lastPaint;
 		lastPaint = now;
@@ -45,6 +47,7 @@ public class BlinkControlHandler {
 		if (!blinkDurationSet) {
 			return;
 		}
+		canvasContext.getAnimations().registerEffect();
 
 		if (blinkIn) {
 			blinkDurationPast += timePast;
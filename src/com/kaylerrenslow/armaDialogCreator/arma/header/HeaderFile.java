@@ -5,9 +5,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -20,7 +20,8 @@ public class HeaderFile {
 	private HeaderAssignmentList assignments = new HeaderAssignmentList(assignmentsMutable);
 	private List<HeaderClass> classesMutable = new LinkedList<>();
 	private HeaderClassList classes = new HeaderClassList(null, classesMutable);
-	private final HashMap<HeaderClass, HeaderClass> inheritanceHelper = new HashMap<>();
+	/** Concurrent since a parsed file may be read by multiple threads at once */
+	private final ConcurrentHashMap<HeaderClass, HeaderClass> inheritanceHelper = new ConcurrentHashMap<>();
 
 	protected HeaderFile(@NotNull File file) {
 		this.file = file;
@@ -0,0 +1,368 @@
+package com.kaylerrenslow.armaDialogCreator.arma.header;
+
+import com.kaylerrenslow.armaDialogCreator.arma.header.DefineMacroContent.DefineValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ An on disk cache of parsed {@link HeaderFile} instances. Each parsed root file gets its own cache file, which stores
+ the parsed classes and assignments, as well as the content hash of every file that was preprocessed
+ (the root file and everything it #included) and a hash of the {@link Preprocessor#getPredefinedMacros()}.
+ <p>
+ When {@link #parse(File, File)} is invoked for a file that was cached, and none of the recorded files have changed,
+ the {@link HeaderFile} is read from the cache and preprocessing and parsing are skipped completely. If a recorded
+ file changed, only the cache entries that depend on that file are invalidated.
+ <p>
+ Only the result of {@link HeaderParser#parse(File, File)} is cached. {@link HeaderParser#getMacros()} is not.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class HeaderParseCache {
+	private static final int MAGIC = 0x41444348;
+	/** Increment whenever the cache file format changes */
+	private static final int VERSION = 1;
+	private static final String CACHE_FILE_EXTENSION = ".hcache";
+
+	private static final byte TAG_VALUE = 0;
+	private static final byte TAG_ARRAY = 1;
+	private static final byte TAG_ASSIGNMENT = 0;
+	private static final byte TAG_ARRAY_ASSIGNMENT = 1;
+
+	private static final byte[] PREDEFINED_MACROS_HASH = hashPredefinedMacros();
+
+	private final File cacheDirectory;
+	private int hitCount, missCount;
+
+	/**
+	 @param cacheDirectory directory to store the cache files in. The directory will be created if it doesn't exist.
+	 */
+	public HeaderParseCache(@NotNull File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 Get the parsed header file from the cache, or parse it with {@link HeaderParser#parse(File, File)} and
+	 then cache it if the cache is invalid or doesn't exist.
+
+	 @param parsingFile the header file to parse
+	 @param tempDirectory a directory
+	 @return the result
+	 */
+	@NotNull
+	public HeaderFile parse(@NotNull File parsingFile, @NotNull File tempDirectory) throws IOException, HeaderParseException {
+		File cacheFile = getCacheFile(parsingFile);
+		HeaderFile cached = readCacheFile(parsingFile, cacheFile);
+		if (cached != null) {
+			hitCount++;
+			return cached;
+		}
+		missCount++;
+
+		HeaderParser parser = new HeaderParser(parsingFile, tempDirectory);
+		HeaderFile headerFile = parser.parse();
+		try {
+			writeCacheFile(headerFile, parser.getProcessedFiles(), cacheFile);
+		} catch (IOException e) {
+			//the parse still worked, so just don't cache it
+			cacheFile.delete();
+		}
+
+		return headerFile;
+	}
+
+	/** Delete all cache files */
+	public void clear() {
+		File[] files = cacheDirectory.listFiles((dir, name) -> name.endsWith(CACHE_FILE_EXTENSION));
+		if (files == null) {
+			return;
+		}
+		for (File f : files) {
+			f.delete();
+		}
+	}
+
+	/** @return number of times {@link #parse(File, File)} used the cache */
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	/** @return number of times {@link #parse(File, File)} had to parse the file */
+	public int getMissCount() {
+		return missCount;
+	}
+
+	@NotNull
+	private File getCacheFile(@NotNull File parsingFile) {
+		String pathHash = toHex(sha256(parsingFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8)));
+		return new File(cacheDirectory, parsingFile.getName() + "_" + pathHash.substring(0, 16) + CACHE_FILE_EXTENSION);
+	}
+
+	/** @return the cached file, or null if the cache doesn't exist, is invalid, or couldn't be read */
+	@Nullable
+	private HeaderFile readCacheFile(@NotNull File parsingFile, @NotNull File cacheFile) {
+		if (!cacheFile.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			if (!Arrays.equals(readBytes(in), PREDEFINED_MACROS_HASH)) {
+				return null;
+			}
+			int dependencyCount = in.readInt();
+			for (int i = 0; i < dependencyCount; i++) {
+				File dependency = new File(readString(in));
+				long length = in.readLong();
+				long lastModified = in.readLong();
+				byte[] hash = readBytes(in);
+				if (!dependency.isFile()) {
+					return null;
+				}
+				if (dependency.length() == length && dependency.lastModified() == lastModified) {
+					//file wasn't touched, so no need to hash it
+					continue;
+				}
+				if (!Arrays.equals(hash, hashFile(dependency))) {
+					return null;
+				}
+			}
+
+			HeaderFile headerFile = new HeaderFile(parsingFile);
+			List<HeaderAssignment> assignments = new ArrayList<>();
+			List<HeaderClass> nestedClasses = new ArrayList<>();
+			AST.HeaderClassNode root = new AST.HeaderClassNode(headerFile, assignments, nestedClasses);
+			readClassBody(in, root, assignments, nestedClasses);
+
+			headerFile.getClassesMutable().addAll(nestedClasses);
+			headerFile.getAssignmentsMutable().addAll(assignments);
+
+			return headerFile;
+		} catch (IOException | RuntimeException e) {
+			//corrupt or unreadable cache
+			return null;
+		}
+	}
+
+	private void writeCacheFile(@NotNull HeaderFile headerFile, @NotNull List<File> processedFiles, @NotNull File cacheFile) throws IOException {
+		if (!cacheDirectory.exists()) {
+			cacheDirectory.mkdirs();
+		}
+		File tempFile = new File(cacheDirectory, cacheFile.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeBytes(out, PREDEFINED_MACROS_HASH);
+
+			List<File> dependencies = new ArrayList<>(processedFiles.size());
+			for (File f : processedFiles) {
+				if (!dependencies.contains(f)) {
+					dependencies.add(f);
+				}
+			}
+			out.writeInt(dependencies.size());
+			for (File dependency : dependencies) {
+				//get length and last modified before hashing so that a change during hashing invalidates the cache
+				long length = dependency.length();
+				long lastModified = dependency.lastModified();
+				writeString(out, dependency.getAbsolutePath());
+				out.writeLong(length);
+				out.writeLong(lastModified);
+				writeBytes(out, hashFile(dependency));
+			}
+
+			writeClassBody(out, headerFile.getAssignments(), headerFile.getClasses());
+		}
+		Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static void writeClassBody(@NotNull DataOutputStream out, @NotNull Iterable<HeaderAssignment> assignments, @NotNull Iterable<HeaderClass> nestedClasses) throws IOException {
+		List<HeaderAssignment> assignmentList = new ArrayList<>();
+		assignments.forEach(assignmentList::add);
+		out.writeInt(assignmentList.size());
+		for (HeaderAssignment assignment : assignmentList) {
+			if (assignment instanceof HeaderArrayAssignment) {
+				HeaderArrayAssignment arrayAssignment = (HeaderArrayAssignment) assignment;
+				out.writeByte(TAG_ARRAY_ASSIGNMENT);
+				writeString(out, assignment.getVariableName());
+				out.writeBoolean(arrayAssignment.isConcatenated());
+				writeArray(out, arrayAssignment.getArray());
+			} else {
+				out.writeByte(TAG_ASSIGNMENT);
+				writeString(out, assignment.getVariableName());
+				writeValue(out, assignment.getValue());
+			}
+		}
+
+		List<HeaderClass> classList = new ArrayList<>();
+		nestedClasses.forEach(classList::add);
+		out.writeInt(classList.size());
+		for (HeaderClass headerClass : classList) {
+			writeString(out, headerClass.getClassName());
+			String extendClassName = headerClass.getExtendClassName();
+			out.writeBoolean(extendClassName != null);
+			if (extendClassName != null) {
+				writeString(out, extendClassName);
+			}
+			writeClassBody(out, headerClass.getAssignments(), headerClass.getNestedClasses());
+		}
+	}
+
+	private static void readClassBody(@NotNull DataInputStream in, @NotNull HeaderClass owner,
+									  @NotNull List<HeaderAssignment> assignments, @NotNull List<HeaderClass> nestedClasses) throws IOException {
+		int assignmentCount = in.readInt();
+		for (int i = 0; i < assignmentCount; i++) {
+			byte tag = in.readByte();
+			String varName = readString(in);
+			if (tag == TAG_ARRAY_ASSIGNMENT) {
+				boolean concat = in.readBoolean();
+				assignments.add(new AST.HeaderArrayAssignmentNode(varName, readArray(in), concat));
+			} else if (tag == TAG_ASSIGNMENT) {
+				assignments.add(new AST.HeaderAssignmentNode(varName, readValue(in)));
+			} else {
+				throw new IOException("unknown assignment tag " + tag);
+			}
+		}
+
+		int classCount = in.readInt();
+		for (int i = 0; i < classCount; i++) {
+			String className = readString(in);
+			String extendClassName = in.readBoolean() ? readString(in) : null;
+			List<HeaderAssignment> classAssignments = new ArrayList<>();
+			List<HeaderClass> classNestedClasses = new ArrayList<>();
+			AST.HeaderClassNode node = new AST.HeaderClassNode(owner, classAssignments, classNestedClasses);
+			node.setClassName(className);
+			node.setExtendClassName(extendClassName);
+			readClassBody(in, node, classAssignments, classNestedClasses);
+			nestedClasses.add(node);
+		}
+	}
+
+	private static void writeValue(@NotNull DataOutputStream out, @NotNull HeaderValue value) throws IOException {
+		if (value instanceof HeaderArray) {
+			out.writeByte(TAG_ARRAY);
+			writeArray(out, (HeaderArray) value);
+		} else {
+			out.writeByte(TAG_VALUE);
+			writeString(out, value.getContent());
+		}
+	}
+
+	@NotNull
+	private static HeaderValue readValue(@NotNull DataInputStream in) throws IOException {
+		byte tag = in.readByte();
+		if (tag == TAG_ARRAY) {
+			return readArray(in);
+		}
+		if (tag == TAG_VALUE) {
+			return new AST.HeaderValueNode(readString(in));
+		}
+		throw new IOException("unknown value tag " + tag);
+	}
+
+	private static void writeArray(@NotNull DataOutputStream out, @NotNull HeaderArray array) throws IOException {
+		out.writeInt(array.getItems().size());
+		for (HeaderArrayItem item : array.getItems()) {
+			writeValue(out, item.getValue());
+		}
+	}
+
+	@NotNull
+	private static AST.HeaderArrayNode readArray(@NotNull DataInputStream in) throws IOException {
+		int itemCount = in.readInt();
+		List<HeaderArrayItem> items = new ArrayList<>(itemCount);
+		for (int i = 0; i < itemCount; i++) {
+			HeaderValue value = readValue(in);
+			if (value instanceof AST.HeaderArrayNode) {
+				items.add((AST.HeaderArrayNode) value);
+			} else {
+				items.add(new AST.HeaderArrayItemNode(value));
+			}
+		}
+		return new AST.HeaderArrayNode(items);
+	}
+
+	private static void writeString(@NotNull DataOutputStream out, @NotNull String s) throws IOException {
+		//not using writeUTF because it is limited to 65535 bytes
+		writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@NotNull
+	private static String readString(@NotNull DataInputStream in) throws IOException {
+		return new String(readBytes(in), StandardCharsets.UTF_8);
+	}
+
+	private static void writeBytes(@NotNull DataOutputStream out, @NotNull byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	@NotNull
+	private static byte[] readBytes(@NotNull DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("negative length");
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	@NotNull
+	private static byte[] hashFile(@NotNull File f) throws IOException {
+		MessageDigest digest = newDigest();
+		byte[] buffer = new byte[8192];
+		try (InputStream in = new FileInputStream(f)) {
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	@NotNull
+	private static byte[] hashPredefinedMacros() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, DefineValue> entry : Preprocessor.getPredefinedMacros().entrySet()) {
+			sb.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+		}
+		return sha256(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@NotNull
+	private static byte[] sha256(@NotNull byte[] bytes) {
+		return newDigest().digest(bytes);
+	}
+
+	@NotNull
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			//every Java implementation is required to have SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@NotNull
+	private static String toHex(@NotNull byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+}
@@ -1,5 +1,6 @@
 package com.kaylerrenslow.armaDialogCreator.arma.header;
 
+import com.kaylerrenslow.armaDialogCreator.main.ADCExecutors;
 import com.kaylerrenslow.armaDialogCreator.main.Lang;
 import com.kaylerrenslow.armaDialogCreator.util.CharSequenceReader;
 import org.antlr.v4.runtime.*;
@@ -7,12 +8,15 @@ import org.antlr.v4.runtime.atn.ATNConfigSet;
 import org.antlr.v4.runtime.dfa.DFA;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
+import java.io.*;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  A parser for Arma 3 header files (.h, .hh, etc)
@@ -26,11 +30,36 @@ public class HeaderParser {
 	private static final char EOT = 3; //end of text
 	private static final String S_EOT = bundle.getString("Error.HeaderParser.eot");
 
+	/** Runs the {@link Preprocessor} while the preprocessed text is being parsed on the parsing thread */
+	private static final ExecutorService preprocessorThreadPool = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "HeaderParser Preprocessor");
+		t.setDaemon(true);
+		return t;
+	});
+
+	static {
+		ADCExecutors.registerExecutorService(preprocessorThreadPool);
+	}
+
 	private final File parsingFile;
 	private final HeaderParserContext parserContext;
+	private final boolean keepPreprocessedFile;
+	private final List<File> processedFiles = new ArrayList<>();
 
 	protected HeaderParser(@NotNull File parsingFile, @NotNull File tempDirectory) throws IOException {
+		this(parsingFile, tempDirectory, false);
+	}
+
+	/**
+	 @param parsingFile the header file to parse
+	 @param tempDirectory a directory
+	 @param keepPreprocessedFile if true, the preprocessed text is written to a file in tempDirectory and then parsed
+	 (useful for debugging the {@link Preprocessor}). If false, the preprocessed text is streamed straight into the lexer
+	 without touching the disk.
+	 */
+	protected HeaderParser(@NotNull File parsingFile, @NotNull File tempDirectory, boolean keepPreprocessedFile) throws IOException {
 		this.parsingFile = parsingFile;
+		this.keepPreprocessedFile = keepPreprocessedFile;
 		if (tempDirectory.exists() && !tempDirectory.isDirectory()) {
 			throw new IllegalArgumentException("tempDirectory is not a directory");
 		}
@@ -54,6 +83,20 @@ public class HeaderParser {
 		return p.parse();
 	}
 
+	/**
+	 Same as {@link #parse(File, File)}, but the fully preprocessed text will also be kept in a file inside tempDirectory.
+	 This is slower and should only be used for debugging.
+
+	 @param parsingFile the header file to parse
+	 @param tempDirectory a directory
+	 @return the result
+	 */
+	@NotNull
+	public static HeaderFile parseAndKeepPreprocessedFile(@NotNull File parsingFile, @NotNull File tempDirectory) throws IOException, HeaderParseException {
+		HeaderParser p = new HeaderParser(parsingFile, tempDirectory, true);
+		return p.parse();
+	}
+
 	/**@return the header file being parsed (.h, .hh, etc)*/
 	@NotNull
 	public File getParsingFile() {
@@ -66,6 +109,12 @@ public class HeaderParser {
 		return parserContext.getMacros();
 	}
 
+	/** @return every file that was preprocessed (the parsing file and all files included by it). This is empty until {@link #parse()} is done */
+	@NotNull
+	public List<File> getProcessedFiles() {
+		return processedFiles;
+	}
+
 	@NotNull
 	public HeaderFile parse() throws HeaderParseException, FileNotFoundException {
 		try {
@@ -85,15 +134,51 @@ public class HeaderParser {
 		HeaderFile headerFile = new HeaderFile(getParsingFile());
 
 		Preprocessor pre = new Preprocessor(parsingFile, parserContext);
-		Preprocessor.PreprocessorInputStream fileContentStream = pre.run();
+		if (keepPreprocessedFile) {
+			try (Preprocessor.PreprocessorInputStream fileContentStream = pre.run()) {
+				parseText(headerFile, getLexer(fileContentStream));
+			}
+			processedFiles.addAll(pre.processedFiles);
+			return headerFile;
+		}
 
-		parseText(headerFile, fileContentStream);
+		//preprocess on a different thread and lex the output as it is being written
+		PreprocessorPipe pipe = new PreprocessorPipe(PreprocessorPipe.DEFAULT_CAPACITY);
+		Future<?> preprocessing = preprocessorThreadPool.submit(() -> {
+			try (Writer w = pipe.getWriter()) {
+				pre.run(w);
+			}
+			return null;
+		});
+		Reader reader = pipe.getReader();
+		try {
+			parseText(headerFile, getLexer(reader));
+		} catch (Exception e) {
+			reader.close();
+			//a preprocessor error is likely the cause of the parse error, so report that instead
+			waitForPreprocessor(preprocessing);
+			throw e;
+		}
+		reader.close();
+		waitForPreprocessor(preprocessing);
+		processedFiles.addAll(pre.processedFiles);
 
 		return headerFile;
 	}
 
-	private void parseText(@NotNull HeaderFile parsingFile, @NotNull Preprocessor.PreprocessorInputStream fileContentStream) throws HeaderParseException {
-		HeaderAntlrLexer l = getLexer(fileContentStream);
+	/** Wait for the preprocessor to finish and rethrow anything it threw */
+	private void waitForPreprocessor(@NotNull Future<?> preprocessing) throws Exception {
+		try {
+			preprocessing.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void parseText(@NotNull HeaderFile parsingFile, @NotNull HeaderAntlrLexer l) throws HeaderParseException {
 		HeaderAntlrParser p = getParser(new CommonTokenStream(l));
 		l.getErrorListeners().clear();
 		p.getErrorListeners().clear();
@@ -142,6 +227,17 @@ public class HeaderParser {
 		}
 	}
 
+	/** Get a lexer that reads the characters as they are needed, rather than reading everything first */
+	@NotNull
+	private HeaderAntlrLexer getLexer(@NotNull Reader r) {
+		//UnbufferedCharStream reads 1 char at a time, so buffer the reads
+		Reader buffered = new BufferedReader(r, 8192);
+		HeaderAntlrLexer l = new HeaderAntlrLexer(new UnbufferedCharStream(buffered, PreprocessorPipe.DEFAULT_CAPACITY));
+		//the char stream doesn't keep old text, so the token text needs to be copied
+		l.setTokenFactory(new CommonTokenFactory(true));
+		return l;
+	}
+
 
 	public static class HeaderParserErrorListener extends BaseErrorListener {
 		public static final HeaderParserErrorListener INSTANCE = new HeaderParserErrorListener();
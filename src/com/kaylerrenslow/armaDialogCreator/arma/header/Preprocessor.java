@@ -8,19 +8,19 @@ import com.kaylerrenslow.armaDialogCreator.data.HeaderConversionException;
 import com.kaylerrenslow.armaDialogCreator.expression.*;
 import com.kaylerrenslow.armaDialogCreator.gui.uicanvas.ScreenDimension;
 import com.kaylerrenslow.armaDialogCreator.main.Lang;
-import org.intellij.lang.annotations.RegExp;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
-import java.util.Map.Entry;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.ResourceBundle;
-import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  @author Kayler
@@ -28,50 +28,43 @@ import java.util.regex.Pattern;
  @since 03/21/2017 */
 class Preprocessor {
 
-	@RegExp
-	private final String beforeMacro = "^|##|#|[^#a-zA-Z_0-9$]";
-	@RegExp
-	private final String afterMacro = "$|##|#|[^#a-zA-Z_0-9$]";
-	private final Pattern macroReferencePattern = Pattern.compile(
-			String.format(
-					//using ?= so that the pattern doesn't consume tokens (consuming will prevent a future pattern match)
-					"(?<BEFORE>%s)(?<MACRO>%s)(?<PARAMS>%s)?(?=%s)",
-					beforeMacro,
-					"[a-zA-Z_0-9$]+", //identifier
-
-					// Parameters: allow for everything in between (), except ';'
-					// OR allow everything in between () except '(' and ')'
-					"\\(([^;]+|[^()]+)\\)",
-					afterMacro
-			)
-	);
-
-	private final Pattern macroParamOutputTextPattern = Pattern.compile(
-			String.format(
-					"(?<BEFORE>%s)(?<PARAM>%s)(?=%s)",
-					beforeMacro, //before
-					"[a-zA-Z_0-9$]+", //identifier
-					afterMacro //after
-			)
-	);
-
 	/** The file where the preprocessing began */
 	private final File processFile;
 	/** Provided via {@link HeaderParser} */
 	private final HeaderParserContext parserContext;
-	/** Set to true if this preprocessor instance has been run via {@link #run()} */
+	/** Set to true if this preprocessor instance has been run via {@link #run(Writer)} */
 	private boolean preprocessed = false;
 	/** Bundle to get things from */
 	private final ResourceBundle bundle = Lang.getBundle("arma.header.HeaderParserBundle");
 
-	/** Stream to write the fully preprocessed results to. This is currently a {@link FileOutputStream} for {@link #temporaryFullyPreprocessedResultFile} */
-	private final OutputStream writeSteam;
-	private final File temporaryFullyPreprocessedResultFile;
+	/**
+	 Once a file's preprocessed text gets this long (in chars), the text is written to {@link #writeTo} so that
+	 the whole preprocessed file is never held in memory at once
+	 */
+	private static final int FLUSH_THRESHOLD = 1 << 16;
+
+	/** Where to write the fully preprocessed results to. This is only set while {@link #run(Writer)} is running */
+	private Writer writeTo;
+	/** Buffer used for copying preprocessed text into {@link #writeTo} */
+	private final char[] writeBuffer = new char[8192];
 	protected final LinkedList<File> processingFiles = new LinkedList<>();
 	protected final LinkedList<File> processedFiles = new LinkedList<>();
 	protected final LinkedList<PreprocessState> preprocessStack = new LinkedList<>();
-	protected final HashMap<String, DefineValue> defined = new HashMap<>();
+	protected final PreprocessorMacroTable defined = new PreprocessorMacroTable();
 	private final Env preprocessorEnv = new PreprocessorEnv();
+	/** Tokens of each macro's body, which are created the first time the macro is used */
+	private final IdentityHashMap<DefineValue, MacroBody> macroBodies = new IdentityHashMap<>();
+	/** The macros that are being expanded (a macro that references itself isn't expanded again) */
+	private final ArrayList<DefineValue> expanding = new ArrayList<>();
+
+	/** Nothing is before the macro reference (start of the text) */
+	private static final int BEFORE_NOTHING = 0;
+	/** ## is before the macro reference */
+	private static final int BEFORE_GLUE = 1;
+	/** # is before the macro reference */
+	private static final int BEFORE_QUOTE = 2;
+	/** A single character that isn't part of an identifier is before the macro reference */
+	private static final int BEFORE_CHAR = 3;
 
 	private final ExpressionInterpreter expressionInterpreter = ExpressionInterpreter.newInstance();
 
@@ -84,58 +77,90 @@ class Preprocessor {
 	public Preprocessor(@NotNull File processFile, @NotNull HeaderParserContext parserContext) throws IOException {
 		this.processFile = processFile;
 		this.parserContext = parserContext;
+	}
+
+
+	/**
+	 Run the preprocessor, write the output to a temporary file (in {@link HeaderParserContext#getTempDirectory()}),
+	 and get a stream to read the preprocesed output. This is useful for debugging since the preprocessed file is kept.
+	 To skip the temporary file, use {@link #run(Writer)}.
 
-		File preprocessedResults = new File(parserContext.getTempDirectory().getAbsolutePath() + "/" + processFile.getName() + ".preprocessed");
+	 @return preprocessed output
+	 @throws Exception when error occurred
+	 */
+	@NotNull
+	public PreprocessorInputStream run() throws Exception {
+		File preprocessedResults = getTemporaryPreprocessedResultFile();
 		preprocessedResults.createNewFile();
 
-		temporaryFullyPreprocessedResultFile = preprocessedResults;
+		try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(preprocessedResults)), FLUSH_THRESHOLD)) {
+			run(w);
+		}
 
-		writeSteam = new FileOutputStream(temporaryFullyPreprocessedResultFile);
+		return new PreprocessorInputStream(preprocessedResults);
 	}
 
+	/**
+	 Get the macros that are defined before preprocessing starts. The returned map is new on each invocation.
+
+	 @see <a href='https://community.bistudio.com/wiki/PreProcessor_Commands'>PreProcessor Commands</a>
+	 */
+	@NotNull
+	public static Map<String, DefineValue> getPredefinedMacros() {
+		Map<String, DefineValue> macros = new LinkedHashMap<>();
+
+		// With this config parser macro you can evaluate expressions, including previously assigned internal variables.
+		// Unlike with __EXEC, __EVAL supports multiple parentheses
+		macros.put("__EVAL", new ParameterDefineValue(new String[]{"a"}, "a"));// equivalent to #define __EVAL(a) a
+
+		// This keyword gets replaced with the line number in the file where it is found.
+		// For example, if __LINE__ is found on the 10th line of a file, the word __LINE__ will be replaced with the number 10.
+		macros.put("__LINE__", new DefineMacroContent.StringDefineValue("`THIS VALUE SHOULD NOT HAVE BEEN WRITTEN`"));
+
+		//This keyword gets replaced with the CURRENT file being processed.
+		macros.put("__FILE__", new DefineMacroContent.StringDefineValue("`THIS VALUE SHOULD NOT HAVE BEEN WRITTEN`"));
+
+		// This config parser macro allows you to assign values to internal variables. These variables can be used to create complex macros with counters for example.
+		// Also, __EXEC can't write values.
+		//Also, __EXEC supports statements and semicolons, __EVAL doesn't
+		macros.put("__EXEC", new ParameterDefineValue(new String[]{"a"}, "a"));// equivalent to #define __EXEC(a) a
+
+		return macros;
+	}
+
+	/** @return the file that {@link #run()} writes the preprocessed output to */
+	@NotNull
+	public File getTemporaryPreprocessedResultFile() {
+		return new File(parserContext.getTempDirectory().getAbsolutePath() + "/" + processFile.getName() + ".preprocessed");
+	}
 
 	/**
-	 Run the preprocessor and get a stream to read the preprocesed output
+	 Run the preprocessor and write the preprocessed output to the given {@link Writer}. The output is written in
+	 chunks as the preprocessing happens, so the reader of the output can start before preprocessing is done.
+	 The writer will be flushed, but not closed.
 
-	 @return preprocessed output
+	 @param writeTo where to write the preprocessed output
 	 @throws Exception when error occurred
 	 */
-	@NotNull
-	public PreprocessorInputStream run() throws Exception {
+	public void run(@NotNull Writer writeTo) throws Exception {
 		if (preprocessed) {
 			throw new IllegalStateException("preprocessor already run");
 		}
 		preprocessed = true;
 
 		//setup macros that are predefined
-		//https://community.bistudio.com/wiki/PreProcessor_Commands
-		{
-			// With this config parser macro you can evaluate expressions, including previously assigned internal variables.
-			// Unlike with __EXEC, __EVAL supports multiple parentheses
-			defined.put("__EVAL", new ParameterDefineValue(new String[]{"a"}, "a"));// equivalent to #define __EVAL(a) a
-
-			// This keyword gets replaced with the line number in the file where it is found.
-			// For example, if __LINE__ is found on the 10th line of a file, the word __LINE__ will be replaced with the number 10.
-			defined.put("__LINE__", new DefineMacroContent.StringDefineValue("`THIS VALUE SHOULD NOT HAVE BEEN WRITTEN`"));
+		defined.putAll(getPredefinedMacros());
 
-			//This keyword gets replaced with the CURRENT file being processed.
-			defined.put("__FILE__", new DefineMacroContent.StringDefineValue("`THIS VALUE SHOULD NOT HAVE BEEN WRITTEN`"));
+		this.writeTo = writeTo;
+		try {
+			StringBuilderReference br = new StringBuilderReference(new StringBuilder(0));
+			processNow(processFile, null, br);
 
-			// This config parser macro allows you to assign values to internal variables. These variables can be used to create complex macros with counters for example.
-			// Also, __EXEC can't write values.
-			//Also, __EXEC supports statements and semicolons, __EVAL doesn't
-			defined.put("__EXEC", new ParameterDefineValue(new String[]{"a"}, "a"));// equivalent to #define __EXEC(a) a
+			writeTo.flush();
+		} finally {
+			this.writeTo = null;
+			expressionInterpreter.shutdownAndDisable();
 		}
-
-		StringBuilderReference br = new StringBuilderReference(new StringBuilder(0));
-		processNow(processFile, null, br);
-
-		writeSteam.flush();
-		writeSteam.close();
-
-		expressionInterpreter.shutdownAndDisable();
-
-		return new PreprocessorInputStream(temporaryFullyPreprocessedResultFile);
 	}
 
 	/**
@@ -157,11 +182,10 @@ class Preprocessor {
 		StringBuilder oldBuilder = builderReference.getBuilder();
 
 		// Add the old builder's contents. This will be invoked at the start of preprocessing and when an #include has been discovered
-		writeSteam.write(oldBuilder.toString().getBytes());
-		writeSteam.flush();
+		writeOutput(oldBuilder);
 
 		// Create a new builder for the new file.
-		StringBuilder textContent = new StringBuilder((int) toProcess.length());
+		StringBuilder textContent = new StringBuilder((int) Math.min(toProcess.length(), FLUSH_THRESHOLD));
 		builderReference.setBuilder(textContent);
 
 		//update state and place the toProcess file on the processing files stack
@@ -171,11 +195,10 @@ class Preprocessor {
 		//process the file given
 		doProcess(toProcess, builderReference);
 
-		writeSteam.write(builderReference.getBuilder().toString().getBytes());
-		writeSteam.flush();
+		writeOutput(builderReference.getBuilder());
 
-		//reset the builder reference for reading a new part
-		builderReference.setBuilder(new StringBuilder(Math.max(10, oldBuilder.capacity() - oldBuilder.length())));
+		//reset the builder reference for reading a new part (the old builder was emptied when it was written)
+		builderReference.setBuilder(oldBuilder);
 
 		//no longer processing that file, so we can removed from preprocessStack
 		preprocessStack.pop();
@@ -183,6 +206,16 @@ class Preprocessor {
 		processedFiles.add(processingFiles.pop()); //don't worry about duplicate includes. That should be handled elsewhere
 	}
 
+	/** Write all of the builder's text to {@link #writeTo} and then clear the builder */
+	private void writeOutput(@NotNull StringBuilder b) throws IOException {
+		for (int i = 0; i < b.length(); i += writeBuffer.length) {
+			int end = Math.min(b.length(), i + writeBuffer.length);
+			b.getChars(i, end, writeBuffer, 0);
+			writeTo.write(writeBuffer, 0, end - i);
+		}
+		b.setLength(0);
+	}
+
 	/**
 	 Fully preprocess the given file. This method should be invoked after a {@link PreprocessState} is present in {@link #preprocessStack}
 
@@ -192,7 +225,9 @@ class Preprocessor {
 	 @throws Exception when error occurred
 	 */
 	private void doProcess(@NotNull File processFile, @NotNull StringBuilderReference fileContent) throws Exception {
-		Scanner scan = new Scanner(processFile);
+		LineScanner scan = new LineScanner(processFile);
+		PreprocessorLexer lexer = new PreprocessorLexer();
+		PreprocessorTokenList lineTokens = new PreprocessorTokenList(256);
 		String line;
 
 		int ifCount = 0; //>0 if current line is inside (#ifdef or #ifndef) and before #endif
@@ -204,78 +239,34 @@ class Preprocessor {
 		int ifType = IF_UNSET;
 
 		while (scan.hasNextLine()) {
+			if (fileContent.getBuilder().length() >= FLUSH_THRESHOLD) {
+				writeOutput(fileContent.getBuilder());
+			}
 			incrementLineNumber();
 			line = scan.nextLine();
 
-			if (!startsWithIgnoreSpace(line, "#")) {
+			//lines inside of a block comment are never macros
+			if (lexer.isInBlockComment() || !startsWithIgnoreSpace(line, "#")) {
 				boolean write = false;
-				if (ifCount > 0) {
-					if (useIfTrueCond && !discoveredElse) {
-						write = true;
-					} else if (!useIfTrueCond && discoveredElse) {
-						write = true;
-					}
-				} else {
+				if (lexer.isInBlockComment() || ifCount <= 0) {
+					write = true;
+				} else if (useIfTrueCond && !discoveredElse) {
+					write = true;
+				} else if (!useIfTrueCond && discoveredElse) {
 					write = true;
 				}
 				if (write) {
-
-					//exclude preprocessing comments
-					int indexOfLineComment = line.indexOf("//");
-					int indexOfBlockComment = line.indexOf("/*");
-					final boolean hasLineComment = indexOfLineComment >= 0;
-					final boolean hasBlockComment = indexOfBlockComment >= 0;
-					if (hasLineComment && (!hasBlockComment || indexOfLineComment < indexOfBlockComment)) {
-						//if line comment comes before a block comment, let the line comment take priority
-
-						//is line comment
-						if (indexOfLineComment == 0) {
-							fileContent.append(line);
-						} else {
-							preprocessText(line.substring(0, indexOfLineComment), fileContent);
-							fileContent.append(line.substring(indexOfLineComment));
-						}
-						fileContent.append('\n');
-
-					} else if (hasBlockComment && (!hasLineComment || indexOfBlockComment < indexOfLineComment)) {
-						//if line block comment comes before a line comment, let the block comment take priority
-
-						//is block comment
-						int end = line.indexOf("*/");
-						boolean endOfCommentOnSameLine = end >= 0;
-
-						if (indexOfBlockComment > 0 && endOfCommentOnSameLine) {
-							preprocessText(line.substring(0, indexOfBlockComment), fileContent);
-						}
-
-						if (endOfCommentOnSameLine) {
-							//write the comment
-							fileContent.append(line, indexOfBlockComment, end);
-						}
-
-						//if end is < 0, end of block comment is on different line
-						while (end < 0 && scan.hasNextLine()) {
-							fileContent.append(line);
-							fileContent.append('\n');
-							line = scan.nextLine();
-							incrementLineNumber();
-							end = line.indexOf("*/");
-						}
-						if (end > 0 && !endOfCommentOnSameLine) {
-							//write the text that comes before */
-							fileContent.append(line, 0, end);
-						}
-						fileContent.append("*/");
-						//here, we have made it past the block comment
-						//now preprocess the rest of the line
-						String noCommentLine = line.substring(end + 2); //end + 2 to skip past */
-						preprocessText(noCommentLine, fileContent);
-
-						fileContent.append('\n');
-					} else {
-						preprocessText(line, fileContent);
-						fileContent.append('\n');
+					lineTokens.clear();
+					lexer.clearOpenParenthesis();
+					lexer.lexLine(line, lineTokens);
+					//the arguments of a macro can span lines, but a line can't be part of them if it is a macro itself
+					while (hasOpenMacroArguments(lineTokens, lexer) && scan.hasNextLine() && !startsWithIgnoreSpace(scan.peekLine(), "#")) {
+						incrementLineNumber();
+						lineTokens.append('\n');
+						lexer.lexLine(scan.nextLine(), lineTokens);
 					}
+					preprocessTokens(lineTokens, fileContent);
+					fileContent.append('\n');
 				}
 				continue;
 			}
@@ -456,81 +447,114 @@ class Preprocessor {
 	}
 
 	/**
-	 Fully preprocess the given text and write the result to <code>writeTo</code>
+	 Preprocess the tokens of a line (or lines, if the arguments of a macro span lines) and write the result to <code>writeTo</code>.
+	 Comments are written as they are. The text between comments is preprocessed with
+	 {@link #preprocessTokens(PreprocessorTokenList, int, int, StringBuilderReference)}.
 
-	 @param base the unprocessed line to preprocess
+	 @param tokens the tokens of the line from {@link PreprocessorLexer}
 	 @param writeTo where to write results
 	 @throws HeaderParseException when error occurred
 	 */
-	private void preprocessText(@NotNull String base, @NotNull StringBuilderReference writeTo) throws HeaderParseException {
-		if (defined.size() == 0) {
-			writeTo.append(base);
-			return;
+	private void preprocessTokens(@NotNull PreprocessorTokenList tokens, @NotNull StringBuilderReference writeTo) throws HeaderParseException {
+		int runStart = 0;
+		for (int i = 0; i < tokens.size(); i++) {
+			if (tokens.kind(i) != PreprocessorTokenList.COMMENT) {
+				continue;
+			}
+			preprocessTokens(tokens, runStart, i, writeTo);
+			writeTo.append(tokens.getText(), tokens.start(i), tokens.end(i));
+			runStart = i + 1;
 		}
+		preprocessTokens(tokens, runStart, tokens.size(), writeTo);
+	}
 
-		Matcher m = macroReferencePattern.matcher(base);
-
-		int baseInd = 0;
-		while (m.find()) {
+	/**
+	 Fully preprocess the tokens in <code>[from, to)</code> and write the result to <code>writeTo</code>. None of the tokens can be a comment.
+	 <p>
+	 Each token is only looked at once. When a macro is expanded, its body is preprocessed from the tokens that were created for
+	 the body the first time the macro was used ({@link #getMacroBody(DefineValue)}), and the arguments of a parameter macro are copied
+	 into the body as tokens ({@link #writeParameterMacro(PreprocessorTokenList, int, int, ParameterDefineValue, StringBuilderReference)}).
+	 So, text is never tokenized a second time. A macro isn't expanded inside of its own body, so a macro that references itself
+	 can't recurse forever.
+	 <p>
+	 What comes before a macro reference matters:
+	 <ul>
+	 <li>#MACRO - the macro's body is put in quotes</li>
+	 <li>##MACRO or MACRO## - the ## is removed, so the body is glued to the text next to it</li>
+	 </ul>
 
-			//write everything that precedes the matched input
-			if (baseInd < m.start()) {
-				writeTo.append(base, baseInd, m.start());
-				baseInd = m.start();
+	 @param tokens tokens to read from
+	 @param from index of the first token
+	 @param to index after the last token
+	 @param writeTo where to write results
+	 @throws HeaderParseException when error occurred
+	 */
+	private void preprocessTokens(@NotNull PreprocessorTokenList tokens, int from, int to, @NotNull StringBuilderReference writeTo) throws HeaderParseException {
+		if (from >= to) {
+			return;
+		}
+		final CharSequence text = tokens.getText();
+		final int runStart = tokens.start(from);
+		final int runEnd = tokens.end(to - 1);
+		int written = runStart; //everything before this index has been written
+		int searchFrom = runStart; //what comes before an identifier can't be before this index
+
+		for (int i = from; i < to; i++) {
+			if (tokens.kind(i) != PreprocessorTokenList.IDENTIFIER) {
+				continue;
 			}
-
-			String macroName = m.group("MACRO");
-			Entry<String, DefineValue> matchedEntry = null;
-			for (Entry<String, DefineValue> entry : defined.entrySet()) {
-				if (entry.getKey().equals(macroName)) {
-					matchedEntry = entry;
-					break;
-				}
+			final int identStart = tokens.start(i);
+			final int identEnd = tokens.end(i);
+			if (identStart < searchFrom) {
+				//inside of the arguments of a macro that was just expanded
+				continue;
 			}
+			final int beforeType = getBeforeType(text, runStart, searchFrom, identStart);
+			searchFrom = identEnd;
 
-			if (matchedEntry == null) {
+			DefineValue value = defined.get(text, identStart, identEnd);
+			if (value == null || isExpanding(value)) {
 				continue;
 			}
-
-			String before = m.group("BEFORE");
-			String parameterText = m.group("PARAMS");
-
-			if (matchedEntry.getValue() instanceof ParameterDefineValue) {
-				if (parameterText == null) {
-					continue;
-				}
+			final int argumentsEnd = findArgumentsEnd(text, identEnd, runEnd);
+			if (value instanceof ParameterDefineValue && argumentsEnd < 0) {
+				continue;
 			}
 
-			boolean quote = false;
-
-			if (before.equals("#")) {
-				quote = true;
-				writeTo.append('"');
-			} else if (!before.equals("##")) {
-				writeTo.append(before);
+			//write everything that precedes the reference
+			final int beforeStart = getBeforeStart(beforeType, identStart);
+			if (written < beforeStart) {
+				writeTo.append(text, written, beforeStart);
+			}
+			switch (beforeType) {
+				case BEFORE_QUOTE: {
+					writeTo.append('"');
+					break;
+				}
+				case BEFORE_CHAR: {
+					writeTo.append(text.charAt(beforeStart));
+					break;
+				}
+				//nothing is written for ## or the start of the text
 			}
 
-			//write replacement
-			writeDefineValue(matchedEntry, parameterText, writeTo);
+			writeMacro(tokens, identStart, identEnd, argumentsEnd, value, writeTo);
 
-			if (quote) {
+			if (beforeType == BEFORE_QUOTE) {
 				writeTo.append('"');
 			}
 
-			if (parameterText != null) {
-				baseInd = m.end("PARAMS");
-			} else {
-				baseInd = m.end("MACRO");
-			}
+			written = argumentsEnd >= 0 ? argumentsEnd : identEnd;
+			searchFrom = written;
 
 			//skip past ## if it exists
-			if (baseInd + 1 < base.length() && base.charAt(baseInd) == '#' && base.charAt(baseInd + 1) == '#') {
-				baseInd += 2;
+			if (written + 1 < runEnd && text.charAt(written) == '#' && text.charAt(written + 1) == '#') {
+				written += 2;
 			}
 		}
 
-		if (baseInd < base.length()) {
-			writeTo.append(base, baseInd, base.length());
+		if (written < runEnd) {
+			writeTo.append(text, written, runEnd);
 		}
 	}
 
@@ -541,160 +565,329 @@ class Preprocessor {
 	 <li><code>#define D_ARG(ARG) #ARG</code> - body is #ARG. Macro key is D_ARG This is also a parameter macro.</li>
 	 </ul>
 
-	 @param entry the entry that contains the macro key and the macro body stored in a {@link DefineValue} instance
-	 @param parameterText the text that the user put inside the parameter macro.
-	 This value should be null if not writing a parameter macro and should not be null if writing a parameter macro.
-	 Example parameterText: (with D_ARG example above): D_ARG(42) and parameter text is (42)<br>
-	 Another example : MACRO(parameterText,goes,between,these,parenthesis)
+	 @param tokens tokens that contain the macro reference
+	 @param identStart start index of the macro key in the text of <code>tokens</code>
+	 @param identEnd end index of the macro key
+	 @param argumentsEnd index after the ')' of the arguments, or -1 if there are no arguments.
+	 There must be arguments for a parameter macro. Example: D_ARG(42) has arguments (42)
+	 @param value the macro body
 	 @param writeTo where to write the preprocessed body to
 	 @throws HeaderParseException when an error occurred
 	 */
-	private void writeDefineValue(@NotNull Entry<String, DefineValue> entry, @Nullable String parameterText, @NotNull StringBuilderReference writeTo) throws HeaderParseException {
-		//This method will write a macro's body and then recursively call preprocessText() on the macro body to handle any possible nested macro references.
-		//It will do that by having a "buffer" StringBuilderReference that this method will write to. Then the buffer's text content will be passed into preprocessText().
-		//There should not be stack overflow because preprocessText() will invoke this method only when a macro was matched in its input parameter
-
-		//In the case that the given macro is a parameter macro, the parameter's of the macro will be written with the body, and THEN preprocessText() will be invoked.
-		//So, it is a possible scenario that a parameter macro will write a body that happens to be a predefined macro name.
-		//Example:
-		// #define ARG 1
-		// #define PARAM(A) A#RG
-		// f=PARAM(A) // will result in f=1
-		//
-		//In Arma 3, the output will not be f=1, but it isn't clear what happens behind the scenes and this outcome makes the most sense for our code.
-		//So this is the intended outcome.
-
-		StringBuilderReference buffer = new StringBuilderReference(new StringBuilder());
-
-		String entryValueText = entry.getValue().getText();
-
-		if (entry.getValue() instanceof ParameterDefineValue) {
-			if (parameterText == null) {
-				throw new IllegalArgumentException("parameterText should not be null if entry is a ParameterDefineValue");
+	private void writeMacro(@NotNull PreprocessorTokenList tokens, int identStart, int identEnd, int argumentsEnd, @NotNull DefineValue value,
+							@NotNull StringBuilderReference writeTo) throws HeaderParseException {
+		final CharSequence text = tokens.getText();
+		//only the predefined macros need the name
+		String macroName = identEnd - identStart > 2 && text.charAt(identStart) == '_' && text.charAt(identStart + 1) == '_' ?
+				text.subSequence(identStart, identEnd).toString() : "";
+
+		if (value instanceof ParameterDefineValue) {
+			if (argumentsEnd < 0) {
+				throw new IllegalArgumentException("argumentsEnd should not be -1 if value is a ParameterDefineValue");
 			}
-
-			if (entry.getKey().equals("__EXEC")) {
-				handle__Exec(get__ExecBody(parameterText));
+			if (macroName.equals("__EXEC")) {
+				handle__Exec(text.subSequence(identEnd + 1, argumentsEnd - 1).toString());
 				return;
 			}
-
-			if (entry.getKey().equals("__EVAL")) {
-				handle__Eval(parameterText, writeTo);
+			if (macroName.equals("__EVAL")) {
+				writeTo.append(evaluate__Eval(text.subSequence(identEnd, argumentsEnd).toString()));
 				return;
 			}
+			writeParameterMacro(tokens, identEnd, argumentsEnd, (ParameterDefineValue) value, writeTo);
+			return;
+		}
 
-			ParameterDefineValue paramDefineValue = (ParameterDefineValue) entry.getValue();
+		if (argumentsEnd >= 0) {
+			error(bundle.getString("Error.Preprocessor.Parse.unexp_lparen"));
+		}
 
-			ParameterDefineValue parameterValue = (ParameterDefineValue) entry.getValue();
-			String[] args = parameterText.substring(1, parameterText.length() - 1).split(",");
-			final int numParams = parameterValue.getParams().length;
-			if (args.length != numParams) {
-				error(String.format(bundle.getString("Error.Preprocessor.Parse.wrong_amount_of_params_f"), numParams, args.length));
+		PreprocessorTokenList body;
+		switch (macroName) {
+			case "__LINE__": {
+				body = PreprocessorTokenList.of(currentState().lineNumber + "");
+				break;
 			}
-
-			for (int i = 0; i < args.length; i++) {
-				args[i] = args[i].trim();
+			case "__FILE__": {
+				body = PreprocessorTokenList.of(currentState().processingFile.getName());
+				break;
 			}
+			default: {
+				body = getMacroBody(value).getTokens();
+				break;
+			}
+		}
+		//handle any macro references inside of the body
+		expanding.add(value);
+		try {
+			preprocessTokens(body, 0, body.size(), writeTo);
+		} finally {
+			expanding.remove(expanding.size() - 1);
+		}
+	}
 
-			Matcher m = macroParamOutputTextPattern.matcher(entryValueText);
+	/**
+	 Write the preprocessed body of a parameter macro to <code>writeTo</code>. The arguments are put into the body as tokens, and then
+	 the result is preprocessed to handle any macro references that are in the body or in the arguments.
+	 <p>
+	 The arguments are put into the body like this:
+	 <ul>
+	 <li>#PARAM - the argument is put in quotes</li>
+	 <li>PARAM##text or text##PARAM - the ## is removed, so the argument is glued to the text next to it</li>
+	 <li>If the argument is the key of a macro (TEST(ANOTHER_MACRO)), the argument is the other macro's body</li>
+	 <li>If the argument is __EVAL(...), the argument is the evaluated value</li>
+	 </ul>
+	 Since the body is preprocessed after the arguments are put in, a parameter macro can write a body that happens to be a macro key.
+	 Example:
+	 <pre>
+	 #define ARG 1
+	 #define PARAM(A) A#RG
+	 f=PARAM(A) // will result in f=1
+	 </pre>
+	 In Arma 3, the output will not be f=1, but it isn't clear what happens behind the scenes and this outcome makes the most sense for our code.
+	 So this is the intended outcome.
+
+	 @param tokens tokens that contain the macro reference
+	 @param argumentsStart index of the '(' of the arguments in the text of <code>tokens</code>
+	 @param argumentsEnd index after the ')' of the arguments
+	 @param value the macro
+	 @param writeTo where to write the preprocessed body to
+	 @throws HeaderParseException when an error occurred
+	 */
+	private void writeParameterMacro(@NotNull PreprocessorTokenList tokens, int argumentsStart, int argumentsEnd, @NotNull ParameterDefineValue value,
+									 @NotNull StringBuilderReference writeTo) throws HeaderParseException {
+		final CharSequence text = tokens.getText();
+		//start and end index of each argument
+		int[] args = splitArguments(text, argumentsStart + 1, argumentsEnd - 1);
+		final int numParams = value.getParams().length;
+		if (args.length / 2 != numParams) {
+			error(String.format(bundle.getString("Error.Preprocessor.Parse.wrong_amount_of_params_f"), numParams, args.length / 2));
+		}
 
-			int ind = 0;
-			while (m.find()) {
-				String param = m.group("PARAM");
-				String before = m.group("BEFORE");
+		MacroBody body = getMacroBody(value);
+		PreprocessorTokenList bodyTokens = body.getTokens();
+		CharSequence bodyText = bodyTokens.getText();
+		PreprocessorTokenList result = new PreprocessorTokenList(bodyText.length() + argumentsEnd - argumentsStart);
 
-				boolean quote = false;
-				if (before.equals("#")) {
-					quote = true;
+		int ind = 0;
+		int searchFrom = 0;
+		for (int i = 0; i < bodyTokens.size(); i++) {
+			if (bodyTokens.kind(i) != PreprocessorTokenList.IDENTIFIER) {
+				continue;
+			}
+			final int start = bodyTokens.start(i);
+			final int beforeType = getBeforeType(bodyText, 0, searchFrom, start);
+			searchFrom = bodyTokens.end(i);
+			final boolean quote = beforeType == BEFORE_QUOTE;
+
+			if (ind < start) {
+				//# and ## are removed
+				int copyEnd = quote || beforeType == BEFORE_GLUE ? getBeforeStart(beforeType, start) : start;
+				if (ind < copyEnd) {
+					result.append(bodyTokens, ind, copyEnd);
 				}
+				ind = start;
+			}
 
-				{
-					int start = m.start("PARAM");
+			int param = body.getParameterIndex(i);
+			if (param < 0) {
+				continue;
+			}
+			ind = bodyTokens.end(i);
 
-					if (ind < start) {
-						if (quote || before.equals("##")) {
-							int startBefore = m.start("BEFORE");
-							buffer.append(entryValueText, ind, startBefore);
-						} else {
-							buffer.append(entryValueText, ind, start);
-						}
-						ind = start;
-					}
-				}
+			final int argStart = args[param * 2];
+			final int argEnd = args[param * 2 + 1];
+			if (startsWith(text, argStart, argEnd, "__EVAL(")) {
+				//NOTE we don't need to handle __EXEC because you can't have semicolons in __EVAL
+				result.append(evaluate__Eval(get__EvalBody(text.subSequence(argStart, argEnd).toString())));
+				continue;
+			}
+			if (quote) {
+				result.append('"');
+			}
+			DefineValue argMacro = defined.get(text, argStart, argEnd);
+			if (argMacro != null) {
+				PreprocessorTokenList argMacroTokens = getMacroBody(argMacro).getTokens();
+				result.append(argMacroTokens, 0, argMacroTokens.getText().length());
+			} else {
+				result.append(tokens, argStart, argEnd);
+			}
+			if (quote) {
+				result.append('"');
+			}
+			if (ind + 1 < bodyText.length() && bodyText.charAt(ind) == '#' && bodyText.charAt(ind + 1) == '#') {
+				ind += 2;
+			}
+		}
+		if (ind < bodyText.length()) {
+			result.append(bodyTokens, ind, bodyText.length());
+		}
 
-				int paramInd = 0;
-				boolean found = false;
-				for (String paramDefined : paramDefineValue.getParams()) {
-					if (param.equals(paramDefined)) {
-						found = true;
-						break;
-					}
-					paramInd++;
-				}
-				if (!found) {
-					continue;
-				}
-				ind = m.end("PARAM");
-
-				String paramArg = args[paramInd];
-				if (startsWithIgnoreSpace(paramArg, "__EVAL(")) {
-					//NOTE we don't need to handle __EXEC because you can't have semicolons in __EVAL
-					handle__Eval(get__EvalBody(paramArg), buffer);
-				} else {
-					//check if paramArg is a macro itself like: TEST(ANOTHER_MACRO)
-					for (Entry<String, DefineValue> entry1 : defined.entrySet()) {
-						if (entry1 instanceof ParameterDefineValue) {
-							continue;
-						}
-						if (entry1.getKey().equals(paramArg)) {
-							paramArg = entry1.getValue().getText();
-							break;
-						}
-					}
-					if (quote) {
-						buffer.append('"');
-					}
+		//handle any macro references after the arguments were put in the body
+		expanding.add(value);
+		try {
+			preprocessTokens(result, 0, result.size(), writeTo);
+		} finally {
+			expanding.remove(expanding.size() - 1);
+		}
+	}
 
-					buffer.append(paramArg);
-					if (quote) {
-						buffer.append('"');
-					}
+	/** @return the tokens of the macro's body. The body is only tokenized the first time. */
+	@NotNull
+	private MacroBody getMacroBody(@NotNull DefineValue value) {
+		MacroBody body = macroBodies.get(value);
+		if (body == null) {
+			body = new MacroBody(value);
+			macroBodies.put(value, body);
+		}
+		return body;
+	}
 
-					if (ind + 1 < entryValueText.length() && entryValueText.charAt(ind) == '#' && entryValueText.charAt(ind + 1) == '#') {
-						ind += 2;
-					}
-				}
+	/** @return true if the macro is being expanded, which means that it can't be expanded again until it is done */
+	private boolean isExpanding(@NotNull DefineValue value) {
+		for (DefineValue expandingValue : expanding) {
+			if (expandingValue == value) {
+				return true;
+			}
+		}
+		return false;
+	}
 
+	/**
+	 @return true if the lexer ended the line inside of the arguments of a parameter macro (a '(' right after a parameter macro's key
+	 hasn't been closed)
+	 */
+	private boolean hasOpenMacroArguments(@NotNull PreprocessorTokenList tokens, @NotNull PreprocessorLexer lexer) {
+		for (int i = 0; i < lexer.getOpenParenthesisCount(); i++) {
+			int paren = lexer.getOpenParenthesis(i);
+			int token = tokens.tokenAt(paren);
+			if (token <= 0 || tokens.start(token) != paren || tokens.kind(token - 1) != PreprocessorTokenList.IDENTIFIER) {
+				continue;
 			}
-			if (ind < entryValueText.length()) {
-				buffer.append(entryValueText, ind, entryValueText.length());
+			if (defined.get(tokens.getText(), tokens.start(token - 1), paren) instanceof ParameterDefineValue) {
+				return true;
 			}
+		}
+		return false;
+	}
 
-		} else {
-			if (parameterText != null) {
-				error(bundle.getString("Error.Preprocessor.Parse.unexp_lparen"));
+	/**
+	 @return what comes before the identifier that starts at <code>identStart</code> ({@link #BEFORE_NOTHING}, {@link #BEFORE_GLUE},
+	 {@link #BEFORE_QUOTE}, or {@link #BEFORE_CHAR})
+	 */
+	private static int getBeforeType(@NotNull CharSequence text, int textStart, int searchFrom, int identStart) {
+		if (identStart == textStart) {
+			return BEFORE_NOTHING;
+		}
+		if (identStart - 2 >= searchFrom && text.charAt(identStart - 1) == '#' && text.charAt(identStart - 2) == '#') {
+			return BEFORE_GLUE;
+		}
+		if (text.charAt(identStart - 1) == '#') {
+			return BEFORE_QUOTE;
+		}
+		return BEFORE_CHAR;
+	}
+
+	/** @return index where what comes before the identifier starts */
+	private static int getBeforeStart(int beforeType, int identStart) {
+		switch (beforeType) {
+			case BEFORE_NOTHING: {
+				return identStart;
+			}
+			case BEFORE_GLUE: {
+				return identStart - 2;
+			}
+			default: {
+				return identStart - 1;
 			}
+		}
+	}
 
-			switch (entry.getKey()) {
-				case "__LINE__": {
-					buffer.append(currentState().lineNumber + "");
-					break;
+	/**
+	 @param identEnd the index after a macro key
+	 @param end index where the text ends
+	 @return the index after the ')' that closes the '(' at <code>identEnd</code>, or -1 if there are no arguments at <code>identEnd</code>.
+	 Empty parenthesis and parenthesis that are followed by an identifier (like <code>N(0)word</code>) aren't arguments.
+	 */
+	private static int findArgumentsEnd(@NotNull CharSequence text, int identEnd, int end) {
+		if (identEnd >= end || text.charAt(identEnd) != '(') {
+			return -1;
+		}
+		int depth = 0;
+		boolean inString = false;
+		for (int i = identEnd; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '"') {
+				inString = !inString;
+			} else if (!inString) {
+				if (c == '(') {
+					depth++;
+				} else if (c == ')' && --depth == 0) {
+					if (i == identEnd + 1 || (i + 1 < end && PreprocessorMacroTable.isIdentifierChar(text.charAt(i + 1)))) {
+						return -1;
+					}
+					return i + 1;
 				}
-				case "__FILE__": {
-					buffer.append(currentState().processingFile.getName());
-					break;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 Split the arguments of a macro at each comma that isn't inside of parenthesis or a string.
+
+	 @return the start and end index of each argument (trimmed), one after another
+	 */
+	@NotNull
+	private static int[] splitArguments(@NotNull CharSequence text, int start, int end) {
+		int[] args = new int[8];
+		int count = 0;
+		int depth = 0;
+		boolean inString = false;
+		int argStart = start;
+		for (int i = start; i <= end; i++) {
+			char c = i < end ? text.charAt(i) : ',';
+			if (c == '"') {
+				inString = !inString;
+				continue;
+			}
+			if (inString && i < end) {
+				continue;
+			}
+			if (c == '(') {
+				depth++;
+			} else if (c == ')') {
+				depth--;
+			} else if (c == ',' && (depth <= 0 || i == end)) {
+				int argEnd = i;
+				//trim like String.trim()
+				while (argStart < argEnd && text.charAt(argStart) <= ' ') {
+					argStart++;
 				}
-				default: {
-					buffer.append(entryValueText);
-					break;
+				while (argEnd > argStart && text.charAt(argEnd - 1) <= ' ') {
+					argEnd--;
+				}
+				if (count + 2 > args.length) {
+					args = Arrays.copyOf(args, args.length * 2);
 				}
+				args[count++] = argStart;
+				args[count++] = argEnd;
+				argStart = i + 1;
 			}
-
 		}
+		return Arrays.copyOf(args, count);
+	}
 
-		//this recursive call is to handle any possible macro references after the body of this macro was written
-		preprocessText(buffer.toString(), writeTo);
-
+	/** @return true if <code>text[start, end)</code> starts with <code>prefix</code> */
+	private static boolean startsWith(@NotNull CharSequence text, int start, int end, @NotNull String prefix) {
+		if (end - start < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (text.charAt(start + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/** @return the text between parentheses of __EVAL() (and will not include the parentheses) */
@@ -704,19 +897,13 @@ class Preprocessor {
 		return __evalMacro.substring(eval, __evalMacro.length() - 1);
 	}
 
-	/** @return the text between parentheses of __EXEC() (and will not include the parentheses) */
+	/** Evaluate __EVAL(<code>parameterText</code>) and return the value as text */
 	@NotNull
-	private String get__ExecBody(@NotNull String __execMacro) {
-		final int exec = 7; //length of __EXEC(
-		return __execMacro.substring(exec, __execMacro.length() - 1);
-	}
-
-	/** Evaluate __EVAL(<code>parameterText</code>) and write it to <code>writeTo</code> */
-	private void handle__Eval(@Nullable String parameterText, @NotNull Preprocessor.StringBuilderReference writeTo) throws HeaderParseException {
+	private String evaluate__Eval(@Nullable String parameterText) throws HeaderParseException {
 		try {
 			Value value = expressionInterpreter.evaluate(parameterText, preprocessorEnv).get(10, TimeUnit.SECONDS); //.get() to block until eval is done
 			//if value is a decimal, the toString method should properly use DecimalFormat on the number for getting a String
-			writeTo.append(value.toString());
+			return value.toString();
 		} catch (Exception e) {
 			if (e instanceof InterruptedException) {
 				throw new HeaderParseException(String.format(bundle.getString("Error.Preprocessor.Parse.evaluate_timer_end_f"), parameterText));
@@ -787,7 +974,7 @@ class Preprocessor {
 	public class PreprocessorEnv extends SimpleEnv {
 
 		/** Instead of constantly computing a macro's body as an expression, cache the values calculated. */
-		private HashMap<Entry<String, DefineValue>, Value> cachedValues = new HashMap<>();
+		private final IdentityHashMap<DefineValue, Value> cachedValues = new IdentityHashMap<>();
 
 		public PreprocessorEnv() {
 			super(new UnaryCommandValueProviderImpl());
@@ -808,34 +995,76 @@ class Preprocessor {
 		}
 
 		private Value getValueFromDefined(@NotNull String identifier) {
-			for (Entry<String, DefineValue> defined : defined.entrySet()) {
-				if (identifier.equals(defined.getKey())) {
-					Value value = cachedValues.computeIfAbsent(
-							defined,
-							stringDefineValueEntry -> {
-								if (defined.getValue() instanceof ParameterDefineValue) {
-									//a parameter macro should not exist inside __EVAL or __EXEC
-									throw new RuntimeException(parseException(bundle.getString("Error.Preprocessor.Parse.unexpected_parameter_macro")));
-								}
-								DefineMacroContent.StringDefineValue sdv = (DefineMacroContent.StringDefineValue) defined.getValue();
-								try {
-									return expressionInterpreter.evaluate(sdv.getText(), preprocessorEnv).get();
-								} catch (Exception e) {
-									throw new RuntimeException(
-											String.format(bundle.getString("Error.Preprocessor.Parse.couldnt_evaluate_macro_body_f"), sdv.getText()),
-											e
-									);
-								}
-							}
-					);
-					return value;
-				}
+			DefineValue definedValue = defined.get(identifier);
+			if (definedValue == null) {
+				return null;
+			}
+			Value value = cachedValues.get(definedValue);
+			if (value != null) {
+				return value;
+			}
+			if (definedValue instanceof ParameterDefineValue) {
+				//a parameter macro should not exist inside __EVAL or __EXEC
+				throw new RuntimeException(parseException(bundle.getString("Error.Preprocessor.Parse.unexpected_parameter_macro")));
+			}
+			DefineMacroContent.StringDefineValue sdv = (DefineMacroContent.StringDefineValue) definedValue;
+			try {
+				//evaluate on this thread since this is invoked while __EVAL or __EXEC is being evaluated
+				value = expressionInterpreter.evaluateNow(sdv.getText(), preprocessorEnv);
+			} catch (Exception e) {
+				throw new RuntimeException(
+						String.format(bundle.getString("Error.Preprocessor.Parse.couldnt_evaluate_macro_body_f"), sdv.getText()),
+						e
+				);
 			}
-			return null;
+			//don't use computeIfAbsent since the evaluation may look up other macros and modify the map
+			cachedValues.put(definedValue, value);
+			return value;
 		}
 	}
 
 
+	/** Tokens of a macro's body, and for a parameter macro, which tokens are parameters */
+	private static class MacroBody {
+		private final PreprocessorTokenList tokens;
+		/** Index of the parameter for each token, or -1 if the token isn't a parameter. Null if not a parameter macro */
+		private final int[] parameterIndexes;
+
+		public MacroBody(@NotNull DefineValue value) {
+			this.tokens = PreprocessorTokenList.of(value.getText());
+			if (!(value instanceof ParameterDefineValue)) {
+				parameterIndexes = null;
+				return;
+			}
+			String[] params = ((ParameterDefineValue) value).getParams();
+			CharSequence text = tokens.getText();
+			parameterIndexes = new int[tokens.size()];
+			for (int i = 0; i < tokens.size(); i++) {
+				parameterIndexes[i] = -1;
+				if (tokens.kind(i) != PreprocessorTokenList.IDENTIFIER) {
+					continue;
+				}
+				int length = tokens.end(i) - tokens.start(i);
+				for (int param = 0; param < params.length; param++) {
+					if (params[param].length() == length && startsWith(text, tokens.start(i), tokens.end(i), params[param])) {
+						parameterIndexes[i] = param;
+						break;
+					}
+				}
+			}
+		}
+
+		@NotNull
+		public PreprocessorTokenList getTokens() {
+			return tokens;
+		}
+
+		/** @return index of the parameter for the token, or -1 if the token isn't a parameter */
+		public int getParameterIndex(int token) {
+			return parameterIndexes == null ? -1 : parameterIndexes[token];
+		}
+	}
+
 	protected static class PreprocessState {
 		private int lineNumber = 0;
 		private final File processingFile;
@@ -860,6 +1089,45 @@ class Preprocessor {
 		return s.startsWith(prefix);
 	}
 
+	/** A {@link java.util.Scanner#nextLine()} like reader that is backed by a {@link BufferedReader}, which is much faster than {@link java.util.Scanner} */
+	private static class LineScanner implements Closeable {
+		private final BufferedReader reader;
+		private String nextLine;
+
+		public LineScanner(@NotNull File file) throws IOException {
+			this.reader = new BufferedReader(new FileReader(file), 1 << 16);
+		}
+
+		public boolean hasNextLine() throws IOException {
+			if (nextLine == null) {
+				nextLine = reader.readLine();
+			}
+			return nextLine != null;
+		}
+
+		/** @return the next line without moving past it, or null if there are no more lines */
+		@Nullable
+		public String peekLine() throws IOException {
+			hasNextLine();
+			return nextLine;
+		}
+
+		@NotNull
+		public String nextLine() throws IOException {
+			if (!hasNextLine()) {
+				throw new NoSuchElementException();
+			}
+			String line = nextLine;
+			nextLine = null;
+			return line;
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+	}
+
 	static class StringBuilderReference {
 		private StringBuilder b;
 
@@ -887,7 +1155,7 @@ class Preprocessor {
 		}
 
 		/** @see StringBuilder#append(CharSequence, int, int) */
-		public void append(String s, int start, int end) {
+		public void append(CharSequence s, int start, int end) {
 			b.append(s, start, end);
 		}
 
@@ -933,12 +1201,17 @@ class Preprocessor {
 
 		@Override
 		public int read(@NotNull byte[] b) throws IOException {
-			return super.read(b);
+			return fis.read(b);
 		}
 
 		@Override
 		public int read(@NotNull byte[] b, int off, int len) throws IOException {
-			return super.read(b, off, len);
+			return fis.read(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			fis.close();
 		}
 
 		@Override
@@ -0,0 +1,122 @@
+package com.kaylerrenslow.armaDialogCreator.arma.header;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+import static com.kaylerrenslow.armaDialogCreator.arma.header.PreprocessorMacroTable.isIdentifierChar;
+import static com.kaylerrenslow.armaDialogCreator.arma.header.PreprocessorTokenList.*;
+
+/**
+ Tokenizes the lines of a header file for the {@link Preprocessor}. Each char is looked at once, and the state is kept between lines:
+ <ul>
+ <li>A block comment can span lines. The lines that are inside of it are a {@link PreprocessorTokenList#COMMENT}.</li>
+ <li>The parenthesis that are still open at the end of a line are remembered (see {@link #getOpenParenthesisCount()}), so that
+ the arguments of a macro can span lines.</li>
+ <li>// and /* inside of a double quoted string don't start a comment, and parenthesis inside of a string aren't counted.
+ Like in a config, a string ends at the end of a line.</li>
+ </ul>
+
+ @author Kayler
+ @since 10/17/2026 */
+class PreprocessorLexer {
+	private boolean inBlockComment = false;
+	/** Indexes of the '(' that haven't been closed. The indexes are for the text of the tokens that were given to {@link #lexLine(String, PreprocessorTokenList)} */
+	private int[] openParenthesis = new int[8];
+	private int openParenthesisCount = 0;
+
+	/** Tokenize the line and append the line and its tokens to <code>tokens</code> */
+	public void lexLine(@NotNull String line, @NotNull PreprocessorTokenList tokens) {
+		final int offset = tokens.appendRaw(line);
+		final int length = line.length();
+		int i = 0;
+		if (inBlockComment) {
+			i = blockComment(line, 0, 0, offset, tokens);
+		}
+		boolean inString = false;
+		while (i < length) {
+			char c = line.charAt(i);
+			if (isIdentifierChar(c)) {
+				tokens.mark(IDENTIFIER, offset + i);
+				i++;
+				while (i < length && isIdentifierChar(line.charAt(i))) {
+					i++;
+				}
+				continue;
+			}
+			if (!inString && c == '/' && i + 1 < length) {
+				char next = line.charAt(i + 1);
+				if (next == '/') {
+					tokens.mark(COMMENT, offset + i);
+					openParenthesisCount = 0;
+					return;
+				}
+				if (next == '*') {
+					inBlockComment = true;
+					i = blockComment(line, i, i + 2, offset, tokens);
+					continue;
+				}
+			}
+			tokens.mark(TEXT, offset + i);
+			switch (c) {
+				case '"': {
+					inString = !inString;
+					break;
+				}
+				case '(': {
+					if (!inString) {
+						if (openParenthesisCount == openParenthesis.length) {
+							openParenthesis = Arrays.copyOf(openParenthesis, openParenthesisCount * 2);
+						}
+						openParenthesis[openParenthesisCount++] = offset + i;
+					}
+					break;
+				}
+				case ')': {
+					if (!inString && openParenthesisCount > 0) {
+						openParenthesisCount--;
+					}
+					break;
+				}
+			}
+			i++;
+		}
+	}
+
+	/**
+	 Mark the block comment that starts at <code>start</code> and look for its end starting at <code>searchFrom</code>.
+
+	 @return the index after the end of the comment, or the line length if the comment doesn't end on this line
+	 */
+	private int blockComment(@NotNull String line, int start, int searchFrom, int offset, @NotNull PreprocessorTokenList tokens) {
+		tokens.mark(COMMENT, offset + start);
+		//a comment can't be inside of macro arguments
+		openParenthesisCount = 0;
+		int end = line.indexOf("*/", searchFrom);
+		if (end < 0) {
+			return line.length();
+		}
+		inBlockComment = false;
+		return end + 2;
+	}
+
+	/** @return true if the last line ended inside of a block comment */
+	public boolean isInBlockComment() {
+		return inBlockComment;
+	}
+
+	/** @return the number of '(' that haven't been closed since {@link #clearOpenParenthesis()} */
+	public int getOpenParenthesisCount() {
+		return openParenthesisCount;
+	}
+
+	/** @return the index (in the text of the tokens) of the <code>i</code>th '(' that hasn't been closed */
+	public int getOpenParenthesis(int i) {
+		return openParenthesis[i];
+	}
+
+	/** Forget the '(' that haven't been closed. This should be invoked when the tokens are cleared. */
+	public void clearOpenParenthesis() {
+		openParenthesisCount = 0;
+	}
+}
@@ -0,0 +1,122 @@
+package com.kaylerrenslow.armaDialogCreator.arma.header;
+
+import com.kaylerrenslow.armaDialogCreator.arma.header.DefineMacroContent.DefineValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ Symbol table for all macros defined in the {@link Preprocessor}. Lookups are a direct hash lookup.
+ The table also keeps track of which first characters and lengths the defined macro names have, so that
+ {@link #get(CharSequence, int, int)} can skip most identifiers without creating a String for them.
+
+ @author Kayler
+ @since 10/17/2026 */
+class PreprocessorMacroTable {
+	/** Identifiers longer than this share the last length bucket */
+	private static final int MAX_LENGTH_BUCKET = 63;
+
+	private final HashMap<String, DefineValue> macros = new HashMap<>();
+	/** Number of macro names that start with the given ascii char */
+	private final int[] firstCharCounts = new int[128];
+	/** Number of macro names that have the given length (see {@link #MAX_LENGTH_BUCKET}) */
+	private final int[] lengthCounts = new int[MAX_LENGTH_BUCKET + 1];
+
+	/**
+	 Define the macro, or redefine if the macro already exists.
+
+	 @return the previous value, or null if the macro wasn't defined
+	 */
+	@Nullable
+	public DefineValue put(@NotNull String name, @NotNull DefineValue value) {
+		DefineValue old = macros.put(name, value);
+		if (old == null) {
+			updateCounts(name, 1);
+		}
+		return old;
+	}
+
+	/** Invokes {@link #put(String, DefineValue)} for each entry in the given map */
+	public void putAll(@NotNull Map<String, ? extends DefineValue> map) {
+		for (Map.Entry<String, ? extends DefineValue> entry : map.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 Undefine the macro
+
+	 @return the removed value, or null if the macro wasn't defined
+	 */
+	@Nullable
+	public DefineValue remove(@NotNull String name) {
+		DefineValue old = macros.remove(name);
+		if (old != null) {
+			updateCounts(name, -1);
+		}
+		return old;
+	}
+
+	/** @return the macro's value, or null if the macro isn't defined */
+	@Nullable
+	public DefineValue get(@NotNull String name) {
+		if (name.length() > 0 && !mightContain(name, 0, name.length())) {
+			return null;
+		}
+		return macros.get(name);
+	}
+
+	/**
+	 Get a macro's value where the name is <code>text[start, end)</code>. This won't create a String
+	 for the name unless the name passes the quick first character and length checks.
+
+	 @return the macro's value, or null if the macro isn't defined
+	 */
+	@Nullable
+	public DefineValue get(@NotNull CharSequence text, int start, int end) {
+		if (!mightContain(text, start, end)) {
+			return null;
+		}
+		return macros.get(text.subSequence(start, end).toString());
+	}
+
+	/** @return true if the macro is defined */
+	public boolean containsKey(@NotNull String name) {
+		return get(name) != null;
+	}
+
+	/** @return number of defined macros */
+	public int size() {
+		return macros.size();
+	}
+
+	/** @return true if the char can be inside a macro name */
+	public static boolean isIdentifierChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$';
+	}
+
+	/** @return false if no macro can have the name in text[start, end) */
+	private boolean mightContain(@NotNull CharSequence text, int start, int end) {
+		if (start >= end) {
+			return false;
+		}
+		char first = text.charAt(start);
+		if (first < firstCharCounts.length && firstCharCounts[first] == 0) {
+			return false;
+		}
+		return lengthCounts[Math.min(end - start, MAX_LENGTH_BUCKET)] > 0;
+	}
+
+	private void updateCounts(@NotNull String name, int delta) {
+		if (name.length() == 0) {
+			return;
+		}
+		char first = name.charAt(0);
+		if (first < firstCharCounts.length) {
+			firstCharCounts[first] += delta;
+		}
+		lengthCounts[Math.min(name.length(), MAX_LENGTH_BUCKET)] += delta;
+	}
+}
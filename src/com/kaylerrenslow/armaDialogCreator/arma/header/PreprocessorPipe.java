@@ -0,0 +1,151 @@
+package com.kaylerrenslow.armaDialogCreator.arma.header;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ A bounded, in memory pipe that connects the {@link Preprocessor} (writing on one thread) to the header lexer
+ (reading on another thread). The writer will block when the pipe is full and the reader will block when the pipe is empty.
+ <br>
+ Unlike {@link java.io.PipedReader}, there is no polling and chars are copied in bulk.
+ If the reader is closed before everything is written, the remaining text is discarded so that the preprocessor can still finish.
+
+ @author Kayler
+ @since 10/17/2026 */
+class PreprocessorPipe {
+	/** Default value for the pipe's capacity in chars */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private final Object pipeLock = new Object();
+	private final char[] buffer;
+	private int readPos = 0;
+	private int count = 0;
+	private boolean writerClosed = false;
+	private boolean readerClosed = false;
+
+	private final Writer writer = new PipeWriter();
+	private final Reader reader = new PipeReader();
+
+	/** @param capacity max number of chars that can be in the pipe at once */
+	public PreprocessorPipe(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be > 0");
+		}
+		this.buffer = new char[capacity];
+	}
+
+	/** @return the end of the pipe that the {@link Preprocessor} writes to. It must be closed when preprocessing is done. */
+	@NotNull
+	public Writer getWriter() {
+		return writer;
+	}
+
+	/** @return the end of the pipe the lexer reads from */
+	@NotNull
+	public Reader getReader() {
+		return reader;
+	}
+
+	private class PipeWriter extends Writer {
+
+		@Override
+		public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+			synchronized (pipeLock) {
+				if (writerClosed) {
+					throw new IOException("pipe writer closed");
+				}
+				while (len > 0) {
+					while (count == buffer.length && !readerClosed) {
+						await();
+					}
+					if (readerClosed) {
+						//no one will read it
+						return;
+					}
+					int writePos = (readPos + count) % buffer.length;
+					int n = Math.min(len, Math.min(buffer.length - count, buffer.length - writePos));
+					System.arraycopy(cbuf, off, buffer, writePos, n);
+					count += n;
+					off += n;
+					len -= n;
+					pipeLock.notifyAll();
+				}
+			}
+		}
+
+		@Override
+		public void write(@NotNull String str, int off, int len) throws IOException {
+			//copy in chunks so that large strings don't get copied into a new array all at once
+			char[] chunk = new char[Math.min(len, 8192)];
+			while (len > 0) {
+				int n = Math.min(len, chunk.length);
+				str.getChars(off, off + n, chunk, 0);
+				write(chunk, 0, n);
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public void flush() {
+			//everything written is immediately available to the reader
+		}
+
+		@Override
+		public void close() {
+			synchronized (pipeLock) {
+				writerClosed = true;
+				pipeLock.notifyAll();
+			}
+		}
+	}
+
+	private class PipeReader extends Reader {
+
+		@Override
+		public int read(@NotNull char[] cbuf, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			synchronized (pipeLock) {
+				if (readerClosed) {
+					throw new IOException("pipe reader closed");
+				}
+				while (count == 0 && !writerClosed) {
+					await();
+				}
+				if (count == 0) {
+					return -1;
+				}
+				int n = Math.min(len, Math.min(count, buffer.length - readPos));
+				System.arraycopy(buffer, readPos, cbuf, off, n);
+				readPos = (readPos + n) % buffer.length;
+				count -= n;
+				pipeLock.notifyAll();
+				return n;
+			}
+		}
+
+		@Override
+		public void close() {
+			synchronized (pipeLock) {
+				readerClosed = true;
+				count = 0;
+				pipeLock.notifyAll();
+			}
+		}
+	}
+
+	private void await() throws InterruptedIOException {
+		try {
+			pipeLock.wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.kaylerrenslow.armaDialogCreator.arma.header;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+import static com.kaylerrenslow.armaDialogCreator.arma.header.PreprocessorMacroTable.isIdentifierChar;
+
+/**
+ Tokens of text for the {@link Preprocessor}. The tokens cover all of {@link #getText()} with no gaps, and each token is only a start
+ index and a kind, so no String is created for a token. There are 3 kinds of tokens: identifiers ({@link #IDENTIFIER}, which are
+ <code>[a-zA-Z_0-9$]+</code>), comments ({@link #COMMENT}), and everything else ({@link #TEXT}).
+ <p>
+ When appending, an identifier that is placed right after another identifier becomes 1 identifier (same for text), so the tokens are
+ always the same as if all the text was tokenized at once. This is how ## and macro arguments glue identifiers together.
+
+ @author Kayler
+ @since 10/17/2026 */
+class PreprocessorTokenList {
+	/** Token kind for anything that isn't an identifier or a comment */
+	public static final int TEXT = 0;
+	/** Token kind for <code>[a-zA-Z_0-9$]+</code> */
+	public static final int IDENTIFIER = 1;
+	/** Token kind for a line or block comment. Comments are never merged with other tokens. */
+	public static final int COMMENT = 2;
+
+	private final StringBuilder text;
+	private int[] starts = new int[16];
+	private int[] kinds = new int[16];
+	private int size = 0;
+
+	public PreprocessorTokenList() {
+		this(16);
+	}
+
+	/** @param capacity initial capacity of the text */
+	public PreprocessorTokenList(int capacity) {
+		this.text = new StringBuilder(capacity);
+	}
+
+	/** Create a token list for the given text */
+	@NotNull
+	public static PreprocessorTokenList of(@NotNull CharSequence text) {
+		PreprocessorTokenList list = new PreprocessorTokenList(text.length());
+		list.append(text, 0, text.length());
+		return list;
+	}
+
+	/** @return all text of the tokens */
+	@NotNull
+	public CharSequence getText() {
+		return text;
+	}
+
+	/** @return number of tokens */
+	public int size() {
+		return size;
+	}
+
+	/** @return the kind of the token at the given index ({@link #TEXT}, {@link #IDENTIFIER}, or {@link #COMMENT}) */
+	public int kind(int token) {
+		return kinds[token];
+	}
+
+	/** @return start index (inclusive) in {@link #getText()} of the token */
+	public int start(int token) {
+		return starts[token];
+	}
+
+	/** @return end index (exclusive) in {@link #getText()} of the token */
+	public int end(int token) {
+		return token + 1 < size ? starts[token + 1] : text.length();
+	}
+
+	/** @return index of the token that contains the char at the given index of {@link #getText()} */
+	public int tokenAt(int charIndex) {
+		int ind = Arrays.binarySearch(starts, 0, size, charIndex);
+		return ind >= 0 ? ind : -ind - 2;
+	}
+
+	/** Remove all tokens and text */
+	public void clear() {
+		text.setLength(0);
+		size = 0;
+	}
+
+	/**
+	 Append text without tokenizing it. {@link #mark(int, int)} must be used afterwards to tokenize the appended text.
+
+	 @return index in {@link #getText()} where the text was appended
+	 */
+	int appendRaw(@NotNull CharSequence s) {
+		int start = text.length();
+		text.append(s);
+		return start;
+	}
+
+	/**
+	 Start a token of the given kind at the given index. The token ends where the next token starts. If the token before is the same
+	 kind (and isn't a comment), the tokens are merged.
+	 */
+	void mark(int kind, int start) {
+		if (size > 0 && kinds[size - 1] == kind && kind != COMMENT) {
+			return;
+		}
+		if (size == starts.length) {
+			starts = Arrays.copyOf(starts, size * 2);
+			kinds = Arrays.copyOf(kinds, size * 2);
+		}
+		starts[size] = start;
+		kinds[size] = kind;
+		size++;
+	}
+
+	/** Append the char and tokenize it */
+	public void append(char c) {
+		mark(isIdentifierChar(c) ? IDENTIFIER : TEXT, text.length());
+		text.append(c);
+	}
+
+	/** Append <code>s</code> and tokenize it. Comments aren't looked for. */
+	public void append(@NotNull CharSequence s) {
+		append(s, 0, s.length());
+	}
+
+	/** Append <code>s[start, end)</code> and tokenize it. Comments aren't looked for. */
+	public void append(@NotNull CharSequence s, int start, int end) {
+		int lastKind = -1;
+		for (int i = start; i < end; i++) {
+			int kind = isIdentifierChar(s.charAt(i)) ? IDENTIFIER : TEXT;
+			if (kind != lastKind) {
+				mark(kind, text.length() + i - start);
+				lastKind = kind;
+			}
+		}
+		text.append(s, start, end);
+	}
+
+	/**
+	 Append the text of <code>other</code> in the range <code>[start, end)</code>. The tokens of <code>other</code> are copied
+	 rather than the text being tokenized again. Comments become {@link #TEXT}.
+	 */
+	public void append(@NotNull PreprocessorTokenList other, int start, int end) {
+		if (start >= end) {
+			return;
+		}
+		int offset = text.length() - start;
+		for (int token = other.tokenAt(start); token < other.size && other.starts[token] < end; token++) {
+			int kind = other.kinds[token] == COMMENT ? TEXT : other.kinds[token];
+			mark(kind, Math.max(start, other.starts[token]) + offset);
+		}
+		text.append(other.text, start, end);
+	}
+
+	@Override
+	public String toString() {
+		return text.toString();
+	}
+}
@@ -8,25 +8,32 @@ import org.jetbrains.annotations.NotNull;
  @author Kayler
  @since 12/12/2016 */
 public class KnownLanguage implements Language {
-	public static final KnownLanguage Original = new KnownLanguage("Original");
-	public static final KnownLanguage English = new KnownLanguage("English");
-	public static final KnownLanguage Czech = new KnownLanguage("Czech");
-	public static final KnownLanguage French = new KnownLanguage("French");
-	public static final KnownLanguage Spanish = new KnownLanguage("Spanish");
-	public static final KnownLanguage Italian = new KnownLanguage("Italian");
-	public static final KnownLanguage Polish = new KnownLanguage("Polish");
-	public static final KnownLanguage Portuguese = new KnownLanguage("Portuguese");
-	public static final KnownLanguage Russian = new KnownLanguage("Russian");
-	public static final KnownLanguage German = new KnownLanguage("German");
-	public static final KnownLanguage Korean = new KnownLanguage("Korean");
-	public static final KnownLanguage Japanese = new KnownLanguage("Japanese");
+	public static final KnownLanguage Original = new KnownLanguage("Original", 0);
+	public static final KnownLanguage English = new KnownLanguage("English", 1);
+	public static final KnownLanguage Czech = new KnownLanguage("Czech", 2);
+	public static final KnownLanguage French = new KnownLanguage("French", 3);
+	public static final KnownLanguage Spanish = new KnownLanguage("Spanish", 4);
+	public static final KnownLanguage Italian = new KnownLanguage("Italian", 5);
+	public static final KnownLanguage Polish = new KnownLanguage("Polish", 6);
+	public static final KnownLanguage Portuguese = new KnownLanguage("Portuguese", 7);
+	public static final KnownLanguage Russian = new KnownLanguage("Russian", 8);
+	public static final KnownLanguage German = new KnownLanguage("German", 9);
+	public static final KnownLanguage Korean = new KnownLanguage("Korean", 10);
+	public static final KnownLanguage Japanese = new KnownLanguage("Japanese", 11);
 
 	private static final KnownLanguage[] values = {Original, English, Czech, French, Spanish, Italian, Polish, Portuguese, Russian, German, Korean, Japanese};
 
 	private String name;
+	private final int ordinal;
 
-	private KnownLanguage(String name) {
+	private KnownLanguage(String name, int ordinal) {
 		this.name = name;
+		this.ordinal = ordinal;
+	}
+
+	/** @return index of this language in {@link #values()} */
+	public int ordinal() {
+		return ordinal;
 	}
 
 	@Override
@@ -0,0 +1,287 @@
+package com.kaylerrenslow.armaDialogCreator.arma.stringtable;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ A map of {@link Language} to token for {@link StringTableKey#getLanguageTokenMap()}. Tokens of {@link KnownLanguage} are stored in an
+ array indexed by {@link KnownLanguage#ordinal()} and other languages are stored in a small array, so a key doesn't need a hash table
+ and an entry object per token.
+ <p>
+ Iteration is in {@link KnownLanguage#values()} order, and then in the order the other languages were added. Null tokens aren't allowed.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class LanguageTokenMap extends AbstractMap<Language, String> {
+	private static final int KNOWN_LANGUAGE_COUNT = KnownLanguage.values().length;
+
+	/** Tokens by {@link KnownLanguage#ordinal()}, or null if there are no known language tokens */
+	private String[] knownTokens;
+	/** Languages that aren't {@link KnownLanguage}, or null if there are none */
+	private Language[] otherLanguages;
+	private String[] otherTokens;
+	private int otherCount = 0;
+	private int size = 0;
+	private int modCount = 0;
+	private Set<Entry<Language, String>> entrySet;
+
+	/** @return a new {@link ObservableMap} that is backed by a new {@link LanguageTokenMap} */
+	@NotNull
+	public static ObservableMap<Language, String> newObservableMap() {
+		return FXCollections.observableMap(new LanguageTokenMap());
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public String get(Object key) {
+		if (key instanceof KnownLanguage) {
+			return knownTokens == null ? null : knownTokens[((KnownLanguage) key).ordinal()];
+		}
+		int ind = indexOfOther(key);
+		return ind < 0 ? null : otherTokens[ind];
+	}
+
+	@Override
+	public String put(@NotNull Language language, @NotNull String token) {
+		if (token == null) {
+			throw new NullPointerException("token");
+		}
+		if (language instanceof KnownLanguage) {
+			if (knownTokens == null) {
+				knownTokens = new String[KNOWN_LANGUAGE_COUNT];
+			}
+			int ordinal = ((KnownLanguage) language).ordinal();
+			String old = knownTokens[ordinal];
+			knownTokens[ordinal] = token;
+			if (old == null) {
+				size++;
+				modCount++;
+			}
+			return old;
+		}
+		int ind = indexOfOther(language);
+		if (ind >= 0) {
+			String old = otherTokens[ind];
+			otherTokens[ind] = token;
+			return old;
+		}
+		if (otherLanguages == null) {
+			otherLanguages = new Language[2];
+			otherTokens = new String[2];
+		} else if (otherCount == otherLanguages.length) {
+			otherLanguages = Arrays.copyOf(otherLanguages, otherCount * 2);
+			otherTokens = Arrays.copyOf(otherTokens, otherCount * 2);
+		}
+		otherLanguages[otherCount] = language;
+		otherTokens[otherCount] = token;
+		otherCount++;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public String remove(Object key) {
+		if (key instanceof KnownLanguage) {
+			if (knownTokens == null) {
+				return null;
+			}
+			int ordinal = ((KnownLanguage) key).ordinal();
+			String old = knownTokens[ordinal];
+			if (old != null) {
+				knownTokens[ordinal] = null;
+				size--;
+				modCount++;
+			}
+			return old;
+		}
+		int ind = indexOfOther(key);
+		if (ind < 0) {
+			return null;
+		}
+		String old = otherTokens[ind];
+		removeOther(ind);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		knownTokens = null;
+		otherLanguages = null;
+		otherTokens = null;
+		otherCount = 0;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	@NotNull
+	public Set<Entry<Language, String>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Entry<Language, String>>() {
+				@Override
+				@NotNull
+				public Iterator<Entry<Language, String>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					LanguageTokenMap.this.clear();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	private int indexOfOther(@Nullable Object language) {
+		if (language == null) {
+			return -1;
+		}
+		for (int i = 0; i < otherCount; i++) {
+			if (otherLanguages[i].equals(language)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void removeOther(int ind) {
+		int moved = otherCount - ind - 1;
+		System.arraycopy(otherLanguages, ind + 1, otherLanguages, ind, moved);
+		System.arraycopy(otherTokens, ind + 1, otherTokens, ind, moved);
+		otherCount--;
+		otherLanguages[otherCount] = null;
+		otherTokens[otherCount] = null;
+		size--;
+		modCount++;
+	}
+
+	/** Iterates the known language tokens, and then the other language tokens */
+	private class EntryIterator implements Iterator<Entry<Language, String>> {
+		/** Index of the next entry. Indexes at and after {@link #KNOWN_LANGUAGE_COUNT} are for the other languages. */
+		private int next = -1;
+		private int last = -1;
+		private int expectedModCount = modCount;
+
+		EntryIterator() {
+			advance();
+		}
+
+		private void advance() {
+			next++;
+			if (knownTokens == null && next < KNOWN_LANGUAGE_COUNT) {
+				next = KNOWN_LANGUAGE_COUNT;
+			}
+			while (next < KNOWN_LANGUAGE_COUNT && knownTokens[next] == null) {
+				next++;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < KNOWN_LANGUAGE_COUNT + otherCount;
+		}
+
+		@Override
+		public Entry<Language, String> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			advance();
+			return new TokenEntry(last < KNOWN_LANGUAGE_COUNT ? KnownLanguage.values()[last] : otherLanguages[last - KNOWN_LANGUAGE_COUNT]);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (last < KNOWN_LANGUAGE_COUNT) {
+				LanguageTokenMap.this.remove(KnownLanguage.values()[last]);
+			} else {
+				removeOther(last - KNOWN_LANGUAGE_COUNT);
+				//the other languages after the removed one were moved back by one
+				next--;
+			}
+			expectedModCount = modCount;
+			last = -1;
+		}
+	}
+
+	/** An entry that reads and writes the token in the map */
+	private class TokenEntry implements Entry<Language, String> {
+		private final Language language;
+
+		TokenEntry(@NotNull Language language) {
+			this.language = language;
+		}
+
+		@Override
+		public Language getKey() {
+			return language;
+		}
+
+		@Override
+		public String getValue() {
+			return get(language);
+		}
+
+		@Override
+		public String setValue(String value) {
+			return put(language, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+			return language.equals(other.getKey()) && getValue().equals(other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			String value = getValue();
+			return language.hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return language + "=" + getValue();
+		}
+	}
+}
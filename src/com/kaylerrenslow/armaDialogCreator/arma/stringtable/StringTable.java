@@ -5,6 +5,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  @author Kayler
@@ -32,23 +37,28 @@ public interface StringTable {
 
 	/**
 	 Set this StringTable equal to <code>table</code> (copies over {@link #getFile()} and invokes {@link StringTableKey#setTo(StringTableKey)} for each {@link #getKeys()}). If the given table
-	 has a key that this table doesn't, this table will copy it into its keys
+	 has a key that this table doesn't, a {@link StringTableKey#deepCopy()} of it is added to this table's keys. Keys are matched by id, ignoring case.
 	 */
 	default void setTo(@NotNull StringTable table) {
 		setFile(table.getFile());
+		Map<String, StringTableKey> myKeys = new HashMap<>(getKeys().size() * 2);
+		for (StringTableKey myKey : getKeys()) {
+			myKeys.putIfAbsent(myKey.getId().toLowerCase(Locale.ROOT), myKey);
+		}
+		List<StringTableKey> newKeys = new ArrayList<>();
 		for (StringTableKey key : table.getKeys()) {
-			boolean found = false;
-			for (StringTableKey myKey : getKeys()) {
-				if (myKey.getId().equalsIgnoreCase(key.getId())) {
-					myKey.setTo(key);
-					found = true;
-					break;
-				}
-			}
-			if (!found) {
-				getKeys().add(key);
+			String id = key.getId().toLowerCase(Locale.ROOT);
+			StringTableKey myKey = myKeys.get(id);
+			if (myKey != null) {
+				myKey.setTo(key);
+			} else {
+				//copy the key so that this table doesn't share keys (and their listeners) with the other table
+				StringTableKey copy = key.deepCopy();
+				myKeys.put(id, copy);
+				newKeys.add(copy);
 			}
 		}
+		getKeys().addAll(newKeys);
 	}
 
 	/**
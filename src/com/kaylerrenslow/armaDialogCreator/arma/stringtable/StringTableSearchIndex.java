@@ -0,0 +1,542 @@
+package com.kaylerrenslow.armaDialogCreator.arma.stringtable;
+
+import com.kaylerrenslow.armaDialogCreator.util.ValueListener;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ A search index over the keys of a {@link StringTable}. The index listens to the key list and to every key, so it is updated
+ incrementally as keys are added, removed, and edited.
+ <p>
+ Each key's id and language values are stored lowercased, along with an index of their trigrams (3 character substrings),
+ so a "contains" search only checks the keys that have every trigram of the search text. The languages of each key are stored
+ as a bit set (one bit per language name).
+ <p>
+ Removing a key doesn't touch the trigram index. The key's entry id is left in the index and skipped when searching. When more
+ entries were removed than there are keys, the ids are compacted (see {@link #compactIds()}), so removing keys is amortized constant time.
+ <p>
+ The index is updated on the thread that edits the keys (JavaFX thread), and {@link #search(String)} may be invoked on any thread.
+ The index never reads the keys while searching. Invoke {@link #dispose()} to stop listening to the keys.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class StringTableSearchIndex {
+	private static final int GRAM_LENGTH = 3;
+
+	private final ObservableList<StringTableKey> keys;
+	private final Map<StringTableKey, Entry> entries = new IdentityHashMap<>();
+	/** Entries by {@link Entry#entryId}. Removed entries are null until {@link #compactIds()}. */
+	private final List<Entry> entriesById = new ArrayList<>();
+	/** Number of nulls in {@link #entriesById}. The postings still have the ids of those entries. */
+	private int removedEntryCount = 0;
+	/** Trigrams of the language values, and the ids of the entries that have them */
+	private final Map<Long, Posting> textGrams = new HashMap<>();
+	/** Trigrams of the key ids, and the ids of the entries that have them */
+	private final Map<Long, Posting> idGrams = new HashMap<>();
+	/** Bit of each language name */
+	private final Map<String, Integer> languageBits = new HashMap<>();
+	/** Lowercased language names, by bit */
+	private final List<String> languageNamesLowercase = new ArrayList<>();
+
+	private final ListChangeListener<StringTableKey> keysListener = new ListChangeListener<StringTableKey>() {
+		@Override
+		public void onChanged(Change<? extends StringTableKey> c) {
+			synchronized (StringTableSearchIndex.this) {
+				while (c.next()) {
+					//add first so that a key that replaced itself keeps its entry
+					for (StringTableKey added : c.getAddedSubList()) {
+						addKey(added);
+					}
+					for (StringTableKey removed : c.getRemoved()) {
+						removeKey(removed);
+					}
+				}
+			}
+		}
+	};
+
+	/**
+	 Index the keys and start listening to them
+
+	 @param keys keys to index (for example, {@link StringTable#getKeys()})
+	 */
+	public StringTableSearchIndex(@NotNull ObservableList<StringTableKey> keys) {
+		this.keys = keys;
+		synchronized (this) {
+			for (StringTableKey key : keys) {
+				addKey(key);
+			}
+		}
+		keys.addListener(keysListener);
+	}
+
+	/** Stop listening to the key list and the keys. The index won't be updated anymore. */
+	public synchronized void dispose() {
+		keys.removeListener(keysListener);
+		for (Entry entry : entries.values()) {
+			entry.removeListeners();
+		}
+	}
+
+	/** @return number of indexed keys */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 Search the keys. The first character of <code>searchText</code> decides what is searched:
+	 <ul>
+	 <li>' or ": keys with a language value that contains the rest of the text</li>
+	 <li>+: keys that have a language whose name contains the rest of the text</li>
+	 <li>!: keys that don't have a language whose name contains the rest of the text</li>
+	 <li>/: keys in a package and containers (package/container1/container2). "." matches keys without a package.</li>
+	 <li>anything else: keys whose id contains the text</li>
+	 </ul>
+	 Searches ignore case. If the text is shorter than 2 characters, all keys match.
+
+	 @param searchText text to search with
+	 @return the matched keys (the set uses reference equality)
+	 */
+	@NotNull
+	public synchronized Set<StringTableKey> search(@NotNull String searchText) {
+		searchText = searchText.trim();
+		if (searchText.length() <= 1) {
+			return newKeySet(entries.keySet());
+		}
+		String searchTextAfter = searchText.substring(1);
+		switch (searchText.charAt(0)) {
+			case '\'': //intentional fall through
+			case '"': {
+				return findContaining(searchTextAfter.toLowerCase(), textGrams, true);
+			}
+			case '!': {
+				return findByLanguage(searchTextAfter.toLowerCase(), false);
+			}
+			case '+': {
+				return findByLanguage(searchTextAfter.toLowerCase(), true);
+			}
+			case '/': {
+				return findByPath(searchTextAfter);
+			}
+			default: {
+				return findContaining(searchText.toLowerCase(), idGrams, false);
+			}
+		}
+	}
+
+	@NotNull
+	private Set<StringTableKey> findContaining(@NotNull String searchLowercase, @NotNull Map<Long, Posting> grams, boolean text) {
+		Set<StringTableKey> matches = newKeySet(Collections.emptySet());
+		if (searchLowercase.length() < GRAM_LENGTH) {
+			for (Entry entry : entries.values()) {
+				if (entry.contains(searchLowercase, text)) {
+					matches.add(entry.key);
+				}
+			}
+			return matches;
+		}
+		long[] searchGrams = getGrams(searchLowercase);
+		Posting[] postings = new Posting[searchGrams.length];
+		int i = 0;
+		for (long gram : searchGrams) {
+			Posting posting = grams.get(gram);
+			if (posting == null) {
+				return matches;
+			}
+			postings[i++] = posting;
+		}
+		Arrays.sort(postings, (p1, p2) -> Integer.compare(p1.size, p2.size));
+		int[] candidates = Arrays.copyOf(postings[0].ids, postings[0].size);
+		int candidateCount = candidates.length;
+		for (int p = 1; p < postings.length && candidateCount > 0; p++) {
+			candidateCount = postings[p].retainAll(candidates, candidateCount);
+		}
+		for (int c = 0; c < candidateCount; c++) {
+			Entry entry = entriesById.get(candidates[c]);
+			if (entry != null && entry.contains(searchLowercase, text)) {
+				matches.add(entry.key);
+			}
+		}
+		return matches;
+	}
+
+	@NotNull
+	private Set<StringTableKey> findByLanguage(@NotNull String searchLowercase, boolean hasLanguage) {
+		BitSet searchLanguages = new BitSet(languageNamesLowercase.size());
+		for (int bit = 0; bit < languageNamesLowercase.size(); bit++) {
+			if (languageNamesLowercase.get(bit).contains(searchLowercase)) {
+				searchLanguages.set(bit);
+			}
+		}
+		Set<StringTableKey> matches = newKeySet(Collections.emptySet());
+		for (Entry entry : entries.values()) {
+			if (entry.languages.intersects(searchLanguages) == hasLanguage) {
+				matches.add(entry.key);
+			}
+		}
+		return matches;
+	}
+
+	@NotNull
+	private Set<StringTableKey> findByPath(@NotNull String searchTextAfter) {
+		String[] tokens;
+		if (searchTextAfter.contains("/")) {
+			searchTextAfter = searchTextAfter.replaceAll("//", "/ /");
+			tokens = searchTextAfter.split("/");
+			if (tokens.length == 0) {
+				tokens = new String[]{""};
+			}
+		} else {
+			tokens = new String[]{searchTextAfter};
+		}
+		for (int i = 0; i < tokens.length; i++) {
+			tokens[i] = tokens[i].toLowerCase().trim();
+		}
+		final String searchPackageName = tokens[0];
+		final boolean matchNullPackage = tokens[0].equals(".");
+		final boolean ignorePackage = tokens[0].length() == 0;
+
+		Set<StringTableKey> matches = newKeySet(Collections.emptySet());
+		for (Entry entry : entries.values()) {
+			boolean match = true;
+			for (int i = 1; i < tokens.length && match; i++) {
+				String searchContainerName = tokens[i];
+				final int containerInd = i - 1;
+				if (containerInd >= entry.containersLowercase.length) {
+					match = false;
+					continue;
+				}
+				final boolean containsContainer = searchContainerName.length() == 0 || entry.containersLowercase[containerInd].contains(searchContainerName);
+				final boolean containsPackage = ignorePackage || entry.packageNameLowercase.contains(searchPackageName);
+				match = containsContainer && containsPackage;
+			}
+			if (tokens.length == 1) {
+				match = (entry.noPackageName && matchNullPackage) || ignorePackage || entry.packageNameLowercase.contains(searchPackageName);
+			}
+			if (match) {
+				matches.add(entry.key);
+			}
+		}
+		return matches;
+	}
+
+	private void addKey(@NotNull StringTableKey key) {
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			//the same key is in the list more than once
+			entry.references++;
+			return;
+		}
+		entry = new Entry(entriesById.size(), key);
+		entriesById.add(entry);
+		entries.put(key, entry);
+		entry.indexId();
+		entry.indexValues();
+		entry.indexPath();
+		entry.addListeners();
+	}
+
+	private void removeKey(@NotNull StringTableKey key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return;
+		}
+		entry.references--;
+		if (entry.references > 0) {
+			//the same key is still in the list
+			return;
+		}
+		entries.remove(key);
+		entry.removeListeners();
+		entriesById.set(entry.entryId, null);
+		removedEntryCount++;
+		if (removedEntryCount > entries.size()) {
+			compactIds();
+		}
+	}
+
+	/**
+	 Give the entries new ids without gaps and remove the ids of removed entries from the postings. The order of the ids
+	 doesn't change, so the postings stay sorted.
+	 */
+	private void compactIds() {
+		int[] newIds = new int[entriesById.size()];
+		int nextId = 0;
+		for (int id = 0; id < newIds.length; id++) {
+			Entry entry = entriesById.get(id);
+			if (entry == null) {
+				newIds[id] = -1;
+				continue;
+			}
+			newIds[id] = nextId;
+			entry.entryId = nextId;
+			entriesById.set(nextId, entry);
+			nextId++;
+		}
+		entriesById.subList(nextId, entriesById.size()).clear();
+		compactPostings(idGrams, newIds);
+		compactPostings(textGrams, newIds);
+		removedEntryCount = 0;
+	}
+
+	/** @return number of removed entries whose ids haven't been compacted yet */
+	synchronized int getRemovedEntryCount() {
+		return removedEntryCount;
+	}
+
+	@NotNull
+	private static Set<StringTableKey> newKeySet(@NotNull Set<StringTableKey> keys) {
+		Set<StringTableKey> set = Collections.newSetFromMap(new IdentityHashMap<>(keys.size() + 16));
+		set.addAll(keys);
+		return set;
+	}
+
+	/** @return the distinct trigrams of the strings, sorted */
+	@NotNull
+	private static long[] getGrams(@NotNull String... strings) {
+		int count = 0;
+		for (String s : strings) {
+			count += Math.max(0, s.length() - GRAM_LENGTH + 1);
+		}
+		long[] grams = new long[count];
+		int ind = 0;
+		for (String s : strings) {
+			for (int i = 0; i + GRAM_LENGTH <= s.length(); i++) {
+				long gram = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+				//multiplying by an odd number keeps the grams unique and spreads the bits so the grams don't collide in the HashMap
+				grams[ind++] = gram * 0x9E3779B97F4A7C15L;
+			}
+		}
+		Arrays.sort(grams);
+		int distinct = 0;
+		for (int i = 0; i < grams.length; i++) {
+			if (i == 0 || grams[i] != grams[i - 1]) {
+				grams[distinct++] = grams[i];
+			}
+		}
+		return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+	}
+
+	private static void indexGrams(@NotNull String[] strings, @NotNull Map<Long, Posting> grams, int entryId) {
+		for (long gram : getGrams(strings)) {
+			grams.computeIfAbsent(gram, g -> new Posting()).add(entryId);
+		}
+	}
+
+	private static void removeGrams(@NotNull String[] strings, @NotNull Map<Long, Posting> grams, int entryId) {
+		for (long gram : getGrams(strings)) {
+			Posting posting = grams.get(gram);
+			if (posting != null) {
+				posting.remove(entryId);
+				if (posting.size == 0) {
+					grams.remove(gram);
+				}
+			}
+		}
+	}
+
+	private static void compactPostings(@NotNull Map<Long, Posting> grams, @NotNull int[] newIds) {
+		Iterator<Posting> iterator = grams.values().iterator();
+		while (iterator.hasNext()) {
+			Posting posting = iterator.next();
+			posting.renumber(newIds);
+			if (posting.size == 0) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private int getLanguageBit(@NotNull Language language) {
+		Integer bit = languageBits.get(language.getName());
+		if (bit == null) {
+			bit = languageNamesLowercase.size();
+			languageBits.put(language.getName(), bit);
+			languageNamesLowercase.add(language.getName().toLowerCase());
+		}
+		return bit;
+	}
+
+	/** The indexed data of a key */
+	private class Entry {
+		private int entryId;
+		private final StringTableKey key;
+		/** Number of times the key is in the key list */
+		private int references = 1;
+		private String idLowercase;
+		private String[] valuesLowercase = new String[0];
+		private final BitSet languages = new BitSet();
+		private String packageNameLowercase = "";
+		private boolean noPackageName;
+		private String[] containersLowercase = new String[0];
+
+		private final ValueListener<String> idListener = (observer, oldValue, newValue) -> {
+			synchronized (StringTableSearchIndex.this) {
+				indexId();
+			}
+		};
+		private final MapChangeListener<Language, String> valuesListener = change -> {
+			synchronized (StringTableSearchIndex.this) {
+				indexValues();
+			}
+		};
+		private final InvalidationListener pathListener = observable -> {
+			synchronized (StringTableSearchIndex.this) {
+				indexPath();
+			}
+		};
+
+		Entry(int entryId, @NotNull StringTableKey key) {
+			this.entryId = entryId;
+			this.key = key;
+		}
+
+		void addListeners() {
+			key.getIdObserver().addListener(idListener);
+			key.getLanguageTokenMap().addListener(valuesListener);
+			key.getPath().addListener(pathListener);
+		}
+
+		void removeListeners() {
+			key.getIdObserver().removeListener(idListener);
+			key.getLanguageTokenMap().removeListener(valuesListener);
+			key.getPath().removeListener(pathListener);
+		}
+
+		void indexId() {
+			if (idLowercase != null) {
+				removeGrams(new String[]{idLowercase}, idGrams, entryId);
+			}
+			idLowercase = key.getId().toLowerCase();
+			indexGrams(new String[]{idLowercase}, idGrams, entryId);
+		}
+
+		void indexValues() {
+			removeGrams(valuesLowercase, textGrams, entryId);
+			List<String> values = new ArrayList<>(key.getLanguageTokenMap().size());
+			languages.clear();
+			for (Map.Entry<Language, String> token : key.getLanguageTokenMap().entrySet()) {
+				languages.set(getLanguageBit(token.getKey()));
+				if (token.getValue() != null) {
+					values.add(token.getValue().toLowerCase());
+				}
+			}
+			valuesLowercase = values.toArray(new String[values.size()]);
+			indexGrams(valuesLowercase, textGrams, entryId);
+		}
+
+		void indexPath() {
+			StringTableKeyPath path = key.getPath();
+			noPackageName = path.noPackageName();
+			packageNameLowercase = path.getPackageName().toLowerCase();
+			containersLowercase = new String[path.getContainers().size()];
+			for (int i = 0; i < containersLowercase.length; i++) {
+				containersLowercase[i] = path.getContainers().get(i).toLowerCase();
+			}
+		}
+
+		/**
+		 @param text true to check the language values, false to check the id
+		 */
+		boolean contains(@NotNull String searchLowercase, boolean text) {
+			if (!text) {
+				return idLowercase.contains(searchLowercase);
+			}
+			for (String value : valuesLowercase) {
+				if (value.contains(searchLowercase)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/** Sorted entry ids */
+	private static class Posting {
+		private int[] ids = new int[2];
+		private int size = 0;
+
+		void add(int id) {
+			if (size > 0 && ids[size - 1] < id) {
+				//entries are usually indexed in order of their id
+				ensureCapacity();
+				ids[size++] = id;
+				return;
+			}
+			int ind = Arrays.binarySearch(ids, 0, size, id);
+			if (ind >= 0) {
+				return;
+			}
+			ind = -ind - 1;
+			ensureCapacity();
+			System.arraycopy(ids, ind, ids, ind + 1, size - ind);
+			ids[ind] = id;
+			size++;
+		}
+
+		void remove(int id) {
+			int ind = Arrays.binarySearch(ids, 0, size, id);
+			if (ind < 0) {
+				return;
+			}
+			System.arraycopy(ids, ind + 1, ids, ind, size - ind - 1);
+			size--;
+		}
+
+		/**
+		 Change every id to <code>newIds[id]</code> and remove the ids that become -1.
+		 <code>newIds</code> must keep the order of the ids.
+		 */
+		void renumber(@NotNull int[] newIds) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				int id = newIds[ids[i]];
+				if (id >= 0) {
+					ids[kept++] = id;
+				}
+			}
+			size = kept;
+		}
+
+		/**
+		 Remove the ids from <code>candidates</code> that aren't in this posting
+
+		 @param candidates sorted ids
+		 @param count number of ids in <code>candidates</code>
+		 @return the new number of ids in <code>candidates</code>
+		 */
+		int retainAll(@NotNull int[] candidates, int count) {
+			int kept = 0;
+			int i = 0;
+			for (int c = 0; c < count; c++) {
+				int candidate = candidates[c];
+				while (i < size && ids[i] < candidate) {
+					i++;
+				}
+				if (i < size && ids[i] == candidate) {
+					candidates[kept++] = candidate;
+				}
+			}
+			return kept;
+		}
+
+		private void ensureCapacity() {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, ids.length * 2);
+			}
+		}
+	}
+}
@@ -2,14 +2,28 @@ package com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl;
 
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTable;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableKey;
+import com.kaylerrenslow.armaDialogCreator.util.ValueListener;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ A {@link StringTable} that indexes its keys by id, so {@link #getKeyById(String)} doesn't search every key.
+ The index is updated as soon as the keys change. Adding keys to the end and removing keys with a unique id only update the index.
+ Other changes (moving keys, changing an id, or duplicate ids) rebuild it.
+ <p>
+ The keys should only be edited on one thread at a time, but {@link #getKeyById(String)} may be invoked on any thread
+ (for example, while converting a header file). It never reads the key list.
+
  @author Kayler
  @since 12/12/2016 */
 public class StringTableImpl implements StringTable {
@@ -17,10 +31,53 @@ public class StringTableImpl implements StringTable {
 	private ObservableList<StringTableKey> keys;
 	private String projectName;
 
+	/**
+	 Keys mapped by lowercased id. If there are keys with the same id, the first key in {@link #keys} is mapped.
+	 A rebuilt index replaces this map, so a lookup never sees a half built index.
+	 */
+	private volatile Map<String, StringTableKey> keyIndex = new ConcurrentHashMap<>();
+	/** Number of keys with each lowercased id. Only used by the thread that edits the keys. */
+	private final Map<String, Integer> idCounts = new HashMap<>();
+
+	private final ValueListener<String> keyIdListener = (observer, oldValue, newValue) -> {
+		if (oldValue != null && newValue != null && indexKey(oldValue).equals(indexKey(newValue))) {
+			return;
+		}
+		//the key that was changed isn't known here
+		rebuildKeyIndex();
+	};
+	private final ListChangeListener<StringTableKey> keysListener = new ListChangeListener<StringTableKey>() {
+		@Override
+		public void onChanged(Change<? extends StringTableKey> c) {
+			boolean rebuild = false;
+			while (c.next()) {
+				if (c.wasPermutated()) {
+					rebuild = true;
+				}
+				for (StringTableKey removed : c.getRemoved()) {
+					removed.getIdObserver().removeListener(keyIdListener);
+					if (!unindexKey(removed)) {
+						rebuild = true;
+					}
+				}
+				boolean addedToEnd = c.getTo() == c.getList().size();
+				for (StringTableKey added : c.getAddedSubList()) {
+					added.getIdObserver().addListener(keyIdListener);
+					if (!indexKey(added, addedToEnd)) {
+						rebuild = true;
+					}
+				}
+			}
+			if (rebuild) {
+				rebuildKeyIndex();
+			}
+		}
+	};
+
 	public StringTableImpl(@NotNull File file, @NotNull ObservableList<StringTableKey> keys, @NotNull String projectName) {
 		this.file = file;
-		this.keys = keys;
 		this.projectName = projectName;
+		setKeys(keys);
 	}
 
 	@Override
@@ -41,7 +98,75 @@ public class StringTableImpl implements StringTable {
 
 	@Override
 	public void setKeys(@NotNull ObservableList<StringTableKey> keys) {
+		if (this.keys != null) {
+			this.keys.removeListener(keysListener);
+			for (StringTableKey key : this.keys) {
+				key.getIdObserver().removeListener(keyIdListener);
+			}
+		}
 		this.keys = keys;
+		for (StringTableKey key : keys) {
+			key.getIdObserver().addListener(keyIdListener);
+		}
+		keys.addListener(keysListener);
+		rebuildKeyIndex();
+	}
+
+	@Nullable
+	@Override
+	public StringTableKey getKeyById(@NotNull String id) {
+		return keyIndex.get(indexKey(id));
+	}
+
+	/**
+	 Add the key to the index
+
+	 @param addedToEnd true if the key was added after all other keys
+	 @return true if the index is correct, or false if it needs to be rebuilt
+	 */
+	private boolean indexKey(@NotNull StringTableKey key, boolean addedToEnd) {
+		String id = indexKey(key.getId());
+		int count = idCounts.merge(id, 1, Integer::sum);
+		if (count == 1) {
+			keyIndex.put(id, key);
+			return true;
+		}
+		//the first key with the id is mapped
+		return addedToEnd;
+	}
+
+	/**
+	 Remove the key from the index
+
+	 @return true if the index is correct, or false if it needs to be rebuilt
+	 */
+	private boolean unindexKey(@NotNull StringTableKey key) {
+		String id = indexKey(key.getId());
+		Integer count = idCounts.get(id);
+		if (count == null || count == 1) {
+			idCounts.remove(id);
+			keyIndex.remove(id);
+			return true;
+		}
+		idCounts.put(id, count - 1);
+		//if the key was mapped, the next key with the same id needs to be found
+		return keyIndex.get(id) != key;
+	}
+
+	private void rebuildKeyIndex() {
+		Map<String, StringTableKey> index = new ConcurrentHashMap<>(keys.size() * 2);
+		idCounts.clear();
+		for (StringTableKey key : keys) {
+			String id = indexKey(key.getId());
+			index.putIfAbsent(id, key);
+			idCounts.merge(id, 1, Integer::sum);
+		}
+		keyIndex = index;
+	}
+
+	@NotNull
+	private static String indexKey(@NotNull String id) {
+		return id.toLowerCase(Locale.ROOT);
 	}
 
 	@NotNull
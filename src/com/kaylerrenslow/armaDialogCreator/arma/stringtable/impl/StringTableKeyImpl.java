@@ -2,6 +2,7 @@ package com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl;
 
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.KnownLanguage;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.Language;
+import com.kaylerrenslow.armaDialogCreator.arma.stringtable.LanguageTokenMap;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableKey;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableKeyPath;
 import com.kaylerrenslow.armaDialogCreator.control.Macro;
@@ -9,7 +10,6 @@ import com.kaylerrenslow.armaDialogCreator.control.MacroType;
 import com.kaylerrenslow.armaDialogCreator.control.sv.SVString;
 import com.kaylerrenslow.armaDialogCreator.util.ValueListener;
 import com.kaylerrenslow.armaDialogCreator.util.ValueObserver;
-import javafx.collections.FXCollections;
 import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 import org.jetbrains.annotations.NotNull;
@@ -103,7 +103,7 @@ public class StringTableKeyImpl extends Macro.BasicMacro<SVString> implements St
 	@Override
 	@NotNull
 	public StringTableKey deepCopy() {
-		ObservableMap<Language, String> map = FXCollections.observableHashMap();
+		ObservableMap<Language, String> map = LanguageTokenMap.newObservableMap();
 		map.putAll(this.getLanguageTokenMap());
 		return new StringTableKeyImpl(getId(), getPath(), map);
 	}
@@ -0,0 +1,187 @@
+package com.kaylerrenslow.armaDialogCreator.arma.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ Decompressors for the mipmap data inside .paa images (see {@link PaaImage}). DXT mipmaps are compressed with LZO1X
+ and ARGB mipmaps are compressed with Bohemia Interactive's LZSS.
+
+ @author Kayler
+ @since 10/17/2026 */
+class PaaCompression {
+	/** Max offset of a 2 byte LZO1X match that comes right after a literal run */
+	private static final int M2_MAX_OFFSET = 0x0800;
+
+	/**
+	 Decompress LZO1X data. Decompression stops when the end of stream marker is found or <code>out</code> is full.
+
+	 @param in compressed data
+	 @param offset where the compressed data starts in <code>in</code>
+	 @param length number of compressed bytes
+	 @param out where to write the decompressed bytes. The length of the array is the expected decompressed size.
+	 @throws IOException when the data is corrupt or doesn't decompress into exactly <code>out.length</code> bytes
+	 */
+	static void lzo1xDecompress(@NotNull byte[] in, int offset, int length, @NotNull byte[] out) throws IOException {
+		try {
+			lzo1x(in, offset, offset + length, out);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IOException("corrupt LZO data");
+		}
+	}
+
+	private static void lzo1x(@NotNull byte[] in, int ip, int end, @NotNull byte[] out) throws IOException {
+		int op = 0;
+		int state = 0;
+		int t;
+		int next;
+		int mPos;
+
+		if ((in[ip] & 0xff) > 17) {
+			t = (in[ip++] & 0xff) - 17;
+			if (t < 4) {
+				next = t;
+				//copy the trailing literals
+				for (int i = 0; i < next; i++) {
+					out[op++] = in[ip++];
+				}
+				state = next;
+			} else {
+				System.arraycopy(in, ip, out, op, t);
+				ip += t;
+				op += t;
+				state = 4;
+			}
+		}
+
+		while (ip < end && op < out.length) {
+			t = in[ip++] & 0xff;
+			int matchLength;
+			if (t < 16) {
+				if (state == 0) {
+					//literal run
+					if (t == 0) {
+						while (in[ip] == 0) {
+							t += 255;
+							ip++;
+						}
+						t += 15 + (in[ip++] & 0xff);
+					}
+					t += 3;
+					System.arraycopy(in, ip, out, op, t);
+					ip += t;
+					op += t;
+					state = 4;
+					continue;
+				}
+				next = t & 3;
+				if (state != 4) {
+					//2 byte match after 1 to 3 literals
+					mPos = op - 1 - (t >> 2) - ((in[ip++] & 0xff) << 2);
+					matchLength = 2;
+				} else {
+					//3 byte match after a literal run
+					mPos = op - (1 + M2_MAX_OFFSET) - (t >> 2) - ((in[ip++] & 0xff) << 2);
+					matchLength = 3;
+				}
+			} else if (t >= 64) {
+				next = t & 3;
+				mPos = op - 1 - ((t >> 2) & 7) - ((in[ip++] & 0xff) << 3);
+				matchLength = (t >> 5) + 1;
+			} else if (t >= 32) {
+				matchLength = t & 31;
+				if (matchLength == 0) {
+					while (in[ip] == 0) {
+						matchLength += 255;
+						ip++;
+					}
+					matchLength += 31 + (in[ip++] & 0xff);
+				}
+				matchLength += 2;
+				next = (in[ip] & 0xff) | ((in[ip + 1] & 0xff) << 8);
+				ip += 2;
+				mPos = op - 1 - (next >> 2);
+				next &= 3;
+			} else {
+				mPos = op - ((t & 8) << 11);
+				matchLength = t & 7;
+				if (matchLength == 0) {
+					while (in[ip] == 0) {
+						matchLength += 255;
+						ip++;
+					}
+					matchLength += 7 + (in[ip++] & 0xff);
+				}
+				matchLength += 2;
+				next = (in[ip] & 0xff) | ((in[ip + 1] & 0xff) << 8);
+				ip += 2;
+				mPos -= next >> 2;
+				next &= 3;
+				if (mPos == op) {
+					//end of stream
+					break;
+				}
+				mPos -= 0x4000;
+			}
+			if (mPos < 0) {
+				throw new IOException("corrupt LZO data: match before start of output");
+			}
+			//matches can overlap the output, so copy 1 byte at a time
+			for (int i = 0; i < matchLength; i++) {
+				out[op++] = out[mPos++];
+			}
+			for (int i = 0; i < next; i++) {
+				out[op++] = in[ip++];
+			}
+			state = next;
+		}
+		if (op != out.length) {
+			throw new IOException("LZO data decompressed into " + op + " bytes, expected " + out.length);
+		}
+	}
+
+	/**
+	 Decompress Bohemia Interactive LZSS data (a flag byte for every 8 literals or pointers, where a set bit is a literal
+	 and a pointer is a 12 bit distance and a 4 bit length). The 4 byte checksum after the data isn't checked.
+
+	 @param in compressed data
+	 @param offset where the compressed data starts in <code>in</code>
+	 @param length number of compressed bytes (including the checksum)
+	 @param out where to write the decompressed bytes. The length of the array is the expected decompressed size.
+	 @throws IOException when the data is corrupt or doesn't decompress into exactly <code>out.length</code> bytes
+	 */
+	static void lzssDecompress(@NotNull byte[] in, int offset, int length, @NotNull byte[] out) throws IOException {
+		int ip = offset;
+		int end = offset + length;
+		int op = 0;
+		try {
+			while (op < out.length) {
+				if (ip >= end) {
+					throw new IOException("LZSS data ended early");
+				}
+				int flags = in[ip++] & 0xff;
+				for (int bit = 0; bit < 8 && op < out.length; bit++, flags >>= 1) {
+					if ((flags & 1) != 0) {
+						out[op++] = in[ip++];
+						continue;
+					}
+					int b1 = in[ip++] & 0xff;
+					int b2 = in[ip++] & 0xff;
+					int distance = b1 | ((b2 & 0xf0) << 4);
+					int matchLength = (b2 & 0x0f) + 3;
+					if (op + matchLength > out.length) {
+						throw new IOException("corrupt LZSS data: match past end of output");
+					}
+					for (int i = 0; i < matchLength; i++, op++) {
+						int src = op - distance;
+						//pointers before the start of the output are spaces
+						out[op] = src < 0 ? (byte) ' ' : out[src];
+					}
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IOException("corrupt LZSS data");
+		}
+	}
+}
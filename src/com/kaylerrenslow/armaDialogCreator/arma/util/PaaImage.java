@@ -0,0 +1,370 @@
+package com.kaylerrenslow.armaDialogCreator.arma.util;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ A decoded mipmap of an Arma 3 .paa image. Reading a .paa with this class doesn't need Arma 3 Tools
+ (see {@link ArmaTools#imageToPAA(File, File, File, long)}).
+ <p>
+ Supported types are DXT1, DXT5, ARGB4444, ARGB1555, and ARGB8888. LZO compressed DXT mipmaps and LZSS compressed ARGB mipmaps
+ are supported. Only the mipmap that is read is decompressed and decoded, so reading a small preview of a large image is cheap.
+ TAGGs (including channel swizzling) and the palette are skipped.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class PaaImage {
+
+	/** .paa image types */
+	public enum Type {
+		DXT1(0xff01, 8),
+		DXT5(0xff05, 16),
+		ARGB4444(0x4444, 2),
+		ARGB1555(0x1555, 2),
+		ARGB8888(0x8888, 4);
+
+		private final int tag;
+		private final int size;
+
+		/**
+		 @param tag the type tag at the start of the file
+		 @param size bytes per 4x4 block for DXT types, or bytes per pixel for ARGB types
+		 */
+		Type(int tag, int size) {
+			this.tag = tag;
+			this.size = size;
+		}
+
+		/** @return true if the mipmaps are stored as 4x4 DXT blocks */
+		public boolean isDxt() {
+			return this == DXT1 || this == DXT5;
+		}
+
+		/** @return the type tag at the start of a .paa file */
+		public int getTag() {
+			return tag;
+		}
+
+		/** @return the number of bytes a decompressed mipmap of the given size uses */
+		int getMipmapBytes(int width, int height) {
+			if (isDxt()) {
+				return Math.max(1, (width + 3) / 4) * Math.max(1, (height + 3) / 4) * size;
+			}
+			return width * height * size;
+		}
+
+		@Nullable
+		static Type forTag(int tag) {
+			for (Type type : values()) {
+				if (type.tag == tag) {
+					return type;
+				}
+			}
+			return null;
+		}
+	}
+
+	private static final int TAGG_SIGNATURE = 'G' | 'G' << 8 | 'A' << 16 | 'T' << 24;
+	/** Set on a DXT mipmap's width when the mipmap is LZO compressed */
+	private static final int LZO_FLAG = 0x8000;
+
+	private final Type type;
+	private final int width, height;
+	private final int mipmapLevel;
+	private final int[] argb;
+
+	private PaaImage(@NotNull Type type, int width, int height, int mipmapLevel, @NotNull int[] argb) {
+		this.type = type;
+		this.width = width;
+		this.height = height;
+		this.mipmapLevel = mipmapLevel;
+		this.argb = argb;
+	}
+
+	/** Read the largest mipmap of a .paa file */
+	@NotNull
+	public static PaaImage read(@NotNull File paaFile) throws IOException {
+		return read(paaFile, Integer.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 Read the largest mipmap of a .paa file that fits inside <code>maxWidth</code>x<code>maxHeight</code>.
+	 If no mipmap fits, the smallest mipmap is read.
+
+	 @throws IOException when the file couldn't be read, the type isn't supported, or the data is corrupt
+	 */
+	@NotNull
+	public static PaaImage read(@NotNull File paaFile, int maxWidth, int maxHeight) throws IOException {
+		return read(Files.readAllBytes(paaFile.toPath()), maxWidth, maxHeight);
+	}
+
+	/**
+	 Same as {@link #read(File, int, int)}, but reads from the bytes of a .paa file
+
+	 @throws IOException when the type isn't supported or the data is corrupt
+	 */
+	@NotNull
+	public static PaaImage read(@NotNull byte[] paa, int maxWidth, int maxHeight) throws IOException {
+		try {
+			return doRead(paa, maxWidth, maxHeight);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IOException("paa data ended early");
+		}
+	}
+
+	@NotNull
+	private static PaaImage doRead(@NotNull byte[] paa, int maxWidth, int maxHeight) throws IOException {
+		int tag = u16(paa, 0);
+		Type type = Type.forTag(tag);
+		if (type == null) {
+			throw new IOException("unsupported paa type 0x" + Integer.toHexString(tag));
+		}
+		int pos = 2;
+		while (s32(paa, pos) == TAGG_SIGNATURE) {
+			//signature, name, length, data
+			pos += 8;
+			pos += 4 + s32(paa, pos);
+		}
+		int paletteTriplets = u16(paa, pos);
+		pos += 2 + paletteTriplets * 3;
+
+		//find the mipmap to decode without decompressing any of them
+		int chosenPos = -1, chosenLevel = -1;
+		int smallestPos = -1, smallestLevel = -1;
+		int level = 0;
+		while (pos + 4 <= paa.length) {
+			int width = u16(paa, pos) & ~LZO_FLAG;
+			int height = u16(paa, pos + 2);
+			if (width == 0 || height == 0) {
+				break;
+			}
+			if (width <= maxWidth && height <= maxHeight) {
+				chosenPos = pos;
+				chosenLevel = level;
+				break;
+			}
+			smallestPos = pos;
+			smallestLevel = level;
+			pos += 7 + u24(paa, pos + 4);
+			level++;
+		}
+		if (chosenPos < 0) {
+			if (smallestPos < 0) {
+				throw new IOException("paa has no mipmaps");
+			}
+			chosenPos = smallestPos;
+			chosenLevel = smallestLevel;
+		}
+
+		int rawWidth = u16(paa, chosenPos);
+		int width = rawWidth & ~LZO_FLAG;
+		int height = u16(paa, chosenPos + 2);
+		int dataLength = u24(paa, chosenPos + 4);
+		int dataPos = chosenPos + 7;
+		if (dataPos + dataLength > paa.length) {
+			throw new IOException("paa mipmap data ended early");
+		}
+
+		int expectedBytes = type.getMipmapBytes(width, height);
+		byte[] data;
+		int dataOffset;
+		if (type.isDxt() && (rawWidth & LZO_FLAG) != 0) {
+			data = new byte[expectedBytes];
+			dataOffset = 0;
+			PaaCompression.lzo1xDecompress(paa, dataPos, dataLength, data);
+		} else if (!type.isDxt() && dataLength != expectedBytes) {
+			data = new byte[expectedBytes];
+			dataOffset = 0;
+			PaaCompression.lzssDecompress(paa, dataPos, dataLength, data);
+		} else if (dataLength < expectedBytes) {
+			throw new IOException("paa mipmap is " + dataLength + " bytes, expected " + expectedBytes);
+		} else {
+			data = paa;
+			dataOffset = dataPos;
+		}
+
+		int[] argb = new int[width * height];
+		switch (type) {
+			case DXT1: {
+				decodeDxt(data, dataOffset, width, height, argb, false);
+				break;
+			}
+			case DXT5: {
+				decodeDxt(data, dataOffset, width, height, argb, true);
+				break;
+			}
+			case ARGB4444: {
+				for (int i = 0; i < argb.length; i++) {
+					int c = u16(data, dataOffset + i * 2);
+					argb[i] = ((c >> 12) & 0xf) * 0x11 << 24 | ((c >> 8) & 0xf) * 0x11 << 16 | ((c >> 4) & 0xf) * 0x11 << 8 | (c & 0xf) * 0x11;
+				}
+				break;
+			}
+			case ARGB1555: {
+				for (int i = 0; i < argb.length; i++) {
+					int c = u16(data, dataOffset + i * 2);
+					int a = (c & 0x8000) != 0 ? 0xff : 0;
+					argb[i] = a << 24 | expand5((c >> 10) & 0x1f) << 16 | expand5((c >> 5) & 0x1f) << 8 | expand5(c & 0x1f);
+				}
+				break;
+			}
+			case ARGB8888: {
+				//stored as B, G, R, A
+				for (int i = 0; i < argb.length; i++) {
+					argb[i] = s32(data, dataOffset + i * 4);
+				}
+				break;
+			}
+			default: {
+				throw new IllegalStateException("unhandled type " + type);
+			}
+		}
+
+		return new PaaImage(type, width, height, chosenLevel, argb);
+	}
+
+	private static void decodeDxt(@NotNull byte[] data, int offset, int width, int height, @NotNull int[] argb, boolean dxt5) {
+		int blocksWide = Math.max(1, (width + 3) / 4);
+		int blocksHigh = Math.max(1, (height + 3) / 4);
+		int[] colors = new int[4];
+		int[] alphas = new int[8];
+		int pos = offset;
+		for (int by = 0; by < blocksHigh; by++) {
+			for (int bx = 0; bx < blocksWide; bx++) {
+				long alphaBits = 0;
+				if (dxt5) {
+					int a0 = data[pos] & 0xff;
+					int a1 = data[pos + 1] & 0xff;
+					alphas[0] = a0;
+					alphas[1] = a1;
+					if (a0 > a1) {
+						for (int i = 2; i < 8; i++) {
+							alphas[i] = ((8 - i) * a0 + (i - 1) * a1) / 7;
+						}
+					} else {
+						for (int i = 2; i < 6; i++) {
+							alphas[i] = ((6 - i) * a0 + (i - 1) * a1) / 5;
+						}
+						alphas[6] = 0;
+						alphas[7] = 0xff;
+					}
+					for (int i = 0; i < 6; i++) {
+						alphaBits |= (long) (data[pos + 2 + i] & 0xff) << (8 * i);
+					}
+					pos += 8;
+				}
+
+				int c0 = u16(data, pos);
+				int c1 = u16(data, pos + 2);
+				int r0 = expand5(c0 >> 11), g0 = expand6((c0 >> 5) & 0x3f), b0 = expand5(c0 & 0x1f);
+				int r1 = expand5(c1 >> 11), g1 = expand6((c1 >> 5) & 0x3f), b1 = expand5(c1 & 0x1f);
+				colors[0] = 0xff000000 | r0 << 16 | g0 << 8 | b0;
+				colors[1] = 0xff000000 | r1 << 16 | g1 << 8 | b1;
+				if (dxt5 || c0 > c1) {
+					colors[2] = 0xff000000 | (2 * r0 + r1) / 3 << 16 | (2 * g0 + g1) / 3 << 8 | (2 * b0 + b1) / 3;
+					colors[3] = 0xff000000 | (r0 + 2 * r1) / 3 << 16 | (g0 + 2 * g1) / 3 << 8 | (b0 + 2 * b1) / 3;
+				} else {
+					colors[2] = 0xff000000 | (r0 + r1) / 2 << 16 | (g0 + g1) / 2 << 8 | (b0 + b1) / 2;
+					colors[3] = 0;
+				}
+				int colorBits = s32(data, pos + 4);
+				pos += 8;
+
+				for (int py = 0; py < 4; py++) {
+					int y = by * 4 + py;
+					if (y >= height) {
+						break;
+					}
+					for (int px = 0; px < 4; px++) {
+						int x = bx * 4 + px;
+						if (x >= width) {
+							continue;
+						}
+						int i = py * 4 + px;
+						int color = colors[(colorBits >>> (2 * i)) & 3];
+						if (dxt5) {
+							color = (color & 0x00ffffff) | alphas[(int) (alphaBits >>> (3 * i)) & 7] << 24;
+						}
+						argb[y * width + x] = color;
+					}
+				}
+			}
+		}
+	}
+
+	private static int expand5(int v) {
+		return (v << 3) | (v >> 2);
+	}
+
+	private static int expand6(int v) {
+		return (v << 2) | (v >> 4);
+	}
+
+	private static int u16(@NotNull byte[] b, int pos) {
+		return (b[pos] & 0xff) | (b[pos + 1] & 0xff) << 8;
+	}
+
+	private static int u24(@NotNull byte[] b, int pos) {
+		return (b[pos] & 0xff) | (b[pos + 1] & 0xff) << 8 | (b[pos + 2] & 0xff) << 16;
+	}
+
+	private static int s32(@NotNull byte[] b, int pos) {
+		return (b[pos] & 0xff) | (b[pos + 1] & 0xff) << 8 | (b[pos + 2] & 0xff) << 16 | (b[pos + 3] & 0xff) << 24;
+	}
+
+	/** @return the type of the .paa image */
+	@NotNull
+	public Type getType() {
+		return type;
+	}
+
+	/** @return width of the decoded mipmap */
+	public int getWidth() {
+		return width;
+	}
+
+	/** @return height of the decoded mipmap */
+	public int getHeight() {
+		return height;
+	}
+
+	/** @return the index of the decoded mipmap, where 0 is the largest */
+	public int getMipmapLevel() {
+		return mipmapLevel;
+	}
+
+	/** @return the decoded pixels (non-premultiplied ARGB, row by row). Changes to the array will change this image. */
+	@NotNull
+	public int[] getArgb() {
+		return argb;
+	}
+
+	/** Create a JavaFX image of the decoded pixels. The image can be created on any thread. */
+	@NotNull
+	public WritableImage toWritableImage() {
+		WritableImage image = new WritableImage(width, height);
+		image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+		return image;
+	}
+
+	/**
+	 Write the decoded pixels to a .png file
+
+	 @throws IOException when the file couldn't be written
+	 */
+	public void writePng(@NotNull File pngFile) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, width, height, argb, 0, width);
+		if (!ImageIO.write(image, "png", pngFile)) {
+			throw new IOException("no png writer");
+		}
+	}
+}
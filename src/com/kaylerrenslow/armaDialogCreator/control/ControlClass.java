@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -31,6 +32,14 @@ import java.util.function.Consumer;
  @author Kayler
  @since 05/23/2016. */
 public class ControlClass {
+	/**
+	 Incremented every time any {@link ControlClass} is renamed. The nested class tables are keyed by class name,
+	 so they are rebuilt when this changes.
+	 */
+	private static final AtomicInteger classRenameCount = new AtomicInteger(0);
+	/** The batch that is running on the current thread. See {@link #batchInheritanceUpdates(Runnable)} */
+	private static final ThreadLocal<InheritanceBatch> inheritanceBatch = new ThreadLocal<>();
+
 	private final ControlClassRequirementSpecification specProvider;
 
 	private final List<ControlProperty> requiredProperties = new LinkedList<>();
@@ -39,6 +48,15 @@ public class ControlClass {
 	private final ReadOnlyList<ControlProperty> requiredPropertiesReadOnly = new ReadOnlyList<>(requiredProperties);
 	private final ReadOnlyList<ControlProperty> optionalPropertiesReadOnly = new ReadOnlyList<>(optionalProperties);
 	private final ReadOnlyList<ControlProperty> tempPropertiesReadOnly = new ReadOnlyList<>(tempProperties);
+	/*
+	 Lookup tables for requiredProperties and optionalProperties. Lookup constants come from more than one enum,
+	 so an identity map is used instead of an EnumMap. Only the first property for a key is stored so that the tables
+	 match what a linear search of the lists would find. Properties are never removed from the lists.
+	 */
+	private final IdentityHashMap<ControlPropertyLookupConstant, ControlProperty> requiredPropertiesByLookup = new IdentityHashMap<>();
+	private final IdentityHashMap<ControlPropertyLookupConstant, ControlProperty> optionalPropertiesByLookup = new IdentityHashMap<>();
+	private final HashMap<String, ControlProperty> requiredPropertiesByName = new HashMap<>();
+	private final HashMap<String, ControlProperty> optionalPropertiesByName = new HashMap<>();
 
 	private final List<ControlClass> requiredNestedClasses = new LinkedList<>();
 	private final List<ControlClass> optionalNestedClasses = new LinkedList<>();
@@ -48,72 +66,36 @@ public class ControlClass {
 	private final ReadOnlyList<ControlClass> inheritedNestedClassesReadOnly = new ReadOnlyList<>(inheritedNestedClasses);
 	private final List<ControlClass> tempNestedClasses = new LinkedList<>();
 	private final ReadOnlyList<ControlClass> tempNestedClassesReadOnly = new ReadOnlyList<>(tempNestedClasses);
+	private final NestedClassTable requiredNestedClassesByName = new NestedClassTable(requiredNestedClasses);
+	private final NestedClassTable optionalNestedClassesByName = new NestedClassTable(optionalNestedClasses);
 
 	private final DataContext userData = new DataContext();
 
 	private final ValueObserver<String> classNameObserver = new ValueObserver<>(null);
 	private final ValueObserver<ControlClass> extendClassObserver = new ValueObserver<>(null);
-	private final Set<ControlClass> mySubClasses = new HashSet<>();
+	private final Set<ControlClass> mySubClasses = new LinkedHashSet<>();
 
 	/** set to true when {@link #extendControlClass(ControlClass)} is invoked, false after the method has completed */
 	private boolean updatingExtendClass = false;
 
 	private final UpdateListenerGroup<ControlPropertyUpdate> propertyUpdateGroup = new UpdateListenerGroup<>();
 	private final UpdateListenerGroup<ControlClassUpdate> controlClassUpdateGroup = new UpdateListenerGroup<>();
-	/** This listener is for handling any inheritance updates */
-	private final UpdateGroupListener<ControlClassUpdate> controlClassUpdateExtendListener = new UpdateGroupListener<ControlClassUpdate>() {
-		@Override
-		public void update(@NotNull UpdateListenerGroup<ControlClassUpdate> group, ControlClassUpdate data) {
-			if (data instanceof ControlClassTemporaryPropertyUpdate) {
-				handleTempPropertyUpdate((ControlClassTemporaryPropertyUpdate) data);
-			} else if (data instanceof ControlClassTemporaryNestedClassUpdate) {
-				handleTempNestedClassUpdate((ControlClassTemporaryNestedClassUpdate) data);
-			}
-		}
-
-		private void handleTempNestedClassUpdate(ControlClassTemporaryNestedClassUpdate update) {
-			ControlClass mine = findNestedClassNullable(update.getNestedClass().getClassName());
-			ControlClass updateNested = update.getNestedClass();
-			if (update.isAdded()) {
-				if (mine == null) {
-					optionalNestedClasses.add(updateNested);
-					tempNestedClasses.add(updateNested);
-				}
-			} else {
-				if (mine != null) {
-					optionalNestedClasses.remove(updateNested);
-					tempNestedClasses.remove(updateNested);
-				}
-			}
-			controlClassUpdateGroup.update(
-					new ControlClassTemporaryNestedClassUpdate(ControlClass.this, updateNested, update.isAdded())
-			);
-		}
-
-		private void handleTempPropertyUpdate(ControlClassTemporaryPropertyUpdate tempPropertyUpdate) {
-			ControlProperty mine = findPropertyByNameNullable(tempPropertyUpdate.getProperty().getName());
-			ControlPropertyLookupConstant constant = tempPropertyUpdate.getProperty().getPropertyLookup();
-			if (tempPropertyUpdate.isAdded()) {
-				if (mine == null || !propertyIsOverridden(mine)) {
-					inheritProperty(constant);
-				}
-			} else {
-				if (mine == null || !mine.isInherited()) {
-					overrideProperty(constant);
-				}
-			}
-		}
-	};
 	private final UpdateGroupListener<ControlPropertyUpdate> controlPropertyListener = new UpdateGroupListener<ControlPropertyUpdate>() {
 		@Override
 		public void update(@NotNull UpdateListenerGroup<ControlPropertyUpdate> group, ControlPropertyUpdate data) {
 			if (data instanceof ControlPropertyInheritUpdate) {
 				ControlPropertyInheritUpdate update = (ControlPropertyInheritUpdate) data;
-				controlClassUpdateGroup.update(
-						new ControlClassInheritPropertyUpdate(ControlClass.this,
-								update.getControlProperty(), update.wasInherited(), updatingExtendClass
-						)
+				ControlClassInheritPropertyUpdate classUpdate = new ControlClassInheritPropertyUpdate(ControlClass.this,
+						update.getControlProperty(), update.wasInherited(), updatingExtendClass
 				);
+				InheritanceBatch batch = inheritanceBatch.get();
+				if (batch != null) {
+					//the ControlClassPropertyUpdate is skipped since the batch update already has the inherit update
+					batch.record(ControlClass.this, classUpdate);
+					propertyUpdateGroup.update(data);
+					return;
+				}
+				controlClassUpdateGroup.update(classUpdate);
 			}
 			propertyUpdateGroup.update(data);
 			controlClassUpdateGroup.update(new ControlClassPropertyUpdate(ControlClass.this, data));
@@ -158,13 +140,13 @@ public class ControlClass {
 		prefetch.addAll(specProvider.getOptionalProperties());
 		registry.prefetchValues(prefetch, context);
 
-		addProperties(requiredProperties, specProvider.getRequiredProperties(), registry);
-		addProperties(optionalProperties, specProvider.getOptionalProperties(), registry);
+		addProperties(true, specProvider.getRequiredProperties(), registry);
+		addProperties(false, specProvider.getOptionalProperties(), registry);
 
 		registry.cleanup();
 
-		addNestedClasses(requiredNestedClasses, registry, specProvider.getRequiredNestedClasses(), context);
-		addNestedClasses(optionalNestedClasses, registry, specProvider.getOptionalNestedClasses(), context);
+		addNestedClasses(true, registry, specProvider.getRequiredNestedClasses(), context);
+		addNestedClasses(false, registry, specProvider.getOptionalNestedClasses(), context);
 
 		afterPropertyAndNestedClassConstruction();
 	}
@@ -202,8 +184,8 @@ public class ControlClass {
 
 		LinkedList<ControlPropertyLookupConstant> prefetch = new LinkedList<>();
 
-		addProperties(specification.getRequiredControlProperties(), requiredProperties, registry, prefetch);
-		addProperties(specification.getOptionalControlProperties(), optionalProperties, registry, prefetch);
+		addProperties(specification.getRequiredControlProperties(), true, registry, prefetch);
+		addProperties(specification.getOptionalControlProperties(), false, registry, prefetch);
 
 		if (context != null) {
 			registry.prefetchValues(prefetch, context);
@@ -218,10 +200,10 @@ public class ControlClass {
 		}
 
 		for (ControlClassSpecification s : specification.getRequiredNestedClasses()) {
-			requiredNestedClasses.add(s.constructNewControlClass(registry, new DefaultValueProvider.ControlClassNameContext(context, s.getClassName())));
+			addRequiredNestedClass(s.constructNewControlClass(registry, new DefaultValueProvider.ControlClassNameContext(context, s.getClassName())));
 		}
 		for (ControlClassSpecification s : specification.getOptionalNestedClasses()) {
-			optionalNestedClasses.add(s.constructNewControlClass(registry, new DefaultValueProvider.ControlClassNameContext(context, s.getClassName())));
+			addOptionalNestedClass(s.constructNewControlClass(registry, new DefaultValueProvider.ControlClassNameContext(context, s.getClassName())));
 		}
 
 		//needs to come before extendControlClass, otherwise we will be attaching listeners to temporary inherited properties
@@ -254,36 +236,70 @@ public class ControlClass {
 				if (newValue == null) {
 					throw new IllegalArgumentException("class name can't be null");
 				}
+				classRenameCount.incrementAndGet();
 				controlClassUpdateGroup.update(new ControlClassRenameUpdate(ControlClass.this, oldValue, newValue));
 			}
 		});
 	}
 
-	private void addProperties(@NotNull Iterable<ControlPropertySpecification> props, @NotNull List<ControlProperty> addTo,
+	private void addProperties(@NotNull Iterable<ControlPropertySpecification> props, boolean required,
 							   @NotNull SpecificationRegistry registry, @NotNull LinkedList<ControlPropertyLookupConstant> prefetch) {
 		for (ControlPropertySpecification property : props) {
 			ControlProperty p = property.constructNewControlProperty(registry);
-			addTo.add(p);
+			addProperty(required, p);
 			prefetch.add(p.getPropertyLookup());
 		}
 	}
 
-	private void addProperties(@NotNull List<ControlProperty> propertiesList,
+	private void addProperties(boolean required,
 							   @NotNull List<ControlPropertyLookupConstant> props,
 							   @NotNull SpecificationRegistry registry) {
 		for (ControlPropertyLookupConstant lookup : props) {
-			propertiesList.add(lookup.newEmptyProperty(registry));
+			addProperty(required, lookup.newEmptyProperty(registry));
 		}
 	}
 
-	private void addNestedClasses(@NotNull List<ControlClass> nestedClasses, @NotNull SpecificationRegistry registry,
+	private void addNestedClasses(boolean required, @NotNull SpecificationRegistry registry,
 								  @NotNull List<ControlClassSpecification> nestedClassesSpecs,
 								  @Nullable DefaultValueProvider.Context context) {
 		for (ControlClassSpecification nestedClass : nestedClassesSpecs) {
-			nestedClasses.add(new ControlClass(nestedClass, registry, new DefaultValueProvider.ControlClassNameContext(context, nestedClass.getClassName())));
+			ControlClass c = new ControlClass(nestedClass, registry, new DefaultValueProvider.ControlClassNameContext(context, nestedClass.getClassName()));
+			if (required) {
+				addRequiredNestedClass(c);
+			} else {
+				addOptionalNestedClass(c);
+			}
 		}
 	}
 
+	/** Add to {@link #requiredProperties} or {@link #optionalProperties} and their lookup tables */
+	private void addProperty(boolean required, @NotNull ControlProperty property) {
+		if (required) {
+			requiredProperties.add(property);
+			requiredPropertiesByLookup.putIfAbsent(property.getPropertyLookup(), property);
+			requiredPropertiesByName.putIfAbsent(property.getName(), property);
+		} else {
+			optionalProperties.add(property);
+			optionalPropertiesByLookup.putIfAbsent(property.getPropertyLookup(), property);
+			optionalPropertiesByName.putIfAbsent(property.getName(), property);
+		}
+	}
+
+	private void addRequiredNestedClass(@NotNull ControlClass nested) {
+		requiredNestedClasses.add(nested);
+		requiredNestedClassesByName.invalidate();
+	}
+
+	private void addOptionalNestedClass(@NotNull ControlClass nested) {
+		optionalNestedClasses.add(nested);
+		optionalNestedClassesByName.invalidate();
+	}
+
+	private void removeOptionalNestedClass(@NotNull ControlClass nested) {
+		optionalNestedClasses.remove(nested);
+		optionalNestedClassesByName.invalidate();
+	}
+
 	@NotNull
 	public final String getClassName() {
 		if (classNameObserver.getValue() == null) {
@@ -364,10 +380,14 @@ public class ControlClass {
 	 @see ControlProperty#inherit(ControlProperty)
 	 */
 	public final void extendControlClass(@Nullable ControlClass extendMe) {
-		ControlClass oldExtendClass = getExtendClass();
-		if (oldExtendClass == extendMe) {
+		if (getExtendClass() == extendMe) {
 			return;
 		}
+		batchInheritanceUpdates(() -> extendControlClassInBatch(extendMe));
+	}
+
+	private void extendControlClassInBatch(@Nullable ControlClass extendMe) {
+		ControlClass oldExtendClass = getExtendClass();
 
 		Iterable<ControlProperty> oldInherits = getInheritedProperties();
 
@@ -391,66 +411,58 @@ public class ControlClass {
 			for (ControlClass nested : extendMe.getAllNestedClasses()) {
 				ControlClass nestedMatch = findNestedClassNullable(nested.getClassName());
 				if (nestedMatch == null) {
-					optionalNestedClasses.add(nested);
+					addOptionalNestedClass(nested);
 					tempNestedClasses.add(nested);
-					getControlClassUpdateGroup().update(
-							new ControlClassTemporaryNestedClassUpdate(this, nested, true)
-					);
+					tempNestedClassUpdate(nested, true);
 				} else {
 					//do nothing if the nested class already exists (tested this Aug 5, 2017)
 				}
 			}
 
-			extendMe.getControlClassUpdateGroup().addListener(controlClassUpdateExtendListener);
 			extendMe.mySubClasses.add(this);
 		} else {
 			//remove all temp properties
-			for (ControlProperty tempProperty : tempProperties) {
-				controlClassUpdateGroup.update(new ControlClassTemporaryPropertyUpdate(this, tempProperty, false));
-			}
+			List<ControlProperty> oldTempProperties = new ArrayList<>(tempProperties);
 			tempProperties.clear();
+			for (ControlProperty tempProperty : oldTempProperties) {
+				tempPropertyUpdate(tempProperty, false);
+			}
 
 			//remove all temp nested classes
-			for (ControlClass tempNested : tempNestedClasses) {
-				optionalNestedClasses.remove(tempNested);
-				controlClassUpdateGroup.update(new ControlClassTemporaryNestedClassUpdate(this, tempNested, false));
-			}
+			List<ControlClass> oldTempNestedClasses = new ArrayList<>(tempNestedClasses);
 			tempNestedClasses.clear();
+			for (ControlClass tempNested : oldTempNestedClasses) {
+				removeOptionalNestedClass(tempNested);
+				tempNestedClassUpdate(tempNested, false);
+			}
 
 
 			//tell all sub classes that this class isn't extending anything
-			for (ControlClass subClass : mySubClasses) {
+			//the temporary properties were inherited from the extend class, so sub classes can't inherit them anymore
+			Set<ControlProperty> myProperties = Collections.newSetFromMap(new IdentityHashMap<>());
+			getAllChildProperties().forEach(myProperties::add);
+			oldTempProperties.forEach(myProperties::remove);
+			Set<ControlClass> myNestedClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+			getAllNestedClasses().forEach(myNestedClasses::add);
+
+			for (ControlClass subClass : new ArrayList<>(mySubClasses)) {
 				for (ControlProperty inheritedProperty : subClass.getInheritedProperties()) {
-					boolean matched = false;
-					for (ControlProperty myProperty : getAllChildProperties()) {
-						if (inheritedProperty.getInherited() == myProperty) {
-							//If the property exists in this control class, nothing needs to be done.
-							//If the property was inherited by this control class's extend class, it needs to be removed.
-							matched = true;
-							break;
-						}
-					}
-					if (!matched) {
+					//If the property exists in this control class, nothing needs to be done.
+					//If the property was inherited by this control class's extend class, it needs to be removed.
+					if (!myProperties.contains(inheritedProperty.getInherited())) {
 						subClass.overrideProperty(inheritedProperty.getPropertyLookup());
 					}
 				}
-				for (ControlClass tempNested : subClass.tempNestedClasses) {
-					boolean matched = false;
-					for (ControlClass myNestedClass : getAllNestedClasses()) {
-						if (tempNested == myNestedClass) {
-							//was inherited from this control class
-							matched = true;
-							break;
-						}
-					}
-					if (matched) {
+				for (ControlClass tempNested : new ArrayList<>(subClass.tempNestedClasses)) {
+					if (myNestedClasses.contains(tempNested)) {
+						//was inherited from this control class
 						continue;
 					}
 					//If reached this point, the temp nested class was the result of this control class's extend class
 					//so it needs to be removed.
 					subClass.tempNestedClasses.remove(tempNested);
-					subClass.optionalNestedClasses.remove(tempNested);
-					subClass.controlClassUpdateGroup.update(new ControlClassTemporaryNestedClassUpdate(subClass, tempNested, false));
+					subClass.removeOptionalNestedClass(tempNested);
+					subClass.tempNestedClassUpdate(tempNested, false);
 				}
 
 			}
@@ -464,15 +476,13 @@ public class ControlClass {
 				nested.extendControlClass(null);
 			}
 
-			oldExtendClass.getControlClassUpdateGroup().removeListener(controlClassUpdateExtendListener);
 			oldExtendClass.mySubClasses.remove(this);
 
 		}
 
 		extendClassObserver.updateValue(extendMe);
-		controlClassUpdateGroup.update(
-				new ControlClassExtendUpdate(this, oldExtendClass, extendMe, oldInherits)
-		);
+		//sent after the batched inheritance updates
+		inheritanceBatch.get().defer(new ControlClassExtendUpdate(this, oldExtendClass, extendMe, oldInherits));
 
 		updatingExtendClass = false;
 
@@ -661,7 +671,7 @@ public class ControlClass {
 	 */
 	@Nullable
 	public final ControlProperty findRequiredPropertyNullable(@NotNull ControlPropertyLookupConstant lookup) {
-		return findPropertyFromList(lookup, getRequiredProperties());
+		return requiredPropertiesByLookup.get(lookup);
 	}
 
 	/**
@@ -691,7 +701,7 @@ public class ControlClass {
 	 */
 	@Nullable
 	public final ControlProperty findOptionalPropertyNullable(@NotNull ControlPropertyLookupConstant lookup) {
-		return findPropertyFromList(lookup, getOptionalProperties());
+		return optionalPropertiesByLookup.get(lookup);
 	}
 
 	/**
@@ -736,16 +746,6 @@ public class ControlClass {
 		return null;
 	}
 
-	@Nullable
-	private ControlProperty findPropertyFromList(@NotNull ControlPropertyLookupConstant lookup, @NotNull Iterable<ControlProperty> iterable) {
-		for (ControlProperty controlProperty : iterable) {
-			if (controlProperty.getPropertyLookup() == lookup) {
-				return controlProperty;
-			}
-		}
-		return null;
-	}
-
 	/**
 	 Get the control property instance by name ({@link ControlProperty#getName()}).
 	 The search will be done inside {@link #getOptionalProperties()}
@@ -756,7 +756,7 @@ public class ControlClass {
 	 */
 	@Nullable
 	public final ControlProperty findOptionalPropertyByNameNullable(@NotNull String propertyName) {
-		return findPropertyByNameFromList(propertyName, optionalProperties);
+		return optionalPropertiesByName.get(propertyName);
 	}
 
 	/**
@@ -768,7 +768,7 @@ public class ControlClass {
 	 */
 	@Nullable
 	public final ControlProperty findRequiredPropertyByNameNullable(@NotNull String propertyName) {
-		return findPropertyByNameFromList(propertyName, requiredProperties);
+		return requiredPropertiesByName.get(propertyName);
 	}
 
 	/**
@@ -781,21 +781,11 @@ public class ControlClass {
 	 */
 	@Nullable
 	public final ControlProperty findPropertyByNameNullable(@NotNull String propertyName) {
-		ControlProperty c = findPropertyByNameFromList(propertyName, requiredProperties);
+		ControlProperty c = requiredPropertiesByName.get(propertyName);
 		if (c != null) {
 			return c;
 		}
-		return findPropertyByNameFromList(propertyName, optionalProperties);
-	}
-
-	@Nullable
-	private ControlProperty findPropertyByNameFromList(@NotNull String propertyName, @NotNull Iterable<ControlProperty> iterable) {
-		for (ControlProperty controlProperty : iterable) {
-			if (controlProperty.getName().equals(propertyName)) {
-				return controlProperty;
-			}
-		}
-		return null;
+		return optionalPropertiesByName.get(propertyName);
 	}
 
 	private void noPropertyMatch(@NotNull ControlPropertyLookupConstant lookup, @NotNull String place) {
@@ -826,7 +816,7 @@ public class ControlClass {
 	 */
 	@Nullable
 	public final ControlClass findRequiredNestedClassNullable(@NotNull String className) {
-		return findNestedClassFromList(className, requiredNestedClasses);
+		return requiredNestedClassesByName.find(className);
 	}
 
 	/**
@@ -853,7 +843,7 @@ public class ControlClass {
 	 */
 	@Nullable
 	public final ControlClass findOptionalNestedClassNullable(@NotNull String className) {
-		return findNestedClassFromList(className, optionalNestedClasses);
+		return optionalNestedClassesByName.find(className);
 	}
 
 	/**
@@ -887,14 +877,69 @@ public class ControlClass {
 		return findOptionalNestedClassNullable(className);
 	}
 
-	@Nullable
-	private ControlClass findNestedClassFromList(@NotNull String className, @NotNull Iterable<ControlClass> list) {
-		for (ControlClass controlClass : list) {
-			if (controlClass.getClassName().equals(className)) {
-				return controlClass;
+	/** Updates collected by {@link #batchInheritanceUpdates(Runnable)} */
+	private static class InheritanceBatch {
+		/** Updates to send when the batch is done, in order */
+		private final List<ControlClassUpdate> pending = new ArrayList<>();
+		private final IdentityHashMap<ControlClass, ControlClassInheritanceBatchUpdate> batchUpdates = new IdentityHashMap<>();
+
+		/** Coalesce the update into the {@link ControlClassInheritanceBatchUpdate} for the given class */
+		void record(@NotNull ControlClass controlClass, @NotNull ControlClassUpdate update) {
+			ControlClassInheritanceBatchUpdate batchUpdate = batchUpdates.get(controlClass);
+			if (batchUpdate == null) {
+				batchUpdate = new ControlClassInheritanceBatchUpdate(controlClass);
+				batchUpdates.put(controlClass, batchUpdate);
+				pending.add(batchUpdate);
 			}
+			batchUpdate.add(update);
+		}
+
+		/** Send the given update as is when the batch is done */
+		void defer(@NotNull ControlClassUpdate update) {
+			pending.add(update);
+		}
+
+		void flush() {
+			for (ControlClassUpdate update : pending) {
+				if (update instanceof ControlClassInheritanceBatchUpdate && ((ControlClassInheritanceBatchUpdate) update).isEmpty()) {
+					continue;
+				}
+				update.getOwnerControlClass().controlClassUpdateGroup.update(update);
+			}
+		}
+	}
+
+	/**
+	 A name lookup table for a list of nested classes. The table is rebuilt lazily when the list changes
+	 ({@link #invalidate()}) or when any {@link ControlClass} is renamed.
+	 */
+	private static class NestedClassTable {
+		private final List<ControlClass> list;
+		private final HashMap<String, ControlClass> byName = new HashMap<>();
+		private boolean valid = false;
+		private int renameCount;
+
+		NestedClassTable(@NotNull List<ControlClass> list) {
+			this.list = list;
+		}
+
+		synchronized void invalidate() {
+			valid = false;
+		}
+
+		@Nullable
+		synchronized ControlClass find(@NotNull String className) {
+			int currentRenameCount = classRenameCount.get();
+			if (!valid || renameCount != currentRenameCount) {
+				byName.clear();
+				for (ControlClass controlClass : list) {
+					byName.putIfAbsent(controlClass.getClassName(), controlClass);
+				}
+				renameCount = currentRenameCount;
+				valid = true;
+			}
+			return byName.get(className);
 		}
-		return null;
 	}
 
 	private void noClassMatch(@NotNull String className, @NotNull String place) {
@@ -931,7 +976,7 @@ public class ControlClass {
 			return;
 		}
 		tempProperties.remove(index);
-		controlClassUpdateGroup.update(new ControlClassTemporaryPropertyUpdate(this, mine, false));
+		tempPropertyUpdate(mine, false);
 	}
 
 	/**
@@ -978,15 +1023,105 @@ public class ControlClass {
 		if (mine == null) {
 			//create a temporary property for this class
 			mine = lookup.newEmptyProperty(null);
-			controlClassUpdateGroup.update(new ControlClassTemporaryPropertyUpdate(this, mine, true));
 			tempProperties.add(mine);
-			optionalProperties.add(mine);
+			addProperty(false, mine);
+			mine.inherit(inherit);
+			//the update is sent after the property exists so that sub classes can inherit it
+			tempPropertyUpdate(mine, true);
+			return true;
 		}
 		mine.inherit(inherit);
 
 		return true;
 	}
 
+	/**
+	 Runs the given runnable and batches all inheritance updates that it causes. Instead of a
+	 {@link ControlClassTemporaryPropertyUpdate}, {@link ControlClassTemporaryNestedClassUpdate}, or
+	 {@link ControlClassInheritPropertyUpdate} being sent to {@link #getControlClassUpdateGroup()} for each property,
+	 each affected {@link ControlClass} gets one {@link ControlClassInheritanceBatchUpdate} after the runnable is done.
+	 Sub classes are still updated immediately, so the inheritance tree is consistent when the runnable returns.
+	 <p>
+	 {@link #extendControlClass(ControlClass)} always runs inside a batch. If a batch is already running on the current
+	 thread, the runnable becomes part of that batch.
+
+	 @param runnable runnable to run
+	 */
+	public static void batchInheritanceUpdates(@NotNull Runnable runnable) {
+		if (inheritanceBatch.get() != null) {
+			runnable.run();
+			return;
+		}
+		InheritanceBatch batch = new InheritanceBatch();
+		inheritanceBatch.set(batch);
+		try {
+			runnable.run();
+		} finally {
+			inheritanceBatch.remove();
+			batch.flush();
+		}
+	}
+
+	/** Send a {@link ControlClassTemporaryPropertyUpdate} and update all sub classes */
+	private void tempPropertyUpdate(@NotNull ControlProperty tempProperty, boolean added) {
+		ControlClassTemporaryPropertyUpdate update = new ControlClassTemporaryPropertyUpdate(this, tempProperty, added);
+		sendInheritanceUpdate(update);
+		for (ControlClass subClass : new ArrayList<>(mySubClasses)) {
+			subClass.extendClassTempPropertyUpdate(update);
+		}
+	}
+
+	/** Send a {@link ControlClassTemporaryNestedClassUpdate} and update all sub classes */
+	private void tempNestedClassUpdate(@NotNull ControlClass tempNested, boolean added) {
+		ControlClassTemporaryNestedClassUpdate update = new ControlClassTemporaryNestedClassUpdate(this, tempNested, added);
+		sendInheritanceUpdate(update);
+		for (ControlClass subClass : new ArrayList<>(mySubClasses)) {
+			subClass.extendClassTempNestedClassUpdate(update);
+		}
+	}
+
+	private void sendInheritanceUpdate(@NotNull ControlClassUpdate update) {
+		InheritanceBatch batch = inheritanceBatch.get();
+		if (batch != null) {
+			batch.record(this, update);
+		} else {
+			controlClassUpdateGroup.update(update);
+		}
+	}
+
+	/** Invoked when {@link #getExtendClass()} added or removed a temporary property */
+	private void extendClassTempPropertyUpdate(@NotNull ControlClassTemporaryPropertyUpdate update) {
+		ControlProperty mine = findPropertyByNameNullable(update.getProperty().getName());
+		ControlPropertyLookupConstant constant = update.getProperty().getPropertyLookup();
+		if (update.isAdded()) {
+			if (mine == null || !propertyIsOverridden(mine)) {
+				inheritProperty(constant);
+			}
+		} else {
+			if (mine == null || !mine.isInherited()) {
+				overrideProperty(constant);
+			}
+		}
+	}
+
+	/** Invoked when {@link #getExtendClass()} added or removed a temporary nested class */
+	private void extendClassTempNestedClassUpdate(@NotNull ControlClassTemporaryNestedClassUpdate update) {
+		ControlClass mine = findNestedClassNullable(update.getNestedClass().getClassName());
+		ControlClass updateNested = update.getNestedClass();
+		if (update.isAdded()) {
+			if (mine == null) {
+				addOptionalNestedClass(updateNested);
+				tempNestedClasses.add(updateNested);
+			}
+		} else {
+			if (mine != null) {
+				removeOptionalNestedClass(updateNested);
+				tempNestedClasses.remove(updateNested);
+			}
+		}
+		tempNestedClassUpdate(updateNested, update.isAdded());
+	}
+
 	/**
 	 In order for a property to be overridden, the property exists in this {@link ControlClass},
 	 the property is defined ({@link #propertyIsDefined(ControlProperty)}), and the property isn't
@@ -1260,7 +1395,7 @@ public class ControlClass {
 		for (ControlProperty property : controlClass.getAllChildProperties()) {
 			ControlProperty m = findPropertyNullable(property.getPropertyLookup());
 			if (m == null) {
-				optionalProperties.add(property);
+				addProperty(false, property);
 			} else {
 				m.setTo(property);
 			}
@@ -1268,7 +1403,7 @@ public class ControlClass {
 		for (ControlClass nested : controlClass.getAllNestedClasses()) {
 			ControlClass m = findNestedClassNullable(nested.getClassName());
 			if (m == null) {
-				optionalNestedClasses.add(nested);
+				addOptionalNestedClass(nested);
 			} else {
 				m.setTo(nested);
 			}
@@ -1346,7 +1481,14 @@ public class ControlClass {
 			ControlClassExtendUpdate update = (ControlClassExtendUpdate) data;
 			extendControlClass(update.getNewExtendClass());
 			return;
-		} else if (data instanceof ControlClassTemporaryPropertyUpdate) {
+		} else if (data instanceof ControlClassInheritanceBatchUpdate) {
+			batchInheritanceUpdates(() -> {
+				for (ControlClassUpdate update : ((ControlClassInheritanceBatchUpdate) data).getUpdates()) {
+					update(update, deepCopy);
+				}
+			});
+			return;
+		} else if (data instanceof ControlClassTemporaryPropertyUpdate || data instanceof ControlClassTemporaryNestedClassUpdate) {
 			//This does not need to have anything handled since it happens inside overrideProperty() or inheritProperty()
 			//which will create their respective updates.
 			return;
@@ -0,0 +1,112 @@
+package com.kaylerrenslow.armaDialogCreator.control;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ All of the inheritance related updates that happened to a {@link ControlClass} while
+ {@link ControlClass#batchInheritanceUpdates(Runnable)} was running (e.g. during {@link ControlClass#extendControlClass(ControlClass)}).
+ Instead of an update for each property, this update is sent once per {@link ControlClass} after the batch is done.
+ <p>
+ The updates are coalesced: a temporary property or nested class that was added and then removed in the same batch
+ won't be in {@link #getUpdates()}, and only the last {@link ControlClassInheritPropertyUpdate} for a property is kept.
+ {@link #getUpdates()} may contain {@link ControlClassTemporaryPropertyUpdate}, {@link ControlClassTemporaryNestedClassUpdate},
+ and {@link ControlClassInheritPropertyUpdate} instances.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class ControlClassInheritanceBatchUpdate implements ControlClassUpdate {
+	private static final int TEMP_PROPERTY = 0, INHERIT_PROPERTY = 1, TEMP_NESTED_CLASS = 2;
+
+	private final ControlClass controlClass;
+	private final LinkedHashMap<UpdateKey, ControlClassUpdate> updates = new LinkedHashMap<>();
+	private int recordedCount = 0;
+
+	ControlClassInheritanceBatchUpdate(@NotNull ControlClass controlClass) {
+		this.controlClass = controlClass;
+	}
+
+	/** Coalesce the given update into this batch */
+	void add(@NotNull ControlClassUpdate update) {
+		recordedCount++;
+		if (update instanceof ControlClassTemporaryPropertyUpdate) {
+			ControlClassTemporaryPropertyUpdate tempUpdate = (ControlClassTemporaryPropertyUpdate) update;
+			UpdateKey key = new UpdateKey(TEMP_PROPERTY, tempUpdate.getProperty());
+			ControlClassUpdate old = updates.get(key);
+			if (old != null && ((ControlClassTemporaryPropertyUpdate) old).isAdded() != tempUpdate.isAdded()) {
+				updates.remove(key);
+				if (!tempUpdate.isAdded()) {
+					//the property doesn't exist anymore, so it doesn't matter if it was inherited
+					updates.remove(new UpdateKey(INHERIT_PROPERTY, tempUpdate.getProperty()));
+				}
+				return;
+			}
+			updates.put(key, update);
+		} else if (update instanceof ControlClassInheritPropertyUpdate) {
+			UpdateKey key = new UpdateKey(INHERIT_PROPERTY, ((ControlClassInheritPropertyUpdate) update).getControlProperty());
+			updates.remove(key);
+			updates.put(key, update);
+		} else if (update instanceof ControlClassTemporaryNestedClassUpdate) {
+			ControlClassTemporaryNestedClassUpdate tempUpdate = (ControlClassTemporaryNestedClassUpdate) update;
+			UpdateKey key = new UpdateKey(TEMP_NESTED_CLASS, tempUpdate.getNestedClass());
+			ControlClassUpdate old = updates.get(key);
+			if (old != null && ((ControlClassTemporaryNestedClassUpdate) old).isAdded() != tempUpdate.isAdded()) {
+				updates.remove(key);
+				return;
+			}
+			updates.put(key, update);
+		} else {
+			throw new IllegalArgumentException("can't batch update " + update);
+		}
+	}
+
+	@Override
+	@NotNull
+	public ControlClass getOwnerControlClass() {
+		return controlClass;
+	}
+
+	/** @return the coalesced updates, in the order they happened */
+	@NotNull
+	public List<ControlClassUpdate> getUpdates() {
+		return Collections.unmodifiableList(new ArrayList<>(updates.values()));
+	}
+
+	/** @return true if all of the updates cancelled each other out */
+	public boolean isEmpty() {
+		return updates.isEmpty();
+	}
+
+	/** @return number of updates that were coalesced into this update */
+	public int getRecordedCount() {
+		return recordedCount;
+	}
+
+	private static class UpdateKey {
+		private final int type;
+		private final Object target;
+
+		UpdateKey(int type, @NotNull Object target) {
+			this.type = type;
+			this.target = target;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof UpdateKey)) {
+				return false;
+			}
+			UpdateKey other = (UpdateKey) o;
+			return type == other.type && target == other.target;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * type + System.identityHashCode(target);
+		}
+	}
+}
@@ -13,7 +13,6 @@ import com.kaylerrenslow.armaDialogCreator.util.ValueConverter;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ResourceBundle;
-import java.util.concurrent.TimeUnit;
 
 /**
  SVExpression value that is used for {@link ExpressionInterpreter} and is
@@ -64,12 +63,9 @@ public class SVExpression extends SerializableValue implements SVNumericValue {
 
 	@NotNull
 	public Value getValue() {
-		Value v = null; //do not cache because the environment may change;
-		try {
-			v = SHARED_INTERPRETER.evaluate(exp, env).get(4, TimeUnit.SECONDS);
-		} catch (InterruptedException ignore) {
-
-		}
+		//do not cache the value because the environment may change.
+		//the parsed expression is cached inside the interpreter
+		Value v = SHARED_INTERPRETER.evaluateNow(exp, env);
 		if (v instanceof Value.NumVal) {
 			return v;
 		}
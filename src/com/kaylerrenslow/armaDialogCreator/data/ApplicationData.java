@@ -33,16 +33,7 @@ public class ApplicationData extends DataContext {
 		put(DataKeys.ENV, globalEnv);
 	}
 
-	private final SimpleEnv globalEnv = new SimpleEnv(new UnaryCommandValueProviderImpl(this)) {
-		@Override
-		public @Nullable Value getValue(@NotNull String identifier) {
-			Value v = super.getValue(identifier);
-			if (v == null) {
-				v = getCurrentProject().getMacroRegistry().getMacroValue(identifier);
-			}
-			return v;
-		}
-	};
+	private final GlobalExpressionEnv globalEnv = new GlobalExpressionEnv(this);
 
 	@NotNull
 	public Project getCurrentProject() {
@@ -60,7 +51,7 @@ public class ApplicationData extends DataContext {
 	 {@link PositionCalculator#SAFE_ZONE_W_ABS},
 	 */
 	@NotNull
-	public Env getGlobalExpressionEnvironment() {
+	public GlobalExpressionEnv getGlobalExpressionEnvironment() {
 		return globalEnv;
 	}
 
@@ -89,6 +80,45 @@ public class ApplicationData extends DataContext {
 		this.currentProject = project;
 	}
 
+	/**
+	 The {@link Env} returned by {@link #getGlobalExpressionEnvironment()}. Identifiers that aren't mapped in the env
+	 are looked up in the current {@link Project}'s {@link ProjectMacroRegistry}.
+
+	 @since 10/17/2026
+	 */
+	public static class GlobalExpressionEnv extends SimpleEnv {
+		private final ApplicationData applicationData;
+
+		public GlobalExpressionEnv(@NotNull ApplicationData applicationData) {
+			super(new UnaryCommandValueProviderImpl(applicationData));
+			this.applicationData = applicationData;
+		}
+
+		@Override
+		@Nullable
+		public Value getValue(@NotNull String identifier) {
+			Value v = super.getValue(identifier);
+			if (v == null) {
+				ProjectMacroRegistry registry = getMacroRegistry();
+				if (registry != null) {
+					v = registry.getMacroValue(identifier);
+				}
+			}
+			return v;
+		}
+
+		/**
+		 @return the current {@link Project}'s registry, or null if there is no current project.
+		 Use the registry's {@link ProjectMacroRegistry#setDependencies(MacroDependent, String...)} to be notified when
+		 a macro used in an expression evaluated with this env changes.
+		 */
+		@Nullable
+		public ProjectMacroRegistry getMacroRegistry() {
+			Project project = applicationData.currentProject;
+			return project == null ? null : project.getMacroRegistry();
+		}
+	}
+
 	/**
 	 An implementation of {@link UnaryCommandValueProvider} that
 	 uses {@link ApplicationData} for certain command values.
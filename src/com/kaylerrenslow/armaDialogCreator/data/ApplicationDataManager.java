@@ -8,6 +8,7 @@ import com.kaylerrenslow.armaDialogCreator.main.ArmaDialogCreator;
 import com.kaylerrenslow.armaDialogCreator.main.ExceptionHandler;
 import com.kaylerrenslow.armaDialogCreator.main.Lang;
 import com.kaylerrenslow.armaDialogCreator.util.DataContext;
+import javafx.application.Platform;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
@@ -29,6 +30,7 @@ public class ApplicationDataManager {
 	private volatile Workspace workspace;
 	private volatile ApplicationData applicationData;
 	private volatile CountDownLatch waitForInitialize;
+	private volatile ProjectAutoSaver autoSaver;
 
 	@NotNull
 	public Workspace loadWorkspace(@NotNull File workspaceDir) {
@@ -65,6 +67,25 @@ public class ApplicationDataManager {
 		waitForInitialize.countDown();
 
 		new ChangeRegistrars(applicationData);
+
+		if (autoSaver != null) {
+			autoSaver.stop();
+		}
+		ApplicationData data = applicationData;
+		autoSaver = new ProjectAutoSaver(data.getChangelog(), Platform::runLater, () -> {
+			if (!ArmaDialogCreator.getMainWindow().isShowing()) {
+				return null;
+			}
+			//never replace the project's save file (or its backup) without the user saving
+			return newSnapshotWriter(data, getAutoSaveFile(data.getCurrentProject()));
+		});
+		autoSaver.start(ProjectAutoSaver.DEFAULT_INTERVAL_SECONDS);
+	}
+
+	/** @return the {@link ProjectAutoSaver} for the current project, or null if the application isn't initialized yet */
+	@Nullable
+	public ProjectAutoSaver getAutoSaver() {
+		return autoSaver;
 	}
 
 	@NotNull
@@ -174,15 +195,47 @@ public class ApplicationDataManager {
 		if (applicationData == null) {
 			return;
 		}
-		Project project = applicationData.getCurrentProject();
-		if (!project.getProjectSaveDirectory().exists()) {
-			project.getProjectSaveDirectory().mkdirs();
+		ProjectAutoSaver autoSaver = this.autoSaver;
+		long changeCount = autoSaver != null ? autoSaver.getChangeCount() : 0;
+		File saveFile = rescue ? new File(applicationData.getCurrentProject().getProjectSaveFile().getAbsoluteFile() + ".rescue") : null;
+		ProjectAutoSaver.SnapshotWriter writer = newSnapshotWriter(applicationData, saveFile);
+		if (autoSaver == null || rescue) {
+			writer.write();
+		} else {
+			autoSaver.saveSnapshot(writer, changeCount);
 		}
-		new ProjectSaveXmlWriter(
+	}
+
+	/**
+	 Take a snapshot of the current project. This must be invoked on the JavaFX thread.
+
+	 @param saveFile file to write the snapshot to, or null to write to {@link Project#getProjectSaveFile()}
+	 */
+	@NotNull
+	private static ProjectAutoSaver.SnapshotWriter newSnapshotWriter(@NotNull ApplicationData applicationData, @Nullable File saveFile) {
+		Project project = applicationData.getCurrentProject();
+		ProjectSaveXmlWriter writer = new ProjectSaveXmlWriter(
 				project,
 				ArmaDialogCreator.getCanvasView().getMainControlsTreeStructure(),
 				ArmaDialogCreator.getCanvasView().getBackgroundControlsTreeStructure()
-		).write(rescue ? new File(project.getProjectSaveFile().getAbsoluteFile() + ".rescue") : null);
+		);
+		File saveDirectory = project.getProjectSaveDirectory();
+		return () -> {
+			if (!saveDirectory.exists()) {
+				saveDirectory.mkdirs();
+			}
+			writer.write(saveFile);
+			return writer.getBytesWritten();
+		};
+	}
+
+	/**
+	 @return the file the {@link ProjectAutoSaver} writes the project to. Auto saves are never written to
+	 {@link Project#getProjectSaveFile()}, so the last save (and its backup) is only replaced when the user saves.
+	 */
+	@NotNull
+	public static File getAutoSaveFile(@NotNull Project project) {
+		return new File(project.getProjectSaveFile().getAbsoluteFile() + ".autosave");
 	}
 
 	public void saveGlobalResources() {
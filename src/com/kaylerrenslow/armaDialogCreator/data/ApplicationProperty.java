@@ -25,7 +25,10 @@ public class ApplicationProperty<T> extends Key<T> {
 
 	public static final ApplicationProperty<Locale> LOCALE = new ApplicationProperty<>("locale", Locale.US, Lang.LOCALE_CONVERTER, Lang.LOCALE_CONVERTER);
 
-	private static final ApplicationProperty[] values = {LAST_WORKSPACE, A3_TOOLS_DIR, DARK_THEME, LOCALE};
+	/** Max number of megabytes the canvas raster cache can use. 0 disables the cache. */
+	public static final ApplicationProperty<Integer> RASTER_CACHE_BUDGET_MB = new ApplicationProperty<>("raster_cache_budget_mb", 64, IntegerConverter.INSTANCE);
+
+	private static final ApplicationProperty[] values = {LAST_WORKSPACE, A3_TOOLS_DIR, DARK_THEME, LOCALE, RASTER_CACHE_BUDGET_MB};
 
 
 	public final ValueConverter converter;
@@ -0,0 +1,156 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ A least recently used cache of values that were created from files (e.g. decoded images). A value is keyed by its file's
+ absolute path and the file's last modified time, so a value is never returned for a file that was changed after the
+ value was cached. The memory used by the values is bounded by {@link #getBudgetBytes()}, where the size of each value is
+ given by a weigher. This class is thread-safe.
+
+ @author Kayler
+ @since 10/17/2026 */
+class FileLruCache<V> {
+	private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+	private final ToLongFunction<V> weigher;
+	private long budgetBytes;
+	private long usedBytes = 0;
+	private long hits, misses, evictions;
+
+	/**
+	 @param budgetBytes max number of bytes the cached values can use
+	 @param weigher gets the number of bytes a value uses
+	 */
+	public FileLruCache(long budgetBytes, @NotNull ToLongFunction<V> weigher) {
+		this.weigher = weigher;
+		setBudgetBytes(budgetBytes);
+	}
+
+	/**
+	 @return the cached value for the file, or null if there is no value or the file was modified after the value was cached
+	 */
+	@Nullable
+	public V get(@NotNull File file) {
+		String key = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		synchronized (this) {
+			Entry<V> entry = entries.get(key);
+			if (entry == null) {
+				misses++;
+				return null;
+			}
+			if (entry.lastModified != lastModified) {
+				remove(key);
+				misses++;
+				return null;
+			}
+			hits++;
+			return entry.value;
+		}
+	}
+
+	/**
+	 Cache a value for the file. If the value uses more than a quarter of {@link #getBudgetBytes()}, it won't be cached.
+
+	 @param file the file the value was created from
+	 @param lastModified the file's {@link File#lastModified()} from before the value was created
+	 @param value the value
+	 */
+	public void put(@NotNull File file, long lastModified, @NotNull V value) {
+		String key = file.getAbsolutePath();
+		long bytes = weigher.applyAsLong(value);
+		synchronized (this) {
+			remove(key);
+			if (bytes > budgetBytes / 4) {
+				return;
+			}
+			entries.put(key, new Entry<>(value, lastModified, bytes));
+			usedBytes += bytes;
+			evictToBudget();
+		}
+	}
+
+	/** Remove the cached value for the given file */
+	public synchronized void invalidate(@NotNull File file) {
+		remove(file.getAbsolutePath());
+	}
+
+	private void remove(@NotNull String key) {
+		Entry<V> entry = entries.remove(key);
+		if (entry != null) {
+			usedBytes -= entry.bytes;
+		}
+	}
+
+	private void evictToBudget() {
+		Iterator<Entry<V>> iterator = entries.values().iterator();
+		while (usedBytes > budgetBytes && iterator.hasNext()) {
+			usedBytes -= iterator.next().bytes;
+			iterator.remove();
+			evictions++;
+		}
+	}
+
+	/** Remove all cached values */
+	public synchronized void clear() {
+		entries.clear();
+		usedBytes = 0;
+	}
+
+	/** Set the max number of bytes the cached values can use. Least recently used values will be removed if needed. */
+	public synchronized void setBudgetBytes(long budgetBytes) {
+		if (budgetBytes < 0) {
+			throw new IllegalArgumentException("budgetBytes must be >= 0");
+		}
+		this.budgetBytes = budgetBytes;
+		evictToBudget();
+	}
+
+	/** @see #setBudgetBytes(long) */
+	public synchronized long getBudgetBytes() {
+		return budgetBytes;
+	}
+
+	/** @return number of bytes the cached values are using */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/** @return number of cached values */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/** @return number of times {@link #get(File)} found a cached value */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/** @return number of times {@link #get(File)} didn't find a cached value */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/** @return number of values removed to stay within the budget */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	private static class Entry<V> {
+		final V value;
+		final long lastModified;
+		final long bytes;
+
+		Entry(@NotNull V value, long lastModified, long bytes) {
+			this.value = value;
+			this.lastModified = lastModified;
+			this.bytes = bytes;
+		}
+	}
+}
@@ -17,6 +17,7 @@ import com.kaylerrenslow.armaDialogCreator.data.tree.TreeStructure;
 import com.kaylerrenslow.armaDialogCreator.data.xml.DefaultStringTableXmlParser;
 import com.kaylerrenslow.armaDialogCreator.data.xml.ProjectSaveXmlWriter;
 import com.kaylerrenslow.armaDialogCreator.expression.Env;
+import com.kaylerrenslow.armaDialogCreator.main.ADCExecutors;
 import com.kaylerrenslow.armaDialogCreator.main.ExceptionHandler;
 import com.kaylerrenslow.armaDialogCreator.main.Lang;
 import com.kaylerrenslow.armaDialogCreator.util.KeyValue;
@@ -29,6 +30,10 @@ import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  Used for converting an Arma 3 config file (header file) into a project that is usable by Arma Dialog Creator.
@@ -47,16 +52,30 @@ public class HeaderToProject {
 	 Assignment variable name for getting a control's type from {@link HeaderClass}
 	 */
 	private static final String CONTROL_TYPE = "type";
+	/** Number of progress steps for converting 1 dialog (see {@link #saveToWorkspace(HeaderClass, StringTable)}) */
+	private static final int DIALOG_PROGRESS_STEPS = 1/*create project*/
+			+ 1/*create dialog object*/
+			+ 1/*create controls*/
+			+ 1/*write to file*/;
+
+	/** Pool that converts and saves the dialogs in parallel. */
+	private static final ForkJoinPool conversionPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	static {
+		ADCExecutors.registerExecutorService(conversionPool);
+	}
 
 	/**
 	 Runs the description.ext to {@link Project} converter and saves the converted {@link Project}s to files listed in the return value.
 
 	 @param workspaceDir the directory of the workspace. This directory must exist, or an exception will be thrown.
 	 @param descExt the description.ext file
-	 @param c callback to use
+	 @param c callback to use. {@link ConversionCallback#message(String)} and {@link ConversionCallback#progressUpdate(int, int)}
+	 may be invoked from conversion threads, but never by 2 threads at once.
 	 @return a list of Files (with the key being the name of the dialog) that link to the project xml for each of the converted dialogs.
 	 The size may not be equal to the number of dialogs requested to be converted, however, it will never
-	 be larger than the requested amount.
+	 be larger than the requested amount. The order is the same as the order of the dialogs requested to be converted,
+	 regardless of which dialog finished converting first.
 	 */
 	@NotNull
 	public static List<KeyValue<String, File>> convertAndSaveToWorkspace(@NotNull File workspaceDir, @NotNull File descExt, @NotNull HeaderToProject.ConversionCallback c)
@@ -72,23 +91,17 @@ public class HeaderToProject {
 	private final Workspace workspace;
 	private final File descExt;
 	private final ConversionCallback callback;
-	private final ApplicationData dataContext;
-	private final ArmaResolution resolution;
-	private final Env env;
 	private HeaderFile headerFile;
 
+	/** Number of completed progress steps across all dialogs being converted */
+	private final AtomicInteger dialogProgress = new AtomicInteger(0);
+	/** Total number of progress steps across all dialogs being converted */
+	private int dialogMaxProgress;
+
 	protected HeaderToProject(@NotNull Workspace workspace, @NotNull File descExt, @NotNull HeaderToProject.ConversionCallback callback) {
 		this.workspace = workspace;
 		this.descExt = descExt;
 		this.callback = callback;
-		this.dataContext = new ApplicationData();
-
-		resolution = DataKeys.ARMA_RESOLUTION.get(dataContext);
-		env = DataKeys.ENV.get(dataContext);
-
-		if (resolution == null || env == null) {
-			throw new IllegalArgumentException("dataContext doesn't have DataKeys.ARMA_RESOLUTION and/or DataKeys.ENV");
-		}
 	}
 
 	private List<KeyValue<String, File>> run() throws FileNotFoundException, HeaderConversionException {
@@ -96,7 +109,9 @@ public class HeaderToProject {
 		callback.progressUpdate(0, -1);
 		callback.message(bundle.getString("Status.parsing"));
 		try {
-			headerFile = HeaderParser.parse(descExt, workspace.getFileInAdcDirectory("temp"));
+			//if the file was imported before and hasn't changed, the cached result will be used
+			HeaderParseCache parseCache = new HeaderParseCache(workspace.getFileInAdcDirectory("headerCache"));
+			headerFile = parseCache.parse(descExt, workspace.getFileInAdcDirectory("temp"));
 		} catch (HeaderParseException e) {
 			throw new HeaderConversionException(e.getMessage(), e);
 		} catch (IOException e2) {
@@ -139,69 +154,115 @@ public class HeaderToProject {
 			}
 		}
 
-		int progress = 0;
-		int maxProgress = convertClasses.size();
-		callback.progressUpdate(progress, maxProgress);
+		List<HeaderClass> dialogClasses = new ArrayList<>(convertClasses.size());
 		for (String className : convertClasses) {
 			for (HeaderClass hc : headerFile.getClasses()) {
-				if (!className.equals(hc.getClassName())) {
-					continue;
+				if (className.equals(hc.getClassName())) {
+					dialogClasses.add(hc);
 				}
+			}
+		}
 
-				callback.progressUpdate(++progress, maxProgress);
-
-				callback.message(String.format(bundle.getString("Status.converting_dialog_f"), className));
+		dialogMaxProgress = dialogClasses.size() * DIALOG_PROGRESS_STEPS;
+		callback.progressUpdate(0, dialogMaxProgress);
 
-				//begin conversion of dialog and save to workspace
+		//begin conversion of dialogs and save to workspace
+		final StringTable stringTableF = stringTable;
+		List<Future<DialogConversionResult>> conversions = new ArrayList<>(dialogClasses.size());
+		for (HeaderClass hc : dialogClasses) {
+			conversions.add(conversionPool.submit(() -> {
+				message(String.format(bundle.getString("Status.converting_dialog_f"), hc.getClassName()));
 				try {
-					File projectXml = saveToWorkspace(hc, stringTable);
-					ret.add(new KeyValue<>(hc.getClassName(), projectXml));
+					return new DialogConversionResult(saveToWorkspace(hc, stringTableF), null);
 				} catch (HeaderConversionException e) {
-					callback.conversionFailed(className, e);
+					//don't let the pool wrap the exception so that the message stays the same
+					return new DialogConversionResult(null, e);
+				}
+			}));
+		}
+
+		//wait for the results in the requested order so that the returned list is always in the same order
+		for (int i = 0; i < conversions.size(); i++) {
+			final String className = dialogClasses.get(i).getClassName();
+			try {
+				DialogConversionResult result = conversions.get(i).get();
+				if (result.error != null) {
+					synchronized (callback) {
+						callback.conversionFailed(className, result.error);
+					}
+				} else {
+					ret.add(new KeyValue<>(className, result.projectXml));
+				}
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				} else {
+					throw new RuntimeException(cause);
 				}
+			} catch (InterruptedException e) {
+				for (Future<DialogConversionResult> conversion : conversions) {
+					conversion.cancel(true);
+				}
+				Thread.currentThread().interrupt();
+				break;
 			}
 		}
 
 		return ret;
 	}
 
+	/** Invoke {@link ConversionCallback#message(String)} from any thread */
+	private void message(@NotNull String msg) {
+		synchronized (callback) {
+			callback.message(msg);
+		}
+	}
+
+	/** Report a completed progress step of a dialog conversion from any thread */
+	private void dialogProgressStepCompleted() {
+		synchronized (callback) {
+			//synchronized so that the progress is never reported out of order
+			callback.progressUpdate(dialogProgress.incrementAndGet(), dialogMaxProgress);
+		}
+	}
+
 	@NotNull
 	private File saveToWorkspace(@NotNull HeaderClass displayClass, @Nullable StringTable stringTable) throws HeaderConversionException {
 		final String dialogClassName = displayClass.getClassName();
 
-		int progress = 0;
-		final int maxProgress = 1/*create project*/
-				+ 1/*create dialog object*/
-				+ 1/*create controls*/
-				+ 1/*write to file*/;
-
 		//Project instance
 		Project project;
 		//display instance
 		ArmaDisplay armaDisplay;
 
-		callback.progressUpdate(progress, maxProgress);
-
 		//create project instance
 		{
-			File dialogDir = workspace.getFileForName(dialogClassName);
-			if (dialogDir.exists()) {
-				dialogDir = workspace.getFileForName(dialogDir.getName() + System.currentTimeMillis());
-				while (dialogDir.exists()) {
-					dialogDir = workspace.getFileForName(dialogDir.getName() + "_" + System.currentTimeMillis());
+			//synchronized so that dialogs being converted at the same time can't get the same directory
+			synchronized (workspace) {
+				File dialogDir = workspace.getFileForName(dialogClassName);
+				if (dialogDir.exists()) {
+					dialogDir = workspace.getFileForName(dialogDir.getName() + System.currentTimeMillis());
+					while (dialogDir.exists()) {
+						dialogDir = workspace.getFileForName(dialogDir.getName() + "_" + System.currentTimeMillis());
+					}
+					dialogDir.mkdir();
+				} else {
+					dialogDir.mkdirs();
+					dialogDir.mkdir();
 				}
-				dialogDir.mkdir();
-			} else {
-				dialogDir.mkdirs();
-				dialogDir.mkdir();
 			}
 
+			//each dialog gets its own ApplicationData since the current project is stored in it
+			//and dialogs are converted in parallel
+			ApplicationData dataContext = new ApplicationData();
 			project = new Project(dataContext, new ProjectInfo(dialogClassName, dialogClassName, workspace));
+			dataContext.setCurrentProject(project);
 		}
 
-		dataContext.setCurrentProject(project);
-
-		callback.progressUpdate(++progress, maxProgress);
+		dialogProgressStepCompleted();
 
 		//todo add macros to macro registry?
 
@@ -212,7 +273,7 @@ public class HeaderToProject {
 			project.setStringTable(stringTable);
 		}
 
-		callback.progressUpdate(++progress, maxProgress);
+		dialogProgressStepCompleted();
 
 		//load controls from nested classes or array of classes
 		{
@@ -239,7 +300,7 @@ public class HeaderToProject {
 			}
 		}
 
-		callback.progressUpdate(++progress, maxProgress);
+		dialogProgressStepCompleted();
 
 		//build the structure for the controls and bg controls
 		TreeStructure<ArmaControl> structureMain = new TreeStructure.Simple<>(TreeNode.Simple.newRoot());
@@ -250,13 +311,13 @@ public class HeaderToProject {
 		//write to file
 		ProjectSaveXmlWriter writer = new ProjectSaveXmlWriter(project, structureMain, structureBg);
 		try {
-			callback.message(String.format(bundle.getString("Status.saving_dialog_f"), dialogClassName));
+			message(String.format(bundle.getString("Status.saving_dialog_f"), dialogClassName));
 			writer.write(null);
 		} catch (IOException e) {
 			convertError(dialogClassName, bundle.getString("Convert.FailReason.write_file_fail"));
 		}
 
-		callback.progressUpdate(++progress, maxProgress);
+		dialogProgressStepCompleted();
 
 		//done converting and conversion of dialog/display is written to file by here.
 
@@ -314,6 +375,9 @@ public class HeaderToProject {
 		}
 
 		//create the control
+		ApplicationData dataContext = project.getApplicationData();
+		ArmaResolution resolution = DataKeys.ARMA_RESOLUTION.get(dataContext);
+		Env env = DataKeys.ENV.get(dataContext);
 		ArmaControl armaControl = ArmaControl.createControl(controlClassName, ArmaControlLookup.findByControlType(controlType), resolution, env, project);
 
 
@@ -394,7 +458,7 @@ public class HeaderToProject {
 				continue;
 			}
 
-			SerializableValue v = createValueFromAssignment(assignment, property.getInitialPropertyType());
+			SerializableValue v = createValueFromAssignment(project, assignment, property.getInitialPropertyType());
 			if (v != null) {
 				property.setValue(v);
 			} else {
@@ -425,7 +489,7 @@ public class HeaderToProject {
 				Macro m = checkAndGetStringTableMacro(assignment.getValue().getContent(), project);
 				macroName = m == null ? null : m.getKey();
 
-				value = createValueFromAssignment(assignment, lookup.getPropertyType());
+				value = createValueFromAssignment(project, assignment, lookup.getPropertyType());
 				if (value != null) {
 					usedLookup = lookup;
 					break;
@@ -458,12 +522,14 @@ public class HeaderToProject {
 	 Attempts to create a {@link SerializableValue} from the given {@link HeaderAssignment}. The value will be
 	 created with {@link PropertyType} <code>initialPropertyType</code>.
 
+	 @param project project the value is for
 	 @param assignment assignment to use
 	 @param initialPropertyType type to use
 	 @return the created value with type ({@link SerializableValue#getPropertyType()}) equal to
 	 <code>initialPropertyType</code>, or null if value couldn't be created
 	 */
-	private SerializableValue createValueFromAssignment(@NotNull HeaderAssignment assignment, @NotNull PropertyType initialPropertyType) {
+	private SerializableValue createValueFromAssignment(@NotNull Project project, @NotNull HeaderAssignment assignment, @NotNull PropertyType initialPropertyType) {
+		ApplicationData dataContext = project.getApplicationData();
 		int vCount = initialPropertyType.getPropertyValuesSize();
 		if (assignment.getValue() instanceof HeaderArray) {
 			HeaderArray headerArray = (HeaderArray) assignment.getValue();
@@ -555,6 +621,16 @@ public class HeaderToProject {
 		throw new HeaderConversionException(s);
 	}
 
+	private static class DialogConversionResult {
+		private final File projectXml;
+		private final HeaderConversionException error;
+
+		public DialogConversionResult(@Nullable File projectXml, @Nullable HeaderConversionException error) {
+			this.projectXml = projectXml;
+			this.error = error;
+		}
+	}
+
 	/**
 	 Used in conjunction with {@link HeaderToProject}
 
@@ -0,0 +1,280 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import com.kaylerrenslow.armaDialogCreator.arma.util.PaaImage;
+import com.kaylerrenslow.armaDialogCreator.main.ADCExecutors;
+import javafx.scene.image.Image;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.geom.IllegalPathStateException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ Loads images for {@link ImageHelper#getImageAsync} on a small, shared thread pool that is registered with {@link ADCExecutors}.
+ <p>
+ If an image is requested while the same image is already being loaded, the request waits for that load instead of
+ loading the image again. Decoded images are kept in a {@link FileLruCache} (keyed by the file path and last modified time)
+ that is bounded by {@link #DEFAULT_BUDGET_BYTES}. Cached images are removed when a .paa image is converted again
+ (see {@link ImagesTool#subscribeToConversion(ImagesTool.ImageConversionSubscriber)}).
+ <p>
+ .paa images are decoded with {@link PaaImage} without converting them to a .png first.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class ImageLoader {
+	/** Default max number of bytes that the decoded images can use */
+	public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+	/** Max width and height of a .paa mipmap that is decoded for previews */
+	public static final int MAX_PAA_PREVIEW_SIZE = 2048;
+	/** Bytes per pixel of a decoded image */
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private static ImageLoader instance;
+
+	/** @return the loader used by {@link ImageHelper} */
+	@NotNull
+	public static synchronized ImageLoader getInstance() {
+		if (instance == null) {
+			AtomicInteger threadCount = new AtomicInteger(0);
+			int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+			ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+				Thread t = new Thread(r, "ADC - ImageLoader " + threadCount.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			});
+			ADCExecutors.registerExecutorService(pool);
+			instance = new ImageLoader(pool, null);
+			ImagesTool.subscribeToConversion(instance.new ConversionSubscriber());
+		}
+		return instance;
+	}
+
+	/** Gets the image for a requested file */
+	interface Loader {
+		/** @return the image, or null if it couldn't be loaded */
+		@Nullable
+		Image load(@NotNull File requestedFile);
+	}
+
+	private final ExecutorService pool;
+	private final Loader loader;
+	private final FileLruCache<Image> cache = new FileLruCache<>(DEFAULT_BUDGET_BYTES,
+			image -> (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL
+	);
+	/** Requested file path -> callbacks waiting for the image */
+	private final HashMap<String, List<Function<Image, Void>>> inFlight = new HashMap<>();
+	private long requestCount, dedupedCount, loadCount;
+
+	/**
+	 @param pool pool to load the images on
+	 @param loader loader to use, or null to use {@link #loadImage(File)}
+	 */
+	ImageLoader(@NotNull ExecutorService pool, @Nullable Loader loader) {
+		this.pool = pool;
+		this.loader = loader == null ? this::loadImage : loader;
+	}
+
+	/**
+	 Load an image asynchronously. The callback will be invoked on a loader thread.
+
+	 @param requestedFile the image file to load, which may be a .paa image, a relative path, or an Arma 3 internal path.
+	 If null, the callback will be given null.
+	 @param callback the callback. The parameter of the function is the loaded image, which may be null
+	 */
+	public void load(@Nullable File requestedFile, @NotNull Function<Image, Void> callback) {
+		if (requestedFile == null) {
+			pool.execute(() -> callback.apply(null));
+			return;
+		}
+		String key = requestedFile.getPath();
+		synchronized (inFlight) {
+			requestCount++;
+			List<Function<Image, Void>> waiting = inFlight.get(key);
+			if (waiting != null) {
+				dedupedCount++;
+				waiting.add(callback);
+				return;
+			}
+			waiting = new ArrayList<>(1);
+			waiting.add(callback);
+			inFlight.put(key, waiting);
+			loadCount++;
+		}
+		pool.execute(() -> {
+			Image image = null;
+			try {
+				image = loader.load(requestedFile);
+			} finally {
+				List<Function<Image, Void>> waiting;
+				synchronized (inFlight) {
+					waiting = inFlight.remove(key);
+				}
+				RuntimeException exception = null;
+				for (Function<Image, Void> waitingCallback : waiting) {
+					try {
+						waitingCallback.apply(image);
+					} catch (RuntimeException e) {
+						//still give the image to the other callbacks
+						if (exception == null) {
+							exception = e;
+						}
+					}
+				}
+				if (exception != null) {
+					throw exception;
+				}
+			}
+		});
+	}
+
+	@Nullable
+	private Image loadImage(@NotNull File f) {
+		if (f.getPath().startsWith("\\")) {
+			Image internalImage = Arma3ExternalImagePathConverter.getInstance().getImage(f.getPath());
+			if (internalImage != null) {
+				return internalImage;
+			}
+		}
+
+		if (f.getName().endsWith(".ogv")) {
+			return ImageHelper.OGV;
+		}
+
+		if (f.getName().endsWith(".paa")) {
+			Image paaImage = loadPaa(f);
+			if (paaImage != null) {
+				return paaImage;
+			}
+		}
+
+		f = ImagesTool.getImageFile(f.getPath(), new ImagesTool.SimpleImageConversionCallback());
+
+		Image cached = cache.get(f);
+		if (cached != null) {
+			return cached;
+		}
+		long lastModified = f.lastModified();
+		if (lastModified == 0) {
+			//doesn't exist
+			return null;
+		}
+		try (FileInputStream fis = new FileInputStream(f)) {
+			Image image = new Image(fis);
+			if (image.isError()) {
+				return null;
+			}
+			cache.put(f, lastModified, image);
+			return image;
+		} catch (Exception ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 Decode a .paa image with {@link PaaImage} instead of converting it to a .png first.
+	 Only the largest mipmap that fits in {@link #MAX_PAA_PREVIEW_SIZE} is decoded.
+
+	 @return the image, or null if {@link PaaImage} couldn't read it
+	 */
+	@Nullable
+	private Image loadPaa(@NotNull File f) {
+		File paa;
+		try {
+			paa = ImagesTool.resolveImageFile(f.getPath());
+		} catch (IllegalPathStateException e) {
+			return null;
+		}
+		Image cached = cache.get(paa);
+		if (cached != null) {
+			return cached;
+		}
+		long lastModified = paa.lastModified();
+		if (lastModified == 0) {
+			return null;
+		}
+		try {
+			Image image = PaaImage.read(paa, MAX_PAA_PREVIEW_SIZE, MAX_PAA_PREVIEW_SIZE).toWritableImage();
+			cache.put(paa, lastModified, image);
+			return image;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/** Remove the cached image for the given file */
+	public void invalidate(@NotNull File file) {
+		cache.invalidate(file);
+	}
+
+	/** Remove all cached images */
+	public void clearCache() {
+		cache.clear();
+	}
+
+	/** @return the cache of decoded images */
+	@NotNull
+	FileLruCache<Image> getCache() {
+		return cache;
+	}
+
+	/** @return number of times {@link #load(File, Function)} was invoked with a file */
+	public long getRequestCount() {
+		synchronized (inFlight) {
+			return requestCount;
+		}
+	}
+
+	/** @return number of requests that waited for an image that was already being loaded */
+	public long getDedupedCount() {
+		synchronized (inFlight) {
+			return dedupedCount;
+		}
+	}
+
+	/** @return number of times an image was loaded on the pool (which may have been a cache hit) */
+	public long getLoadCount() {
+		synchronized (inFlight) {
+			return loadCount;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("images requested:%d, deduped:%d, loaded:%d, cache hits:%d, cache misses:%d, cached:%d (%.1fMB of %.1fMB)",
+				getRequestCount(), getDedupedCount(), getLoadCount(), cache.getHitCount(), cache.getMissCount(), cache.size(),
+				cache.getUsedBytes() / 1048576.0, cache.getBudgetBytes() / 1048576.0
+		);
+	}
+
+	private class ConversionSubscriber implements ImagesTool.ImageConversionSubscriber {
+
+		@Override
+		public void conversionStarted(@NotNull File image) {
+		}
+
+		@Override
+		public void conversionFailed(@NotNull File image, @Nullable Exception e) {
+		}
+
+		@Override
+		public void conversionSucceeded(@NotNull File image, @Nullable File resultFile) {
+			invalidate(image);
+			if (resultFile != null) {
+				invalidate(resultFile);
+			}
+		}
+
+		@Override
+		public void conversionCancelled(@NotNull File image) {
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.kaylerrenslow.armaDialogCreator.data;
 
 import com.kaylerrenslow.armaDialogCreator.arma.util.ArmaTools;
+import com.kaylerrenslow.armaDialogCreator.arma.util.PaaImage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,6 +43,8 @@ public class ImagesTool {
 	 <p>
 	 If at any point the conversion is cancelled or fails, <code>imageFilePath</code>'s file will be returned.
 
+	 .paa images are converted with {@link PaaImage}. Arma 3 Tools is only used when {@link PaaImage} can't read the image.
+	 <p>
 	 Note: if the conversion fails or is cancelled, the returned file may be a .paa image!
 
 	 @param imageFilePath the path to the image
@@ -54,20 +57,14 @@ public class ImagesTool {
 
 		imageFilePath = imageFilePath.trim(); //need to trim or Paths.get() will throw exception
 
-		Path imagePath;
+		File imageFile;
 		try {
-			imagePath = Paths.get(imageFilePath);
+			imageFile = resolveImageFile(imageFilePath);
 		} catch (IllegalPathStateException e) {
 			File f = new File(imageFilePath);
 			callback.conversionFailed(f, e);
 			return f;
 		}
-		File imageFile;
-		if (imagePath.isAbsolute()) {
-			imageFile = imagePath.toFile();
-		} else {
-			imageFile = workspace.getFileForName(imageFilePath);
-		}
 
 		if (imageFilePath.endsWith(".paa")) {
 			WorkspaceResourceRegistry globalResourceRegistry = workspace.getGlobalResourceRegistry();
@@ -100,6 +97,24 @@ public class ImagesTool {
 		return imageFile;
 	}
 
+	/**
+	 Get the file for an image path without converting anything. If the path is relative, the file will be relative to the
+	 current {@link Workspace#getWorkspaceDirectory()}.
+
+	 @param imageFilePath the path to the image
+	 @return the image file
+	 @throws IllegalPathStateException when the path is invalid
+	 */
+	@NotNull
+	static File resolveImageFile(@NotNull String imageFilePath) {
+		imageFilePath = imageFilePath.trim(); //need to trim or Paths.get() will throw exception
+		Path imagePath = Paths.get(imageFilePath);
+		if (imagePath.isAbsolute()) {
+			return imagePath.toFile();
+		}
+		return Workspace.getWorkspace().getFileForName(imageFilePath);
+	}
+
 	private final ImageConversionCallback callback;
 	private final File paaImage;
 	private File convertDestFile;
@@ -112,11 +127,6 @@ public class ImagesTool {
 
 	@Nullable
 	private PaaImageExternalResource convert() {
-		File a3Tools = callback.arma3ToolsDirectory();
-		if (a3Tools == null) {
-			callback.conversionCancelled(paaImage);
-			return null;
-		}
 		if (convertDestFile.exists()) {
 			String newFileName = callback.replaceExistingConvertedImage(paaImage, convertDestFile);
 			if (newFileName == null) {
@@ -128,6 +138,21 @@ public class ImagesTool {
 		}
 		boolean good;
 		callback.conversionStarted(paaImage);
+
+		//try converting without Arma 3 Tools first since it is far faster and doesn't need Windows
+		try {
+			PaaImage.read(paaImage).writePng(convertDestFile);
+			callback.conversionSucceeded(paaImage, convertDestFile);
+			return new PaaImageExternalResource(paaImage, convertDestFile);
+		} catch (IOException ignore) {
+			//unsupported type or corrupt, so let Arma 3 Tools try
+		}
+
+		File a3Tools = callback.arma3ToolsDirectory();
+		if (a3Tools == null) {
+			callback.conversionCancelled(paaImage);
+			return null;
+		}
 		try {
 			good = ArmaTools.imageToPAA(a3Tools, paaImage, convertDestFile, 1000 * 10 /*ten seconds*/);
 		} catch (IOException e) {
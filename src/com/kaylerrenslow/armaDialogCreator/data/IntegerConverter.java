@@ -0,0 +1,19 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import com.kaylerrenslow.armaDialogCreator.util.DataContext;
+import com.kaylerrenslow.armaDialogCreator.util.ValueConverter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ Trivial implementation for an integer {@link ValueConverter}
+
+ @author Kayler
+ @since 10/17/2026 */
+public class IntegerConverter implements ValueConverter<Integer> {
+	public static final IntegerConverter INSTANCE = new IntegerConverter();
+
+	@Override
+	public Integer convert(DataContext context, @NotNull String... values) throws Exception {
+		return Integer.parseInt(values[0].trim());
+	}
+}
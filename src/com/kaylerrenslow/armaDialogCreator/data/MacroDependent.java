@@ -0,0 +1,19 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import com.kaylerrenslow.armaDialogCreator.control.Macro;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ Something that uses {@link Macro} keys inside expressions and needs to be notified when one of those macros changes.
+ Register with {@link ProjectMacroRegistry#setDependencies(MacroDependent, String...)}.
+
+ @author Kayler
+ @since 10/17/2026 */
+public interface MacroDependent {
+	/**
+	 Invoked when a macro that this depends on has had its value changed, or was added, removed, or renamed.
+
+	 @param macroKey the key of the macro that changed
+	 */
+	void macroUpdated(@NotNull String macroKey);
+}
@@ -70,6 +70,12 @@ public class Project implements SpecificationRegistry {
 		projectSaveFile = info.getProjectXmlFile();
 	}
 
+	/** @return the {@link ApplicationData} instance this project was created with */
+	@NotNull
+	public ApplicationData getApplicationData() {
+		return applicationData;
+	}
+
 	@NotNull
 	public static Project getCurrentProject() {
 		return ApplicationDataManager.getInstance().getCurrentProject();
@@ -0,0 +1,232 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import com.kaylerrenslow.armaDialogCreator.data.xml.ProjectSnapshot;
+import com.kaylerrenslow.armaDialogCreator.main.ADCExecutors;
+import com.kaylerrenslow.armaDialogCreator.util.UpdateGroupListener;
+import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ Saves the project in the background every so often, but only if the project changed since the last save. Auto saves are
+ written to a separate file (see {@link ApplicationDataManager#getAutoSaveFile(Project)}), so the user's save file is only
+ replaced when the user saves.
+ <p>
+ Every update of a {@link Changelog} (change added, undo, or redo) marks the project as dirty. When an auto save
+ happens, a {@link ProjectSnapshot} is taken on the thread that edits the project (JavaFX thread) and then the snapshot
+ is written on the auto save thread. Saves (auto saves and {@link #saveSnapshot(SnapshotWriter, long)}) never overlap.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class ProjectAutoSaver {
+	/** Default number of seconds between auto saves */
+	public static final long DEFAULT_INTERVAL_SECONDS = 60;
+
+	/** Takes a snapshot of the project on the thread that edits the project */
+	interface Snapshotter {
+		/** @return a writer for the snapshot, or null if there is nothing to save right now */
+		@Nullable
+		SnapshotWriter takeSnapshot();
+	}
+
+	/** Writes a snapshot that was taken with {@link Snapshotter#takeSnapshot()} */
+	interface SnapshotWriter {
+		/** @return number of bytes written */
+		long write() throws IOException;
+	}
+
+	private final Changelog changelog;
+	private final Executor projectThread;
+	private final Snapshotter snapshotter;
+	private final Object saveLock = new Object();
+	private final AtomicLong changeCount = new AtomicLong(0);
+	private final UpdateGroupListener<ChangelogUpdate> changelogListener = new UpdateGroupListener<ChangelogUpdate>() {
+		@Override
+		public void update(@NotNull UpdateListenerGroup<ChangelogUpdate> group, @Nullable ChangelogUpdate data) {
+			changeCount.incrementAndGet();
+		}
+	};
+	private ScheduledExecutorService scheduler;
+
+	private volatile long savedChangeCount = 0;
+	private volatile long lastSaveMillis = -1;
+	private volatile long lastSnapshotMillis = -1;
+	private volatile long lastBytesWritten = -1;
+	private volatile long lastSaveTime = -1;
+	private volatile long saveCount = 0;
+	private volatile long skippedCount = 0;
+	private volatile Exception lastError;
+
+	/**
+	 @param changelog changelog that marks the project as dirty
+	 @param projectThread executor that runs on the thread that edits the project (for example, Platform::runLater)
+	 @param snapshotter takes the snapshots. Will be invoked through <code>projectThread</code>
+	 */
+	ProjectAutoSaver(@NotNull Changelog changelog, @NotNull Executor projectThread, @NotNull Snapshotter snapshotter) {
+		this.changelog = changelog;
+		this.projectThread = projectThread;
+		this.snapshotter = snapshotter;
+		changelog.getChangeUpdateGroup().addListener(changelogListener);
+	}
+
+	/**
+	 Start auto saving on a background thread that is registered with {@link ADCExecutors}.
+	 If already started, nothing will happen.
+
+	 @param intervalSeconds number of seconds between auto saves
+	 */
+	public synchronized void start(long intervalSeconds) {
+		if (scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ADC - ProjectAutoSaver");
+			t.setDaemon(true);
+			return t;
+		});
+		ADCExecutors.registerExecutorService(scheduler);
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				autoSave();
+			} catch (InterruptedException ignore) {
+				//stopped
+			} catch (Exception e) {
+				lastError = e;
+			}
+		}, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+	}
+
+	/** Stop auto saving and stop listening to the {@link Changelog}. A save that is in progress will still finish. */
+	public synchronized void stop() {
+		changelog.getChangeUpdateGroup().removeListener(changelogListener);
+		if (scheduler != null) {
+			scheduler.shutdown();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 Save the project if it changed since the last save. The snapshot is taken on the project thread and this thread
+	 waits for it. So, this shouldn't be invoked on the project thread.
+
+	 @return true if the project was saved, false if the save was skipped
+	 @throws IOException when the snapshot couldn't be written
+	 @throws ExecutionException when the snapshot couldn't be taken
+	 @throws InterruptedException when interrupted while waiting for the snapshot
+	 */
+	public boolean autoSave() throws IOException, ExecutionException, InterruptedException {
+		if (!isDirty()) {
+			skippedCount++;
+			return false;
+		}
+		long start = System.nanoTime();
+		long[] snapshotChangeCount = new long[1];
+		FutureTask<SnapshotWriter> snapshotTask = new FutureTask<>(() -> {
+			//the changelog is updated on the project thread, so this count matches the snapshot exactly
+			snapshotChangeCount[0] = changeCount.get();
+			return snapshotter.takeSnapshot();
+		});
+		projectThread.execute(snapshotTask);
+		SnapshotWriter writer = snapshotTask.get();
+		if (writer == null) {
+			skippedCount++;
+			return false;
+		}
+		lastSnapshotMillis = (System.nanoTime() - start) / 1_000_000;
+		save(writer, snapshotChangeCount[0], start);
+		return true;
+	}
+
+	/**
+	 Write a snapshot that was taken somewhere else (for example, when the user saves the project). The project is
+	 considered saved up to <code>changeCount</code>.
+
+	 @param writer writer of the snapshot
+	 @param changeCount value of {@link #getChangeCount()} when the snapshot was taken
+	 @throws IOException when the snapshot couldn't be written
+	 */
+	void saveSnapshot(@NotNull SnapshotWriter writer, long changeCount) throws IOException {
+		lastSnapshotMillis = -1;
+		save(writer, changeCount, System.nanoTime());
+	}
+
+	private void save(@NotNull SnapshotWriter writer, long snapshotChangeCount, long startNanos) throws IOException {
+		synchronized (saveLock) {
+			try {
+				lastBytesWritten = writer.write();
+			} catch (IOException | RuntimeException e) {
+				lastError = e;
+				throw e;
+			}
+			lastSaveMillis = (System.nanoTime() - startNanos) / 1_000_000;
+			lastSaveTime = System.currentTimeMillis();
+			lastError = null;
+			saveCount++;
+			if (snapshotChangeCount > savedChangeCount) {
+				savedChangeCount = snapshotChangeCount;
+			}
+		}
+	}
+
+	/** @return true if the {@link Changelog} was updated after the last save */
+	public boolean isDirty() {
+		return changeCount.get() != savedChangeCount;
+	}
+
+	/** @return number of {@link Changelog} updates since this auto saver was created */
+	public long getChangeCount() {
+		return changeCount.get();
+	}
+
+	/** @return milliseconds the last save took (snapshot and write), or -1 if nothing was saved yet */
+	public long getLastSaveMillis() {
+		return lastSaveMillis;
+	}
+
+	/** @return milliseconds the last auto save took to get the snapshot, or -1 if the last save wasn't an auto save */
+	public long getLastSnapshotMillis() {
+		return lastSnapshotMillis;
+	}
+
+	/** @return number of bytes written by the last save, or -1 if nothing was saved yet */
+	public long getLastBytesWritten() {
+		return lastBytesWritten;
+	}
+
+	/** @return {@link System#currentTimeMillis()} of when the last save finished, or -1 if nothing was saved yet */
+	public long getLastSaveTime() {
+		return lastSaveTime;
+	}
+
+	/** @return number of successful saves */
+	public long getSaveCount() {
+		return saveCount;
+	}
+
+	/** @return number of auto saves that were skipped because nothing changed */
+	public long getSkippedCount() {
+		return skippedCount;
+	}
+
+	/** @return the exception of the last save, or null if the last save was successful */
+	@Nullable
+	public Exception getLastError() {
+		return lastError;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("saves:%d, skipped:%d, dirty:%b, last save:%dms (snapshot %dms), last bytes written:%d",
+				getSaveCount(), getSkippedCount(), isDirty(), getLastSaveMillis(), getLastSnapshotMillis(), getLastBytesWritten()
+		);
+	}
+}
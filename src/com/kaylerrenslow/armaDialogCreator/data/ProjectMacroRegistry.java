@@ -2,24 +2,49 @@ package com.kaylerrenslow.armaDialogCreator.data;
 
 import com.kaylerrenslow.armaDialogCreator.control.Macro;
 import com.kaylerrenslow.armaDialogCreator.control.MacroRegistry;
+import com.kaylerrenslow.armaDialogCreator.control.sv.SVExpression;
 import com.kaylerrenslow.armaDialogCreator.control.sv.SVNumericValue;
+import com.kaylerrenslow.armaDialogCreator.control.sv.SerializableValue;
 import com.kaylerrenslow.armaDialogCreator.expression.Value;
 import com.kaylerrenslow.armaDialogCreator.util.ReadOnlyList;
+import com.kaylerrenslow.armaDialogCreator.util.ValueListener;
+import com.kaylerrenslow.armaDialogCreator.util.ValueObserver;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  Holds all macros for the current {@link Project}.
+ <p>
+ Macros are indexed by their key, so {@link #findMacroByKey(String)} and {@link #getMacroValue(String)} don't need
+ to look at every macro. This class also keeps track of which {@link MacroDependent}s use which macro keys so that
+ only those dependents are notified when a macro changes (see {@link #setDependencies(MacroDependent, String...)}).
+ Dependencies are transitive: if a macro's value is an {@link SVExpression} that uses another macro, the dependents of
+ the first macro are also notified when the other macro changes.
 
  @author Kayler
  @since 07/05/2016. */
 public class ProjectMacroRegistry implements MacroRegistry {
 
 	private final List<Macro> macros = new ArrayList<>();
-	private final ReadOnlyList<Macro> macrosReadOnly = new ReadOnlyList(macros);
+	private final ReadOnlyList<Macro> macrosReadOnly = new ReadOnlyList<>(macros);
+
+	/** Macro key to macro. Expressions may be evaluated on any thread, so this needs to be concurrent. */
+	private final ConcurrentHashMap<String, Macro<?>> macrosByKey = new ConcurrentHashMap<>();
+	/** Macro key to the macro's numeric value. Entries are removed when the macro's value changes. */
+	private final ConcurrentHashMap<String, Value.NumVal> valueCache = new ConcurrentHashMap<>();
+	private final Map<Macro<?>, MacroListener<?>> macroListeners = new IdentityHashMap<>();
+
+	/** Macro key to the dependents that use the key. Dependents are weakly referenced. */
+	private final HashMap<String, Set<MacroDependent>> dependentsByKey = new HashMap<>();
+	/** Dependent to the macro keys it uses */
+	private final WeakHashMap<MacroDependent, Set<String>> keysByDependent = new WeakHashMap<>();
+	/** Macro key to the macros whose {@link SVExpression} value uses the key. Guarded by {@link #dependentsByKey}. */
+	private final HashMap<String, Set<Macro<?>>> macrosUsingKey = new HashMap<>();
+	/** Macro to the macro keys its {@link SVExpression} value uses. Guarded by {@link #dependentsByKey}. */
+	private final IdentityHashMap<Macro<?>, Set<String>> keysByMacro = new IdentityHashMap<>();
 
 	ProjectMacroRegistry() {
 	}
@@ -36,16 +61,60 @@ public class ProjectMacroRegistry implements MacroRegistry {
 	 @throws IllegalArgumentException If the macro key ({@link Macro#getKey()}) already exists in registry
 	 */
 	public void addMacro(@NotNull Macro m) {
-		for (Macro macro : macros) {
-			if (macro.getKey().equals(m.getKey())) {
-				throw new IllegalArgumentException("duplicate key id:" + macro.getKey());
-			}
+		if (macrosByKey.containsKey(m.getKey())) {
+			throw new IllegalArgumentException("duplicate key id:" + m.getKey());
 		}
-		macros.add(m);
+		Macro<?> macro = m;
+		macros.add(macro);
+		macrosByKey.put(macro.getKey(), macro);
+		macroListeners.put(macro, addMacroListener(macro));
+
+		macroUpdated(macro.getKey());
 	}
 
 	public void removeMacro(@NotNull Macro m) {
-		macros.removeIf(macro -> macro.equals(m));
+		if (!macros.removeIf(macro -> macro.equals(m))) {
+			return;
+		}
+		macrosByKey.remove(m.getKey(), m);
+		MacroListener<?> listener = macroListeners.remove(m);
+		if (listener != null) {
+			removeMacroListener(listener);
+		}
+
+		macroUpdated(m.getKey());
+	}
+
+	@NotNull
+	private <T extends SerializableValue> MacroListener<T> addMacroListener(@NotNull Macro<T> macro) {
+		MacroListener<T> listener = new MacroListener<>(macro);
+		macro.getKeyObserver().addListener(listener.keyListener);
+		macro.getValueObserver().addListener(listener.valueListener);
+		updateExpressionKeys(macro);
+		return listener;
+	}
+
+	private <T extends SerializableValue> void removeMacroListener(@NotNull MacroListener<T> listener) {
+		listener.macro.getKeyObserver().removeListener(listener.keyListener);
+		listener.macro.getValueObserver().removeListener(listener.valueListener);
+		synchronized (dependentsByKey) {
+			removeKeys(listener.macro, keysByMacro.remove(listener.macro), macrosUsingKey);
+		}
+	}
+
+	/** Update what macro keys the given macro's value uses, if it is an {@link SVExpression} */
+	private void updateExpressionKeys(@NotNull Macro<?> macro) {
+		Set<String> keys = new HashSet<>();
+		if (macro.getValue() instanceof SVExpression) {
+			findIdentifiers(((SVExpression) macro.getValue()).getExpression(), keys);
+		}
+		synchronized (dependentsByKey) {
+			Set<String> oldKeys = keys.isEmpty() ? keysByMacro.remove(macro) : keysByMacro.put(macro, keys);
+			removeKeys(macro, oldKeys, macrosUsingKey);
+			for (String key : keys) {
+				macrosUsingKey.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(macro);
+			}
+		}
 	}
 
 	/**
@@ -57,24 +126,190 @@ public class ProjectMacroRegistry implements MacroRegistry {
 	 */
 	@Nullable
 	public Value.NumVal getMacroValue(String identifier) {
-		for (Macro m : macros) {
-			if (m.getKey().equals(identifier)) {
-				if (m.getValue() instanceof SVNumericValue) {
-					return new Value.NumVal(((SVNumericValue) m.getValue()).toDouble());
-				}
-			}
+		Value.NumVal cached = valueCache.get(identifier);
+		if (cached != null) {
+			return cached;
+		}
+		Macro<?> m = macrosByKey.get(identifier);
+		if (m == null || !(m.getValue() instanceof SVNumericValue)) {
+			return null;
 		}
-		return null;
+		Value.NumVal value = new Value.NumVal(((SVNumericValue) m.getValue()).toDouble());
+		if (!(m.getValue() instanceof SVExpression)) {
+			//expressions can depend on other things in the environment, so they can't be cached
+			valueCache.put(identifier, value);
+		}
+		return value;
 	}
 
 	@Override
 	@Nullable
 	public Macro findMacroByKey(@NotNull String macroKey) {
-		for (Macro macro : getMacros()) {
-			if (macro.getKey().equals(macroKey)) {
-				return macro;
+		return macrosByKey.get(macroKey);
+	}
+
+	/**
+	 Set what macros the given dependent uses. Any dependencies set from a previous invocation are replaced.
+	 Whenever a macro with a key that is used by any of the given expressions is changed, added, removed, or renamed,
+	 {@link MacroDependent#macroUpdated(String)} will be invoked.
+	 <p>
+	 The dependent is weakly referenced, so it doesn't need to be removed with {@link #removeDependent(MacroDependent)}
+	 when it is no longer used.
+
+	 @param dependent the dependent
+	 @param expressions expressions that the dependent evaluates
+	 */
+	public void setDependencies(@NotNull MacroDependent dependent, @NotNull String... expressions) {
+		Set<String> keys = new HashSet<>();
+		for (String expression : expressions) {
+			findIdentifiers(expression, keys);
+		}
+		synchronized (dependentsByKey) {
+			Set<String> oldKeys = keysByDependent.get(dependent);
+			if (keys.equals(oldKeys)) {
+				return;
+			}
+			removeKeys(dependent, oldKeys, dependentsByKey);
+			if (keys.isEmpty()) {
+				keysByDependent.remove(dependent);
+				return;
 			}
+			keysByDependent.put(dependent, keys);
+			for (String key : keys) {
+				dependentsByKey.computeIfAbsent(key, k -> Collections.newSetFromMap(new WeakHashMap<>())).add(dependent);
+			}
+		}
+	}
+
+	/** Remove all dependencies set with {@link #setDependencies(MacroDependent, String...)} for the given dependent */
+	public void removeDependent(@NotNull MacroDependent dependent) {
+		synchronized (dependentsByKey) {
+			removeKeys(dependent, keysByDependent.remove(dependent), dependentsByKey);
+		}
+	}
+
+	/** @return number of dependents that use the given macro key */
+	public int getDependentCount(@NotNull String macroKey) {
+		synchronized (dependentsByKey) {
+			Set<MacroDependent> dependents = dependentsByKey.get(macroKey);
+			return dependents == null ? 0 : dependents.size();
+		}
+	}
+
+	/** Remove <code>user</code> from the sets in <code>usersByKey</code> for each of the given keys */
+	private static <U> void removeKeys(@NotNull U user, @Nullable Set<String> keys, @NotNull Map<String, ? extends Set<? super U>> usersByKey) {
+		if (keys == null) {
+			return;
+		}
+		for (String key : keys) {
+			Set<? super U> users = usersByKey.get(key);
+			if (users == null) {
+				continue;
+			}
+			users.remove(user);
+			if (users.isEmpty()) {
+				usersByKey.remove(key);
+			}
+		}
+	}
+
+	/**
+	 Invalidate the cached value for the given key and notify all dependents of the key. If a macro's expression uses
+	 the key, the dependents of that macro are notified too (and so on).
+	 */
+	private void macroUpdated(@NotNull String macroKey) {
+		List<MacroDependent> notify = new ArrayList<>();
+		List<String> notifyKeys = new ArrayList<>();
+		synchronized (dependentsByKey) {
+			ArrayDeque<String> updatedKeys = new ArrayDeque<>();
+			Set<String> visited = new HashSet<>();
+			updatedKeys.add(macroKey);
+			visited.add(macroKey);
+			while (!updatedKeys.isEmpty()) {
+				String key = updatedKeys.poll();
+				valueCache.remove(key);
+				Set<MacroDependent> dependents = dependentsByKey.get(key);
+				if (dependents != null) {
+					for (MacroDependent dependent : dependents) {
+						notify.add(dependent);
+						notifyKeys.add(key);
+					}
+				}
+				Set<Macro<?>> usedBy = macrosUsingKey.get(key);
+				if (usedBy != null) {
+					for (Macro<?> macro : usedBy) {
+						//the visited set stops macros that use each other from looping forever
+						if (visited.add(macro.getKey())) {
+							updatedKeys.add(macro.getKey());
+						}
+					}
+				}
+			}
+		}
+		//don't hold the lock while notifying since dependents may set their dependencies again
+		for (int i = 0; i < notify.size(); i++) {
+			notify.get(i).macroUpdated(notifyKeys.get(i));
+		}
+	}
+
+	/**
+	 Adds all identifiers in the given expression to the given set. This doesn't parse the expression, so some of the
+	 added identifiers may be commands, keywords, or text inside Strings. That doesn't matter since they will never
+	 match a macro key that the expression doesn't use.
+	 */
+	static void findIdentifiers(@NotNull String expression, @NotNull Set<String> identifiers) {
+		int i = 0;
+		final int length = expression.length();
+		while (i < length) {
+			char c = expression.charAt(i);
+			if (Character.isLetter(c) || c == '_') {
+				int start = i;
+				i++;
+				while (i < length && (Character.isLetterOrDigit(expression.charAt(i)) || expression.charAt(i) == '_')) {
+					i++;
+				}
+				identifiers.add(expression.substring(start, i));
+			} else if (Character.isDigit(c)) {
+				//skip numbers like 1e5 and 0xFF
+				i++;
+				while (i < length && (Character.isLetterOrDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+					i++;
+				}
+			} else {
+				i++;
+			}
+		}
+	}
+
+	private class MacroListener<T extends SerializableValue> {
+		private final Macro<T> macro;
+		private final ValueListener<String> keyListener = new ValueListener<String>() {
+			@Override
+			public void valueUpdated(@NotNull ValueObserver<String> observer, @Nullable String oldValue, @Nullable String newValue) {
+				if (oldValue != null) {
+					macrosByKey.remove(oldValue, macro);
+				}
+				if (newValue != null) {
+					macrosByKey.put(newValue, macro);
+				}
+				if (oldValue != null) {
+					macroUpdated(oldValue);
+				}
+				if (newValue != null) {
+					macroUpdated(newValue);
+				}
+			}
+		};
+		private final ValueListener<T> valueListener = new ValueListener<T>() {
+			@Override
+			public void valueUpdated(@NotNull ValueObserver<T> observer, @Nullable T oldValue, @Nullable T newValue) {
+				updateExpressionKeys(macro);
+				macroUpdated(macro.getKey());
+			}
+		};
+
+		MacroListener(@NotNull Macro<T> macro) {
+			this.macro = macro;
 		}
-		return null;
 	}
 }
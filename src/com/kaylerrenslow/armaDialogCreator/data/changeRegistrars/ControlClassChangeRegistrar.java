@@ -318,7 +318,9 @@ public class ControlClassChangeRegistrar implements ChangeRegistrar {
 				//
 				//
 				//
-			} else if (classUpdate instanceof ControlClassTemporaryPropertyUpdate || classUpdate instanceof ControlClassTemporaryNestedClassUpdate) {
+			} else if (classUpdate instanceof ControlClassTemporaryPropertyUpdate || classUpdate instanceof ControlClassTemporaryNestedClassUpdate
+					|| classUpdate instanceof ControlClassInheritanceBatchUpdate) {
+				//the batch update is the result of a ControlClassExtendUpdate, which is already tracked
 				throw new Exception(); //nothing needs to be done
 			} else {
 				System.err.println("WARNING: ControlClassChangeRegistrar.ControlClassChangeRegistrar():" +
@@ -3,95 +3,224 @@ package com.kaylerrenslow.armaDialogCreator.data.xml;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.*;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl.StringTableImpl;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl.StringTableKeyImpl;
-import com.kaylerrenslow.armaDialogCreator.util.XmlUtil;
+import com.kaylerrenslow.armaDialogCreator.main.Lang;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import org.jetbrains.annotations.NotNull;
-import org.w3c.dom.Element;
+import org.jetbrains.annotations.Nullable;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  Parsers an Arma 3 formatter stringtable.xml file. <a href="https://community.bistudio.com/wiki/Stringtable.xml">See this for more information</a>.
+ <p>
+ The xml is streamed, so only the key that is being read is in memory (apart from the keys that are kept by the caller).
+ The tokens of each key are stored in a {@link LanguageTokenMap}.
 
  @author Kayler
  @since 12/12/2016 */
 public class DefaultStringTableXmlParser extends XmlLoader implements StringTableParser {
 
 	private final File xmlFile;
+	private int parsedKeyCount = 0;
+	private long parseNanos = 0;
 
 	/**
 	 @param xmlFile the .xml file that contains the {@link StringTable} entries
-	 @throws XmlParseException
+	 @throws XmlParseException when the file doesn't exist
 	 */
 	public DefaultStringTableXmlParser(@NotNull File xmlFile) throws XmlParseException {
-		super(xmlFile, null);
+		super(null);
+		if (!xmlFile.isFile()) {
+			throw new XmlParseException(Lang.ApplicationBundle().getString("XmlParse.failed_to_read_xml"), new FileNotFoundException(xmlFile.getPath()));
+		}
 		this.xmlFile = xmlFile;
 	}
 
 	@NotNull
 	@Override
 	public StringTable createStringTableInstance() throws IOException {
-		Element rootElement = document.getDocumentElement();
+		List<StringTableKey> tableKeys = new ArrayList<>();
+		String projectName = parseKeys(tableKeys::add);
+		return new StringTableImpl(this.xmlFile, FXCollections.observableList(tableKeys), projectName);
+	}
 
-		ObservableList<StringTableKey> tableKeys = FXCollections.observableArrayList();
-		fetchKeys(rootElement, new StringTableKeyPath(null), tableKeys);
+	/**
+	 Read the keys of the xml file one at a time. The parser doesn't keep the keys, so a file of any size can be read with
+	 bounded memory if <code>keyConsumer</code> doesn't keep them either.
 
-		loadPackageElements(rootElement, tableKeys);
-		loadContainerElements(rootElement, new StringTableKeyPath(null), tableKeys);
+	 @param keyConsumer invoked for each key, in the order they are in the file
+	 @return the project name (attribute of the root tag)
+	 @throws IOException when the file couldn't be read or isn't valid xml
+	 */
+	@NotNull
+	public String parseKeys(@NotNull Consumer<StringTableKey> keyConsumer) throws IOException {
+		long start = System.nanoTime();
+		parsedKeyCount = 0;
+		Map<String, Language> languages = new HashMap<>();
+		for (KnownLanguage language : KnownLanguage.values()) {
+			languages.put(language.getName(), language);
+		}
+		try (InputStream is = new BufferedInputStream(new FileInputStream(xmlFile), 64 * 1024)) {
+			XMLStreamReader reader = newStreamReader(is);
+			try {
+				reader.nextTag();
+				String projectName = attribute(reader, StringTableXmlConstants.PROJECT_NAME);
+				readChildren(reader, new StringTableKeyPath(null), true, languages, keyConsumer);
+				return projectName;
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(Lang.ApplicationBundle().getString("XmlParse.failed_to_read_xml"), e);
+		} finally {
+			parseNanos = System.nanoTime() - start;
+		}
+	}
 
-		return new StringTableImpl(this.xmlFile, tableKeys, rootElement.getAttribute(StringTableXmlConstants.PROJECT_NAME));
+	/** @return number of keys read by the last parse */
+	public int getParsedKeyCount() {
+		return parsedKeyCount;
 	}
 
-	private void loadPackageElements(Element element, List<StringTableKey> tableKeys) {
-		List<Element> packageElements = XmlUtil.getChildElementsWithTagName(element, StringTableXmlConstants.PACKAGE);
-		for (Element packageElement : packageElements) {
-			String packageName = packageElement.getAttribute(StringTableXmlConstants.NAME);
-			StringTableKeyPath path = new StringTableKeyPath(packageName);
+	/** @return nanoseconds the last parse took */
+	public long getParseNanos() {
+		return parseNanos;
+	}
 
-			fetchKeys(packageElement, path, tableKeys); //may not be in a container
-			loadContainerElements(packageElement, path, tableKeys);
-		}
+	/** @return keys read per second by the last parse, or 0 if nothing was parsed */
+	public double getKeysPerSecond() {
+		return parseNanos == 0 ? 0 : parsedKeyCount / (parseNanos / 1_000_000_000.0);
 	}
 
-	private void loadContainerElements(Element element, StringTableKeyPath path, List<StringTableKey> tableKeys) {
-		List<Element> containerElements = XmlUtil.getChildElementsWithTagName(element, StringTableXmlConstants.CONTAINER);
-		for (Element containerElement : containerElements) {
-			String containerName = containerElement.getAttribute(StringTableXmlConstants.NAME);
-			path.getContainers().add(containerName);
+	/**
+	 Read the children of the element the reader is on. When this returns, the reader is on the element's end tag.
 
-			fetchKeys(containerElement, path, tableKeys);
-			loadContainerElements(containerElement, path.deepCopy(), tableKeys);
-			path.getContainers().remove(containerName);
+	 @param path path of the element
+	 @param root true if the element is the root tag (only the root tag has packages)
+	 */
+	private void readChildren(@NotNull XMLStreamReader reader, @NotNull StringTableKeyPath path, boolean root,
+							  @NotNull Map<String, Language> languages, @NotNull Consumer<StringTableKey> keyConsumer) throws XMLStreamException {
+		while (true) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT: {
+					String tagName = reader.getLocalName();
+					if (tagName.equals(StringTableXmlConstants.KEY)) {
+						StringTableKey key = readKey(reader, path, languages);
+						if (key != null) {
+							parsedKeyCount++;
+							keyConsumer.accept(key);
+						}
+					} else if (root && tagName.equals(StringTableXmlConstants.PACKAGE)) {
+						readChildren(reader, new StringTableKeyPath(attribute(reader, StringTableXmlConstants.NAME)), false, languages, keyConsumer);
+					} else if (tagName.equals(StringTableXmlConstants.CONTAINER)) {
+						StringTableKeyPath containerPath = path.deepCopy();
+						containerPath.getContainers().add(attribute(reader, StringTableXmlConstants.NAME));
+						readChildren(reader, containerPath, false, languages, keyConsumer);
+					} else {
+						skipElement(reader);
+					}
+					break;
+				}
+				case XMLStreamConstants.END_ELEMENT: {
+					return;
+				}
+				case XMLStreamConstants.END_DOCUMENT: {
+					throw new XMLStreamException("unexpected end of document");
+				}
+			}
 		}
+	}
 
+	/**
+	 Read the key element the reader is on. When this returns, the reader is on the key's end tag.
+
+	 @return the key, or null if the key has no id
+	 */
+	@Nullable
+	private StringTableKey readKey(@NotNull XMLStreamReader reader, @NotNull StringTableKeyPath path,
+								   @NotNull Map<String, Language> languages) throws XMLStreamException {
+		String id = attribute(reader, StringTableXmlConstants.ID).trim();
+		if (id.length() == 0) {
+			skipElement(reader);
+			return null;
+		}
+		ObservableMap<Language, String> map = LanguageTokenMap.newObservableMap();
+		StringBuilder token = new StringBuilder();
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				break;
+			}
+			if (event == XMLStreamConstants.END_DOCUMENT) {
+				throw new XMLStreamException("unexpected end of document");
+			}
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			Language language = languages.computeIfAbsent(reader.getLocalName(), CustomLanguage::new);
+			map.put(language, readImmediateText(reader, token));
+		}
+		return new StringTableKeyImpl(id, path.deepCopy(), map);
 	}
 
-	private void fetchKeys(Element element, StringTableKeyPath path, List<StringTableKey> tableKeys) {
-		List<Element> keyElements = XmlUtil.getChildElementsWithTagName(element, StringTableXmlConstants.KEY);
-
-		for (Element keyElement : keyElements) {
-			String id = keyElement.getAttribute(StringTableXmlConstants.ID).trim();
-
-			if (id.length() > 0) {
-				List<Element> valueElements = XmlUtil.getChildElementsWithTagName(keyElement, null);
-				ObservableMap<Language, String> map = FXCollections.observableMap(new HashMap<>(valueElements.size()));
-				for (Element valueElement : valueElements) {
-					Language language;
-					String langName = valueElement.getTagName();
-					try {
-						language = KnownLanguage.valueOf(langName);
-					} catch (IllegalArgumentException e) {
-						language = new CustomLanguage(langName);
+	/**
+	 Read the text of the element the reader is on, but not the text of its child elements (same as
+	 {@link com.kaylerrenslow.armaDialogCreator.util.XmlUtil#getImmediateTextContent(org.w3c.dom.Node)}).
+	 When this returns, the reader is on the element's end tag.
+	 */
+	@NotNull
+	private static String readImmediateText(@NotNull XMLStreamReader reader, @NotNull StringBuilder text) throws XMLStreamException {
+		text.setLength(0);
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT: {
+					depth++;
+					break;
+				}
+				case XMLStreamConstants.END_ELEMENT: {
+					depth--;
+					break;
+				}
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE: {
+					if (depth == 1) {
+						text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+					break;
+				}
+				case XMLStreamConstants.ENTITY_REFERENCE: {
+					if (depth == 1) {
+						text.append(reader.getText());
 					}
-					map.put(language, XmlUtil.getImmediateTextContent(valueElement));
+					break;
+				}
+				case XMLStreamConstants.END_DOCUMENT: {
+					throw new XMLStreamException("unexpected end of document");
 				}
-				tableKeys.add(new StringTableKeyImpl(id, path.deepCopy(), map));
 			}
 		}
+		return text.toString();
+	}
+
+	/** @return the attribute value, or "" if the element doesn't have the attribute */
+	@NotNull
+	private static String attribute(@NotNull XMLStreamReader reader, @NotNull String attributeName) {
+		String value = reader.getAttributeValue(null, attributeName);
+		return value == null ? "" : value;
 	}
 }
@@ -20,22 +20,37 @@ import com.kaylerrenslow.armaDialogCreator.main.Lang;
 import com.kaylerrenslow.armaDialogCreator.util.XmlUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ResourceBundle;
 
 /**
- A project loader for save-version='1'
+ A project loader for save-version='1'.
+ <p>
+ The xml is read with a {@link XMLStreamReader}. Each control is created as soon as its element is read and then the element
+ is discarded, so the controls' elements are never all in memory at once. Everything else in the project is small, so it is read
+ into {@link #projectElement} and loaded the same way as a parsed {@link Document}.
 
  @author Kayler
  @since 08/07/2016. */
 public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 
 	private final LinkedList<AfterLoadJob> jobs = new LinkedList<>();
+	/** Jobs for the controls. These are added to {@link #jobs} after the jobs for the custom control classes. */
+	private final LinkedList<AfterLoadJob> controlJobs = new LinkedList<>();
+	/** The root element with every child element of the project, except for the display */
+	private Element projectElement;
 	private final ProjectInfo info;
 	private ArmaResolution resolution;
 	private Env env;
@@ -57,33 +72,72 @@ public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 	}
 
 	private void loadProject() throws XmlParseException {
-		try {
-			resolution = DataKeys.ARMA_RESOLUTION.get(dataContext);
-			env = DataKeys.ENV.get(dataContext);
-			String projectName = document.getDocumentElement().getAttribute("name");
-			project = new Project(this.loader.applicationData, info);
-			project.setProjectName(projectName);
-			loadStringtableXml();
-			loadMacroRegistry();
-			loadCustomControlClassRegistries();
-
-			ArmaDisplay editingDisplay = fetchEditingDisplay(project.getMacroRegistry().getMacros());
-			if (editingDisplay != null) {
-				project.setEditingDisplay(editingDisplay);
+		try (InputStream is = new BufferedInputStream(new FileInputStream(this.loader.xmlFile))) {
+			XMLStreamReader reader = XmlLoader.newStreamReader(is);
+			try {
+				streamProject(reader);
+			} finally {
+				reader.close();
 			}
-			project.setProjectDescription(getProjectDescription());
-
-			fetchExportConfiguration();
-			loadResourceRegistry();
-
+		} catch (XMLStreamException e) {
+			e.printStackTrace(System.out);
+			throw new XmlParseException(Lang.ApplicationBundle().getString("XmlParse.failed_to_read_xml"), e);
 		} catch (Exception e) {
 			e.printStackTrace(System.out);
 			throw new XmlParseException(e.getMessage(), e);
 		}
 	}
 
+	private void streamProject(@NotNull XMLStreamReader reader) throws Exception {
+		resolution = DataKeys.ARMA_RESOLUTION.get(dataContext);
+		env = DataKeys.ENV.get(dataContext);
+		Document owner = XmlLoader.getDocumentBuilder().newDocument();
+
+		reader.nextTag();
+		projectElement = XmlLoader.newElement(reader, owner);
+		String projectName = projectElement.getAttribute("name");
+		project = new Project(this.loader.applicationData, info);
+		project.setProjectName(projectName);
+
+		ArmaDisplay editingDisplay = null;
+		boolean loadedBeforeDisplay = false;
+		int event;
+		while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			if (!reader.getLocalName().equals("display")) {
+				projectElement.appendChild(XmlLoader.readElement(reader, owner));
+				continue;
+			}
+			if (editingDisplay != null) {
+				XmlLoader.skipElement(reader);
+				continue;
+			}
+			//controls need the macros. The macros are written before the display, so they have already been read
+			loadStringtableXml();
+			loadMacroRegistry();
+			loadedBeforeDisplay = true;
+			editingDisplay = streamDisplay(reader, owner);
+		}
+		if (!loadedBeforeDisplay) {
+			loadStringtableXml();
+			loadMacroRegistry();
+		}
+		loadCustomControlClassRegistries();
+		jobs.addAll(controlJobs);
+
+		if (editingDisplay != null) {
+			project.setEditingDisplay(editingDisplay);
+		}
+		project.setProjectDescription(getProjectDescription());
+
+		fetchExportConfiguration();
+		loadResourceRegistry();
+	}
+
 	private void loadStringtableXml() {
-		List<Element> stringtableElementList = XmlUtil.getChildElementsWithTagName(document.getDocumentElement(), "stringtable");
+		List<Element> stringtableElementList = XmlUtil.getChildElementsWithTagName(projectElement, "stringtable");
 		if (stringtableElementList.size() <= 0) {
 			return;
 		}
@@ -96,7 +150,7 @@ public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 	}
 
 	private void fetchExportConfiguration() {
-		List<Element> exportConfigElementList = XmlUtil.getChildElementsWithTagName(document.getDocumentElement(), "export-config");
+		List<Element> exportConfigElementList = XmlUtil.getChildElementsWithTagName(projectElement, "export-config");
 		if (exportConfigElementList.size() <= 0) {
 			return;
 		}
@@ -151,7 +205,7 @@ public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 	}
 
 	private void loadResourceRegistry() {
-		List<Element> externalResourcesElementGroups = XmlUtil.getChildElementsWithTagName(document.getDocumentElement(), "external-resources");
+		List<Element> externalResourcesElementGroups = XmlUtil.getChildElementsWithTagName(projectElement, "external-resources");
 		for (Element externalResourcesElementGroup : externalResourcesElementGroups) {
 			ResourceRegistryXmlLoader.loadRegistryFromElement(project.getResourceRegistry(), externalResourcesElementGroup);
 		}
@@ -168,7 +222,7 @@ public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 					}
 			);
 		}
-		ProjectXmlUtil.loadCustomControlClasses(document.getDocumentElement(), dataContext, this.loader,
+		ProjectXmlUtil.loadCustomControlClasses(projectElement, dataContext, this.loader,
 				controlClassSpecification -> {
 					jobs.add(new CreateCustomControlClassJob(controlClassSpecification, true));
 					return null;
@@ -177,7 +231,7 @@ public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 	}
 
 	private void loadMacroRegistry() {
-		List<Element> macrosGroupElements = XmlUtil.getChildElementsWithTagName(document.getDocumentElement(), "macros");
+		List<Element> macrosGroupElements = XmlUtil.getChildElementsWithTagName(projectElement, "macros");
 		List<Element> macroElements;
 		final String macro = "macro";
 		final String key = "key";
@@ -213,116 +267,183 @@ public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 	}
 
 	private String getProjectDescription() {
-		List<Element> descriptionElements = XmlUtil.getChildElementsWithTagName(document.getDocumentElement(), "project-description");
+		List<Element> descriptionElements = XmlUtil.getChildElementsWithTagName(projectElement, "project-description");
 		if (descriptionElements.size() > 0) {
 			return XmlUtil.getImmediateTextContent(descriptionElements.get(0));
 		}
 		return null;
 	}
 
-	private ArmaDisplay fetchEditingDisplay(List<Macro> macros) {
-		List<Element> displayElements = XmlUtil.getChildElementsWithTagName(document.getDocumentElement(), "display");
-		if (displayElements.size() <= 0) {
-			return null;
-		}
-		Element displayElement = displayElements.get(0);
+	/**
+	 Read the display element the reader is on. When this returns, the reader will be on the display's end element.
+	 */
+	@NotNull
+	private ArmaDisplay streamDisplay(@NotNull XMLStreamReader reader, @NotNull Document owner) throws XMLStreamException {
 		ArmaDisplay display = new ArmaDisplay();
-
-		List<Element> displayPropertyElements = XmlUtil.getChildElementsWithTagName(displayElement, "display-property");
-		for (Element displayPropertyElement : displayPropertyElements) {
-			String lookupId = displayPropertyElement.getAttribute("id");
-			try {
-				int id = Integer.parseInt(lookupId);
-				DisplayPropertyLookup lookup = DisplayPropertyLookup.findById(id);
-				SerializableValue value = getValue("Display." + lookup.getPropertyName(), lookup.getPropertyType(), displayPropertyElement);
-				switch (lookup) {
-					case IDD: {
-						display.getIddProperty().setValue(value);
-						break;
-					}
-					default: {
-						display.getDisplayProperties().add(new DisplayProperty(lookup, value));
-						break;
+		int event;
+		while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			switch (reader.getLocalName()) {
+				case "display-property": {
+					loadDisplayProperty(display, XmlLoader.readElement(reader, owner));
+					break;
+				}
+				case "display-controls": {
+					String controlsType = reader.getAttributeValue(null, "type");
+					if ("background".equals(controlsType)) {
+						List<ArmaControl> controls = streamControls(reader, owner, treeStructureBg.getRoot(), null, controlJobs);
+						for (ArmaControl control : controls) {
+							display.getBackgroundControls().add(control);
+						}
+					} else if ("main".equals(controlsType)) {
+						List<ArmaControl> controls = streamControls(reader, owner, treeStructureMain.getRoot(), null, controlJobs);
+						for (ArmaControl control : controls) {
+							display.getControls().add(control);
+						}
+					} else {
+						XmlLoader.skipElement(reader);
 					}
+					break;
+				}
+				default: {
+					XmlLoader.skipElement(reader);
+					break;
 				}
-
-			} catch (IllegalArgumentException e) {
-				addError(new ParseError(String.format(bundle.getString("ProjectLoad.bad_display_property_lookup_id_f"), lookupId), ParseError.genericRecover("-1")));
 			}
 		}
+		return display;
+	}
 
-		List<Element> displayControlElements = XmlUtil.getChildElementsWithTagName(displayElement, "display-controls");
-		List<ArmaControl> controls;
-		String controlsType;
-		for (Element displayControlElement : displayControlElements) {
-			controlsType = displayControlElement.getAttribute("type");
-			switch (controlsType) {
-				case "background": {
-					controls = buildStructureAndGetControls(treeStructureBg.getRoot(), displayControlElement, macros);
-					for (ArmaControl control : controls) {
-						display.getBackgroundControls().add(control);
-					}
+	private void loadDisplayProperty(@NotNull ArmaDisplay display, @NotNull Element displayPropertyElement) {
+		String lookupId = displayPropertyElement.getAttribute("id");
+		try {
+			int id = Integer.parseInt(lookupId);
+			DisplayPropertyLookup lookup = DisplayPropertyLookup.findById(id);
+			SerializableValue value = getValue("Display." + lookup.getPropertyName(), lookup.getPropertyType(), displayPropertyElement);
+			switch (lookup) {
+				case IDD: {
+					display.getIddProperty().setValue(value);
 					break;
 				}
-				case "main": {
-					controls = buildStructureAndGetControls(treeStructureMain.getRoot(), displayControlElement, macros);
-					for (ArmaControl control : controls) {
-						display.getControls().add(control);
-					}
+				default: {
+					display.getDisplayProperties().add(new DisplayProperty(lookup, value));
 					break;
 				}
 			}
+
+		} catch (IllegalArgumentException e) {
+			addError(new ParseError(String.format(bundle.getString("ProjectLoad.bad_display_property_lookup_id_f"), lookupId), ParseError.genericRecover("-1")));
 		}
-		return display;
 	}
 
-	private List<ArmaControl> buildStructureAndGetControls(TreeNode<ArmaControl> parent, Element parentElement, List<Macro> macros) {
+	/**
+	 Read the controls and folders inside the element the reader is on and add them to <code>parent</code>. Each control is created
+	 as soon as its element is read. If a control couldn't be created, the rest of the controls and folders in the element are skipped.
+	 When this returns, the reader will be on the element's end element.
+
+	 @param parent node to add the controls and folders to
+	 @param containerElement if not null, every child element that isn't a control, control group, or folder is read into this element
+	 @param jobList list to add the controls' jobs to
+	 @return the controls that were created (not including controls inside folders and control groups)
+	 */
+	@NotNull
+	private List<ArmaControl> streamControls(@NotNull XMLStreamReader reader, @NotNull Document owner, @NotNull TreeNode<ArmaControl> parent,
+											 @Nullable Element containerElement, @NotNull List<AfterLoadJob> jobList) throws XMLStreamException {
 		List<ArmaControl> controls = new LinkedList<>();
-		List<Element> tagElements = XmlUtil.getChildElementsWithTagName(parentElement, "*");
-		ArmaControl control;
-		TreeNode<ArmaControl> treeNode;
-		for (Element controlElement : tagElements) {
-			switch (controlElement.getTagName()) {
+		boolean stopped = false;
+		int event;
+		while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			String tagName = reader.getLocalName();
+			boolean controlOrFolder = tagName.equals("control") || tagName.equals("control-group") || tagName.equals("folder");
+			if (!controlOrFolder) {
+				if (containerElement != null) {
+					containerElement.appendChild(XmlLoader.readElement(reader, owner));
+				} else {
+					XmlLoader.skipElement(reader);
+				}
+				continue;
+			}
+			if (stopped) {
+				XmlLoader.skipElement(reader);
+				continue;
+			}
+			switch (tagName) {
 				case "control": {
-					control = getControl(controlElement, macros);
+					ArmaControl control = getControl(XmlLoader.readElement(reader, owner), jobList);
 					if (control == null) {
-						return controls;
+						stopped = true;
+						continue;
 					}
-					treeNode = new TreeNode.Simple<>(control, control.getClassName(), false);
-					parent.getChildren().add(treeNode);
+					parent.getChildren().add(new TreeNode.Simple<>(control, control.getClassName(), false));
+					controls.add(control);
 					break;
 				}
 				case "control-group": {
-					control = getControl(controlElement, macros);
-					if (control == null) {
-						return controls;
-					}
-					ArmaControlGroup group = (ArmaControlGroup) control;
-					treeNode = new TreeNode.Simple<>(group, group.getClassName(), false);
-					parent.getChildren().add(treeNode);
-					List<ArmaControl> controlsToAdd = buildStructureAndGetControls(treeNode, controlElement, macros);
-					for (ArmaControl add : controlsToAdd) {
-						group.getControls().add(add);
+					ArmaControlGroup group = streamControlGroup(reader, owner, parent, jobList);
+					if (group == null) {
+						stopped = true;
+						continue;
 					}
+					controls.add(group);
 					break;
 				}
 				case "folder": {
-					treeNode = new TreeNode.Simple<>(null, controlElement.getAttribute("name"), true);
+					String folderName = reader.getAttributeValue(null, "name");
+					TreeNode<ArmaControl> treeNode = new TreeNode.Simple<>(null, folderName == null ? "" : folderName, true);
 					parent.getChildren().add(treeNode);
-					controls.addAll(buildStructureAndGetControls(treeNode, controlElement, macros));
-					continue;
-				}
-				default: {
-					continue;
+					controls.addAll(streamControls(reader, owner, treeNode, null, jobList));
+					break;
 				}
 			}
-			controls.add(control);
 		}
 
 		return controls;
 	}
 
-	private ArmaControl getControl(Element controlElement, List<Macro> macros) {
+	/**
+	 Read the control group the reader is on. The group's child controls are created first because the group's nested classes
+	 are written after them.
+
+	 @return the group, or null if it couldn't be created
+	 */
+	@Nullable
+	private ArmaControlGroup streamControlGroup(@NotNull XMLStreamReader reader, @NotNull Document owner, @NotNull TreeNode<ArmaControl> parent,
+												@NotNull List<AfterLoadJob> jobList) throws XMLStreamException {
+		Element groupElement = XmlLoader.newElement(reader, owner);
+		TreeNode<ArmaControl> childNodes = new TreeNode.Simple<>(null, "", false);
+		List<AfterLoadJob> childJobs = new LinkedList<>();
+		List<ArmaControl> childControls = streamControls(reader, owner, childNodes, groupElement, childJobs);
+
+		List<AfterLoadJob> groupJobs = new LinkedList<>();
+		ArmaControl control = getControl(groupElement, groupJobs);
+		if (control == null) {
+			return null;
+		}
+		ArmaControlGroup group = (ArmaControlGroup) control;
+		TreeNode<ArmaControl> treeNode = new TreeNode.Simple<>(group, group.getClassName(), false);
+		parent.getChildren().add(treeNode);
+		treeNode.getChildren().addAll(childNodes.getChildren());
+		for (ArmaControl add : childControls) {
+			group.getControls().add(add);
+		}
+		jobList.addAll(groupJobs);
+		jobList.addAll(childJobs);
+		return group;
+	}
+
+	/**
+	 Create a control from its element
+
+	 @param jobList list to add the control's jobs to
+	 @return the control, or null if it couldn't be created
+	 */
+	@Nullable
+	private ArmaControl getControl(@NotNull Element controlElement, @NotNull List<AfterLoadJob> jobList) {
 		//enabled setup
 		boolean enabled = true;
 		{
@@ -410,14 +531,14 @@ public class ProjectLoaderVersion1 extends ProjectVersionLoader {
 			nestedOptional = ProjectXmlUtil.loadControlClassSpecifications(optNestedClassesElementGroups.get(0), dataContext, this.loader);
 		}
 
-		jobs.add(new ControlNestedClassesJob(control, nestedRequired, nestedOptional));
+		jobList.add(new ControlNestedClassesJob(control, nestedRequired, nestedOptional));
 
 		List<ControlPropertyLookup> inheritControlProperties = ProjectXmlUtil.loadInheritedControlProperties(controlElement, this.loader);
 
 		//add extend job if needed
 		String extendClassName = controlElement.getAttribute("extend-class");
 		if (extendClassName.length() > 0) {
-			jobs.add(new ControlExtendJob(extendClassName, control, inheritControlProperties));
+			jobList.add(new ControlExtendJob(extendClassName, control, inheritControlProperties));
 		}
 
 		//must set ghost state first since ghost=!visible && !enabled
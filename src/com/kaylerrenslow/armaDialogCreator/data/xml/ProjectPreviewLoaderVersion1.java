@@ -5,27 +5,37 @@ import org.jetbrains.annotations.NotNull;
 import java.io.File;
 
 /**
- A project preview loader for save-version='1'. This loader will only get the name of the project.
+ A project preview loader for save-version='1'. This loader will only get the name, save time, and control count of the project,
+ so only the root element of the xml is read.
 
  @author Kayler
  @since 08/07/2016. */
 public class ProjectPreviewLoaderVersion1 extends XmlLoader {
 
+	private final File xmlFile;
 	private String projectName;
+	private long saveTime = -1;
+	private int controlCount = -1;
 
 
 	protected ProjectPreviewLoaderVersion1(@NotNull File xmlFile) throws XmlParseException {
-		super(xmlFile, null);
+		super(null);
+		this.xmlFile = xmlFile;
 	}
 
 
 	public void parseDocument() throws XmlParseException {
-		try {
-			projectName = document.getDocumentElement().getAttribute("name");
+		String[] attributes = readRootAttributes(xmlFile, "name", "save-time", "control-count");
+		projectName = attributes[0];
+		saveTime = parseLong(attributes[1]);
+		controlCount = (int) parseLong(attributes[2]);
+	}
 
-		} catch (Exception e) {
-			e.printStackTrace(System.out);
-			throw new XmlParseException(e.getMessage());
+	private static long parseLong(@NotNull String s) {
+		try {
+			return Long.parseLong(s);
+		} catch (NumberFormatException e) {
+			return -1;
 		}
 	}
 
@@ -33,4 +43,17 @@ public class ProjectPreviewLoaderVersion1 extends XmlLoader {
 	public String getProjectName() {
 		return projectName;
 	}
+
+	/** @return {@link System#currentTimeMillis()} of when the project was saved, or -1 if not known */
+	public long getSaveTime() {
+		return saveTime;
+	}
+
+	/**
+	 @return number of controls in the project (including controls inside control groups), or -1 if not known
+	 (projects saved before the count was written)
+	 */
+	public int getControlCount() {
+		return controlCount;
+	}
 }
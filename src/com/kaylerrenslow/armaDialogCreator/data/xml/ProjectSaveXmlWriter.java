@@ -1,21 +1,18 @@
 package com.kaylerrenslow.armaDialogCreator.data.xml;
 
 import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaControl;
-import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaControlGroup;
-import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaDisplay;
-import com.kaylerrenslow.armaDialogCreator.control.*;
+import com.kaylerrenslow.armaDialogCreator.control.ControlClassSpecification;
+import com.kaylerrenslow.armaDialogCreator.control.ControlPropertyLookupConstant;
+import com.kaylerrenslow.armaDialogCreator.control.ControlPropertySpecification;
 import com.kaylerrenslow.armaDialogCreator.control.sv.SerializableValue;
 import com.kaylerrenslow.armaDialogCreator.data.Project;
-import com.kaylerrenslow.armaDialogCreator.data.ProjectMacroRegistry;
-import com.kaylerrenslow.armaDialogCreator.data.ResourceRegistry;
-import com.kaylerrenslow.armaDialogCreator.data.export.ProjectExportConfiguration;
-import com.kaylerrenslow.armaDialogCreator.data.tree.TreeNode;
 import com.kaylerrenslow.armaDialogCreator.data.tree.TreeStructure;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 /**
  Created by Kayler on 08/02/2016.
@@ -27,13 +24,13 @@ public class ProjectSaveXmlWriter {
 	 */
 	private static final int SAVE_VERSION = 1;
 
-	private final Project project;
-	private final TreeStructure<ArmaControl> treeStructureMain;
-	private final TreeStructure<ArmaControl> treeStructureBg;
+	private final ProjectSnapshot snapshot;
 	private final File projectSaveXml;
+	private long bytesWritten = 0;
 
 	/**
-	 Creates a new writer.
+	 Creates a new writer. A {@link ProjectSnapshot} is taken immediately, so this must be invoked on the thread that
+	 edits the project.
 
 	 @param project project to write
 	 @param treeStructureMain the {@link TreeStructure} used for saving the controls and folders in the foreground
@@ -41,10 +38,17 @@ public class ProjectSaveXmlWriter {
 	 */
 	public ProjectSaveXmlWriter(@NotNull Project project, @NotNull TreeStructure<ArmaControl> treeStructureMain,
 								@NotNull TreeStructure<ArmaControl> treeStructureBg) {
-		this.project = project;
-		this.treeStructureMain = treeStructureMain;
-		this.treeStructureBg = treeStructureBg;
-		this.projectSaveXml = project.getProjectSaveFile();
+		this(new ProjectSnapshot(project, treeStructureMain, treeStructureBg));
+	}
+
+	/**
+	 Creates a new writer that writes a snapshot of a project. {@link #write(File)} may be invoked on any thread.
+
+	 @param snapshot snapshot to write
+	 */
+	public ProjectSaveXmlWriter(@NotNull ProjectSnapshot snapshot) {
+		this.snapshot = snapshot;
+		this.projectSaveXml = snapshot.getProjectSaveFile();
 	}
 
 	/**
@@ -56,184 +60,213 @@ public class ProjectSaveXmlWriter {
 	 */
 	public void write(@Nullable File saveFile) throws IOException {
 		saveFile = saveFile == null ? projectSaveXml : saveFile;
+		bytesWritten = 0;
 
 		XmlWriterOutputStream stm = new XmlWriterOutputStream(saveFile);
+		try {
+			writeProject(stm);
+		} catch (IOException | RuntimeException e) {
+			//leave the previous save file as it was
+			stm.discard();
+			throw e;
+		}
+		stm.close();
+		bytesWritten += stm.getBytesWritten();
+
+		writeWorkspaceCustomControlClassRegistry();
+	}
 
+	/** @return number of bytes written in the last {@link #write(File)} (project file and workspace custom controls file) */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	private void writeProject(@NotNull XmlWriterOutputStream stm) throws IOException {
 		stm.writeDefaultProlog();
-		stm.write(
-				String.format(
-						"<project name='%s' save-version='%d' save-time='%d'>",
-						esc(project.getProjectName()),
-						SAVE_VERSION,
-						System.currentTimeMillis()
-				)
-		);
+		stm.write("<project name='");
+		stm.writeEscaped(snapshot.getProjectName());
+		stm.write("' save-version='");
+		stm.write(Integer.toString(SAVE_VERSION));
+		stm.write("' save-time='");
+		stm.write(Long.toString(System.currentTimeMillis()));
+		stm.write("' control-count='");
+		stm.write(Integer.toString(snapshot.getControlCount()));
+		stm.write("'>");
 
 		stm.write("<project-description>");
-		stm.write(esc(project.getProjectDescription() != null ? project.getProjectDescription() : ""));
+		stm.writeEscaped(snapshot.getProjectDescription());
 		stm.write("</project-description>");
 
-		if (project.getStringTable() != null) {
+		if (snapshot.getStringTablePath() != null) {
 			stm.writeBeginTag("stringtable");
-			stm.write(project.getStringTable().getFile().getAbsolutePath());
+			stm.write(snapshot.getStringTablePath());
 			stm.writeCloseTag("stringtable");
 		}
 
-		writeResources(stm, project.getResourceRegistry());
+		ResourceRegistryXmlWriter.writeResources(stm, snapshot.getResources());
 		writeMacros(stm);
-		writeDisplay(stm, project.getEditingDisplay());
+		writeDisplay(stm);
 
-		ProjectXmlUtil.writeCustomControls(stm, project.getProjectCustomControlClassRegistry());
+		writeCustomControls(stm, snapshot.getProjectCustomControls());
 
-		writeProjectExportConfiguration(stm, project.getExportConfiguration());
+		writeProjectExportConfiguration(stm);
 
 		stm.write("</project>");
-
-		stm.flush();
-		stm.close();
-
-		writeWorkspaceCustomControlClassRegistry();
 	}
 
 	private void writeWorkspaceCustomControlClassRegistry() throws IOException {
-		XmlWriterOutputStream stm = new XmlWriterOutputStream(project.getWorkspaceCustomControlClassesFile());
-		stm.writeDefaultProlog();
-		stm.writeBeginTag("custom-classes");
-		ProjectXmlUtil.writeCustomControls(stm, project.getWorkspaceCustomControlClassRegistry());
-		stm.writeCloseTag("custom-classes");
-		stm.flush();
+		XmlWriterOutputStream stm = new XmlWriterOutputStream(snapshot.getWorkspaceCustomControlClassesFile());
+		try {
+			stm.writeDefaultProlog();
+			stm.writeBeginTag("custom-classes");
+			writeCustomControls(stm, snapshot.getWorkspaceCustomControls());
+			stm.writeCloseTag("custom-classes");
+		} catch (IOException | RuntimeException e) {
+			stm.discard();
+			throw e;
+		}
 		stm.close();
+		bytesWritten += stm.getBytesWritten();
+	}
+
+	private void writeCustomControls(@NotNull XmlWriterOutputStream stm, @NotNull List<ProjectSnapshot.CustomControlSnapshot> customControls) throws IOException {
+		final String customControlClasses = "custom-controls";
+		stm.writeBeginTag(customControlClasses);
+		for (ProjectSnapshot.CustomControlSnapshot customControl : customControls) {
+			ProjectXmlUtil.writeCustomControl(stm, customControl.getSpecification(), customControl.getComment());
+		}
+		stm.writeCloseTag(customControlClasses);
 	}
 
-	private void writeProjectExportConfiguration(XmlWriterOutputStream stm, @NotNull ProjectExportConfiguration configuration) throws IOException {
+	private void writeProjectExportConfiguration(@NotNull XmlWriterOutputStream stm) throws IOException {
 		stm.write("<export-config>");
-		writeProjectExportConfigurationAttribute(stm, "export-class-name", configuration.getExportClassName());
-		writeProjectExportConfigurationAttribute(stm, "export-location", configuration.getExportDirectory().getPath());
-		writeProjectExportConfigurationAttribute(stm, "place-adc-notice", configuration.shouldPlaceAdcNotice() + "");
-		writeProjectExportConfigurationAttribute(stm, "export-macros-to-file", configuration.shouldExportMacrosToFile() + "");
-		writeProjectExportConfigurationAttribute(stm, "export-file-type-ext", configuration.getHeaderFileType().getExtension());
+		writeProjectExportConfigurationAttribute(stm, "export-class-name", snapshot.getExportClassName());
+		writeProjectExportConfigurationAttribute(stm, "export-location", snapshot.getExportDirectory());
+		writeProjectExportConfigurationAttribute(stm, "place-adc-notice", snapshot.shouldPlaceAdcNotice() + "");
+		writeProjectExportConfigurationAttribute(stm, "export-macros-to-file", snapshot.shouldExportMacrosToFile() + "");
+		writeProjectExportConfigurationAttribute(stm, "export-file-type-ext", snapshot.getExportFileExtension());
 		stm.write("</export-config>");
 	}
 
 	private void writeProjectExportConfigurationAttribute(XmlWriterOutputStream stm, @NotNull String attributeName, @NotNull String value) throws IOException {
-		stm.write(String.format("<config-attribute name='%s'>", attributeName));
+		stm.write("<config-attribute name='");
+		stm.write(attributeName);
+		stm.write("'>");
 		stm.write(value);
 		stm.write("</config-attribute>");
 	}
 
-	private void writeResources(XmlWriterOutputStream stm, @NotNull ResourceRegistry resourceRegistry) throws IOException {
-		new ResourceRegistryXmlWriter(resourceRegistry).write(stm);
-	}
-
-	private void writeDisplay(@NotNull XmlWriterOutputStream stm, @NotNull ArmaDisplay editingDisplay) throws IOException {
+	private void writeDisplay(@NotNull XmlWriterOutputStream stm) throws IOException {
 		stm.write("<display>");
 
-		writeDisplayProperties(stm, editingDisplay);
+		writeDisplayProperties(stm);
 
 		stm.write("<display-controls type='background'>");
-		writeControls(stm, treeStructureBg.getRoot());
+		writeControls(stm, snapshot.getBackgroundControls());
 		stm.write("</display-controls>");
 
 		stm.write("<display-controls type='main'>");
-		writeControls(stm, treeStructureMain.getRoot());
+		writeControls(stm, snapshot.getMainControls());
 		stm.write("</display-controls>");
 
 		stm.write("</display>");
 	}
 
-	private void writeDisplayProperties(@NotNull XmlWriterOutputStream stm, @NotNull ArmaDisplay display) throws IOException {
-		for (DisplayProperty property : display.getDisplayProperties()) {
-			if (property.getValue() == null) {
-				continue;
-			}
-			stm.write(String.format("<display-property id='%s'>", property.getPropertyLookup().getPropertyId()));
+	private void writeDisplayProperties(@NotNull XmlWriterOutputStream stm) throws IOException {
+		for (ProjectSnapshot.ValueSnapshot property : snapshot.getDisplayProperties()) {
+			stm.write("<display-property id='");
+			stm.write(Integer.toString(property.getPropertyId()));
+			stm.write("'>");
 			writeValue(stm, property.getValue());
 			stm.write("</display-property>");
 		}
 	}
 
-	private void writeControls(@NotNull XmlWriterOutputStream stm, @NotNull TreeNode<ArmaControl> parent) throws IOException {
-		for (TreeNode<ArmaControl> treeNode : parent.getChildren()) {
-			if (treeNode.isFolder()) {
-				writeFolder(stm, treeNode);
+	private void writeControls(@NotNull XmlWriterOutputStream stm, @NotNull List<ProjectSnapshot.Node> nodes) throws IOException {
+		for (ProjectSnapshot.Node node : nodes) {
+			if (node.getControl() == null) {
+				writeFolder(stm, node);
 			} else {
-				writeControl(stm, treeNode, treeNode.getData());
+				writeControl(stm, node, node.getControl());
 			}
 		}
 
 	}
 
-	private void writeFolder(@NotNull XmlWriterOutputStream stm, @NotNull TreeNode<ArmaControl> treeNode) throws IOException {
-		stm.write(String.format("<folder name='%s'>", esc(treeNode.getName())));
-		writeControls(stm, treeNode);
+	private void writeFolder(@NotNull XmlWriterOutputStream stm, @NotNull ProjectSnapshot.Node folder) throws IOException {
+		stm.write("<folder name='");
+		stm.writeEscaped(folder.getFolderName());
+		stm.write("'>");
+		writeControls(stm, folder.getChildren());
 		stm.write("</folder>");
 	}
 
-	private void writeControl(@NotNull XmlWriterOutputStream stm, @NotNull TreeNode<ArmaControl> treeNode, @NotNull ArmaControl control) throws IOException {
+	private void writeControl(@NotNull XmlWriterOutputStream stm, @NotNull ProjectSnapshot.Node node, @NotNull ProjectSnapshot.ControlSnapshot control) throws IOException {
 		final String controlGroupStr = "control-group";
 		final String controlStr = "control";
-		boolean controlGroup = control instanceof ArmaControlGroup;
-		boolean enabled = control.getRenderer().isEnabled();
-		boolean ghost = control.getRenderer().isGhost();
-
-		stm.write(String.format("<%s control-id='%d' class-name='%s'%s%s%s>",
-				controlGroup ? controlGroupStr : controlStr,
-				control.getControlType().getTypeId(),
-				control.getClassName(),
-				control.getExtendClass() != null ? String.format(" extend-class='%s'", control.getExtendClass()
-						.getClassName()) : "",
-				!enabled ? " enabled='f'" : "",
-				ghost ? " ghost='t'" : ""
-				)
-		);
+		boolean controlGroup = control.isControlGroup();
+
+		stm.write("<" + (controlGroup ? controlGroupStr : controlStr));
+		stm.write(" control-id='");
+		stm.write(Integer.toString(control.getControlTypeId()));
+		stm.write("' class-name='");
+		stm.write(control.getClassName());
+		stm.write("'");
+		if (control.getExtendClassName() != null) {
+			stm.write(" extend-class='");
+			stm.write(control.getExtendClassName());
+			stm.write("'");
+		}
+		if (!control.isEnabled()) {
+			stm.write(" enabled='f'");
+		}
+		if (control.isGhost()) {
+			stm.write(" ghost='t'");
+		}
+		stm.write(">");
 
 		//write control properties
-		for (ControlProperty cprop : control.getDefinedProperties()) {
-			if (control.getTempPropertiesReadOnly().contains(cprop)) {
-				continue;
-			}
-			ProjectXmlUtil.writeControlProperty(stm, cprop);
+		for (ControlPropertySpecification property : control.getDefinedProperties()) {
+			ProjectXmlUtil.writeControlPropertySpecification(stm, property);
 		}
 
-		ProjectXmlUtil.writeInheritedControlProperties(stm, control.getInheritedProperties());
-
-		if (controlGroup) {
-			writeControls(stm, treeNode);
+		for (ControlPropertyLookupConstant inherited : control.getInheritedProperties()) {
+			ProjectXmlUtil.writeInheritControlPropertyLookup(stm, inherited);
 		}
 
-		if (control.getRequiredNestedClasses().size() > 0) {
-			final String reqNestedClasses = "nested-required";
-			stm.writeBeginTag(reqNestedClasses);
-			for (ControlClass nested : control.getRequiredNestedClasses()) {
-				if (control.getTempNestedClassesReadOnly().contains(nested)) {
-					continue;
-				}
-				ProjectXmlUtil.writeControlClassSpecification(stm, new ControlClassSpecification(nested, false));
-			}
-			stm.writeCloseTag(reqNestedClasses);
+		if (controlGroup) {
+			writeControls(stm, node.getChildren());
 		}
 
-		if (control.getOptionalNestedClasses().size() > 0) {
-			final String optNestedClasses = "nested-optional";
-			stm.writeBeginTag(optNestedClasses);
-			for (ControlClass nested : control.getOptionalNestedClasses()) {
-				if (control.getTempNestedClassesReadOnly().contains(nested)) {
-					continue;
-				}
-				ProjectXmlUtil.writeControlClassSpecification(stm, new ControlClassSpecification(nested, false));
-			}
-			stm.writeCloseTag(optNestedClasses);
-		}
+		writeNestedClasses(stm, "nested-required", control.getRequiredNestedClasses());
+		writeNestedClasses(stm, "nested-optional", control.getOptionalNestedClasses());
 
 		stm.write(("</" + (controlGroup ? controlGroupStr : controlStr) + ">"));
 	}
 
+	private void writeNestedClasses(@NotNull XmlWriterOutputStream stm, @NotNull String tagName,
+									@Nullable List<ControlClassSpecification> nestedClasses) throws IOException {
+		if (nestedClasses == null) {
+			return;
+		}
+		stm.writeBeginTag(tagName);
+		for (ControlClassSpecification nested : nestedClasses) {
+			ProjectXmlUtil.writeControlClassSpecification(stm, nested);
+		}
+		stm.writeCloseTag(tagName);
+	}
+
 	private void writeMacros(@NotNull XmlWriterOutputStream stm) throws IOException {
 		stm.write("<macros>");
 
-		ProjectMacroRegistry registry = project.getMacroRegistry();
-		for (Macro macro : registry.getMacros()) {
-			stm.write(String.format("<macro key='%s' property-type-id='%d' comment='%s'>", macro.getKey(), macro.getPropertyType().getId(), esc(macro.getComment())));
+		for (ProjectSnapshot.MacroSnapshot macro : snapshot.getMacros()) {
+			stm.write("<macro key='");
+			stm.write(macro.getKey());
+			stm.write("' property-type-id='");
+			stm.write(Integer.toString(macro.getPropertyTypeId()));
+			stm.write("' comment='");
+			stm.writeEscaped(macro.getComment());
+			stm.write("'>");
 			writeValue(stm, macro.getValue());
 			stm.write("</macro>");
 		}
@@ -244,8 +277,4 @@ public class ProjectSaveXmlWriter {
 	private void writeValue(@NotNull XmlWriterOutputStream stm, @NotNull SerializableValue svalue) throws IOException {
 		ProjectXmlUtil.writeValue(stm, svalue);
 	}
-
-	private static String esc(String value) {
-		return value.replaceAll("'", "&#39;").replaceAll("<", "&lt;").replaceAll(">", "&gt;");
-	}
 }
@@ -0,0 +1,453 @@
+package com.kaylerrenslow.armaDialogCreator.data.xml;
+
+import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaControl;
+import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaControlGroup;
+import com.kaylerrenslow.armaDialogCreator.control.*;
+import com.kaylerrenslow.armaDialogCreator.control.sv.SerializableValue;
+import com.kaylerrenslow.armaDialogCreator.data.CustomControlClassRegistry;
+import com.kaylerrenslow.armaDialogCreator.data.ExternalResource;
+import com.kaylerrenslow.armaDialogCreator.data.Project;
+import com.kaylerrenslow.armaDialogCreator.data.ResourceRegistry;
+import com.kaylerrenslow.armaDialogCreator.data.export.ProjectExportConfiguration;
+import com.kaylerrenslow.armaDialogCreator.data.tree.TreeNode;
+import com.kaylerrenslow.armaDialogCreator.data.tree.TreeStructure;
+import com.kaylerrenslow.armaDialogCreator.util.KeyValueString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ A copy of everything {@link ProjectSaveXmlWriter} writes for a {@link Project}. The constructor must be invoked on the
+ thread that edits the project (JavaFX thread), but after that, the snapshot can be written on any thread since the
+ snapshot doesn't share any mutable data with the project.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class ProjectSnapshot {
+	private final File projectSaveFile;
+	private final File workspaceCustomControlClassesFile;
+	private final String projectName;
+	private final String projectDescription;
+	private final String stringTablePath;
+	private final List<ExternalResource> resources;
+	private final List<MacroSnapshot> macros;
+	private final List<ValueSnapshot> displayProperties;
+	private final List<Node> backgroundControls;
+	private final List<Node> mainControls;
+	private final List<CustomControlSnapshot> projectCustomControls;
+	private final List<CustomControlSnapshot> workspaceCustomControls;
+	private final String exportClassName;
+	private final String exportDirectory;
+	private final boolean placeAdcNotice;
+	private final boolean exportMacrosToFile;
+	private final String exportFileExtension;
+
+	/**
+	 Take a snapshot of the project.
+
+	 @param project project to copy
+	 @param treeStructureMain the {@link TreeStructure} of the controls and folders in the foreground
+	 @param treeStructureBg the {@link TreeStructure} of the controls and folders in the background
+	 */
+	public ProjectSnapshot(@NotNull Project project, @NotNull TreeStructure<ArmaControl> treeStructureMain,
+						   @NotNull TreeStructure<ArmaControl> treeStructureBg) {
+		this.projectSaveFile = project.getProjectSaveFile();
+		this.workspaceCustomControlClassesFile = project.getWorkspaceCustomControlClassesFile();
+		this.projectName = project.getProjectName();
+		this.projectDescription = project.getProjectDescription() != null ? project.getProjectDescription() : "";
+		this.stringTablePath = project.getStringTable() != null ? project.getStringTable().getFile().getAbsolutePath() : null;
+
+		this.resources = copyResources(project.getResourceRegistry());
+
+		List<MacroSnapshot> macros = new ArrayList<>();
+		for (Macro<?> macro : project.getMacroRegistry().getMacros()) {
+			macros.add(new MacroSnapshot(macro));
+		}
+		this.macros = Collections.unmodifiableList(macros);
+
+		List<ValueSnapshot> displayProperties = new ArrayList<>();
+		for (DisplayProperty property : project.getEditingDisplay().getDisplayProperties()) {
+			if (property.getValue() == null) {
+				continue;
+			}
+			displayProperties.add(new ValueSnapshot(property.getPropertyLookup().getPropertyId(), property.getValue().deepCopy()));
+		}
+		this.displayProperties = Collections.unmodifiableList(displayProperties);
+
+		this.backgroundControls = copyChildren(treeStructureBg.getRoot());
+		this.mainControls = copyChildren(treeStructureMain.getRoot());
+
+		this.projectCustomControls = copyCustomControls(project.getProjectCustomControlClassRegistry());
+		this.workspaceCustomControls = copyCustomControls(project.getWorkspaceCustomControlClassRegistry());
+
+		ProjectExportConfiguration configuration = project.getExportConfiguration();
+		this.exportClassName = configuration.getExportClassName();
+		this.exportDirectory = configuration.getExportDirectory().getPath();
+		this.placeAdcNotice = configuration.shouldPlaceAdcNotice();
+		this.exportMacrosToFile = configuration.shouldExportMacrosToFile();
+		this.exportFileExtension = configuration.getHeaderFileType().getExtension();
+	}
+
+	@NotNull
+	private static List<ExternalResource> copyResources(@NotNull ResourceRegistry registry) {
+		List<ExternalResource> resources = new ArrayList<>(registry.getResourceList().size());
+		for (ExternalResource resource : registry.getResourceList()) {
+			KeyValueString[] properties = new KeyValueString[resource.getProperties().length];
+			for (int i = 0; i < properties.length; i++) {
+				KeyValueString property = resource.getProperties()[i];
+				properties[i] = new KeyValueString(property.getKey(), property.getValue());
+			}
+			resources.add(new ExternalResource(resource.getExternalFile(), properties));
+		}
+		return Collections.unmodifiableList(resources);
+	}
+
+	@NotNull
+	private static List<Node> copyChildren(@NotNull TreeNode<ArmaControl> parent) {
+		List<Node> children = new ArrayList<>(parent.getChildren().size());
+		for (TreeNode<ArmaControl> treeNode : parent.getChildren()) {
+			if (treeNode.isFolder()) {
+				children.add(new Node(treeNode.getName(), null, copyChildren(treeNode)));
+			} else {
+				ArmaControl control = treeNode.getData();
+				ControlSnapshot snapshot = new ControlSnapshot(control);
+				children.add(new Node(null, snapshot,
+						snapshot.isControlGroup() ? copyChildren(treeNode) : Collections.emptyList()
+				));
+			}
+		}
+		return Collections.unmodifiableList(children);
+	}
+
+	@NotNull
+	private static List<CustomControlSnapshot> copyCustomControls(@NotNull CustomControlClassRegistry registry) {
+		List<CustomControlSnapshot> customControls = new ArrayList<>();
+		for (CustomControlClass customClass : registry.getControlClassList()) {
+			customControls.add(new CustomControlSnapshot(customClass.newSpecification(), customClass.getComment()));
+		}
+		return Collections.unmodifiableList(customControls);
+	}
+
+	/** @return {@link Project#getProjectSaveFile()} */
+	@NotNull
+	public File getProjectSaveFile() {
+		return projectSaveFile;
+	}
+
+	/** @return {@link Project#getWorkspaceCustomControlClassesFile()} */
+	@NotNull
+	public File getWorkspaceCustomControlClassesFile() {
+		return workspaceCustomControlClassesFile;
+	}
+
+	@NotNull
+	String getProjectName() {
+		return projectName;
+	}
+
+	@NotNull
+	String getProjectDescription() {
+		return projectDescription;
+	}
+
+	/** @return absolute path of the project's stringtable, or null if there isn't one */
+	@Nullable
+	String getStringTablePath() {
+		return stringTablePath;
+	}
+
+	@NotNull
+	List<ExternalResource> getResources() {
+		return resources;
+	}
+
+	@NotNull
+	List<MacroSnapshot> getMacros() {
+		return macros;
+	}
+
+	@NotNull
+	List<ValueSnapshot> getDisplayProperties() {
+		return displayProperties;
+	}
+
+	@NotNull
+	List<Node> getBackgroundControls() {
+		return backgroundControls;
+	}
+
+	@NotNull
+	List<Node> getMainControls() {
+		return mainControls;
+	}
+
+	/** @return number of controls in the background and main controls, including controls inside folders and control groups */
+	int getControlCount() {
+		return countControls(backgroundControls) + countControls(mainControls);
+	}
+
+	private static int countControls(@NotNull List<Node> nodes) {
+		int count = 0;
+		for (Node node : nodes) {
+			if (node.getControl() != null) {
+				count++;
+			}
+			count += countControls(node.getChildren());
+		}
+		return count;
+	}
+
+	@NotNull
+	List<CustomControlSnapshot> getProjectCustomControls() {
+		return projectCustomControls;
+	}
+
+	@NotNull
+	List<CustomControlSnapshot> getWorkspaceCustomControls() {
+		return workspaceCustomControls;
+	}
+
+	@NotNull
+	String getExportClassName() {
+		return exportClassName;
+	}
+
+	@NotNull
+	String getExportDirectory() {
+		return exportDirectory;
+	}
+
+	boolean shouldPlaceAdcNotice() {
+		return placeAdcNotice;
+	}
+
+	boolean shouldExportMacrosToFile() {
+		return exportMacrosToFile;
+	}
+
+	@NotNull
+	String getExportFileExtension() {
+		return exportFileExtension;
+	}
+
+	/** A folder (when {@link #getControl()} is null) or a control in a {@link TreeStructure} */
+	static class Node {
+		private final String folderName;
+		private final ControlSnapshot control;
+		private final List<Node> children;
+
+		Node(@Nullable String folderName, @Nullable ControlSnapshot control, @NotNull List<Node> children) {
+			this.folderName = folderName;
+			this.control = control;
+			this.children = children;
+		}
+
+		/** @return name of the folder, or null if this is a control */
+		@Nullable
+		String getFolderName() {
+			return folderName;
+		}
+
+		@Nullable
+		ControlSnapshot getControl() {
+			return control;
+		}
+
+		/** @return children of a folder or control group */
+		@NotNull
+		List<Node> getChildren() {
+			return children;
+		}
+	}
+
+	static class ControlSnapshot {
+		private final boolean controlGroup;
+		private final int controlTypeId;
+		private final String className;
+		private final String extendClassName;
+		private final boolean enabled;
+		private final boolean ghost;
+		private final List<ControlPropertySpecification> definedProperties;
+		private final List<ControlPropertyLookupConstant> inheritedProperties;
+		private final List<ControlClassSpecification> requiredNestedClasses;
+		private final List<ControlClassSpecification> optionalNestedClasses;
+
+		ControlSnapshot(@NotNull ArmaControl control) {
+			this.controlGroup = control instanceof ArmaControlGroup;
+			this.controlTypeId = control.getControlType().getTypeId();
+			this.className = control.getClassName();
+			this.extendClassName = control.getExtendClass() != null ? control.getExtendClass().getClassName() : null;
+			this.enabled = control.getRenderer().isEnabled();
+			this.ghost = control.getRenderer().isGhost();
+
+			List<ControlPropertySpecification> definedProperties = new ArrayList<>();
+			for (ControlProperty property : control.getDefinedProperties()) {
+				if (control.getTempPropertiesReadOnly().contains(property)) {
+					continue;
+				}
+				definedProperties.add(new ControlPropertySpecification(property, true));
+			}
+			this.definedProperties = Collections.unmodifiableList(definedProperties);
+
+			List<ControlPropertyLookupConstant> inheritedProperties = new ArrayList<>();
+			for (ControlProperty property : control.getInheritedProperties()) {
+				inheritedProperties.add(property.getPropertyLookup());
+			}
+			this.inheritedProperties = Collections.unmodifiableList(inheritedProperties);
+
+			this.requiredNestedClasses = copyNestedClasses(control, control.getRequiredNestedClasses());
+			this.optionalNestedClasses = copyNestedClasses(control, control.getOptionalNestedClasses());
+		}
+
+		/** @return the copied classes, or null if <code>nestedClasses</code> is empty */
+		@Nullable
+		private static List<ControlClassSpecification> copyNestedClasses(@NotNull ArmaControl control, @NotNull List<ControlClass> nestedClasses) {
+			if (nestedClasses.size() == 0) {
+				return null;
+			}
+			List<ControlClassSpecification> copy = new ArrayList<>(nestedClasses.size());
+			for (ControlClass nested : nestedClasses) {
+				if (control.getTempNestedClassesReadOnly().contains(nested)) {
+					continue;
+				}
+				ControlClassSpecification specification = new ControlClassSpecification(nested, false);
+				deepCopyValues(specification.getRequiredControlProperties());
+				deepCopyValues(specification.getOptionalControlProperties());
+				copy.add(specification);
+			}
+			return Collections.unmodifiableList(copy);
+		}
+
+		private static void deepCopyValues(@NotNull List<ControlPropertySpecification> properties) {
+			for (ControlPropertySpecification property : properties) {
+				if (property.getValue() != null) {
+					property.setValue(property.getValue().deepCopy());
+				}
+			}
+		}
+
+		boolean isControlGroup() {
+			return controlGroup;
+		}
+
+		int getControlTypeId() {
+			return controlTypeId;
+		}
+
+		@NotNull
+		String getClassName() {
+			return className;
+		}
+
+		@Nullable
+		String getExtendClassName() {
+			return extendClassName;
+		}
+
+		boolean isEnabled() {
+			return enabled;
+		}
+
+		boolean isGhost() {
+			return ghost;
+		}
+
+		@NotNull
+		List<ControlPropertySpecification> getDefinedProperties() {
+			return definedProperties;
+		}
+
+		@NotNull
+		List<ControlPropertyLookupConstant> getInheritedProperties() {
+			return inheritedProperties;
+		}
+
+		/** @return required nested classes, or null if the control has none */
+		@Nullable
+		List<ControlClassSpecification> getRequiredNestedClasses() {
+			return requiredNestedClasses;
+		}
+
+		/** @return optional nested classes, or null if the control has none */
+		@Nullable
+		List<ControlClassSpecification> getOptionalNestedClasses() {
+			return optionalNestedClasses;
+		}
+	}
+
+	static class MacroSnapshot {
+		private final String key;
+		private final int propertyTypeId;
+		private final String comment;
+		private final SerializableValue value;
+
+		MacroSnapshot(@NotNull Macro<?> macro) {
+			this.key = macro.getKey();
+			this.propertyTypeId = macro.getPropertyType().getId();
+			this.comment = macro.getComment();
+			this.value = macro.getValue().deepCopy();
+		}
+
+		@NotNull
+		String getKey() {
+			return key;
+		}
+
+		int getPropertyTypeId() {
+			return propertyTypeId;
+		}
+
+		@Nullable
+		String getComment() {
+			return comment;
+		}
+
+		@NotNull
+		SerializableValue getValue() {
+			return value;
+		}
+	}
+
+	static class ValueSnapshot {
+		private final int propertyId;
+		private final SerializableValue value;
+
+		ValueSnapshot(int propertyId, @NotNull SerializableValue value) {
+			this.propertyId = propertyId;
+			this.value = value;
+		}
+
+		int getPropertyId() {
+			return propertyId;
+		}
+
+		@NotNull
+		SerializableValue getValue() {
+			return value;
+		}
+	}
+
+	static class CustomControlSnapshot {
+		private final ControlClassSpecification specification;
+		private final String comment;
+
+		CustomControlSnapshot(@NotNull ControlClassSpecification specification, @Nullable String comment) {
+			this.specification = specification;
+			this.comment = comment;
+		}
+
+		@NotNull
+		ControlClassSpecification getSpecification() {
+			return specification;
+		}
+
+		@Nullable
+		String getComment() {
+			return comment;
+		}
+	}
+}
@@ -13,7 +13,7 @@ import java.util.ArrayList;
 
 /**
  Loads a project from a .xml save file.
- When the xml is loaded, a {@link ProjectVersionLoader} is designated to do the rest of the xml loading.
+ Only the save version is read from the root element. Then, a {@link ProjectVersionLoader} is designated to do the rest of the xml loading.
 
  @author Kayler
  @since 07/28/2016. */
@@ -23,12 +23,15 @@ public class ProjectXmlLoader extends XmlLoader {
 	protected final ApplicationData applicationData;
 	/** Saved from constructor. This is used for {@link super#XmlLoader(File, DataContext, Key[])} */
 	protected final Key<?>[] keys;
+	/** The project save file */
+	protected final File xmlFile;
 
 	protected ProjectXmlLoader(@NotNull File xmlFile, @NotNull ApplicationData data, Key<?>... keys) throws XmlParseException {
-		super(xmlFile, data, keys);
+		super(data, keys);
 		this.applicationData = data;
 		this.keys = keys;
-		saveVersion = document.getDocumentElement().getAttribute("save-version").trim();
+		this.xmlFile = xmlFile;
+		saveVersion = readRootAttribute(xmlFile, "save-version").trim();
 	}
 
 	/**
@@ -41,10 +44,13 @@ public class ProjectXmlLoader extends XmlLoader {
 	 */
 	@NotNull
 	public static ProjectParseResult parseProjectXmlFile(@NotNull ProjectInfo info, @NotNull ApplicationData data) throws XmlParseException {
+		long start = System.nanoTime();
 		ProjectXmlLoader loader = new ProjectXmlLoader(info.getProjectXmlFile(), data, DataKeys.ENV, DataKeys.ARMA_RESOLUTION);
 		ProjectVersionLoader versionLoader = getVersionLoader(info, loader);
 		versionLoader.parseDocument();
-		return new ProjectParseResult(versionLoader.project, versionLoader.treeStructureMain, versionLoader.treeStructureBg, loader.getErrors());
+		return new ProjectParseResult(versionLoader.project, versionLoader.treeStructureMain, versionLoader.treeStructureBg, loader.getErrors(),
+				(System.nanoTime() - start) / 1_000_000
+		);
 	}
 
 	/**
@@ -82,13 +88,21 @@ public class ProjectXmlLoader extends XmlLoader {
 		private final Project project;
 		private final TreeStructure<ArmaControl> treeStructureMain;
 		private final TreeStructure<ArmaControl> treeStructureBg;
+		private final long loadTimeMillis;
 
 		private ProjectParseResult(Project project, TreeStructure<ArmaControl> treeStructureMain,
-								   TreeStructure<ArmaControl> treeStructureBg, ArrayList<ParseError> errors) {
+								   TreeStructure<ArmaControl> treeStructureBg, ArrayList<ParseError> errors,
+								   long loadTimeMillis) {
 			super(errors);
 			this.project = project;
 			this.treeStructureMain = treeStructureMain;
 			this.treeStructureBg = treeStructureBg;
+			this.loadTimeMillis = loadTimeMillis;
+		}
+
+		/** @return number of milliseconds it took to load the project */
+		public long getLoadTimeMillis() {
+			return loadTimeMillis;
 		}
 
 		@NotNull
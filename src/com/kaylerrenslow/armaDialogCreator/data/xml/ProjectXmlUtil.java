@@ -137,21 +137,34 @@ public class ProjectXmlUtil {
 										   @NotNull CustomControlClassRegistry registry) throws IOException {
 		String customControlClasses = "custom-controls";
 		stm.writeBeginTag(customControlClasses);
-		final String customControl = "custom-control";
-		final String comment = "comment";
 		for (CustomControlClass customClass : registry.getControlClassList()) {
-			stm.writeBeginTag(customControl);
-			ProjectXmlUtil.writeControlClassSpecification(stm, customClass.newSpecification());
-			if (customClass.getComment() != null) {
-				stm.writeBeginTag(comment);
-				stm.write(customClass.getComment());
-				stm.writeCloseTag(comment);
-			}
-			stm.writeCloseTag(customControl);
+			writeCustomControl(stm, customClass.newSpecification(), customClass.getComment());
 		}
 		stm.writeCloseTag(customControlClasses);
 	}
 
+	/**
+	 Writes a single custom control (without the "custom-controls" tag) that can be loaded with
+	 {@link #loadCustomControlClasses(Element, DataContext, XmlErrorRecorder, Function)}
+
+	 @param stm xml writer stream
+	 @param specification specification of the custom control class
+	 @param comment comment of the custom control class, or null if there isn't one
+	 */
+	public static void writeCustomControl(@NotNull XmlWriterOutputStream stm, @NotNull ControlClassSpecification specification,
+										  @Nullable String comment) throws IOException {
+		final String customControl = "custom-control";
+		final String commentTag = "comment";
+		stm.writeBeginTag(customControl);
+		ProjectXmlUtil.writeControlClassSpecification(stm, specification);
+		if (comment != null) {
+			stm.writeBeginTag(commentTag);
+			stm.write(comment);
+			stm.writeCloseTag(commentTag);
+		}
+		stm.writeCloseTag(customControl);
+	}
+
 	/**
 	 Used for loading {@link CustomControlClass} instances.
 
@@ -198,10 +211,15 @@ public class ProjectXmlUtil {
 	 @param specification specification to write
 	 */
 	public static void writeControlClassSpecification(@NotNull XmlWriterOutputStream stm, @NotNull ControlClassSpecification specification) throws IOException {
-		stm.writeBeginTag(String.format(
-				"class-spec name='%s'%s", specification.getClassName(),
-				specification.getExtendClassName() != null ? String.format(" extend='%s'", specification.getExtendClassName()) : "")
-		);
+		stm.write("<class-spec name='");
+		stm.write(specification.getClassName());
+		stm.write("'");
+		if (specification.getExtendClassName() != null) {
+			stm.write(" extend='");
+			stm.write(specification.getExtendClassName());
+			stm.write("'");
+		}
+		stm.write(">");
 
 		//required control properties
 		if (specification.getRequiredProperties().size() > 0) {
@@ -326,12 +344,20 @@ public class ProjectXmlUtil {
 		if (value == null) {
 			return;
 		}
-		stm.writeBeginTag(String.format("property id='%d'%s%s",
-				lookup.getPropertyId(),
-				macroKey == null ? "" : String.format(" macro-key='%s'", macroKey),
-				value.getPropertyType() != lookup.getPropertyType() ? String.format(" ptype='%s'", value.getPropertyType().getId()) : ""
-				)
-		);
+		stm.write("<property id='");
+		stm.write(Integer.toString(lookup.getPropertyId()));
+		stm.write("'");
+		if (macroKey != null) {
+			stm.write(" macro-key='");
+			stm.write(macroKey);
+			stm.write("'");
+		}
+		if (value.getPropertyType() != lookup.getPropertyType()) {
+			stm.write(" ptype='");
+			stm.write(Integer.toString(value.getPropertyType().getId()));
+			stm.write("'");
+		}
+		stm.write(">");
 
 		writeValue(stm, value);
 		stm.writeCloseTag("property");
@@ -52,8 +52,12 @@ public class ResourceRegistryXmlWriter {
 
 		public void doWriteAndClose() throws IOException {
 			XmlWriterOutputStream fos = getXmlWriterOutputStream((WorkspaceResourceRegistry) this.resourceRegistry);
-			write(fos);
-			fos.flush();
+			try {
+				write(fos);
+			} catch (IOException | RuntimeException e) {
+				fos.discard();
+				throw e;
+			}
 			fos.close();
 		}
 	}
@@ -63,21 +67,28 @@ public class ResourceRegistryXmlWriter {
 	}
 
 	public void write(@NotNull XmlWriterOutputStream stm) throws IOException {
+		writeResources(stm, resourceRegistry.getResourceList());
+	}
+
+	/** Write the given resources the same way {@link #write(XmlWriterOutputStream)} does */
+	static void writeResources(@NotNull XmlWriterOutputStream stm, @NotNull Iterable<ExternalResource> resources) throws IOException {
 		stm.write("<external-resources>");
-		for (ExternalResource resource : resourceRegistry.getResourceList()) {
+		for (ExternalResource resource : resources) {
 			writeResource(stm, resource);
 		}
 		stm.write("</external-resources>");
 	}
 
-	private void writeResource(@NotNull XmlWriterOutputStream fos, ExternalResource resource) throws IOException {
-		StringBuilder attrs = new StringBuilder();
-		for (KeyValueString keyValue : resource.getProperties()) {
-			attrs.append(String.format("<resource-property key='%s'>%s</resource-property>", keyValue.getKey(), keyValue.getValue()));
-		}
+	private static void writeResource(@NotNull XmlWriterOutputStream fos, ExternalResource resource) throws IOException {
 		fos.write("<external-resource>");
 		fos.write(resource.getExternalFile().getPath());
-		fos.write(attrs.toString());
+		for (KeyValueString keyValue : resource.getProperties()) {
+			fos.write("<resource-property key='");
+			fos.write(String.valueOf(keyValue.getKey()));
+			fos.write("'>");
+			fos.write(String.valueOf(keyValue.getValue()));
+			fos.write("</resource-property>");
+		}
 		fos.write("</external-resource>");
 	}
 }
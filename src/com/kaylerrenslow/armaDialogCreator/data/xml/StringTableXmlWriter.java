@@ -7,21 +7,31 @@ import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableWriter;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import static com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableXmlConstants.*;
 
 /**
+ Writes a {@link StringTable} to its file. The keys are grouped by package and container first, and then each key is written
+ straight to the file, so the only extra memory used is the grouping.
+
  @author Kayler
  @since 12/25/2016 */
 public class StringTableXmlWriter implements StringTableWriter {
 	@Override
 	public void writeTable(@NotNull StringTable table) throws IOException {
 		StringTableXmlWriterWrapper writerWrapper = new StringTableXmlWriterWrapper(table);
-		writerWrapper.writeTable();
+		try {
+			writerWrapper.writeTable();
+		} catch (IOException | RuntimeException e) {
+			writerWrapper.discard();
+			throw e;
+		}
+		writerWrapper.close();
 	}
 
 	private static class StringTableXmlWriterWrapper extends XmlWriterOutputStream {
@@ -34,29 +44,29 @@ public class StringTableXmlWriter implements StringTableWriter {
 		}
 
 		public void writeTable() throws IOException {
-			LinkedList<Package> packages = new LinkedList<>();
-			LinkedList<StringTableKey> noPackages = new LinkedList<>();
+			Map<String, Package> packages = new LinkedHashMap<>();
+			List<StringTableKey> noPackages = new ArrayList<>();
 			preloadKeys(packages, noPackages);
 
 			writeDefaultProlog();
 			write(NEW_LINE);
-			writeBeginTag(String.format("%s %s=\"%s\"", PROJECT, PROJECT_NAME, t.getStringTableProjectName()));
+			writeBeginTagWithName(PROJECT, PROJECT_NAME, t.getStringTableProjectName());
 			write(NEW_LINE);
 
 			for (StringTableKey key : noPackages) {
 				writeKey(key, 1);
 			}
-			for (Package p : packages) {
+			for (Package p : packages.values()) {
 				byte[] tab = tab(1);
 				write(tab);
-				writeBeginTag(String.format("%s %s=\"%s\"", PACKAGE, NAME, p.getName()));
+				writeBeginTagWithName(PACKAGE, NAME, p.getName());
 				write(NEW_LINE);
 
 				for (StringTableKey key : p.getKeys()) {
 					writeKey(key, 2);
 				}
 
-				for (Container c : p.getContainers()) {
+				for (Container c : p.getContainers().values()) {
 					writeContainer(c, 2);
 				}
 
@@ -71,14 +81,14 @@ public class StringTableXmlWriter implements StringTableWriter {
 		private void writeContainer(@NotNull Container container, int tabAmount) throws IOException {
 			byte[] tab = tab(tabAmount);
 			write(tab);
-			writeBeginTag(String.format("%s %s=\"%s\"", CONTAINER, NAME, container.getName()));
+			writeBeginTagWithName(CONTAINER, NAME, container.getName());
 			write(NEW_LINE);
 
 			for (StringTableKey key : container.getKeys()) {
 				writeKey(key, tabAmount + 1);
 			}
 
-			for (Container c : container.getContainers()) {
+			for (Container c : container.getContainers().values()) {
 				writeContainer(c, tabAmount + 1);
 			}
 
@@ -87,57 +97,22 @@ public class StringTableXmlWriter implements StringTableWriter {
 			write(NEW_LINE);
 		}
 
-		private void preloadKeys(LinkedList<Package> packages, LinkedList<StringTableKey> noPackages) {
+		private void preloadKeys(@NotNull Map<String, Package> packages, @NotNull List<StringTableKey> noPackages) {
 			for (StringTableKey key : t.getKeys()) {
 				if (key.getPath().noPackageName()) {
 					noPackages.add(key);
 					continue;
 				}
-				Package matchPackage = null;
-				for (Package p : packages) {
-					if (p.getName().equals(key.getPath().getPackageName())) {
-						matchPackage = p;
-						break;
-					}
-				}
-				if (matchPackage == null) {
-					matchPackage = new Package(key.getPath().getPackageName());
-					packages.add(matchPackage);
-				}
+				Package matchPackage = packages.computeIfAbsent(key.getPath().getPackageName(), Package::new);
 				if (key.getPath().noContainer()) {
 					matchPackage.getKeys().add(key);
 					continue;
 				}
-				LinkedList<String> containers = new LinkedList<>();
-				containers.addAll(key.getPath().getContainers());
+				Map<String, Container> containers = matchPackage.getContainers();
 				Container insertContainer = null;
-
-				while (containers.size() > 0) {
-					String container = containers.removeFirst();
-					if (insertContainer == null) {
-						for (Container c : matchPackage.getContainers()) {
-							if (c.getName().equals(container)) {
-								insertContainer = c;
-								break;
-							}
-						}
-						if (insertContainer == null) {
-							insertContainer = new Container(container);
-							matchPackage.getContainers().add(insertContainer);
-						}
-					} else {
-						Container matchedContainer = null;
-						for (Container c : insertContainer.getContainers()) {
-							if (c.getName().equals(container)) {
-								matchedContainer = c;
-								break;
-							}
-						}
-						if (matchedContainer == null) {
-							matchedContainer = new Container(container);
-							insertContainer.getContainers().add(matchedContainer);
-						}
-					}
+				for (String container : key.getPath().getContainers()) {
+					insertContainer = containers.computeIfAbsent(container, Container::new);
+					containers = insertContainer.getContainers();
 				}
 				if (insertContainer == null) {
 					throw new IllegalStateException("insertContainer shouldn't be null");
@@ -150,14 +125,14 @@ public class StringTableXmlWriter implements StringTableWriter {
 		private void writeKey(@NotNull StringTableKey key, int tabAmount) throws IOException {
 			byte[] tab = tab(tabAmount);
 			write(tab);
-			writeBeginTag(String.format("%s %s=\"%s\"", KEY, ID, key.getId()));
+			writeBeginTagWithName(KEY, ID, key.getId());
 			write(NEW_LINE);
 
 			byte[] tab1 = tab(tabAmount + 1);
 			for (Map.Entry<Language, String> entry : key.getLanguageTokenMap().entrySet()) {
 				write(tab1);
 				writeBeginTag(entry.getKey().getName());
-				write(entry.getValue());
+				writeEscaped(entry.getValue());
 				writeCloseTag(entry.getKey().getName());
 				write(NEW_LINE);
 			}
@@ -167,6 +142,17 @@ public class StringTableXmlWriter implements StringTableWriter {
 			write(NEW_LINE);
 		}
 
+		/** Writes a tag with one attribute. Example: &lt;tagName attributeName="value"&gt; */
+		private void writeBeginTagWithName(@NotNull String tagName, @NotNull String attributeName, @NotNull String value) throws IOException {
+			write("<");
+			write(tagName);
+			write(" ");
+			write(attributeName);
+			write("=\"");
+			writeEscaped(value);
+			write("\">");
+		}
+
 		private byte[] tab(int amount) {
 			byte[] tabs = new byte[amount];
 			Arrays.fill(tabs, (byte) '\t');
@@ -176,8 +162,8 @@ public class StringTableXmlWriter implements StringTableWriter {
 
 	private static class Package {
 		private final String name;
-		private final List<Container> containers = new LinkedList<>();
-		private final List<StringTableKey> keys = new LinkedList<>();
+		private final Map<String, Container> containers = new LinkedHashMap<>();
+		private final List<StringTableKey> keys = new ArrayList<>();
 
 		public Package(@NotNull String name) {
 			this.name = name;
@@ -188,8 +174,9 @@ public class StringTableXmlWriter implements StringTableWriter {
 			return name;
 		}
 
+		/** @return containers mapped by name */
 		@NotNull
-		public List<Container> getContainers() {
+		public Map<String, Container> getContainers() {
 			return containers;
 		}
 
@@ -212,8 +199,8 @@ public class StringTableXmlWriter implements StringTableWriter {
 
 	private static class Container {
 		private final String name;
-		private final List<StringTableKey> keys = new LinkedList<>();
-		private final List<Container> containers = new LinkedList<>();
+		private final List<StringTableKey> keys = new ArrayList<>();
+		private final Map<String, Container> containers = new LinkedHashMap<>();
 
 		public Container(@NotNull String name) {
 			this.name = name;
@@ -229,9 +216,9 @@ public class StringTableXmlWriter implements StringTableWriter {
 			return keys;
 		}
 
-
+		/** @return child containers mapped by name */
 		@NotNull
-		public List<Container> getContainers() {
+		public Map<String, Container> getContainers() {
 			return containers;
 		}
 
@@ -0,0 +1,342 @@
+package com.kaylerrenslow.armaDialogCreator.data.xml;
+
+import com.kaylerrenslow.armaDialogCreator.data.Project;
+import com.kaylerrenslow.armaDialogCreator.data.ProjectInfo;
+import com.kaylerrenslow.armaDialogCreator.data.Workspace;
+import com.kaylerrenslow.armaDialogCreator.main.ADCExecutors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ An index of the projects in a {@link Workspace}, so that the projects can be listed without reading every project's xml.
+ The index is saved in the workspace's .adc directory ({@link Workspace#getAdcDirectory()}).
+ <p>
+ {@link #loadIndex()} reads the saved index, which may be stale. {@link #refresh()} then checks every project directory in
+ the background and only reads the projects whose file was modified (by last modified time and size) since it was indexed.
+ Only the root element of those project files is read (see {@link ProjectPreviewLoaderVersion1}).
+
+ @author Kayler
+ @since 10/17/2026 */
+public class WorkspaceProjectCatalog {
+	/** Name of the index file inside {@link Workspace#getAdcDirectory()} */
+	public static final String CATALOG_FILE_NAME = "project-catalog.xml";
+	private static final String CATALOG_VERSION = "1";
+
+	private final Workspace workspace;
+	private final File indexFile;
+	private final Object writeLock = new Object();
+	/** Entries mapped by project directory name. The map is never modified, only replaced. */
+	private volatile Map<String, Entry> entries = Collections.emptyMap();
+
+	/**
+	 @param workspace workspace to index
+	 */
+	public WorkspaceProjectCatalog(@NotNull Workspace workspace) {
+		this(workspace, workspace.getFileInAdcDirectory(CATALOG_FILE_NAME));
+	}
+
+	WorkspaceProjectCatalog(@NotNull Workspace workspace, @NotNull File indexFile) {
+		this.workspace = workspace;
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 Read the saved index. The entries may be stale until {@link #refresh()} completes.
+
+	 @return true if the index was read, false if there was no index or it couldn't be read
+	 */
+	public boolean loadIndex() {
+		if (!indexFile.isFile()) {
+			return false;
+		}
+		Map<String, Entry> loaded = new TreeMap<>();
+		try (InputStream is = new BufferedInputStream(new FileInputStream(indexFile))) {
+			XMLStreamReader reader = XmlLoader.newStreamReader(is);
+			try {
+				reader.nextTag();
+				if (!CATALOG_VERSION.equals(reader.getAttributeValue(null, "version"))) {
+					return false;
+				}
+				int event;
+				while ((event = reader.next()) != XMLStreamConstants.END_DOCUMENT) {
+					if (event != XMLStreamConstants.START_ELEMENT || !reader.getLocalName().equals("project")) {
+						continue;
+					}
+					Entry entry = new Entry(
+							reader.getAttributeValue(null, "directory"),
+							reader.getAttributeValue(null, "name"),
+							Long.parseLong(reader.getAttributeValue(null, "save-time")),
+							Integer.parseInt(reader.getAttributeValue(null, "control-count")),
+							Long.parseLong(reader.getAttributeValue(null, "last-modified")),
+							Long.parseLong(reader.getAttributeValue(null, "size"))
+					);
+					loaded.put(entry.getDirectoryName(), entry);
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException | IOException | RuntimeException e) {
+			//the index is only a cache, so refresh() will rebuild it
+			e.printStackTrace(System.out);
+			return false;
+		}
+		entries = Collections.unmodifiableMap(loaded);
+		return true;
+	}
+
+	/**
+	 Same as {@link #refresh(Executor)}, but with a shared thread pool that is registered with {@link ADCExecutors}.
+	 */
+	@NotNull
+	public CompletableFuture<Boolean> refresh() {
+		return refresh(RefreshPool.POOL);
+	}
+
+	/**
+	 Check every project directory in the workspace and update the index. Projects that weren't modified since they were indexed
+	 aren't read. The modified projects are read in parallel with <code>executor</code>. If the index changed, it is saved.
+	 This method doesn't block.
+
+	 @param executor executor to read the projects with
+	 @return a future that completes with true if the index changed, or false if nothing changed
+	 */
+	@NotNull
+	public CompletableFuture<Boolean> refresh(@NotNull Executor executor) {
+		return CompletableFuture.supplyAsync(this::findProjectFiles, executor).thenCompose(projectFiles -> {
+			Map<String, Entry> old = entries;
+			List<CompletableFuture<Entry>> futures = new ArrayList<>(projectFiles.size());
+			for (File projectFile : projectFiles) {
+				long lastModified = projectFile.lastModified();
+				long fileSize = projectFile.length();
+				Entry entry = old.get(projectFile.getParentFile().getName());
+				if (entry != null && entry.getLastModified() == lastModified && entry.getFileSize() == fileSize) {
+					futures.add(CompletableFuture.completedFuture(entry));
+				} else {
+					futures.add(CompletableFuture.supplyAsync(() -> readEntry(projectFile, lastModified, fileSize), executor));
+				}
+			}
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(ignore -> {
+				Map<String, Entry> refreshed = new TreeMap<>();
+				for (CompletableFuture<Entry> future : futures) {
+					Entry entry = future.join();
+					if (entry != null) {
+						refreshed.put(entry.getDirectoryName(), entry);
+					}
+				}
+				if (refreshed.equals(old)) {
+					return false;
+				}
+				entries = Collections.unmodifiableMap(refreshed);
+				try {
+					writeIndex();
+				} catch (IOException e) {
+					//the index is only a cache
+					e.printStackTrace(System.out);
+				}
+				return true;
+			});
+		});
+	}
+
+	/** @return the project files ({@link Project#PROJECT_SAVE_FILE_NAME}) of every project directory in the workspace */
+	@NotNull
+	private List<File> findProjectFiles() {
+		File[] files = workspace.getWorkspaceDirectory().listFiles();
+		if (files == null) {
+			return Collections.emptyList();
+		}
+		List<File> projectFiles = new ArrayList<>(files.length);
+		for (File f : files) {
+			if (!f.isDirectory()) {
+				continue;
+			}
+			File projectFile = new File(f, Project.PROJECT_SAVE_FILE_NAME);
+			if (projectFile.isFile()) {
+				projectFiles.add(projectFile);
+			}
+		}
+		return projectFiles;
+	}
+
+	/** @return the entry, or null if the project file couldn't be read */
+	@Nullable
+	private static Entry readEntry(@NotNull File projectFile, long lastModified, long fileSize) {
+		ProjectPreviewLoaderVersion1 loader;
+		try {
+			loader = new ProjectPreviewLoaderVersion1(projectFile);
+			loader.parseDocument();
+		} catch (XmlParseException e) {
+			return null;
+		}
+		return new Entry(projectFile.getParentFile().getName(), loader.getProjectName(), loader.getSaveTime(),
+				loader.getControlCount(), lastModified, fileSize
+		);
+	}
+
+	private void writeIndex() throws IOException {
+		synchronized (writeLock) {
+			File parent = indexFile.getParentFile();
+			if (parent != null) {
+				parent.mkdirs();
+			}
+			XmlWriterOutputStream stm = new XmlWriterOutputStream(indexFile);
+			try {
+				stm.writeDefaultProlog();
+				stm.write("<project-catalog version='" + CATALOG_VERSION + "'>");
+				for (Entry entry : entries.values()) {
+					stm.write("<project directory='");
+					stm.writeEscaped(entry.getDirectoryName());
+					stm.write("' name='");
+					stm.writeEscaped(entry.getProjectName());
+					stm.write("' save-time='");
+					stm.write(Long.toString(entry.getSaveTime()));
+					stm.write("' control-count='");
+					stm.write(Integer.toString(entry.getControlCount()));
+					stm.write("' last-modified='");
+					stm.write(Long.toString(entry.getLastModified()));
+					stm.write("' size='");
+					stm.write(Long.toString(entry.getFileSize()));
+					stm.write("'/>");
+				}
+				stm.write("</project-catalog>");
+			} catch (IOException | RuntimeException e) {
+				stm.discard();
+				throw e;
+			}
+			stm.close();
+		}
+	}
+
+	/** @return the entries, sorted by project directory name */
+	@NotNull
+	public List<Entry> getEntries() {
+		return new ArrayList<>(entries.values());
+	}
+
+	/** @return a preview result for each entry, sorted by project directory name */
+	@NotNull
+	public List<ProjectXmlLoader.ProjectPreviewParseResult> getPreviewParseResults() {
+		List<ProjectXmlLoader.ProjectPreviewParseResult> results = new ArrayList<>();
+		for (Entry entry : entries.values()) {
+			results.add(new ProjectXmlLoader.ProjectPreviewParseResult(
+					new ProjectInfo(entry.getProjectName(), entry.getDirectoryName(), workspace),
+					new ArrayList<>()
+			));
+		}
+		return results;
+	}
+
+	@NotNull
+	public Workspace getWorkspace() {
+		return workspace;
+	}
+
+	/** An indexed project */
+	public static class Entry {
+		private final String directoryName;
+		private final String projectName;
+		private final long saveTime;
+		private final int controlCount;
+		private final long lastModified;
+		private final long fileSize;
+
+		Entry(@NotNull String directoryName, @NotNull String projectName, long saveTime, int controlCount, long lastModified, long fileSize) {
+			this.directoryName = directoryName;
+			this.projectName = projectName;
+			this.saveTime = saveTime;
+			this.controlCount = controlCount;
+			this.lastModified = lastModified;
+			this.fileSize = fileSize;
+		}
+
+		/** @return name of the project's directory inside the workspace */
+		@NotNull
+		public String getDirectoryName() {
+			return directoryName;
+		}
+
+		@NotNull
+		public String getProjectName() {
+			return projectName;
+		}
+
+		/** @return {@link System#currentTimeMillis()} of when the project was saved, or -1 if not known */
+		public long getSaveTime() {
+			return saveTime;
+		}
+
+		/** @return number of controls in the project, or -1 if not known */
+		public int getControlCount() {
+			return controlCount;
+		}
+
+		/** @return {@link File#lastModified()} of the project file when it was indexed */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		/** @return {@link File#length()} of the project file when it was indexed */
+		public long getFileSize() {
+			return fileSize;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry other = (Entry) o;
+			return saveTime == other.saveTime && controlCount == other.controlCount && lastModified == other.lastModified
+					&& fileSize == other.fileSize && directoryName.equals(other.directoryName) && projectName.equals(other.projectName);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = directoryName.hashCode();
+			result = 31 * result + projectName.hashCode();
+			result = 31 * result + (int) (lastModified ^ (lastModified >>> 32));
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return directoryName + "(" + projectName + ")";
+		}
+	}
+
+	/** Lazily creates the shared pool for {@link #refresh()} */
+	private static class RefreshPool {
+		private static final ExecutorService POOL = Executors.newFixedThreadPool(
+				Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+					Thread t = new Thread(r, "ADC - WorkspaceProjectCatalog");
+					t.setDaemon(true);
+					return t;
+				}
+		);
+
+		static {
+			ADCExecutors.registerExecutorService(POOL);
+		}
+	}
+}
@@ -7,10 +7,20 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -19,6 +29,28 @@ import java.util.Arrays;
  Created by Kayler on 07/31/2016.
  */
 class XmlLoader implements XmlErrorRecorder {
+	private static final DocumentBuilderFactory BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+	/** {@link DocumentBuilder} isn't thread safe, so each thread gets its own */
+	private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(() -> {
+		try {
+			synchronized (BUILDER_FACTORY) {
+				return BUILDER_FACTORY.newDocumentBuilder();
+			}
+		} catch (ParserConfigurationException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+	/** Property of the JDK's stream reader that reports CDATA sections as {@link XMLStreamConstants#CDATA} instead of text */
+	private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+	static {
+		if (INPUT_FACTORY.isPropertySupported(REPORT_CDATA)) {
+			INPUT_FACTORY.setProperty(REPORT_CDATA, Boolean.TRUE);
+		}
+	}
+
+	/** The parsed document, or null if the xml is read with {@link #newStreamReader(InputStream)} instead */
 	protected final Document document;
 	protected final @Nullable DataContext dataContext;
 	private final ArrayList<ParseError> errors = new ArrayList<>();
@@ -36,8 +68,8 @@ class XmlLoader implements XmlErrorRecorder {
 		checkParams(context, keys);
 		this.dataContext = context;
 		try {
-			builderFactory = DocumentBuilderFactory.newInstance();
-			documentBuilder = builderFactory.newDocumentBuilder();
+			builderFactory = BUILDER_FACTORY;
+			documentBuilder = getDocumentBuilder();
 			document = documentBuilder.parse(xmlFile);
 			document.getDocumentElement().normalize();
 		} catch (Exception e) {
@@ -50,8 +82,8 @@ class XmlLoader implements XmlErrorRecorder {
 		checkParams(context, keys);
 		this.dataContext = context;
 		try {
-			builderFactory = DocumentBuilderFactory.newInstance();
-			documentBuilder = builderFactory.newDocumentBuilder();
+			builderFactory = BUILDER_FACTORY;
+			documentBuilder = getDocumentBuilder();
 			document = documentBuilder.parse(is);
 			document.getDocumentElement().normalize();
 		} catch (Exception e) {
@@ -60,6 +92,182 @@ class XmlLoader implements XmlErrorRecorder {
 		}
 	}
 
+	/**
+	 Create a loader that doesn't parse a {@link Document}. {@link #document} will be null and the subclass is expected to read the xml
+	 with {@link #newStreamReader(InputStream)}.
+	 */
+	protected XmlLoader(@Nullable DataContext context, Key<?>... keys) {
+		checkParams(context, keys);
+		this.dataContext = context;
+		this.builderFactory = BUILDER_FACTORY;
+		this.documentBuilder = getDocumentBuilder();
+		this.document = null;
+	}
+
+	/** @return the {@link DocumentBuilder} for the current thread, which was reset */
+	@NotNull
+	static DocumentBuilder getDocumentBuilder() {
+		DocumentBuilder builder = DOCUMENT_BUILDER.get();
+		builder.reset();
+		return builder;
+	}
+
+	/** @return a new stream reader that uses a shared {@link XMLInputFactory} */
+	@NotNull
+	static XMLStreamReader newStreamReader(@NotNull InputStream is) throws XMLStreamException {
+		return INPUT_FACTORY.createXMLStreamReader(is);
+	}
+
+	/**
+	 Read the value of an attribute of the root element without reading the rest of the xml
+
+	 @return the value, or "" if the attribute doesn't exist
+	 @throws XmlParseException when the xml file couldn't be read
+	 */
+	@NotNull
+	static String readRootAttribute(@NotNull File xmlFile, @NotNull String attributeName) throws XmlParseException {
+		return readRootAttributes(xmlFile, attributeName)[0];
+	}
+
+	/**
+	 Read the values of attributes of the root element without reading the rest of the xml
+
+	 @return the values, in the same order as <code>attributeNames</code>. If an attribute doesn't exist, its value is ""
+	 @throws XmlParseException when the xml file couldn't be read
+	 */
+	@NotNull
+	static String[] readRootAttributes(@NotNull File xmlFile, @NotNull String... attributeNames) throws XmlParseException {
+		try (InputStream is = new BufferedInputStream(new FileInputStream(xmlFile))) {
+			XMLStreamReader reader = newStreamReader(is);
+			try {
+				reader.nextTag();
+				String[] values = new String[attributeNames.length];
+				for (int i = 0; i < attributeNames.length; i++) {
+					String value = reader.getAttributeValue(null, attributeNames[i]);
+					values[i] = value == null ? "" : value;
+				}
+				return values;
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException | IOException e) {
+			e.printStackTrace(System.out);
+			throw new XmlParseException(Lang.ApplicationBundle().getString("XmlParse.failed_to_read_xml"), e);
+		}
+	}
+
+	/**
+	 Create an element (without children) for the start element the reader is on.
+
+	 @param reader reader that is on a {@link XMLStreamConstants#START_ELEMENT}
+	 @param owner document that creates the element. The element isn't added to the document.
+	 */
+	@NotNull
+	static Element newElement(@NotNull XMLStreamReader reader, @NotNull Document owner) {
+		Element element = owner.createElement(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			element.setAttribute(
+					qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+					reader.getAttributeValue(i)
+			);
+		}
+		return element;
+	}
+
+	/**
+	 Read the element the reader is on, including all of its children, into an element. This is equivalent to the element of a
+	 parsed and normalized {@link Document}. When this returns, the reader will be on the element's {@link XMLStreamConstants#END_ELEMENT}.
+
+	 @param reader reader that is on a {@link XMLStreamConstants#START_ELEMENT}
+	 @param owner document that creates the element. The element isn't added to the document.
+	 */
+	@NotNull
+	static Element readElement(@NotNull XMLStreamReader reader, @NotNull Document owner) throws XMLStreamException {
+		Element root = newElement(reader, owner);
+		readChildren(reader, owner, root);
+		return root;
+	}
+
+	/**
+	 Same as {@link #readElement(XMLStreamReader, Document)}, but the children are appended to the given element.
+
+	 @param reader reader that is on a {@link XMLStreamConstants#START_ELEMENT}
+	 @param owner document that creates the child nodes
+	 @param element element to append the children to
+	 */
+	static void readChildren(@NotNull XMLStreamReader reader, @NotNull Document owner, @NotNull Element element) throws XMLStreamException {
+		Element current = element;
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT: {
+					Element child = newElement(reader, owner);
+					current.appendChild(child);
+					current = child;
+					depth++;
+					break;
+				}
+				case XMLStreamConstants.END_ELEMENT: {
+					depth--;
+					if (depth > 0) {
+						current = (Element) current.getParentNode();
+					}
+					break;
+				}
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+				case XMLStreamConstants.ENTITY_REFERENCE: {
+					//merge adjacent text like Node.normalize() does
+					Node last = current.getLastChild();
+					if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+						((Text) last).appendData(reader.getText());
+					} else {
+						current.appendChild(owner.createTextNode(reader.getText()));
+					}
+					break;
+				}
+				case XMLStreamConstants.CDATA: {
+					current.appendChild(owner.createCDATASection(reader.getText()));
+					break;
+				}
+				case XMLStreamConstants.END_DOCUMENT: {
+					throw new XMLStreamException("unexpected end of document");
+				}
+			}
+		}
+	}
+
+	/**
+	 Skip the element the reader is on, including all of its children. When this returns, the reader will be on the element's
+	 {@link XMLStreamConstants#END_ELEMENT}.
+	 */
+	static void skipElement(@NotNull XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT: {
+					depth++;
+					break;
+				}
+				case XMLStreamConstants.END_ELEMENT: {
+					depth--;
+					break;
+				}
+				case XMLStreamConstants.END_DOCUMENT: {
+					throw new XMLStreamException("unexpected end of document");
+				}
+			}
+		}
+	}
+
+	@NotNull
+	private static String qualifiedName(@Nullable String prefix, @NotNull String localName) {
+		if (prefix == null || prefix.length() == 0) {
+			return localName;
+		}
+		return prefix + ":" + localName;
+	}
+
 	static class ParseResult {
 		private final ArrayList<ParseError> errors;
 
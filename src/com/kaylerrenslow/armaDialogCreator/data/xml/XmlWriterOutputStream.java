@@ -2,43 +2,58 @@ package com.kaylerrenslow.armaDialogCreator.data.xml;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
- A wrapper class for a {@link FileOutputStream} that writes XML files.
+ Writes XML files through a large, buffered UTF-8 {@link Writer}.
+ <p>
+ Everything is written to a temporary file next to the XML file. When {@link #close()} is invoked, the existing XML file
+ is hard linked (or copied) to a .backup file and the temporary file atomically replaces the XML file. So, the XML file is never
+ half written or missing.
+ If writing fails, {@link #discard()} should be invoked so that the temporary file is deleted and the XML file isn't changed.
 
  @author Kayler
  @since 11/12/2016. */
 public class XmlWriterOutputStream {
-	private static final int MAX_BUFFER_SIZE = 1000;
+	/** Number of chars that are buffered before they are encoded and written to the file */
+	private static final int BUFFER_SIZE = 64 * 1024;
 	public static final String UTF_8 = "UTF-8";
 
 	protected final byte[] NEW_LINE = "\n".getBytes();
-	private final FileOutputStream fos;
-	private int bufferSize = 0;
+	private final File xmlFile;
+	private final File tempFile;
+	private final FileChannel channel;
+	private final Writer writer;
+	private long bytesWritten = -1;
+	private boolean closed = false;
 
 	public XmlWriterOutputStream(@NotNull File writeXmlFile) throws IOException {
-		if (writeXmlFile.exists()) {
-			//create backup
-			Files.copy(writeXmlFile.toPath(), new File(writeXmlFile.getPath() + ".backup").toPath(), StandardCopyOption.REPLACE_EXISTING);
-		}
-		fos = new FileOutputStream(writeXmlFile);
-	}
-
-	private void checkBufferSize() throws IOException {
-		if (bufferSize > MAX_BUFFER_SIZE) {
-			fos.flush();
-			bufferSize = 0;
-		}
+		this.xmlFile = writeXmlFile;
+		File dir = writeXmlFile.getAbsoluteFile().getParentFile();
+		tempFile = File.createTempFile(writeXmlFile.getName() + ".", ".tmp", dir);
+		channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), BUFFER_SIZE);
 	}
 
 	/** Write the XML's prolog tag */
 	public void writeProlog(@NotNull String xmlVersion, @NotNull String encoding) throws IOException {
-		write("<?xml version='" + xmlVersion + "' encoding='" + encoding + "' ?>");
+		writer.write("<?xml version='");
+		writer.write(xmlVersion);
+		writer.write("' encoding='");
+		writer.write(encoding);
+		writer.write("' ?>");
 	}
 
 	/** Invokes {@link #writeProlog(String, String)} with xmlVersion='1.0' and encoding='{@link #UTF_8}' */
@@ -46,61 +61,187 @@ public class XmlWriterOutputStream {
 		writeProlog("1.0", UTF_8);
 	}
 
-	/** Writes a byte[] to stream */
+	/** Writes a byte[] (UTF-8) to stream */
 	public void write(@NotNull byte[] bytes) throws IOException {
-		fos.write(bytes);
-		bufferSize += bytes.length;
-		checkBufferSize();
+		for (byte b : bytes) {
+			if (b < 0) {
+				//not ascii
+				writer.write(new String(bytes, StandardCharsets.UTF_8));
+				return;
+			}
+		}
+		for (byte b : bytes) {
+			writer.write(b);
+		}
 	}
 
-	/** Writes a byte[] to stream */
+	/** Writes a byte[] (UTF-8) to stream and then a \n character */
 	public void writeln(@NotNull byte[] bytes) throws IOException {
-		fos.write(bytes);
-		fos.write(NEW_LINE);
-		bufferSize += bytes.length + 1;
-		checkBufferSize();
+		write(bytes);
+		writer.write('\n');
 	}
 
 	/** Writes a string to stream */
 	public void write(@NotNull String s) throws IOException {
-		write(s.getBytes());
+		writer.write(s);
 	}
 
 	/** Writes a string to stream and then a \n character */
 	public void writeln(@NotNull String s) throws IOException {
-		write(s);
-		fos.write(NEW_LINE);
-		bufferSize += 1;
-		checkBufferSize();
+		writer.write(s);
+		writer.write('\n');
+	}
+
+	/** Writes a string to stream with the same escaping as {@link #esc(String)}, without creating a new String */
+	public void writeEscaped(@NotNull String s) throws IOException {
+		int start = 0;
+		for (int i = 0; i < s.length(); i++) {
+			String replacement = escape(s.charAt(i));
+			if (replacement == null) {
+				continue;
+			}
+			writer.write(s, start, i - start);
+			writer.write(replacement);
+			start = i + 1;
+		}
+		writer.write(s, start, s.length() - start);
 	}
 
 	/** Writes a comment to stream */
 	public void writeComment(@NotNull String comment) throws IOException {
-		write("<!-- " + comment + " -->");
+		writer.write("<!-- ");
+		writer.write(comment);
+		writer.write(" -->");
 	}
 
 	/** Writes just a basic tag. Example: "&lt;tagName&gt;" */
 	public void writeBeginTag(@NotNull String tagName) throws IOException {
-		write("<" + tagName + ">");
+		writer.write('<');
+		writer.write(tagName);
+		writer.write('>');
 	}
 
 	/** Writes just a basic closing tag. Example: "&lt;/tagName&gt;" */
 	public void writeCloseTag(@NotNull String tagName) throws IOException {
-		write("</" + tagName + ">");
+		writer.write("</");
+		writer.write(tagName);
+		writer.write('>');
 	}
 
-	/** {@link FileOutputStream#flush()} */
+	/** Write all buffered text to the temporary file */
 	public void flush() throws IOException {
-		fos.flush();
+		writer.flush();
 	}
 
-	/** {@link FileOutputStream#close()} */
+	/**
+	 Write all buffered text, then replace the XML file with the written file. The old XML file is kept as
+	 "[xml file name].backup". If this was already invoked, nothing will happen.
+	 */
 	public void close() throws IOException {
-		fos.close();
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			writer.flush();
+			channel.force(false);
+			bytesWritten = channel.size();
+		} finally {
+			writer.close();
+		}
+		Path xmlPath = xmlFile.toPath();
+		if (Files.exists(xmlPath)) {
+			//the XML file stays where it is until the temporary file replaces it
+			Path backupPath = getBackupFile().toPath();
+			Files.deleteIfExists(backupPath);
+			try {
+				Files.createLink(backupPath, xmlPath);
+			} catch (IOException | UnsupportedOperationException e) {
+				Files.copy(xmlPath, backupPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+			}
+		}
+		try {
+			Files.move(tempFile.toPath(), xmlPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile.toPath(), xmlPath, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 Stop writing and delete the temporary file without touching the XML file. If {@link #close()} was already invoked,
+	 nothing will happen.
+	 */
+	public void discard() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			writer.close();
+		} catch (IOException ignore) {
+		}
+		tempFile.delete();
+	}
+
+	/** @return the XML file that will be replaced when {@link #close()} is invoked */
+	@NotNull
+	public File getXmlFile() {
+		return xmlFile;
+	}
+
+	/** @return the file the old XML file is kept as when {@link #close()} is invoked */
+	@NotNull
+	public File getBackupFile() {
+		return new File(xmlFile.getPath() + ".backup");
 	}
 
+	/** @return number of bytes in the written file, or -1 if {@link #close()} hasn't been invoked yet */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/** @return the value with &amp;, ', ", &lt;, and &gt; escaped, so it can be used as text or as a quoted attribute value */
 	public static String esc(String value) {
-		return value.replaceAll("'", "&#39;").replaceAll("<", "&lt;").replaceAll(">", "&gt;");
+		StringBuilder sb = null;
+		int start = 0;
+		for (int i = 0; i < value.length(); i++) {
+			String replacement = escape(value.charAt(i));
+			if (replacement == null) {
+				continue;
+			}
+			if (sb == null) {
+				sb = new StringBuilder(value.length() + 16);
+			}
+			sb.append(value, start, i).append(replacement);
+			start = i + 1;
+		}
+		if (sb == null) {
+			return value;
+		}
+		return sb.append(value, start, value.length()).toString();
+	}
+
+	private static String escape(char c) {
+		switch (c) {
+			case '&': {
+				return "&amp;";
+			}
+			case '\'': {
+				return "&#39;";
+			}
+			case '"': {
+				return "&quot;";
+			}
+			case '<': {
+				return "&lt;";
+			}
+			case '>': {
+				return "&gt;";
+			}
+			default: {
+				return null;
+			}
+		}
 	}
 
 }
@@ -19,9 +19,17 @@ import java.util.regex.Pattern;
  @since 07/14/2016 */
 class ExpressionEvaluator implements AST.Visitor<Value> {
 
+	private static final Pattern stringPattern = Pattern.compile("(\"\")|('')");
+
 	private final ResourceBundle bundle = Lang.getBundle("ExpressionBundle");
 	private final AtomicBoolean terminated = new AtomicBoolean(false);
 
+	/** Max number of steps allowed in {@link #evaluateInline(AST.Expr, Env, int)}, or -1 if there is no limit */
+	private int stepLimit = -1;
+	private int steps = 0;
+	/** True if {@link #evaluateInline(AST.Expr, Env, int)} is running on this evaluator */
+	private boolean evaluatingInline = false;
+
 	/**
 	 Terminate this evaluator immediately. This method is thread-safe.
 	 <br>Will cause the evaluator to throw a {@link TerminateEvaluationException}
@@ -34,6 +42,132 @@ class ExpressionEvaluator implements AST.Visitor<Value> {
 		if (terminated.get()) {
 			throw new TerminateEvaluationException();
 		}
+		if (stepLimit >= 0 && ++steps > stepLimit) {
+			throw new TerminateEvaluationException(String.format(bundle.getString("step_limit_exceeded_f"), stepLimit));
+		}
+	}
+
+	/** @return true if {@link #evaluateInline(AST.Expr, Env, int)} is currently running on this evaluator */
+	public boolean isEvaluatingInline() {
+		return evaluatingInline;
+	}
+
+	/**
+	 Returns the value for the given expression in the given environment. Unlike {@link #evaluate(AST.Expr, Env)}, the evaluation
+	 is bounded by a step limit instead of {@link #terminate()}. Each executed statement and code block counts as a step.
+	 <br>
+	 If the expression is only arithmetic on numbers, it will be evaluated without creating a {@link Value.NumVal} for each
+	 intermediate result. This method is not thread-safe and is meant to be used with an evaluator that is reused by one thread.
+
+	 @param stepLimit max number of steps before a {@link TerminateEvaluationException} is thrown, or -1 for no limit
+	 @throws ExpressionEvaluationException If the expression is invalid
+	 @throws TerminateEvaluationException if the step limit was exceeded
+	 */
+	@NotNull
+	public Value evaluateInline(@NotNull AST.Expr e, @NotNull Env env, int stepLimit) {
+		this.evaluatingInline = true;
+		this.stepLimit = stepLimit;
+		this.steps = 0;
+		try {
+			try {
+				return new Value.NumVal(evaluateNumeric(e, env));
+			} catch (NotNumericException ignore) {
+				//use the visitor for everything else so that we get the same results and errors
+			}
+			return evaluate(e, env);
+		} finally {
+			this.stepLimit = -1;
+			this.evaluatingInline = false;
+		}
+	}
+
+	/**
+	 Evaluates arithmetic expressions on primitive doubles. Anything that isn't a number or arithmetic operation will
+	 throw {@link NotNumericException}. Since nothing here has side effects, the expression can be evaluated again with the visitor.
+	 */
+	private double evaluateNumeric(@NotNull AST.Expr e, @NotNull Env env) {
+		if (e instanceof AST.IntegerExpr) {
+			return ((AST.IntegerExpr) e).getValue();
+		}
+		if (e instanceof AST.FloatExpr) {
+			return ((AST.FloatExpr) e).getValue();
+		}
+		if (e instanceof AST.IdentifierExpr) {
+			String var = ((AST.IdentifierExpr) e).getIdentifier();
+			if (var.equalsIgnoreCase("true") || var.equalsIgnoreCase("false")) {
+				throw NotNumericException.INSTANCE;
+			}
+			return numericValue(env.getValue(var));
+		}
+		if (e instanceof AST.UnaryCommand) {
+			UnaryCommandValueProvider provider = env.getUnaryCommandValueProvider();
+			String command = ((AST.UnaryCommand) e).getCommand();
+			if (provider == null) {
+				return numericValue(env.getValue(command));
+			}
+			return numericValue(UnaryCommandTranslator.executeUnaryCommand(command, provider));
+		}
+		if (e instanceof AST.AddExpr) {
+			AST.AddExpr add = (AST.AddExpr) e;
+			return evaluateNumeric(add.getLeft(), env) + evaluateNumeric(add.getRight(), env);
+		}
+		if (e instanceof AST.SubExpr) {
+			AST.SubExpr sub = (AST.SubExpr) e;
+			return evaluateNumeric(sub.getLeft(), env) - evaluateNumeric(sub.getRight(), env);
+		}
+		if (e instanceof AST.MultExpr) {
+			AST.MultExpr mult = (AST.MultExpr) e;
+			return evaluateNumeric(mult.getLeft(), env) * evaluateNumeric(mult.getRight(), env);
+		}
+		if (e instanceof AST.DivExpr) {
+			AST.DivExpr div = (AST.DivExpr) e;
+			return evaluateNumeric(div.getLeft(), env) / evaluateNumeric(div.getRight(), env);
+		}
+		if (e instanceof AST.ModExpr) {
+			AST.ModExpr mod = (AST.ModExpr) e;
+			return evaluateNumeric(mod.getLeft(), env) % evaluateNumeric(mod.getRight(), env);
+		}
+		if (e instanceof AST.MaxExpr) {
+			AST.MaxExpr max = (AST.MaxExpr) e;
+			return Math.max(evaluateNumeric(max.getLeft(), env), evaluateNumeric(max.getRight(), env));
+		}
+		if (e instanceof AST.MinExpr) {
+			AST.MinExpr min = (AST.MinExpr) e;
+			return Math.min(evaluateNumeric(min.getLeft(), env), evaluateNumeric(min.getRight(), env));
+		}
+		if (e instanceof AST.ParenExpr) {
+			return evaluateNumeric(((AST.ParenExpr) e).getExp(), env);
+		}
+		if (e instanceof AST.UnaryExpr) {
+			AST.UnaryExpr unary = (AST.UnaryExpr) e;
+			double v = evaluateNumeric(unary.getExpr(), env);
+			return unary.isAdd() ? +v : -v;
+		}
+		if (e instanceof AST.AbsExpr) {
+			return Math.abs(evaluateNumeric(((AST.AbsExpr) e).getExpr(), env));
+		}
+		if (e instanceof AST.ExponentExpr) {
+			double result = 0;
+			boolean didFirst = false;
+			for (AST.Expr exp : ((AST.ExponentExpr) e).getExprs()) {
+				double v = evaluateNumeric(exp, env);
+				if (!didFirst) {
+					result = v;
+					didFirst = true;
+				} else {
+					result = Math.pow(result, v);
+				}
+			}
+			return result;
+		}
+		throw NotNumericException.INSTANCE;
+	}
+
+	private double numericValue(Value v) {
+		if (v instanceof Value.NumVal) {
+			return ((Value.NumVal) v).v();
+		}
+		throw NotNumericException.INSTANCE;
 	}
 
 	/**
@@ -930,6 +1064,14 @@ class ExpressionEvaluator implements AST.Visitor<Value> {
 		throw new ExpressionEvaluationException(errorNode, String.format(bundle.getString("index_out_of_bounds_f"), varName, source, index, lowerBound, upperBound));
 	}
 
-	private final Pattern stringPattern = Pattern.compile("(\"\")|('')");
+	/** Thrown by {@link #evaluateNumeric(AST.Expr, Env)} when the expression can't be evaluated as only numbers */
+	private static class NotNumericException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		static final NotNumericException INSTANCE = new NotNumericException();
+
+		private NotNumericException() {
+			super(null, null, false, false);
+		}
+	}
 
 }
@@ -15,7 +15,8 @@ import java.util.concurrent.*;
 /**
  Evaluates simple mathematical expressions and some things of Arma 3's scripting language SQF.
  Order of operations is supported as well as identifier lookup.<br>
- All evaluations are done inside a thread pool and in new evaluators.
+ All evaluations are done inside a thread pool and in new evaluators, except for {@link #evaluateNow(String, Env)}.
+ Parsed expressions are cached, so evaluating the same expression text more than once will only parse it once.
 
  @author Kayler
  @since 07/14/2016. */
@@ -53,6 +54,15 @@ public class ExpressionInterpreter {
 	/** Queue of all running/queued {@link ExpressionEvaluator} instances */
 	private final LinkedBlockingQueue<ExpressionEvaluator> evaluatorsQ = new LinkedBlockingQueue<>();
 
+	/** Default max number of steps for {@link #evaluateNow(String, Env)} */
+	public static final int DEFAULT_STEP_LIMIT = 100000;
+
+	/** Evaluators reused by {@link #evaluateNow(String, Env, int)}, one per thread */
+	private final ThreadLocal<ExpressionEvaluator> inlineEvaluators = ThreadLocal.withInitial(ExpressionEvaluator::new);
+
+	/** Cache of expression text to the parsed expression */
+	private final ParsedExpressionCache expressionCache = new ParsedExpressionCache(ParsedExpressionCache.DEFAULT_MAX_SIZE);
+
 	public ExpressionInterpreter() {
 		ADCExecutors.registerExecutorService(threadPool);
 	}
@@ -112,30 +122,7 @@ public class ExpressionInterpreter {
 		Future<Value> future = threadPool.submit(new Callable<Value>() {
 			@Override
 			public Value call() throws Exception {
-				if (exp == null || exp.trim().length() == 0) {
-					throw new ExpressionEvaluationException(null, Lang.ApplicationBundle().getString("Expression.error_no_input"));
-				}
-				ExpressionLexer l = getLexer(exp);
-				ExpressionParser p = getParser(new CommonTokenStream(l));
-
-				//prevent ANTLR printing to the console when the expression is invalid
-				l.getErrorListeners().clear();
-				p.getErrorListeners().clear();
-
-				p.addErrorListener(ErrorListener.INSTANCE);
-				p.setErrorHandler(ErrorStrategy.INSTANCE);
-				l.addErrorListener(ErrorListener.INSTANCE);
-
-
-				AST.Expr e;
-				try {
-					e = p.expression().ast;
-				} catch (Exception ex) {
-					if (ex instanceof ExpressionEvaluationException) {
-						throw ex;
-					}
-					throw new ExpressionEvaluationException(null, ex.getMessage(), ex);
-				}
+				AST.Expr e = parseExpression(exp);
 				Value v = evaluator.evaluate(e, env);
 				evaluatorsQ.remove(evaluator);
 
@@ -145,6 +132,46 @@ public class ExpressionInterpreter {
 		return new FutureEvaluatedValue(this, evaluator, future);
 	}
 
+	/**
+	 Evaluate the given expression String in the given environment on the calling thread with a step limit of {@link #DEFAULT_STEP_LIMIT}.
+
+	 @see #evaluateNow(String, Env, int)
+	 */
+	@NotNull
+	public Value evaluateNow(@Nullable String exp, @NotNull Env env) {
+		return evaluateNow(exp, env, DEFAULT_STEP_LIMIT);
+	}
+
+	/**
+	 Evaluate the given expression String in the given environment on the calling thread. Unlike {@link #evaluate(String, Env)},
+	 this method is blocking and should only be used for trusted expressions that are known to finish quickly
+	 (e.g. control positions). Instead of a timeout, the evaluation is stopped after <code>stepLimit</code> steps
+	 (each executed statement and code block is a step).
+	 <br>
+	 The expression is only parsed the first time it is evaluated by this interpreter and evaluators are reused between invocations,
+	 so this method is much cheaper than {@link #evaluate(String, Env)}. This method is thread-safe.
+
+	 @param exp expression text to evaluate
+	 @param env environment that holds information on all identifiers
+	 @param stepLimit max number of steps before the evaluation is stopped, or -1 for no limit
+	 @return the resulted {@link Value} instance
+	 @throws ExpressionEvaluationException if the expression couldn't be evaluated (includes if <code>exp==null or exp.trim().length()==0</code>)
+	 @throws TerminateEvaluationException if the step limit was exceeded
+	 */
+	@NotNull
+	public Value evaluateNow(@Nullable String exp, @NotNull Env env, int stepLimit) {
+		if (threadPool.isShutdown()) {
+			throw new IllegalStateException("can't use a shutdown interpreter");
+		}
+		AST.Expr e = parseExpression(exp);
+		ExpressionEvaluator evaluator = inlineEvaluators.get();
+		if (evaluator.isEvaluatingInline()) {
+			//the env is evaluating another expression while evaluating this one
+			evaluator = new ExpressionEvaluator();
+		}
+		return evaluator.evaluateInline(e, env, stepLimit);
+	}
+
 	/**
 	 Evaluate the given statements as a String in the given environment.
 	 This method will create a new evaluator.<br><br>
@@ -222,6 +249,44 @@ public class ExpressionInterpreter {
 		}
 	}
 
+	/**
+	 Get the parsed expression for the given expression text. If the text was parsed before, the cached {@link AST.Expr} will be returned.
+
+	 @throws ExpressionEvaluationException if the expression couldn't be parsed (includes if <code>exp==null or exp.trim().length()==0</code>)
+	 */
+	@NotNull
+	private AST.Expr parseExpression(@Nullable String exp) {
+		if (exp == null || exp.trim().length() == 0) {
+			throw new ExpressionEvaluationException(null, Lang.ApplicationBundle().getString("Expression.error_no_input"));
+		}
+		AST.Expr e = expressionCache.get(exp);
+		if (e != null) {
+			return e;
+		}
+
+		ExpressionLexer l = getLexer(exp);
+		ExpressionParser p = getParser(new CommonTokenStream(l));
+
+		//prevent ANTLR printing to the console when the expression is invalid
+		l.getErrorListeners().clear();
+		p.getErrorListeners().clear();
+
+		p.addErrorListener(ErrorListener.INSTANCE);
+		p.setErrorHandler(ErrorStrategy.INSTANCE);
+		l.addErrorListener(ErrorListener.INSTANCE);
+
+		try {
+			e = p.expression().ast;
+		} catch (Exception ex) {
+			if (ex instanceof ExpressionEvaluationException) {
+				throw ex;
+			}
+			throw new ExpressionEvaluationException(null, ex.getMessage(), ex);
+		}
+		expressionCache.put(exp, e);
+		return e;
+	}
+
 	@NotNull
 	private ExpressionParser getParser(CommonTokenStream stream) {
 		return new ExpressionParser(stream);
@@ -0,0 +1,83 @@
+package com.kaylerrenslow.armaDialogCreator.expression;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ A bounded, least recently used cache of expression Strings to their parsed {@link AST.Expr}.
+ Parsing with ANTLR is far more expensive than evaluating the resulted tree,
+ so {@link ExpressionInterpreter} uses this to parse each expression only once.
+ The cached trees are never modified after parsing, so they can be evaluated by multiple threads at once.
+ This class is thread-safe.
+
+ @author Kayler
+ @since 10/17/2026 */
+class ParsedExpressionCache {
+
+	/** Default value for {@link #getMaxSize()} */
+	public static final int DEFAULT_MAX_SIZE = 4096;
+
+	private final int maxSize;
+	private final LinkedHashMap<String, AST.Expr> cache;
+
+	private long hits, misses;
+
+	/** @param maxSize max number of expressions to cache before the least recently used expression is evicted */
+	public ParsedExpressionCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be > 0");
+		}
+		this.maxSize = maxSize;
+		this.cache = new LinkedHashMap<String, AST.Expr>(Math.min(maxSize, 256), 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, AST.Expr> eldest) {
+				return size() > ParsedExpressionCache.this.maxSize;
+			}
+		};
+	}
+
+	/** @return the cached expression, or null if the expression isn't cached */
+	@Nullable
+	public synchronized AST.Expr get(@NotNull String exp) {
+		AST.Expr e = cache.get(exp);
+		if (e == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return e;
+	}
+
+	/** Cache the given parsed expression for the given expression text */
+	public synchronized void put(@NotNull String exp, @NotNull AST.Expr e) {
+		cache.put(exp, e);
+	}
+
+	/** Remove all cached expressions */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	/** @return the number of cached expressions */
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	/** @return max number of cached expressions */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** @return number of times {@link #get(String)} found a cached expression */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/** @return number of times {@link #get(String)} didn't find a cached expression */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+}
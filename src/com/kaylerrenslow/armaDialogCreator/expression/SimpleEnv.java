@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  A simple implementation of {@link Env} that allows for adding identifiers to the env and removing identifiers from the env.
@@ -15,6 +16,15 @@ import java.util.Map;
  @author Kayler
  @since 07/15/2016. */
 public class SimpleEnv implements Env {
+	/** Max number of identifiers in {@link #lowerCaseKeys} */
+	private static final int MAX_LOWER_CASE_KEYS = 8192;
+	/**
+	 Identifier to its lower case key. Expressions use the same few identifiers over and over, so this saves
+	 creating a new lower case String for every identifier lookup. Since each lower case key is the same String instance
+	 every time, {@link #map} lookups only need a reference comparison.
+	 */
+	private static final ConcurrentHashMap<String, String> lowerCaseKeys = new ConcurrentHashMap<>();
+
 	/** Map for identifiers to values */
 	protected final HashMap<String, Value> map = new HashMap<>();
 	private UnaryCommandValueProvider unaryCommandProvider;
@@ -29,12 +39,31 @@ public class SimpleEnv implements Env {
 
 	@Override
 	public Value put(@NotNull String identifier, Value v) {
-		return map.put(identifier.toLowerCase(), v);
+		return map.put(key(identifier), v);
 	}
 
 	@Override
 	public Value remove(@NotNull String identifier) {
-		return map.remove(identifier.toLowerCase());
+		return map.remove(key(identifier));
+	}
+
+	/** @return the lower case key for the given identifier. The same String instance is returned for equal identifiers. */
+	@NotNull
+	protected static String key(@NotNull String identifier) {
+		String key = lowerCaseKeys.get(identifier);
+		if (key != null) {
+			return key;
+		}
+		String lowerCase = identifier.toLowerCase();
+		key = lowerCaseKeys.get(lowerCase);
+		if (key == null) {
+			key = lowerCase;
+		}
+		if (lowerCaseKeys.size() < MAX_LOWER_CASE_KEYS) {
+			lowerCaseKeys.putIfAbsent(key, key);
+			lowerCaseKeys.putIfAbsent(identifier, key);
+		}
+		return key;
 	}
 
 	public void setUnaryCommandProvider(@Nullable UnaryCommandValueProvider unaryCommandProvider) {
@@ -61,7 +90,7 @@ public class SimpleEnv implements Env {
 	@Override
 	@Nullable
 	public Value getValue(@NotNull String identifier) {
-		return map.get(identifier.toLowerCase());
+		return map.get(key(identifier));
 	}
 
 	@Override
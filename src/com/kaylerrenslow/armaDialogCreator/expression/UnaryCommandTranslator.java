@@ -3,25 +3,46 @@ package com.kaylerrenslow.armaDialogCreator.expression;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  @author Kayler
  @since 06/28/2017 */
 class UnaryCommandTranslator {
+
+	/** Provider class -> (lowercase command -> method). Reflection lookups are cached since unary commands are evaluated very often. */
+	private static final Map<Class<?>, Map<String, Method>> methodsCache = new ConcurrentHashMap<>();
+
 	@NotNull
 	public static Value executeUnaryCommand(@NotNull String command, @NotNull UnaryCommandValueProvider provider) {
-		String commandLowercase = command.toLowerCase();
-		Method[] methods = provider.getClass().getMethods();
-		for (Method method : methods) {
-			if (method.getName().toLowerCase().equals(commandLowercase)) {
-				method.setAccessible(true);
-				try {
-					return (Value) method.invoke(provider);
-				} catch (Exception e) {
-					throw new RuntimeException(e);
-				}
+		Map<String, Method> methods = methodsCache.computeIfAbsent(provider.getClass(), UnaryCommandTranslator::getMethods);
+		Method method = methods.get(command.toLowerCase());
+		if (method == null) {
+			throw new IllegalStateException("didn't match command:" + command);
+		}
+		try {
+			return (Value) method.invoke(provider);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@NotNull
+	private static Map<String, Method> getMethods(@NotNull Class<?> providerClass) {
+		Map<String, Method> map = new HashMap<>();
+		for (Method method : providerClass.getMethods()) {
+			if (method.getDeclaringClass() == Object.class) {
+				continue;
+			}
+			String name = method.getName().toLowerCase();
+			if (map.containsKey(name)) {
+				continue; //keep the first match like the original linear search
 			}
+			method.setAccessible(true);
+			map.put(name, method);
 		}
-		throw new IllegalStateException("didn't match command:" + command);
+		return map;
 	}
 }
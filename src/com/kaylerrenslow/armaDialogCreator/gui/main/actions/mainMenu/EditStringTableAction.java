@@ -37,6 +37,7 @@ public class EditStringTableAction implements EventHandler<ActionEvent> {
 			try {
 				DefaultStringTableXmlParser parser = new DefaultStringTableXmlParser(file);
 				table = parser.createStringTableInstance();
+				System.out.println(String.format("EditStringTableAction.java: Loaded %d keys from %s (%.0f keys/sec)", parser.getParsedKeyCount(), file.getName(), parser.getKeysPerSecond()));
 				Project.getCurrentProject().setStringTable(table);
 			} catch (XmlParseException | IOException e) {
 				ExceptionHandler.error(e);
@@ -141,6 +141,12 @@ public class ControlPropertiesEditorPane extends StackPane {
 			controlClass.getControlClassUpdateGroup().addListener(new UpdateGroupListener<ControlClassUpdate>() {
 				@Override
 				public void update(@NotNull UpdateListenerGroup<ControlClassUpdate> group, @Nullable ControlClassUpdate data) {
+					if (data instanceof ControlClassInheritanceBatchUpdate) {
+						for (ControlClassUpdate update : ((ControlClassInheritanceBatchUpdate) data).getUpdates()) {
+							update(group, update);
+						}
+						return;
+					}
 					if (data instanceof ControlClassTemporaryNestedClassUpdate) {
 						ControlClassTemporaryNestedClassUpdate update = (ControlClassTemporaryNestedClassUpdate) data;
 						if (update.getNestedClass() == cc) {
@@ -198,6 +204,12 @@ public class ControlPropertiesEditorPane extends StackPane {
 			controlClass.getControlClassUpdateGroup().addListener(new UpdateGroupListener<ControlClassUpdate>() {
 				@Override
 				public void update(@NotNull UpdateListenerGroup<ControlClassUpdate> group, @Nullable ControlClassUpdate data) {
+					if (data instanceof ControlClassInheritanceBatchUpdate) {
+						for (ControlClassUpdate update : ((ControlClassInheritanceBatchUpdate) data).getUpdates()) {
+							update(group, update);
+						}
+						return;
+					}
 					if (data instanceof ControlClassTemporaryNestedClassUpdate) {
 						ControlClassTemporaryNestedClassUpdate update = (ControlClassTemporaryNestedClassUpdate) data;
 						if (update.isAdded()) {
@@ -257,6 +269,12 @@ public class ControlPropertiesEditorPane extends StackPane {
 		controlClass.getControlClassUpdateGroup().addListener(new UpdateGroupListener<ControlClassUpdate>() {
 			@Override
 			public void update(@NotNull UpdateListenerGroup<ControlClassUpdate> group, @Nullable ControlClassUpdate data) {
+				if (data instanceof ControlClassInheritanceBatchUpdate) {
+					for (ControlClassUpdate update : ((ControlClassInheritanceBatchUpdate) data).getUpdates()) {
+						update(group, update);
+					}
+					return;
+				}
 				if (optional) {
 					//we are going to add the temp properties to the optional titled pane
 					if (data instanceof ControlClassTemporaryPropertyUpdate) {
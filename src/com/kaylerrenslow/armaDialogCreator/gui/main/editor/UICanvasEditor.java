@@ -713,19 +713,7 @@ public class UICanvasEditor extends UICanvas {
 	private boolean basicMouseMovement(int mousex, int mousey) {
 
 		updateContextMenu();
-		mouseOverControl = null;
-
-		CanvasControl control;
-		Iterator<? extends CanvasControl> iteratorControl = display.iteratorForAllControls(true);
-		while (iteratorControl.hasNext()) {
-			control = iteratorControl.next();
-			if (control.getRenderer().isEnabled()) {
-				if (control.getRenderer().containsPoint(mousex, mousey)) {
-					mouseOverControl = control;
-					break;
-				}
-			}
-		}
+		mouseOverControl = controlIndex.getTopmostControlAt(mousex, mousey);
 
 		if (scaleControl == null) {
 			if (!selection.isSelecting() && mouseOverControl != null) {
@@ -746,14 +734,9 @@ public class UICanvasEditor extends UICanvas {
 		if (selection.isSelecting()) {
 			selection.selectTo(mousex, mousey);
 			selection.clearSelected();
-			iteratorControl = display.iteratorForAllControls(true);
-			while (iteratorControl.hasNext()) {
-				control = iteratorControl.next();
-				if (control.getRenderer().isEnabled()) {
-					if (selection.contains(control.getRenderer())) {
-						selection.addToSelection(control);
-					}
-				}
+			CanvasControlSpatialIndex<? extends CanvasControl> index = controlIndex;
+			for (CanvasControl control : index.getControlsInside(selection)) {
+				selection.addToSelection(control);
 			}
 			return false;
 		}
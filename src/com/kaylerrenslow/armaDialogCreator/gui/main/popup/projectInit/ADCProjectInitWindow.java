@@ -4,6 +4,7 @@ package com.kaylerrenslow.armaDialogCreator.gui.main.popup.projectInit;
 import com.kaylerrenslow.armaDialogCreator.data.*;
 import com.kaylerrenslow.armaDialogCreator.data.xml.ProjectInit;
 import com.kaylerrenslow.armaDialogCreator.data.xml.ProjectXmlLoader;
+import com.kaylerrenslow.armaDialogCreator.data.xml.WorkspaceProjectCatalog;
 import com.kaylerrenslow.armaDialogCreator.data.xml.XmlParseException;
 import com.kaylerrenslow.armaDialogCreator.gui.fxcontrol.FileChooserPane;
 import com.kaylerrenslow.armaDialogCreator.gui.main.ADCWindow;
@@ -15,6 +16,7 @@ import com.kaylerrenslow.armaDialogCreator.util.BrowserUtil;
 import com.kaylerrenslow.armaDialogCreator.util.ReadOnlyList;
 import com.kaylerrenslow.armaDialogCreator.util.ValueListener;
 import com.kaylerrenslow.armaDialogCreator.util.ValueObserver;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
@@ -32,10 +34,11 @@ import javafx.stage.WindowEvent;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
-import java.io.FilenameFilter;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletionException;
 
 /**
  Used for setting up the initial {@link Project}. This window is shown before {@link ADCWindow}.
@@ -300,6 +303,8 @@ public class ADCProjectInitWindow extends WizardStageDialog {
 			private final ListView<ProjectInfo> lvKnownProjects = new ListView<>();
 			private final ADCProjectInitWindow projectInitWindow;
 			private LinkedList<ProjectXmlLoader.ProjectPreviewParseResult> parsedKnownProjects = new LinkedList<>();
+			/** Projects that were opened with {@link FileChooser} instead of found in the workspace */
+			private final LinkedList<ProjectXmlLoader.ProjectPreviewParseResult> openedFromFile = new LinkedList<>();
 			private ProjectXmlLoader.ProjectPreviewParseResult selectedParsedProject;
 			private ReadOnlyList<ProjectXmlLoader.ProjectPreviewParseResult> parsedKnownProjectsRo = new ReadOnlyList<>(parsedKnownProjects);
 
@@ -331,6 +336,7 @@ public class ADCProjectInitWindow extends WizardStageDialog {
 							return;
 						}
 						if (!lvKnownProjects.getItems().contains(result.getProjectInfo())) {
+							openedFromFile.add(result);
 							parsedKnownProjects.add(result);
 							lvKnownProjects.getItems().add(result.getProjectInfo());
 						}
@@ -344,6 +350,11 @@ public class ADCProjectInitWindow extends WizardStageDialog {
 				lvKnownProjects.getSelectionModel().selectedItemProperty().addListener(new ChangeListener<ProjectInfo>() {
 					@Override
 					public void changed(ObservableValue<? extends ProjectInfo> observable, ProjectInfo oldValue, ProjectInfo selected) {
+						if (selected == null) {
+							selectedParsedProject = null;
+							projectConfigSet.updateValue(false);
+							return;
+						}
 						boolean matched = false;
 						for (ProjectXmlLoader.ProjectPreviewParseResult result : parsedKnownProjects) {
 							if (result.getProjectInfo().equals(selected)) {
@@ -362,37 +373,55 @@ public class ADCProjectInitWindow extends WizardStageDialog {
 
 			private Node initKnownProjects() {
 				fetchProjects();
+				return new VBox(0, new Label(bundle.getString("detected_projects")), lvKnownProjects);
+			}
+
+			/**
+			 Show the projects in the workspace's {@link WorkspaceProjectCatalog} and then refresh the catalog in the background.
+			 The list is updated when the refresh completes. If the refresh fails, the error is reported and the list isn't changed.
+			 */
+			private void fetchProjects() {
+				WorkspaceProjectCatalog catalog = new WorkspaceProjectCatalog(new Workspace(projectInitWindow.getWorkspaceDirectory()));
+				catalog.loadIndex();
+				setKnownProjects(catalog.getPreviewParseResults());
+				catalog.refresh().thenAccept(changed -> {
+					if (changed) {
+						List<ProjectXmlLoader.ProjectPreviewParseResult> results = catalog.getPreviewParseResults();
+						Platform.runLater(() -> setKnownProjects(results));
+					}
+				}).exceptionally(t -> {
+					//the projects from the index are still shown
+					ExceptionHandler.error(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+					return null;
+				});
+			}
+
+			private void setKnownProjects(@NotNull List<ProjectXmlLoader.ProjectPreviewParseResult> results) {
+				ProjectInfo selected = lvKnownProjects.getSelectionModel().getSelectedItem();
+				LinkedList<ProjectXmlLoader.ProjectPreviewParseResult> known = new LinkedList<>(results);
+				for (ProjectXmlLoader.ProjectPreviewParseResult result : openedFromFile) {
+					if (!containsProject(known, result.getProjectInfo())) {
+						known.add(result);
+					}
+				}
+				parsedKnownProjects.clear();
+				parsedKnownProjects.addAll(known);
+				lvKnownProjects.getItems().clear();
 				for (ProjectXmlLoader.ProjectPreviewParseResult result : parsedKnownProjects) {
 					lvKnownProjects.getItems().add(result.getProjectInfo());
 				}
-				return new VBox(0, new Label(bundle.getString("detected_projects")), lvKnownProjects);
+				if (selected != null && lvKnownProjects.getItems().contains(selected)) {
+					lvKnownProjects.getSelectionModel().select(selected);
+				}
 			}
 
-			private void fetchProjects() {
-				File[] files = projectInitWindow.getWorkspaceDirectory().listFiles();
-				if (files != null) {
-					for (File f : files) {
-						if (f.isDirectory()) {
-							File[] projectFiles = f.listFiles(new FilenameFilter() {
-								@Override
-								public boolean accept(File dir, String name) {
-									return name.equals(Project.PROJECT_SAVE_FILE_NAME);
-								}
-							});
-							if (projectFiles == null) {
-								continue;
-							}
-							for (File projectFile : projectFiles) {
-								try {
-									ProjectXmlLoader.ProjectPreviewParseResult result = ProjectXmlLoader.previewParseProjectXmlFile(projectFile);
-									parsedKnownProjects.add(result);
-								} catch (XmlParseException e) {
-									continue;
-								}
-							}
-						}
+			private boolean containsProject(@NotNull List<ProjectXmlLoader.ProjectPreviewParseResult> results, @NotNull ProjectInfo info) {
+				for (ProjectXmlLoader.ProjectPreviewParseResult result : results) {
+					if (result.getProjectInfo().equals(info)) {
+						return true;
 					}
 				}
+				return false;
 			}
 
 			@Override
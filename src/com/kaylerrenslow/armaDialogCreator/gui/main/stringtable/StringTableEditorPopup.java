@@ -53,6 +53,8 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 	private StringTable table;
 
 	private final LinkedList<ListChangeListener<StringTableKey>> listenersToRemoveFromTable = new LinkedList<>();
+	/** Index of the keys in the edit tab. Disposed with {@link #clearListeners()}. */
+	private StringTableSearchIndex searchIndex;
 	private final ResourceBundle bundle = Lang.getBundle("StringTableBundle");
 
 	public StringTableEditorPopup(@NotNull StringTable table, @NotNull StringTableWriter writer, @NotNull StringTableParser parser) {
@@ -204,6 +206,10 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 			table.getKeys().removeListener(listener);
 		}
 		listenersToRemoveFromTable.clear();
+		if (searchIndex != null) {
+			searchIndex.dispose();
+			searchIndex = null;
+		}
 	}
 
 	private class StringTableEditorTabPane extends TabPane {
@@ -295,6 +301,8 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 		private StringTableEditorPopup editorPopup;
 
 		private final List<StringTableKeyDescriptor> allItems = new LinkedList<>();
+		/** Key to its descriptor in {@link #allItems}. Keys are compared by identity since their equals compares ids. */
+		private final Map<StringTableKey, StringTableKeyDescriptor> descriptorsByKey = Collections.synchronizedMap(new IdentityHashMap<>());
 		private final ListView<StringTableKeyDescriptor> lvMatch = new ListView<>();
 		private final StringTableKeyEditorPane editorPane;
 
@@ -329,8 +337,14 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 			lvMatch.setPlaceholder(new Label(bundle.getString("StringTableEditorPopup.Tab.Edit.Search.no_match")));
 			lvMatch.setStyle("-fx-font-family:monospace");
 			for (StringTableKey key : table.getKeys()) {
-				addNewKey(key);
+				StringTableKeyDescriptor descriptor = new StringTableKeyDescriptor(key, editorPopup.noPackageName, editorPopup.noContainerName);
+				descriptor.setPreviewLanguage(previewLanguageObserver.getValue());
+				allItems.add(descriptor);
+				descriptorsByKey.put(key, descriptor);
 			}
+			//sort once instead of in addNewKey for every key
+			allItems.sort(comparator);
+			listViewItemList.addAll(allItems);
 
 			lvMatch.setItems(listViewItemList);
 			lvMatch.getSelectionModel().selectedItemProperty().addListener(new ChangeListener<StringTableKeyDescriptor>() {
@@ -344,7 +358,8 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 				}
 			});
 
-			SearchTextField tfSearch = new StringTableSearchField(lvMatch, allItems);
+			editorPopup.searchIndex = new StringTableSearchIndex(table.getKeys());
+			SearchTextField tfSearch = new StringTableSearchField(lvMatch, allItems, descriptorsByKey, comparator, editorPopup.searchIndex);
 
 			VBox vbRoot = new VBox(10, tfSearch, editorPane, lvMatch);
 			VBox.setVgrow(lvMatch, Priority.ALWAYS);
@@ -369,6 +384,7 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 			StringTableKeyDescriptor descriptor = new StringTableKeyDescriptor(key, editorPopup.noPackageName, editorPopup.noContainerName);
 			descriptor.setPreviewLanguage(previewLanguageObserver.getValue());
 			allItems.add(descriptor);
+			descriptorsByKey.put(key, descriptor);
 			listViewItemList.add(descriptor);
 			listViewItemList.sort(comparator);
 			allItems.sort(comparator);
@@ -377,13 +393,7 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 
 		/** Use this instead of removing from {@link ListView#getItems()} with {@link #getListView()} */
 		public void removeKey(@NotNull StringTableKey key) {
-			StringTableKeyDescriptor match = null;
-			for (StringTableKeyDescriptor descriptor : allItems) {
-				if (descriptor.getKey().equals(key)) {
-					match = descriptor;
-					break;
-				}
-			}
+			StringTableKeyDescriptor match = descriptorsByKey.get(key);
 			if (match == null) {
 				return;
 			}
@@ -392,6 +402,7 @@ public class StringTableEditorPopup extends StagePopup<VBox> {
 
 		public void removeKey(@NotNull StringTableKeyDescriptor key) {
 			allItems.remove(key);
+			descriptorsByKey.remove(key.getKey(), key);
 			listViewItemList.remove(key);
 		}
 	}
@@ -1,159 +1,110 @@
 package com.kaylerrenslow.armaDialogCreator.gui.main.stringtable;
 
-import com.kaylerrenslow.armaDialogCreator.arma.stringtable.Language;
-import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableKeyPath;
+import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableKey;
+import com.kaylerrenslow.armaDialogCreator.arma.stringtable.StringTableSearchIndex;
 import com.kaylerrenslow.armaDialogCreator.gui.fxcontrol.SearchTextField;
+import com.kaylerrenslow.armaDialogCreator.main.ADCExecutors;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.control.ListView;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
+ A search field for string table keys. Searches are done with a {@link StringTableSearchIndex} (see {@link StringTableSearchIndex#search(String)}
+ for the search syntax) on a background thread, after the text hasn't changed for {@link #SEARCH_DELAY_MILLIS}.
+ The matched descriptors are also found and sorted on that thread, so the JavaFX thread only sets the list view's items.
+
  @author Kayler
  @since 12/24/2016 */
 class StringTableSearchField extends SearchTextField {
-	public StringTableSearchField(@NotNull ListView<StringTableKeyDescriptor> lvMatch, @NotNull List<StringTableKeyDescriptor> allItems) {
+	/** Milliseconds to wait after the text changed before searching */
+	private static final long SEARCH_DELAY_MILLIS = 150;
+
+	private final ListView<StringTableKeyDescriptor> lvMatch;
+	private final List<StringTableKeyDescriptor> allItems;
+	private final Map<StringTableKey, StringTableKeyDescriptor> descriptorsByKey;
+	private final Comparator<StringTableKeyDescriptor> comparator;
+	private final StringTableSearchIndex index;
+	private ScheduledFuture<?> pendingSearch;
+	/** Incremented for every search so that results of old searches are ignored. Only used on the JavaFX thread. */
+	private long searchCount = 0;
+
+	/**
+	 @param lvMatch list view to show the matches in
+	 @param allItems all descriptors, sorted with <code>comparator</code>. Only accessed on the JavaFX thread.
+	 @param descriptorsByKey key to its descriptor in <code>allItems</code>. It is read on the search thread, so it should be
+	 synchronized.
+	 @param comparator how the matches are sorted
+	 @param index index to search
+	 */
+	public StringTableSearchField(@NotNull ListView<StringTableKeyDescriptor> lvMatch, @NotNull List<StringTableKeyDescriptor> allItems,
+								  @NotNull Map<StringTableKey, StringTableKeyDescriptor> descriptorsByKey,
+								  @NotNull Comparator<StringTableKeyDescriptor> comparator, @NotNull StringTableSearchIndex index) {
+		this.lvMatch = lvMatch;
+		this.allItems = allItems;
+		this.descriptorsByKey = descriptorsByKey;
+		this.comparator = comparator;
+		this.index = index;
 		this.textProperty().addListener(new ChangeListener<String>() {
 			@Override
 			public void changed(ObservableValue<? extends String> observable, String oldValue, String searchText) {
-				lvMatch.getItems().clear();
-				searchText = searchText.trim();
-				if (searchText.length() == 0) {
-					addAllKeys();
-				} else {
-					if (searchText.length() == 1) {
-						addAllKeys();
-						return;
-					}
-					String searchTextAfter = searchText.substring(1);
-					switch (searchText.charAt(0)) {
-						case '\'': //intentional fall through
-						case '"': { //search by text content
-							searchTextAfter = searchTextAfter.toLowerCase();
-							for (StringTableKeyDescriptor descriptor : allItems) {
-								for (Map.Entry<Language, String> entry : descriptor.getKey().getLanguageTokenMap().entrySet()) {
-									if (entry.getValue().toLowerCase().contains(searchTextAfter)) {
-										lvMatch.getItems().add(descriptor);
-										break;
-									}
-								}
-							}
-							break;
-						}
-						case '!': { //check if key does **not** have language
-							searchTextAfter = searchTextAfter.toLowerCase();
-							for (StringTableKeyDescriptor descriptor : allItems) {
-								boolean matched = false;
-								for (Language lang : descriptor.getKey().getLanguageTokenMap().keySet()) {
-									if (lang.getName().toLowerCase().contains(searchTextAfter)) {
-										matched = true;
-										break;
-									}
-								}
-								if (!matched) {
-									lvMatch.getItems().add(descriptor);
-								}
-							}
-							break;
-						}
-						case '+': { //check if key **has** a language
-							searchTextAfter = searchTextAfter.toLowerCase();
-							for (StringTableKeyDescriptor descriptor : allItems) {
-								for (Language lang : descriptor.getKey().getLanguageTokenMap().keySet()) {
-									if (lang.getName().toLowerCase().contains(searchTextAfter)) {
-										lvMatch.getItems().add(descriptor);
-										break;
-									}
-								}
-							}
-							break;
-						}
-						case '/': { //search by package name and container name
-							handleSearchSlash(searchTextAfter);
-
-							break;
-						}
-						default: {
-							searchText = searchText.toLowerCase();
-							for (StringTableKeyDescriptor descriptor : allItems) {
-								if (descriptor.getKey().getId().toLowerCase().contains(searchText)) {
-									lvMatch.getItems().add(descriptor);
-								}
-							}
-							break;
-						}
-					}
-				}
+				search(searchText);
 			}
+		});
+	}
 
-			private void handleSearchSlash(String searchTextAfter) {
-				String[] tokens;
-				if (searchTextAfter.contains("/")) {
-					searchTextAfter = searchTextAfter.replaceAll("//", "/ /");
-					tokens = searchTextAfter.split("/");
-					if (tokens.length == 0) {
-						tokens = new String[]{""};
-					}
-				} else {
-					tokens = new String[]{searchTextAfter};
-				}
-				for (int i = 0; i < tokens.length; i++) {
-					tokens[i] = tokens[i].toLowerCase().trim();
-				}
-				String searchPackageName = tokens[0];
-
-				final boolean matchNullPackage = tokens[0].equals(".");
-				final boolean ignorePackage = tokens[0].length() == 0;
-
-				LinkedList<StringTableKeyDescriptor> match = new LinkedList<>();
-				match.addAll(allItems);
-				for (int i = 1; i < tokens.length; i++) {
-					String searchContainerName = tokens[i];
-					final boolean ignoreContainer = searchContainerName.length() == 0;
-					final int containerInd = i - 1;
-					for (StringTableKeyDescriptor descriptor : allItems) {
-						final StringTableKeyPath path = descriptor.getKey().getPath();
-						if (containerInd >= path.getContainers().size()) {
-							match.remove(descriptor);
-							continue;
-						}
-						String keyContainerName = path.getContainers().get(containerInd).toLowerCase();
-						String keyPackageName = path.getPackageName().toLowerCase();
-
-						final boolean containsContainer = ignoreContainer || keyContainerName.contains(searchContainerName);
-						final boolean containsPackage = ignorePackage || keyPackageName.contains(searchPackageName);
-						if (containsContainer && containsPackage) {
-							//do nothing
-						} else {
-							match.remove(descriptor);
-						}
+	private void search(@NotNull String searchText) {
+		final long searchId = ++searchCount;
+		if (pendingSearch != null) {
+			pendingSearch.cancel(false);
+			pendingSearch = null;
+		}
+		if (searchText.trim().length() <= 1) {
+			lvMatch.getItems().setAll(allItems);
+			return;
+		}
+		pendingSearch = SearchThread.EXECUTOR.schedule(() -> {
+			Set<StringTableKey> matches = index.search(searchText);
+			List<StringTableKeyDescriptor> matched = new ArrayList<>(matches.size());
+			synchronized (descriptorsByKey) {
+				for (StringTableKey key : matches) {
+					StringTableKeyDescriptor descriptor = descriptorsByKey.get(key);
+					if (descriptor != null) {
+						matched.add(descriptor);
 					}
 				}
-				if (tokens.length == 1) {
-					for (StringTableKeyDescriptor descriptor : allItems) {
-						final StringTableKeyPath path = descriptor.getKey().getPath();
-						if (path.noPackageName() && matchNullPackage) {
-							//do nothing
-						} else if (ignorePackage || path.getPackageName().toLowerCase().contains(searchPackageName)) {
-							//do nothing
-						} else {
-							match.remove(descriptor);
-						}
-					}
-				}
-				lvMatch.getItems().addAll(match);
-
 			}
-
-			private void addAllKeys() {
-				lvMatch.getItems().addAll(allItems);
-			}
-		});
+			matched.sort(comparator);
+			Platform.runLater(() -> {
+				if (searchId != searchCount) {
+					return;
+				}
+				lvMatch.getItems().setAll(matched);
+			});
+		}, SEARCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
 	}
 
+	/** Lazily creates the thread that searches are done on */
+	private static class SearchThread {
+		private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ADC - StringTableSearchField");
+			t.setDaemon(true);
+			return t;
+		});
 
+		static {
+			ADCExecutors.registerExecutorService(EXECUTOR);
+		}
+	}
 }
@@ -3,6 +3,7 @@ package com.kaylerrenslow.armaDialogCreator.gui.preview;
 import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaControl;
 import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaDisplay;
 import com.kaylerrenslow.armaDialogCreator.util.Reference;
+import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -12,6 +13,7 @@ import org.jetbrains.annotations.Nullable;
 public class ControlFocusHandler {
 	private final ArmaDisplay armaDisplay;
 	private ArmaControl focusedControl = null;
+	private final UpdateListenerGroup<ArmaControl> focusUpdateGroup = new UpdateListenerGroup<>();
 
 	public ControlFocusHandler(@NotNull ArmaDisplay display) {
 		this.armaDisplay = display;
@@ -39,6 +41,7 @@ public class ControlFocusHandler {
 		if (control != null) {
 			setControlFocused(control, true);
 		}
+		focusUpdateGroup.update(focusedControl);
 	}
 
 	/**
@@ -66,6 +69,13 @@ public class ControlFocusHandler {
 		if (focusedControl != null) {
 			setControlFocused(focusedControl, true);
 		}
+		focusUpdateGroup.update(focusedControl);
+	}
+
+	/** @return group that is updated with the new focused control (may be null) whenever the focus changes */
+	@NotNull
+	public UpdateListenerGroup<ArmaControl> getFocusUpdateGroup() {
+		return focusUpdateGroup;
 	}
 
 	private void setControlFocused(@NotNull ArmaControl armaControl, boolean focused) {
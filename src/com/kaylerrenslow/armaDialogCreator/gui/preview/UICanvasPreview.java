@@ -10,10 +10,10 @@ import com.kaylerrenslow.armaDialogCreator.main.ArmaDialogCreator;
 import javafx.scene.input.MouseButton;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Iterator;
-
 /**
- A {@link UICanvas} instance that will paint {@link ArmaControl} instances in "preview mode"
+ A {@link UICanvas} instance that will paint {@link ArmaControl} instances in "preview mode".
+ The canvas is only painted when input arrives, the focus changes, a control changes, or an effect is animating
+ (see {@link CanvasContext#getAnimations()}).
 
  @author Kayler
  @since 06/14/2016 */
@@ -34,7 +34,7 @@ public class UICanvasPreview extends UICanvas<ArmaControl> {
 				return false;
 			}
 		};
-		this.alwaysPaint = true;
+		focusHandler.getFocusUpdateGroup().addListener((group, data) -> requestPaint());
 	}
 
 	@Override
@@ -51,6 +51,7 @@ public class UICanvasPreview extends UICanvas<ArmaControl> {
 		}
 		mousePressControl = mouseOverControl;
 		mouseOverControl.getRenderer().mousePress(mb);
+		requestPaint();
 	}
 
 	@Override
@@ -62,6 +63,7 @@ public class UICanvasPreview extends UICanvas<ArmaControl> {
 		if (mousePressControl.getRenderer().canHaveFocus()) {
 			focusHandler.setFocusedControl(mousePressControl);
 		}
+		requestPaint();
 	}
 
 	@Override
@@ -74,15 +76,14 @@ public class UICanvasPreview extends UICanvas<ArmaControl> {
 			//behindControl is in front of current mouseOverControl.
 			setMouseOver(mouseOverControl, 0, 0, false);
 		}
-		Iterator<ArmaControl> controlIter = display.iteratorForAllControls(true);
-		mouseOverControl = null;
-		while (controlIter.hasNext()) {
-			ArmaControl control = controlIter.next();
-			if (control.getRenderer().containsPoint(mousex, mousey) && control.getRenderer().isEnabled()) {
-				mouseOverControl = control;
-				setMouseOver(mouseOverControl, mousex, mousey, true);
-				break;
-			}
+		ArmaControl oldMouseOverControl = mouseOverControl;
+		mouseOverControl = controlIndex.getTopmostControlAt(mousex, mousey);
+		if (mouseOverControl != null) {
+			setMouseOver(mouseOverControl, mousex, mousey, true);
+		}
+		if (mouseOverControl != null || oldMouseOverControl != null) {
+			//hover colors and tooltips (which follow the mouse) changed
+			requestPaint();
 		}
 	}
 
@@ -0,0 +1,76 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+/**
+ Keeps track of the time based effects (blinking, color alternating, etc) that are active on a {@link UICanvas}, so that the
+ canvas only repaints on its own while something is animating.
+ <p>
+ Effects register while they are painted, with the time they need the next frame. Registrations last until the next
+ full paint of the canvas. So, an effect that stops (for example, its control lost focus) just doesn't register again.
+ This class should only be used on the JavaFX thread.
+
+ @author Kayler
+ @see CanvasContext#getAnimations()
+ @since 10/17/2026 */
+public class AnimationRegistry {
+	/** Value of {@link #getNextDeadline()} when nothing is animating */
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	private long nextDeadline = NO_DEADLINE;
+	private int effectCount = 0;
+	private long paintCount = 0;
+
+	/**
+	 Register an active effect.
+
+	 @param nextDeadlineMillis {@link System#currentTimeMillis()} of when the effect needs to be painted again
+	 */
+	public void registerEffect(long nextDeadlineMillis) {
+		effectCount++;
+		if (nextDeadlineMillis < nextDeadline) {
+			nextDeadline = nextDeadlineMillis;
+		}
+	}
+
+	/** Register an active effect that changes every frame */
+	public void registerEffect() {
+		registerEffect(System.currentTimeMillis());
+	}
+
+	/** @return true if an effect is registered */
+	public boolean isAnimating() {
+		return nextDeadline != NO_DEADLINE;
+	}
+
+	/**
+	 @param nowMillis current {@link System#currentTimeMillis()}
+	 @return true if an effect needs a frame now
+	 */
+	public boolean isFrameDue(long nowMillis) {
+		return nextDeadline <= nowMillis;
+	}
+
+	/** @return the earliest deadline of the registered effects, or {@link #NO_DEADLINE} if nothing is animating */
+	public long getNextDeadline() {
+		return nextDeadline;
+	}
+
+	/** @return number of registrations since the last {@link #clear()} */
+	public int getEffectCount() {
+		return effectCount;
+	}
+
+	/**
+	 @return number of times {@link #clear()} was invoked, which is the number of full paints of the canvas. An effect can compare
+	 it between paints to know if it was painted in the previous frame.
+	 */
+	public long getPaintCount() {
+		return paintCount;
+	}
+
+	/** Remove all registrations. Invoked by {@link UICanvas} before a full paint. */
+	public void clear() {
+		nextDeadline = NO_DEADLINE;
+		effectCount = 0;
+		paintCount++;
+	}
+}
@@ -1,5 +1,6 @@
 package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
 
+import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import org.jetbrains.annotations.NotNull;
@@ -43,6 +44,12 @@ public interface CanvasComponent extends Region {
 	 */
 	void setGhost(boolean ghost);
 	
+	/**
+	 Get the update group that is updated after the component's position or size changes
+	 (the update data is this component).
+	 */
+	@NotNull UpdateListenerGroup<CanvasComponent> getPositionUpdateGroup();
+
 	/** Sorts such that smallest render priority is rendered first and highest render priority is rendered last */
 	Comparator<CanvasComponent> RENDER_PRIORITY_COMPARATOR = new Comparator<CanvasComponent>() {
 		@Override
@@ -12,6 +12,7 @@ import java.util.function.Function;
  @since 07/04/2017 */
 public class CanvasContext {
 	private final List<Function<GraphicsContext, Void>> paintLast = new ArrayList<>();
+	private final AnimationRegistry animations = new AnimationRegistry();
 
 	/**
 	 Use this function to paint something after the initial {@link UICanvas#paint()} is invoked.
@@ -27,6 +28,12 @@ public class CanvasContext {
 		return paintLast;
 	}
 
+	/** @return the registry that time based effects register with while they are painted */
+	@NotNull
+	public AnimationRegistry getAnimations() {
+		return animations;
+	}
+
 	/**
 	 @return true if {@link CanvasControl} shouldn't paint all details.
 	 Return false if should paint all details.
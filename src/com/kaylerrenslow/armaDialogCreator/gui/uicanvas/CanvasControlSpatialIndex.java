@@ -0,0 +1,323 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import com.kaylerrenslow.armaDialogCreator.util.UpdateGroupListener;
+import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ A uniform grid over the renderer bounds of the controls in {@link CanvasDisplay#iteratorForAllControls(boolean)}.
+ Hit testing (the control under the mouse, or the controls inside the selection box) only needs to look at the
+ controls in the grid cells that the point or region touches, instead of every control in the display.
+ <br>
+ The index is kept current lazily. Adding, removing, or moving a control in the display's lists will rebuild the index
+ on the next query, and changing a renderer's position (see {@link CanvasComponent#getPositionUpdateGroup()}) will
+ re-index only that control on the next query.
+ <br>
+ The z-order of the controls is kept, so the results are the same as iterating {@link CanvasDisplay#iteratorForAllControls(boolean)}
+ backwards and testing each control.
+ <br>
+ Queries should be made on the JavaFX thread. A renderer's position may be changed on any thread, so the renderers that moved
+ are the only state that is shared between threads and they are guarded by a lock.
+
+ @author Kayler
+ @since 10/17/2026 */
+@SuppressWarnings("rawtypes") //C has the same raw bound as CanvasDisplay
+public class CanvasControlSpatialIndex<C extends CanvasControl> {
+	/** Default width and height of a grid cell, in pixels */
+	public static final int DEFAULT_CELL_SIZE = 64;
+	/** Controls that would take up more cells than this are kept in a separate list and tested on every query */
+	private static final int MAX_CELLS_PER_CONTROL = 256;
+
+	private final int cellSize;
+	private CanvasDisplay<C> display;
+
+	/** Key is from {@link #cellKey(int, int)} */
+	private final HashMap<Long, ArrayList<Entry<C>>> cells = new HashMap<>();
+	/** Controls that cover too many cells to be put into {@link #cells} */
+	private final ArrayList<Entry<C>> largeEntries = new ArrayList<>();
+	/** All indexed controls, by renderer */
+	private final IdentityHashMap<CanvasComponent, Entry<C>> entries = new IdentityHashMap<>();
+	/** Renderers whose position changed since they were last indexed. Only accessed while synchronized on this set. */
+	private final LinkedHashSet<CanvasComponent> movedRenderers = new LinkedHashSet<>();
+	private volatile boolean rebuildNeeded = true;
+
+	private final UpdateGroupListener<ControlListChange<C>> controlsChangeListener = new UpdateGroupListener<ControlListChange<C>>() {
+		@Override
+		public void update(@NotNull UpdateListenerGroup<ControlListChange<C>> group, @Nullable ControlListChange<C> data) {
+			rebuildNeeded = true;
+		}
+	};
+
+	private final UpdateGroupListener<Object> clearListener = new UpdateGroupListener<Object>() {
+		@Override
+		public void update(@NotNull UpdateListenerGroup<Object> group, @Nullable Object data) {
+			rebuildNeeded = true;
+		}
+	};
+
+	private final UpdateGroupListener<CanvasComponent> positionListener = new UpdateGroupListener<CanvasComponent>() {
+		@Override
+		public void update(@NotNull UpdateListenerGroup<CanvasComponent> group, @Nullable CanvasComponent renderer) {
+			if (renderer != null) {
+				//always queue the move. A rebuild that is in progress may have already indexed the renderer's old position
+				synchronized (movedRenderers) {
+					movedRenderers.add(renderer);
+				}
+			}
+		}
+	};
+
+	/**
+	 Create an index with {@link #DEFAULT_CELL_SIZE}
+
+	 @param display display to index
+	 */
+	public CanvasControlSpatialIndex(@NotNull CanvasDisplay<C> display) {
+		this(display, DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 @param display display to index
+	 @param cellSize width and height of a grid cell, in pixels
+	 */
+	public CanvasControlSpatialIndex(@NotNull CanvasDisplay<C> display, int cellSize) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("cellSize must be > 0");
+		}
+		this.cellSize = cellSize;
+		setDisplay(display);
+	}
+
+	/** Index a different display. The old display's controls will no longer be indexed. */
+	public void setDisplay(@NotNull CanvasDisplay<C> display) {
+		if (this.display != null) {
+			setDisplayListeners(false);
+		}
+		clearIndex();
+		this.display = display;
+		setDisplayListeners(true);
+		rebuildNeeded = true;
+	}
+
+	private void setDisplayListeners(boolean add) {
+		if (add) {
+			display.getControls().getUpdateGroup().addListener(controlsChangeListener);
+			display.getBackgroundControls().getUpdateGroup().addListener(controlsChangeListener);
+			display.getControls().getOnClear().addListener(clearListener);
+			display.getBackgroundControls().getOnClear().addListener(clearListener);
+		} else {
+			display.getControls().getUpdateGroup().removeListener(controlsChangeListener);
+			display.getBackgroundControls().getUpdateGroup().removeListener(controlsChangeListener);
+			display.getControls().getOnClear().removeListener(clearListener);
+			display.getBackgroundControls().getOnClear().removeListener(clearListener);
+		}
+	}
+
+	/**
+	 Get the top most enabled control whose renderer contains the given point
+	 (see {@link Region#containsPoint(int, int)}).
+
+	 @return the control, or null if no enabled control contains the point
+	 */
+	@Nullable
+	public C getTopmostControlAt(int x, int y) {
+		update();
+		Entry<C> top = null;
+		ArrayList<Entry<C>> cell = cells.get(cellKey(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize)));
+		if (cell != null) {
+			top = topmostAt(cell, x, y, null);
+		}
+		top = topmostAt(largeEntries, x, y, top);
+		return top == null ? null : top.control;
+	}
+
+	@Nullable
+	private Entry<C> topmostAt(@NotNull List<Entry<C>> list, int x, int y, @Nullable Entry<C> top) {
+		for (Entry<C> entry : list) {
+			if (top != null && entry.rank > top.rank) {
+				continue;
+			}
+			CanvasComponent renderer = entry.control.getRenderer();
+			if (renderer.isEnabled() && renderer.containsPoint(x, y)) {
+				top = entry;
+			}
+		}
+		return top;
+	}
+
+	/**
+	 Get all enabled controls whose renderer is inside the given region (see {@link Region#contains(Region)}).
+
+	 @return the controls, ordered from top most to bottom most
+	 */
+	@NotNull
+	public List<C> getControlsInside(@NotNull Region region) {
+		update();
+		ArrayList<Entry<C>> found = new ArrayList<>();
+		int minCellX = Math.floorDiv(region.getLeftX(), cellSize);
+		int maxCellX = Math.floorDiv(region.getRightX(), cellSize);
+		int minCellY = Math.floorDiv(region.getTopY(), cellSize);
+		int maxCellY = Math.floorDiv(region.getBottomY(), cellSize);
+		long cellCount = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+		if (cellCount > entries.size()) {
+			//cheaper to test every control
+			for (Entry<C> entry : entries.values()) {
+				addIfInside(found, entry, region);
+			}
+		} else {
+			//a control can be in many cells, so only add it when visiting its top left cell inside the region
+			for (int cx = minCellX; cx <= maxCellX; cx++) {
+				for (int cy = minCellY; cy <= maxCellY; cy++) {
+					ArrayList<Entry<C>> cell = cells.get(cellKey(cx, cy));
+					if (cell == null) {
+						continue;
+					}
+					for (Entry<C> entry : cell) {
+						if (Math.max(entry.minCellX, minCellX) == cx && Math.max(entry.minCellY, minCellY) == cy) {
+							addIfInside(found, entry, region);
+						}
+					}
+				}
+			}
+			for (Entry<C> entry : largeEntries) {
+				addIfInside(found, entry, region);
+			}
+		}
+		Collections.sort(found, (e1, e2) -> Integer.compare(e1.rank, e2.rank));
+		ArrayList<C> controls = new ArrayList<>(found.size());
+		for (Entry<C> entry : found) {
+			controls.add(entry.control);
+		}
+		return controls;
+	}
+
+	private void addIfInside(@NotNull List<Entry<C>> found, @NotNull Entry<C> entry, @NotNull Region region) {
+		CanvasComponent renderer = entry.control.getRenderer();
+		if (renderer.isEnabled() && region.contains(renderer)) {
+			found.add(entry);
+		}
+	}
+
+	/** @return number of controls in the index. The index will be brought up to date first. */
+	public int size() {
+		update();
+		return entries.size();
+	}
+
+	/** Rebuild the index if the display's controls changed and re-index the controls that moved */
+	private void update() {
+		if (rebuildNeeded) {
+			rebuild();
+			return;
+		}
+		CanvasComponent[] moved;
+		synchronized (movedRenderers) {
+			if (movedRenderers.isEmpty()) {
+				return;
+			}
+			moved = movedRenderers.toArray(new CanvasComponent[movedRenderers.size()]);
+			movedRenderers.clear();
+		}
+		for (CanvasComponent renderer : moved) {
+			Entry<C> entry = entries.get(renderer);
+			if (entry != null) {
+				unindex(entry);
+				index(entry);
+			}
+		}
+	}
+
+	private void rebuild() {
+		//cleared first so that changes made while rebuilding will cause another rebuild or re-index
+		rebuildNeeded = false;
+		clearIndex();
+		int rank = 0;
+		Iterator<C> iterator = display.iteratorForAllControls(true);
+		while (iterator.hasNext()) {
+			C control = iterator.next();
+			Entry<C> entry = new Entry<>(control, rank++);
+			if (entries.put(control.getRenderer(), entry) == null) {
+				control.getRenderer().getPositionUpdateGroup().addListener(positionListener);
+			}
+			index(entry);
+		}
+	}
+
+	private void clearIndex() {
+		for (CanvasComponent renderer : entries.keySet()) {
+			renderer.getPositionUpdateGroup().removeListener(positionListener);
+		}
+		entries.clear();
+		cells.clear();
+		largeEntries.clear();
+		synchronized (movedRenderers) {
+			movedRenderers.clear();
+		}
+	}
+
+	private void index(@NotNull Entry<C> entry) {
+		CanvasComponent renderer = entry.control.getRenderer();
+		entry.minCellX = Math.floorDiv(renderer.getLeftX(), cellSize);
+		entry.maxCellX = Math.floorDiv(renderer.getRightX(), cellSize);
+		entry.minCellY = Math.floorDiv(renderer.getTopY(), cellSize);
+		entry.maxCellY = Math.floorDiv(renderer.getBottomY(), cellSize);
+		long cellCount = (long) (entry.maxCellX - entry.minCellX + 1) * (entry.maxCellY - entry.minCellY + 1);
+		if (cellCount > MAX_CELLS_PER_CONTROL) {
+			entry.large = true;
+			largeEntries.add(entry);
+			return;
+		}
+		entry.large = false;
+		for (int cx = entry.minCellX; cx <= entry.maxCellX; cx++) {
+			for (int cy = entry.minCellY; cy <= entry.maxCellY; cy++) {
+				cells.computeIfAbsent(cellKey(cx, cy), k -> new ArrayList<>(4)).add(entry);
+			}
+		}
+	}
+
+	private void unindex(@NotNull Entry<C> entry) {
+		if (entry.large) {
+			largeEntries.remove(entry);
+			return;
+		}
+		for (int cx = entry.minCellX; cx <= entry.maxCellX; cx++) {
+			for (int cy = entry.minCellY; cy <= entry.maxCellY; cy++) {
+				long key = cellKey(cx, cy);
+				ArrayList<Entry<C>> cell = cells.get(key);
+				if (cell == null) {
+					continue;
+				}
+				cell.remove(entry);
+				if (cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+	}
+
+	private static long cellKey(int cellX, int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xffffffffL);
+	}
+
+	private static class Entry<C extends CanvasControl> {
+		final C control;
+		/** 0 is the top most control */
+		final int rank;
+		int minCellX, maxCellX, minCellY, maxCellY;
+		boolean large;
+
+		Entry(@NotNull C control, int rank) {
+			this.control = control;
+			this.rank = rank;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+/**
+ The union (bounding box) of all areas of a {@link UICanvas} that need to be repainted before the next frame.
+
+ @author Kayler
+ @since 10/17/2026 */
+class DirtyRegion {
+	private int leftX, topY, rightX, bottomY;
+	private boolean empty = true;
+
+	/** Expand the region so that it also covers the given area. */
+	public void add(int leftX, int topY, int rightX, int bottomY) {
+		if (rightX < leftX || bottomY < topY) {
+			return;
+		}
+		if (empty) {
+			this.leftX = leftX;
+			this.topY = topY;
+			this.rightX = rightX;
+			this.bottomY = bottomY;
+			empty = false;
+			return;
+		}
+		this.leftX = Math.min(this.leftX, leftX);
+		this.topY = Math.min(this.topY, topY);
+		this.rightX = Math.max(this.rightX, rightX);
+		this.bottomY = Math.max(this.bottomY, bottomY);
+	}
+
+	/** Set this region equal to the given region */
+	public void set(DirtyRegion other) {
+		this.leftX = other.leftX;
+		this.topY = other.topY;
+		this.rightX = other.rightX;
+		this.bottomY = other.bottomY;
+		this.empty = other.empty;
+	}
+
+	/** Shrink the region so that it is inside 0,0 and width,height. The region will be empty if it is outside. */
+	public void clamp(int width, int height) {
+		if (empty) {
+			return;
+		}
+		leftX = Math.max(0, leftX);
+		topY = Math.max(0, topY);
+		rightX = Math.min(width, rightX);
+		bottomY = Math.min(height, bottomY);
+		if (rightX <= leftX || bottomY <= topY) {
+			clear();
+		}
+	}
+
+	/** @return true if the given area overlaps this region (edges are inclusive) */
+	public boolean intersects(int leftX, int topY, int rightX, int bottomY) {
+		return !empty && leftX <= this.rightX && rightX >= this.leftX && topY <= this.bottomY && bottomY >= this.topY;
+	}
+
+	public void clear() {
+		empty = true;
+	}
+
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	public int getLeftX() {
+		return leftX;
+	}
+
+	public int getTopY() {
+		return topY;
+	}
+
+	public int getRightX() {
+		return rightX;
+	}
+
+	public int getBottomY() {
+		return bottomY;
+	}
+
+	public int getWidth() {
+		return empty ? 0 : rightX - leftX;
+	}
+
+	public int getHeight() {
+		return empty ? 0 : bottomY - topY;
+	}
+
+	@Override
+	public String toString() {
+		return empty ? "DirtyRegion{empty}" : "DirtyRegion{" + leftX + "," + topY + " -> " + rightX + "," + bottomY + "}";
+	}
+}
@@ -0,0 +1,112 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+/**
+ Keeps track of how long a {@link UICanvas} takes to paint its frames. Full repaints and dirty region (partial) repaints
+ are counted separately so that they can be compared. Also counts the timer pulses where nothing was painted (idle pulses).
+
+ @author Kayler
+ @since 10/17/2026 */
+public class FrameTimeMetric {
+	/** Weight of the newest frame in the moving averages */
+	private static final double AVERAGE_WEIGHT = 0.1;
+
+	private long fullFrames, partialFrames;
+	private long pulses, idlePulses;
+	private long lastFrameNanos;
+	private long maxFrameNanos;
+	private double averageFullNanos, averagePartialNanos;
+
+	/**
+	 Record a painted frame
+
+	 @param nanos time it took to paint the frame
+	 @param partial true if only a dirty region was painted, false if the whole canvas was painted
+	 */
+	public synchronized void frameFinished(long nanos, boolean partial) {
+		lastFrameNanos = nanos;
+		maxFrameNanos = Math.max(maxFrameNanos, nanos);
+		if (partial) {
+			averagePartialNanos = partialFrames == 0 ? nanos : average(averagePartialNanos, nanos);
+			partialFrames++;
+		} else {
+			averageFullNanos = fullFrames == 0 ? nanos : average(averageFullNanos, nanos);
+			fullFrames++;
+		}
+	}
+
+	/**
+	 Record a pulse of the canvas's timer
+
+	 @param painted true if a frame was painted in the pulse, false if the canvas was idle
+	 */
+	public synchronized void pulse(boolean painted) {
+		pulses++;
+		if (!painted) {
+			idlePulses++;
+		}
+	}
+
+	private static double average(double average, long nanos) {
+		return average + (nanos - average) * AVERAGE_WEIGHT;
+	}
+
+	/** @return number of frames where the whole canvas was painted */
+	public synchronized long getFullFrameCount() {
+		return fullFrames;
+	}
+
+	/** @return number of frames where only a dirty region was painted */
+	public synchronized long getPartialFrameCount() {
+		return partialFrames;
+	}
+
+	/** @return number of frames painted (full and partial) */
+	public synchronized long getFrameCount() {
+		return fullFrames + partialFrames;
+	}
+
+	/** @return number of timer pulses */
+	public synchronized long getPulseCount() {
+		return pulses;
+	}
+
+	/** @return percentage (0-100) of the timer pulses where nothing was painted, or 0 if there were no pulses */
+	public synchronized double getIdlePercentage() {
+		return pulses == 0 ? 0 : idlePulses * 100.0 / pulses;
+	}
+
+	/** @return how long the last frame took to paint, in milliseconds */
+	public synchronized double getLastFrameMillis() {
+		return lastFrameNanos / 1e6;
+	}
+
+	/** @return the longest time a frame took to paint, in milliseconds */
+	public synchronized double getMaxFrameMillis() {
+		return maxFrameNanos / 1e6;
+	}
+
+	/** @return moving average of the time it takes to paint the whole canvas, in milliseconds */
+	public synchronized double getAverageFullFrameMillis() {
+		return averageFullNanos / 1e6;
+	}
+
+	/** @return moving average of the time it takes to paint a dirty region, in milliseconds */
+	public synchronized double getAveragePartialFrameMillis() {
+		return averagePartialNanos / 1e6;
+	}
+
+	public synchronized void reset() {
+		fullFrames = partialFrames = 0;
+		pulses = idlePulses = 0;
+		lastFrameNanos = maxFrameNanos = 0;
+		averageFullNanos = averagePartialNanos = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("frames full:%d (avg %.3fms), partial:%d (avg %.3fms), last:%.3fms, max:%.3fms, idle:%.1f%%",
+				fullFrames, getAverageFullFrameMillis(), partialFrames, getAveragePartialFrameMillis(), getLastFrameMillis(), getMaxFrameMillis(),
+				getIdlePercentage()
+		);
+	}
+}
@@ -0,0 +1,215 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+
+/**
+ Merges updates (re-renders, position recalculations, etc) that are requested many times in between frames into one update
+ per frame. An update is a {@link Runnable} and an update that is already scheduled won't be scheduled again, so each
+ control should keep its update {@link Runnable}s in fields (e.g. one for rendering and one for recalculating).
+ <p>
+ Scheduled updates are run on the JavaFX thread once per {@link AnimationTimer} tick, in the order they were first scheduled.
+ The timer stops once there are no updates left, and is started again by the next {@link #schedule(Runnable)}.
+ {@link UICanvas} also runs the updates right before it paints so that the updates are painted in the same frame.
+ Updates that are scheduled while the updates are running are run on the next frame.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class FrameUpdateScheduler {
+	/** Weight of the newest drain in the moving average */
+	private static final double AVERAGE_WEIGHT = 0.1;
+
+	private static FrameUpdateScheduler instance;
+
+	/** @return the scheduler used by the renderers */
+	@NotNull
+	public static synchronized FrameUpdateScheduler getInstance() {
+		if (instance == null) {
+			instance = new FrameUpdateScheduler(true);
+		}
+		return instance;
+	}
+
+	private final boolean useTimer;
+	/** Only used on the JavaFX thread */
+	private AnimationTimer timer;
+	private boolean timerRunning = false;
+	private LinkedHashSet<Runnable> pending = new LinkedHashSet<>();
+	/** The set that is swapped with {@link #pending} when draining so that draining doesn't allocate a new set */
+	private LinkedHashSet<Runnable> draining = new LinkedHashSet<>();
+	private boolean drainingNow = false;
+
+	private long requestCount, coalescedCount, drainCount, updateCount;
+	private int maxQueueDepth;
+	private long lastDrainNanos, maxDrainNanos;
+	private double averageDrainNanos;
+
+	/**
+	 @param useTimer true if an {@link AnimationTimer} should run {@link #drain()}, false if {@link #drain()} will only be invoked
+	 manually
+	 */
+	FrameUpdateScheduler(boolean useTimer) {
+		this.useTimer = useTimer;
+	}
+
+	/**
+	 Schedule an update for the next frame. If the update is already scheduled, nothing will happen.
+	 This method can be invoked on any thread.
+
+	 @param update update to run on the JavaFX thread
+	 */
+	public void schedule(@NotNull Runnable update) {
+		boolean startTimer;
+		synchronized (this) {
+			requestCount++;
+			if (!pending.add(update)) {
+				coalescedCount++;
+				return;
+			}
+			maxQueueDepth = Math.max(maxQueueDepth, pending.size());
+			startTimer = useTimer && !timerRunning;
+			timerRunning = true;
+		}
+		if (startTimer) {
+			Platform.runLater(this::startTimer);
+		}
+	}
+
+	private void startTimer() {
+		if (timer == null) {
+			timer = new AnimationTimer() {
+				@Override
+				public void handle(long now) {
+					try {
+						drain();
+					} finally {
+						stopTimerIfIdle();
+					}
+				}
+			};
+		}
+		timer.start();
+	}
+
+	/** Stop the timer when nothing is scheduled, so that the JavaFX pulse isn't kept running for nothing */
+	private void stopTimerIfIdle() {
+		synchronized (this) {
+			if (!pending.isEmpty()) {
+				return;
+			}
+			//the next schedule starts the timer again. That happens through Platform.runLater, so after this stop
+			timerRunning = false;
+		}
+		timer.stop();
+	}
+
+	/**
+	 Run all scheduled updates now. Should only be invoked on the JavaFX thread. If this is invoked by one of the
+	 updates, nothing will happen.
+	 */
+	public void drain() {
+		LinkedHashSet<Runnable> run;
+		synchronized (this) {
+			if (drainingNow || pending.isEmpty()) {
+				return;
+			}
+			drainingNow = true;
+			run = pending;
+			pending = draining;
+			draining = run;
+		}
+		long start = System.nanoTime();
+		int count = run.size();
+		RuntimeException exception = null;
+		try {
+			for (Runnable update : run) {
+				try {
+					update.run();
+				} catch (RuntimeException e) {
+					//still run the other updates
+					if (exception == null) {
+						exception = e;
+					}
+				}
+			}
+		} finally {
+			run.clear();
+			long nanos = System.nanoTime() - start;
+			synchronized (this) {
+				drainingNow = false;
+				lastDrainNanos = nanos;
+				maxDrainNanos = Math.max(maxDrainNanos, nanos);
+				averageDrainNanos = drainCount == 0 ? nanos : averageDrainNanos + (nanos - averageDrainNanos) * AVERAGE_WEIGHT;
+				drainCount++;
+				updateCount += count;
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/** @return number of updates that are waiting for the next frame */
+	public synchronized int getQueueDepth() {
+		return pending.size();
+	}
+
+	/** @return the most updates that were waiting for a frame at once */
+	public synchronized int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/** @return number of times {@link #schedule(Runnable)} was invoked */
+	public synchronized long getRequestCount() {
+		return requestCount;
+	}
+
+	/** @return number of times {@link #schedule(Runnable)} was invoked with an update that was already scheduled */
+	public synchronized long getCoalescedCount() {
+		return coalescedCount;
+	}
+
+	/** @return number of times the updates were run */
+	public synchronized long getDrainCount() {
+		return drainCount;
+	}
+
+	/** @return number of updates that were run */
+	public synchronized long getUpdateCount() {
+		return updateCount;
+	}
+
+	/** @return how long the last drain took, in milliseconds */
+	public synchronized double getLastDrainMillis() {
+		return lastDrainNanos / 1e6;
+	}
+
+	/** @return the longest time a drain took, in milliseconds */
+	public synchronized double getMaxDrainMillis() {
+		return maxDrainNanos / 1e6;
+	}
+
+	/** @return moving average of the time a drain takes, in milliseconds */
+	public synchronized double getAverageDrainMillis() {
+		return averageDrainNanos / 1e6;
+	}
+
+	/** Reset all metrics. Scheduled updates are not removed. */
+	public synchronized void resetMetrics() {
+		requestCount = coalescedCount = drainCount = updateCount = 0;
+		maxQueueDepth = pending.size();
+		lastDrainNanos = maxDrainNanos = 0;
+		averageDrainNanos = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("updates requested:%d, coalesced:%d, run:%d in %d drains (avg %.3fms, last %.3fms, max %.3fms), queue:%d (max %d)",
+				requestCount, coalescedCount, updateCount, drainCount, getAverageDrainMillis(), getLastDrainMillis(), getMaxDrainMillis(),
+				pending.size(), maxQueueDepth
+		);
+	}
+}
@@ -0,0 +1,242 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ An offscreen cache of what a {@link CanvasComponent} paints. Instead of repeating all of the {@link GraphicsContext}
+ calls on each frame, a component that hasn't changed is painted with a single {@link GraphicsContext#drawImage}.
+ <p>
+ A component is only rasterized once it has been painted twice without being invalidated
+ (see {@link #invalidate(Object)}), so that a component that changes every frame (e.g. it is being dragged)
+ doesn't create a new image every frame. The memory used by the images is bounded by {@link #getBudgetBytes()}.
+ The least recently painted images are evicted first.
+ <p>
+ Painting must be done on the JavaFX thread. Invalidating can be done on any thread.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class RasterCache {
+	/** Default value for {@link #getBudgetBytes()} */
+	public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+	/** Max number of entries, including entries that haven't been rasterized yet */
+	private static final int MAX_ENTRIES = 4096;
+	/** Bytes per pixel of a rasterized image */
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<Object, Entry>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+			if (size() > MAX_ENTRIES) {
+				usedBytes -= eldest.getValue().bytes;
+				return true;
+			}
+			return false;
+		}
+	};
+	private long budgetBytes;
+	private long usedBytes = 0;
+	private long hits, misses, evictions;
+	private boolean enabled = true;
+
+	/** Canvas that components are rasterized on. Grows as needed. */
+	private Canvas scratchCanvas;
+	private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+
+	/** @param budgetBytes max number of bytes that the rasterized images can use */
+	public RasterCache(long budgetBytes) {
+		setBudgetBytes(budgetBytes);
+		snapshotParameters.setFill(Color.TRANSPARENT);
+	}
+
+	/**
+	 Paint the area <code>(leftX, topY, width, height)</code> with a cached image of what <code>painter</code> paints.
+	 If there is no cached image for the key and area, the painter will paint directly to <code>gc</code>
+	 (and will be rasterized on the next invocation if the key isn't invalidated before then).
+
+	 @param key the key for the image (usually the component)
+	 @param gc where to paint
+	 @param leftX left x of the area (everything the painter paints outside the area will be lost when rasterized)
+	 @param topY top y of the area
+	 @param width width of the area
+	 @param height height of the area
+	 @param painter paints what should be cached. The painter must paint the same thing until the key is invalidated.
+	 */
+	public void paint(@NotNull Object key, @NotNull GraphicsContext gc, int leftX, int topY, int width, int height,
+					  @NotNull Consumer<GraphicsContext> painter) {
+		long bytes = (long) width * height * BYTES_PER_PIXEL;
+		Entry entry;
+		WritableImage image = null;
+		synchronized (this) {
+			if (!enabled || width <= 0 || height <= 0 || bytes > budgetBytes / 4) {
+				entry = null;
+			} else {
+				entry = entries.get(key);
+				if (entry == null || !entry.isArea(leftX, topY, width, height)) {
+					if (entry != null) {
+						usedBytes -= entry.bytes;
+					}
+					entries.put(key, new Entry(leftX, topY, width, height));
+					misses++;
+					entry = null;
+				} else if (entry.image == null) {
+					misses++;
+				} else {
+					hits++;
+					image = entry.image;
+				}
+			}
+		}
+		if (entry == null) {
+			painter.accept(gc);
+			return;
+		}
+		if (image == null) {
+			//don't hold the lock while painting
+			image = rasterize(gc, leftX, topY, width, height, painter);
+			synchronized (this) {
+				//only keep the image if the key wasn't invalidated while painting
+				if (entries.get(key) == entry && entry.image == null) {
+					entry.image = image;
+					entry.bytes = bytes;
+					usedBytes += bytes;
+					evictToBudget(entry);
+				}
+			}
+		}
+		gc.drawImage(image, leftX, topY);
+	}
+
+	/**
+	 Paint with <code>painter</code> onto a scratch canvas and take a snapshot of the area. This is package-private
+	 so that tests can replace the snapshot, which needs a running JavaFX toolkit.
+	 */
+	@NotNull
+	WritableImage rasterize(@NotNull GraphicsContext gc, int leftX, int topY, int width, int height, @NotNull Consumer<GraphicsContext> painter) {
+		if (scratchCanvas == null || scratchCanvas.getWidth() < width || scratchCanvas.getHeight() < height) {
+			double w = scratchCanvas == null ? width : Math.max(width, scratchCanvas.getWidth());
+			double h = scratchCanvas == null ? height : Math.max(height, scratchCanvas.getHeight());
+			scratchCanvas = new Canvas(w, h);
+		}
+		GraphicsContext sgc = scratchCanvas.getGraphicsContext2D();
+		sgc.clearRect(0, 0, width, height);
+		sgc.save();
+		sgc.beginPath();
+		sgc.rect(0, 0, width, height);
+		sgc.clip();
+		//the painter expects the same state the canvas would have
+		sgc.setFont(gc.getFont());
+		sgc.setTextBaseline(gc.getTextBaseline());
+		sgc.setTextAlign(gc.getTextAlign());
+		sgc.setFill(gc.getFill());
+		sgc.setStroke(gc.getStroke());
+		sgc.setLineWidth(gc.getLineWidth());
+		sgc.translate(-leftX, -topY);
+		painter.accept(sgc);
+		sgc.restore();
+
+		snapshotParameters.setViewport(new Rectangle2D(0, 0, width, height));
+		return scratchCanvas.snapshot(snapshotParameters, new WritableImage(width, height));
+	}
+
+	private void evictToBudget(@Nullable Entry keep) {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (usedBytes > budgetBytes && iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry == keep || entry.image == null) {
+				continue;
+			}
+			usedBytes -= entry.bytes;
+			iterator.remove();
+			evictions++;
+		}
+	}
+
+	/** Remove the cached image for the given key. This should be invoked whenever the key's painting would change. */
+	public synchronized void invalidate(@NotNull Object key) {
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			usedBytes -= entry.bytes;
+		}
+	}
+
+	/** Remove all cached images */
+	public synchronized void clear() {
+		entries.clear();
+		usedBytes = 0;
+	}
+
+	/** Set the max number of bytes the cached images can use. Least recently used images will be removed if needed. */
+	public synchronized void setBudgetBytes(long budgetBytes) {
+		if (budgetBytes < 0) {
+			throw new IllegalArgumentException("budgetBytes must be >= 0");
+		}
+		this.budgetBytes = budgetBytes;
+		evictToBudget(null);
+	}
+
+	/** @see #setBudgetBytes(long) */
+	public synchronized long getBudgetBytes() {
+		return budgetBytes;
+	}
+
+	/** @return number of bytes the cached images are using */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	/** Set whether the cache is used. If false, {@link #paint(Object, GraphicsContext, int, int, int, int, Consumer)} will always paint directly. */
+	public synchronized void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			clear();
+		}
+	}
+
+	public synchronized boolean isEnabled() {
+		return enabled;
+	}
+
+	/** @return number of paints that used a cached image */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/** @return number of paints that didn't use a cached image */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/** @return number of images removed to stay within the budget */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	private static class Entry {
+		final int leftX, topY, width, height;
+		WritableImage image;
+		long bytes = 0;
+
+		Entry(int leftX, int topY, int width, int height) {
+			this.leftX = leftX;
+			this.topY = topY;
+			this.width = width;
+			this.height = height;
+		}
+
+		boolean isArea(int leftX, int topY, int width, int height) {
+			return this.leftX == leftX && this.topY == topY && this.width == width && this.height == height;
+		}
+	}
+}
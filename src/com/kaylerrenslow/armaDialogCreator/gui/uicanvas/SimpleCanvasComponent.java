@@ -1,6 +1,7 @@
 package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
 
 
+import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import org.jetbrains.annotations.NotNull;
@@ -30,6 +31,8 @@ public class SimpleCanvasComponent implements CanvasComponent {
 	private boolean isVisible = true;
 
 	private int renderPriority = 0;
+	/** Created eagerly since the position may be changed, and the group fetched, on any thread */
+	private final UpdateListenerGroup<CanvasComponent> positionUpdateGroup = new UpdateListenerGroup<>();
 
 	public SimpleCanvasComponent(int x, int y, int width, int height) {
 		this.x1 = x;
@@ -114,6 +117,17 @@ public class SimpleCanvasComponent implements CanvasComponent {
 	}
 
 
+	@NotNull
+	@Override
+	public UpdateListenerGroup<CanvasComponent> getPositionUpdateGroup() {
+		return positionUpdateGroup;
+	}
+
+	/** Updates {@link #getPositionUpdateGroup()}. Invoked after any of the position setters change the position. */
+	protected void positionChanged() {
+		positionUpdateGroup.update(this);
+	}
+
 	@Override
 	public int getLeftX() {
 		return Math.min(x1, x2);
@@ -182,6 +196,7 @@ public class SimpleCanvasComponent implements CanvasComponent {
 		this.y1 = y1;
 		this.x2 = x2;
 		this.y2 = y2;
+		positionChanged();
 	}
 
 	/**
@@ -198,26 +213,31 @@ public class SimpleCanvasComponent implements CanvasComponent {
 		this.y1 = y1;
 		this.x2 = x1 + width;
 		this.y2 = y1 + height;
+		positionChanged();
 	}
 
 	@Override
 	public void setX1(int x1) {
 		this.x1 = x1;
+		positionChanged();
 	}
 
 	@Override
 	public void setY1(int y1) {
 		this.y1 = y1;
+		positionChanged();
 	}
 
 	@Override
 	public void setX2(int x2) {
 		this.x2 = x2;
+		positionChanged();
 	}
 
 	@Override
 	public void setY2(int y2) {
 		this.y2 = y2;
+		positionChanged();
 	}
 
 	@Override
@@ -245,6 +265,7 @@ public class SimpleCanvasComponent implements CanvasComponent {
 		this.y1 += dy;
 		this.x2 += dx;
 		this.y2 += dy;
+		positionChanged();
 	}
 
 	@Override
@@ -253,5 +274,6 @@ public class SimpleCanvasComponent implements CanvasComponent {
 		this.x2 = getRightX() + dxr;
 		this.y1 = getTopY() + dyt;
 		this.y2 = getBottomY() + dyb;
+		positionChanged();
 	}
 }
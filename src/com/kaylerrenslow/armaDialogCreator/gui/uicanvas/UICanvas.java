@@ -22,6 +22,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.function.Function;
 
@@ -42,6 +43,8 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 	protected final Resolution resolution;
 
 	protected @NotNull CanvasDisplay<C> display;
+	/** Spatial index over {@link #display}'s controls. Use this for hit testing instead of iterating all controls. */
+	protected final CanvasControlSpatialIndex<C> controlIndex;
 
 	/** Background image of the canvas */
 	protected ImagePattern backgroundImage = null;
@@ -57,16 +60,39 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 	/** All components added */
 	protected final ObservableList<CanvasComponent> components = FXCollections.observableArrayList(new ArrayList<>());
 
+	/**
+	 Extra pixels around a control's bounds that are repainted with the control.
+	 Borders, selection shadows, etc. are painted outside of the control's bounds.
+	 */
+	protected static final int DIRTY_REGION_PADDING = 20;
+
 	private volatile boolean needPaint = false;
 	/** A synchronization lock for {@link #needPaint} to help prevent data races */
 	private final Object needPaintLock = new Object();
-	/** Set to true if {@link #requestPaint()} is not necessary and will always paint when {@link #timer} wants to */
+	/**
+	 Set to true if {@link #requestPaint()} is not necessary and will always paint when {@link #timer} wants to.
+	 Animations don't need this since the canvas also paints while {@link CanvasContext#getAnimations()} has a due effect.
+	 */
 	protected boolean alwaysPaint = false;
-
-	private final UpdateGroupListener renderUpdateGroupListener = (group, data) -> {
+	/** True if the next paint must paint the whole canvas. Guarded by {@link #needPaintLock} */
+	private boolean needFullPaint = true;
+	/** Area to paint on the next paint when {@link #needFullPaint} is false. Guarded by {@link #needPaintLock} */
+	private final DirtyRegion dirtyRegion = new DirtyRegion();
+	/** Area being painted in the current partial paint. Empty if the whole canvas is being painted. */
+	private final DirtyRegion paintClip = new DirtyRegion();
+	/** Bounds of each top level control's renderer when it was last painted (left, top, right, bottom). Only used on the JavaFX thread. */
+	private final IdentityHashMap<CanvasComponent, int[]> paintedBounds = new IdentityHashMap<>();
+	private boolean dirtyRegionPaintEnabled = true;
+	private final FrameTimeMetric frameTimeMetric = new FrameTimeMetric();
+
+	private final UpdateGroupListener<ControlListChange<C>> renderUpdateGroupListener = (group, data) -> {
 		requestPaint();
 	};
 
+	private final UpdateGroupListener<C> reRenderUpdateGroupListener = (group, data) -> {
+		requestPaint(data);
+	};
+
 	public UICanvas(@NotNull Resolution resolution, @NotNull CanvasDisplay<C> display) {
 		this.resolution = resolution;
 		resolution.getUpdateGroup().addListener(new UpdateGroupListener<Resolution>() {
@@ -95,6 +121,7 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 
 		//do this last
 		this.display = display;
+		this.controlIndex = new CanvasControlSpatialIndex<>(display);
 		setDisplayListeners(true);
 
 		timer = new CanvasAnimationTimer();
@@ -122,6 +149,7 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 	public void setDisplay(@NotNull CanvasDisplay<C> display) {
 		setDisplayListeners(false);
 		this.display = display;
+		controlIndex.setDisplay(display);
 		setDisplayListeners(true);
 		requestPaint();
 	}
@@ -131,11 +159,11 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 		if (add) {
 			this.display.getControls().getUpdateGroup().addListener(renderUpdateGroupListener);
 			this.display.getBackgroundControls().getUpdateGroup().addListener(renderUpdateGroupListener);
-			this.display.getReRenderUpdateGroup().addListener(renderUpdateGroupListener);
+			this.display.getReRenderUpdateGroup().addListener(reRenderUpdateGroupListener);
 		} else {
 			this.display.getControls().getUpdateGroup().removeListener(renderUpdateGroupListener);
 			this.display.getBackgroundControls().getUpdateGroup().removeListener(renderUpdateGroupListener);
-			this.display.getReRenderUpdateGroup().removeListener(renderUpdateGroupListener);
+			this.display.getReRenderUpdateGroup().removeListener(reRenderUpdateGroupListener);
 		}
 	}
 
@@ -185,19 +213,121 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 	public void requestPaint() {
 		synchronized (needPaintLock) {
 			needPaint = true;
+			needFullPaint = true;
+		}
+	}
+
+	/**
+	 Request a repaint of only the area where the given control was last painted and where it is now.
+	 If the control isn't a top level control of {@link #display}, or the control was never painted, the whole canvas will be repainted.
+	 <p>
+	 This method should only be invoked on the JavaFX thread.
+
+	 @param control control that changed, or null to repaint the whole canvas
+	 */
+	public void requestPaint(@Nullable CanvasControl<?> control) {
+		if (control == null || control.getHolder() != display) {
+			requestPaint();
+			return;
+		}
+		CanvasComponent renderer = control.getRenderer();
+		int[] old = paintedBounds.get(renderer);
+		if (old == null) {
+			requestPaint();
+			return;
+		}
+		int padding = DIRTY_REGION_PADDING + (renderer.getBorder() != null ? renderer.getBorder().getThickness() : 0);
+		synchronized (needPaintLock) {
+			needPaint = true;
+			if (needFullPaint) {
+				return;
+			}
+			dirtyRegion.add(old[0] - padding, old[1] - padding, old[2] + padding, old[3] + padding);
+			dirtyRegion.add(renderer.getLeftX() - padding, renderer.getTopY() - padding, renderer.getRightX() + padding, renderer.getBottomY() + padding);
+		}
+	}
+
+	/**
+	 Request a repaint of only the given area of the canvas.
+	 The paint operation won't happen until {@link #getTimer()} discovers the paint request.
+	 <p>
+	 This method can be used across multiple threads.
+	 */
+	public void requestPaint(int leftX, int topY, int rightX, int bottomY) {
+		synchronized (needPaintLock) {
+			needPaint = true;
+			if (!needFullPaint) {
+				dirtyRegion.add(leftX, topY, rightX, bottomY);
+			}
 		}
 	}
 
+	/**
+	 Set whether or not {@link #requestPaint(CanvasControl)} and {@link #requestPaint(int, int, int, int)} may paint only
+	 the dirty area of the canvas. If false, the whole canvas is always painted. This is useful for comparing {@link #getFrameTimeMetric()}.
+	 */
+	public void setDirtyRegionPaintEnabled(boolean enabled) {
+		this.dirtyRegionPaintEnabled = enabled;
+		requestPaint();
+	}
+
+	/** @see #setDirtyRegionPaintEnabled(boolean) */
+	public boolean isDirtyRegionPaintEnabled() {
+		return dirtyRegionPaintEnabled;
+	}
+
+	/** @return the paint times of this canvas */
+	@NotNull
+	public FrameTimeMetric getFrameTimeMetric() {
+		return frameTimeMetric;
+	}
+
+	/**
+	 Paint the canvas with {@link #paint()}. If <code>clip</code> is empty, the whole canvas is painted.
+	 Otherwise, only the area inside the clip is painted and controls that are outside the clip are skipped.
+
+	 @return true if something was painted
+	 */
+	private boolean paintFrame(@NotNull DirtyRegion clip) {
+		long start = System.nanoTime();
+		boolean partial = !clip.isEmpty();
+		if (partial) {
+			clip.clamp(getCanvasWidth(), getCanvasHeight());
+			if (clip.isEmpty()) {
+				//nothing visible changed
+				return false;
+			}
+		} else {
+			//the animating effects register again when they are painted
+			canvasContext.getAnimations().clear();
+		}
+		paintClip.set(clip);
+		if (partial) {
+			gc.save();
+			gc.beginPath();
+			gc.rect(paintClip.getLeftX(), paintClip.getTopY(), paintClip.getWidth(), paintClip.getHeight());
+			gc.clip();
+			paint();
+			gc.restore();
+		} else {
+			paintedBounds.clear();
+			paint();
+		}
+		paintClip.clear();
+		frameTimeMetric.frameFinished(System.nanoTime() - start, partial);
+		return true;
+	}
+
 	/**
 	 Paints all controls inside the display set {@link #display}.
 	 Each component will get an individual render space (GraphicsContext attributes will not bleed through each component).
 	 The background controls are painted first, then controls are painted
 	 */
 	protected void paintControls() {
-		for (CanvasControl control : display.getBackgroundControls()) {
+		for (C control : display.getBackgroundControls()) {
 			paintControl(control);
 		}
-		for (CanvasControl control : display.getControls()) {
+		for (C control : display.getControls()) {
 			paintControl(control);
 		}
 	}
@@ -225,6 +355,14 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 	}
 
 	protected void paintControl(CanvasControl control) {
+		CanvasComponent renderer = control.getRenderer();
+		if (!paintClip.isEmpty()) {
+			int padding = DIRTY_REGION_PADDING + (renderer.getBorder() != null ? renderer.getBorder().getThickness() : 0);
+			if (!paintClip.intersects(renderer.getLeftX() - padding, renderer.getTopY() - padding, renderer.getRightX() + padding, renderer.getBottomY() + padding)) {
+				return;
+			}
+		}
+		paintedBounds.put(renderer, new int[]{renderer.getLeftX(), renderer.getTopY(), renderer.getRightX(), renderer.getBottomY()});
 		gc.save();
 		paintComponent(control.getRenderer());
 		gc.restore();
@@ -409,22 +547,39 @@ public abstract class UICanvas<C extends CanvasControl> extends AnchorPane {
 
 		private final List<Runnable> runnables = new ArrayList<>();
 
+		/** Area to paint for the current frame. Empty when the whole canvas is painted. */
+		private final DirtyRegion frameRegion = new DirtyRegion();
+
 		@Override
 		public void handle(long now) {
+			//run the scheduled updates first so that they are painted in this frame
+			FrameUpdateScheduler.getInstance().drain();
 			for (Runnable r : runnables) {
 				r.run();
 			}
+			boolean painted = false;
 			if (!alwaysPaint) {
+				//an effect could be anywhere, so animation frames paint the whole canvas
+				boolean animationFrame = canvasContext.getAnimations().isFrameDue(System.currentTimeMillis());
 				synchronized (needPaintLock) {
 					//synchronize to prevent data race
-					if (needPaint) {
+					if (needPaint || animationFrame) {
 						needPaint = false;
-						paint();
+						if (animationFrame || needFullPaint || !dirtyRegionPaintEnabled || dirtyRegion.isEmpty()) {
+							frameRegion.clear();
+						} else {
+							frameRegion.set(dirtyRegion);
+						}
+						needFullPaint = false;
+						dirtyRegion.clear();
+						painted = paintFrame(frameRegion);
 					}
 				}
 			} else {
-				paint();
+				frameRegion.clear();
+				painted = paintFrame(frameRegion);
 			}
+			frameTimeMetric.pulse(painted);
 		}
 
 		/** @return a list of runnables to run on each timer update */
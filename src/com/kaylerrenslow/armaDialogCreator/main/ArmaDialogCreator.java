@@ -1,5 +1,6 @@
 package com.kaylerrenslow.armaDialogCreator.main;
 
+import com.kaylerrenslow.armaDialogCreator.arma.control.ArmaControlRenderer;
 import com.kaylerrenslow.armaDialogCreator.data.*;
 import com.kaylerrenslow.armaDialogCreator.data.xml.ProjectXmlLoader;
 import com.kaylerrenslow.armaDialogCreator.gui.img.ADCImages;
@@ -9,6 +10,7 @@ import com.kaylerrenslow.armaDialogCreator.gui.main.CanvasView;
 import com.kaylerrenslow.armaDialogCreator.gui.main.CanvasViewColors;
 import com.kaylerrenslow.armaDialogCreator.gui.main.popup.projectInit.CouldNotLoadProjectDialog;
 import com.kaylerrenslow.armaDialogCreator.gui.main.popup.projectInit.ProjectImproperResultDialog;
+import com.kaylerrenslow.armaDialogCreator.gui.uicanvas.RasterCache;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.application.Preloader;
@@ -131,6 +133,7 @@ public final class ArmaDialogCreator extends Application {
 		mainWindow = new ADCWindow(primaryStage);
 
 		setToDarkTheme(ApplicationProperty.DARK_THEME.get(ArmaDialogCreator.getApplicationDataManager().getApplicationProperties()));
+		applyRasterCacheBudget();
 
 		loadNewProject(false);
 	}
@@ -332,6 +335,17 @@ public final class ArmaDialogCreator extends Application {
 		getApplicationDataManager().saveApplicationProperties();
 	}
 
+	/** Set the canvas raster cache budget to {@link ApplicationProperty#RASTER_CACHE_BUDGET_MB} */
+	private static void applyRasterCacheBudget() {
+		Integer budgetMb = ApplicationProperty.RASTER_CACHE_BUDGET_MB.get(ApplicationDataManager.getApplicationProperties());
+		if (budgetMb == null || budgetMb < 0) {
+			budgetMb = ApplicationProperty.RASTER_CACHE_BUDGET_MB.getDefaultValue();
+		}
+		RasterCache rasterCache = ArmaControlRenderer.getRasterCache();
+		rasterCache.setBudgetBytes(budgetMb * 1024L * 1024L);
+		rasterCache.setEnabled(budgetMb > 0);
+	}
+
 	@NotNull
 	public static ApplicationDataManager getApplicationDataManager() {
 		return INSTANCE.applicationDataManager;
@@ -0,0 +1,361 @@
+package com.kaylerrenslow.armaDialogCreator.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ An array backed, copy-on-write list of listeners. Used by {@link UpdateListenerGroup} and {@link ValueObserver}.
+ <p>
+ {@link #notifyListeners(Object, Object, Notifier)} iterates the array without an iterator. If a listener is added or removed
+ while notifying, the array is copied first so that the array that is being iterated never changes. When not notifying,
+ the array is changed in place (like an {@link java.util.ArrayList}).
+ A listener that is added while notifying won't be notified until the next {@link #notifyListeners(Object, Object, Notifier)}
+ and a listener that is removed while notifying won't be notified after it was removed.
+ Like the lists the listeners used to be kept in, listeners are compared with {@link Object#equals(Object)}: adding a listener
+ that is equal to one that was already added does nothing, and removing a listener removes the one that is equal to it.
+ Most lists only have a few listeners, so the array is searched. Only when there are more than {@link #SET_THRESHOLD} listeners
+ is a set created for the check, so listeners that override equals must also override {@link Object#hashCode()}.
+ <p>
+ Expired listeners (see the <code>expired</code> predicate given to {@link #ListenerList(Predicate)}) are skipped while notifying
+ and are all removed at once after notifying is done.
+ <p>
+ For profiling, {@link #getDispatchCount()} is always counted. When {@link #setProfilingEnabled(boolean)} is set to true,
+ the time spent inside each listener is also recorded and can be retrieved with {@link #getListenerTime(Object)}.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class ListenerList<L> {
+
+	/**
+	 Used for notifying a listener. Implementations should be non-capturing (e.g. a static final field or a lambda that
+	 doesn't use any local variables) so that notifying doesn't allocate anything.
+
+	 @param <L> listener type
+	 @param <S> source type (e.g. the {@link ValueObserver})
+	 @param <D> data type
+	 */
+	public interface Notifier<L, S, D> {
+		void notify(@NotNull L listener, @NotNull S source, @Nullable D data);
+	}
+
+	/**
+	 Same as {@link Notifier}, but with 2 data arguments (for example, the old and new value)
+
+	 @param <L> listener type
+	 @param <S> source type
+	 @param <D> type of the first data
+	 @param <E> type of the second data
+	 */
+	public interface Notifier2<L, S, D, E> {
+		void notify(@NotNull L listener, @NotNull S source, @Nullable D data, @Nullable E data2);
+	}
+
+	/** Number of listeners above which {@link #listenerSet} is used for finding a listener */
+	static final int SET_THRESHOLD = 8;
+
+	private static final Object[] EMPTY = new Object[0];
+	/** Runs the {@link Notifier} that is passed as the second data. Doesn't capture anything. */
+	private static final Notifier2<Object, Object, Object, Notifier<Object, Object, Object>> NOTIFIER_ADAPTER =
+			(listener, source, data, notifier) -> notifier.notify(listener, source, data);
+	private static volatile boolean profilingEnabled = false;
+
+	private Object[] listeners = EMPTY;
+	private int size = 0;
+	/** Number of {@link #notifyListeners(Object, Object, Notifier)} invocations that are in progress */
+	private int notifying = 0;
+	/** True if {@link #listeners} was copied after the last notify started, meaning it isn't being iterated */
+	private boolean copied = false;
+	/** The listeners, when there are more than {@link #SET_THRESHOLD}. Otherwise null, and {@link #listeners} is searched instead. */
+	private Set<L> listenerSet;
+	/** Incremented when a listener is removed. Used for checking if a listener was removed while notifying. */
+	private volatile int removeCount = 0;
+	private final Predicate<L> expired;
+
+	private long dispatchCount = 0;
+	private Map<L, long[]> listenerTimes;
+
+	/**
+	 Create a list
+
+	 @param expired used for checking if a listener has expired, or null if listeners never expire
+	 */
+	public ListenerList(@Nullable Predicate<L> expired) {
+		this.expired = expired;
+	}
+
+	/** Create a list where listeners never expire */
+	public ListenerList() {
+		this(null);
+	}
+
+	/**
+	 Add a listener. If the listener was already added, nothing will happen.
+
+	 @return true if the listener was added, false if it was already added
+	 */
+	public synchronized boolean add(@NotNull L listener) {
+		if (listenerSet != null) {
+			if (!listenerSet.add(listener)) {
+				return false;
+			}
+		} else if (indexOf(listener) >= 0) {
+			return false;
+		}
+		prepareWrite(size + 1);
+		listeners[size++] = listener;
+		if (listenerSet == null && size > SET_THRESHOLD) {
+			createListenerSet();
+		}
+		return true;
+	}
+
+	/** @return true if the listener was removed, false if it wasn't in this list */
+	public synchronized boolean remove(@NotNull L listener) {
+		if (listenerSet != null && !listenerSet.remove(listener)) {
+			return false;
+		}
+		int ind = indexOf(listener);
+		if (ind < 0) {
+			return false;
+		}
+		prepareWrite(size);
+		if (listenerTimes != null) {
+			listenerTimes.remove(listeners[ind]);
+		}
+		System.arraycopy(listeners, ind + 1, listeners, ind, size - ind - 1);
+		listeners[--size] = null;
+		removeCount++;
+		if (size <= SET_THRESHOLD / 2) {
+			listenerSet = null;
+		}
+		return true;
+	}
+
+	/** @return true if the given listener is in this list */
+	public synchronized boolean contains(@NotNull L listener) {
+		return listenerSet != null ? listenerSet.contains(listener) : indexOf(listener) >= 0;
+	}
+
+	/** @return index in {@link #listeners} of the listener equal to the given one, or -1 if there isn't one */
+	private int indexOf(@NotNull L listener) {
+		for (int i = 0; i < size; i++) {
+			if (listener.equals(listeners[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void createListenerSet() {
+		listenerSet = new HashSet<>(size * 2);
+		for (int i = 0; i < size; i++) {
+			listenerSet.add((L) listeners[i]);
+		}
+	}
+
+	/** Remove all listeners */
+	public synchronized void clear() {
+		if (size == 0) {
+			return;
+		}
+		listeners = EMPTY;
+		size = 0;
+		listenerSet = null;
+		removeCount++;
+		if (listenerTimes != null) {
+			listenerTimes.clear();
+		}
+	}
+
+	/** @return number of listeners */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 Make sure {@link #listeners} can be changed in place and has room for <code>capacity</code> listeners.
+	 If a notify is in progress and the array hasn't been copied since it started, the array is copied.
+	 */
+	private void prepareWrite(int capacity) {
+		boolean mustCopy = notifying > 0 && !copied;
+		if (!mustCopy && listeners.length >= capacity) {
+			return;
+		}
+		int newLength = Math.max(capacity, listeners.length < capacity ? Math.max(4, listeners.length * 2) : listeners.length);
+		Object[] newArray = new Object[newLength];
+		System.arraycopy(listeners, 0, newArray, 0, size);
+		listeners = newArray;
+		copied = notifying > 0;
+	}
+
+	/**
+	 Notify all listeners that haven't expired with the given notifier.
+
+	 @param source passed to the notifier
+	 @param data passed to the notifier
+	 @param notifier used for notifying each listener
+	 */
+	@SuppressWarnings("unchecked")
+	public <S, D> void notifyListeners(@NotNull S source, @Nullable D data, @NotNull Notifier<L, S, D> notifier) {
+		notifyListeners(source, data, (Notifier<Object, Object, Object>) notifier, (Notifier2<L, S, D, Notifier<Object, Object, Object>>) (Object) NOTIFIER_ADAPTER);
+	}
+
+	/**
+	 Same as {@link #notifyListeners(Object, Object, Notifier)}, but with 2 data arguments
+
+	 @param source passed to the notifier
+	 @param data passed to the notifier
+	 @param data2 passed to the notifier
+	 @param notifier used for notifying each listener
+	 */
+	@SuppressWarnings("unchecked")
+	public <S, D, E> void notifyListeners(@NotNull S source, @Nullable D data, @Nullable E data2, @NotNull Notifier2<L, S, D, E> notifier) {
+		final Object[] array;
+		final int arraySize;
+		final int removeCountBefore;
+		synchronized (this) {
+			array = listeners;
+			arraySize = size;
+			removeCountBefore = removeCount;
+			notifying++;
+			copied = false;
+			dispatchCount++;
+		}
+		final boolean profile = profilingEnabled;
+		boolean foundExpired = false;
+
+		try {
+			for (int i = 0; i < arraySize; i++) {
+				L listener = (L) array[i];
+				if (expired != null && expired.test(listener)) {
+					foundExpired = true;
+					continue;
+				}
+				if (removeCount != removeCountBefore && !contains(listener)) {
+					//removed while notifying
+					continue;
+				}
+				if (profile) {
+					long start = System.nanoTime();
+					notifier.notify(listener, source, data, data2);
+					addListenerTime(listener, System.nanoTime() - start);
+				} else {
+					notifier.notify(listener, source, data, data2);
+				}
+			}
+		} finally {
+			synchronized (this) {
+				notifying--;
+			}
+		}
+
+		if (foundExpired) {
+			removeExpired();
+		}
+	}
+
+	/** Remove all expired listeners at once */
+	@SuppressWarnings("unchecked")
+	private synchronized void removeExpired() {
+		prepareWrite(size);
+		int newSize = 0;
+		for (int i = 0; i < size; i++) {
+			L listener = (L) listeners[i];
+			if (expired.test(listener)) {
+				if (listenerSet != null) {
+					listenerSet.remove(listener);
+				}
+				if (listenerTimes != null) {
+					listenerTimes.remove(listener);
+				}
+				continue;
+			}
+			listeners[newSize++] = listener;
+		}
+		if (newSize == size) {
+			return;
+		}
+		for (int i = newSize; i < size; i++) {
+			listeners[i] = null;
+		}
+		size = newSize;
+		removeCount++;
+		if (size <= SET_THRESHOLD / 2) {
+			listenerSet = null;
+		}
+	}
+
+	private synchronized void addListenerTime(@NotNull L listener, long nanos) {
+		if (!contains(listener)) {
+			//removed itself while being notified
+			return;
+		}
+		if (listenerTimes == null) {
+			listenerTimes = new IdentityHashMap<>();
+		}
+		long[] time = listenerTimes.get(listener);
+		if (time == null) {
+			time = new long[2];
+			listenerTimes.put(listener, time);
+		}
+		time[0] += nanos;
+		time[1]++;
+	}
+
+	/** @return number of times {@link #notifyListeners(Object, Object, Notifier)} was invoked */
+	public long getDispatchCount() {
+		return dispatchCount;
+	}
+
+	/**
+	 Get the total time spent inside the given listener while {@link #isProfilingEnabled()} was true.
+
+	 @return time in nanoseconds, or 0 if the listener was never timed
+	 */
+	public synchronized long getListenerTime(@NotNull L listener) {
+		if (listenerTimes == null) {
+			return 0;
+		}
+		long[] time = listenerTimes.get(listener);
+		return time == null ? 0 : time[0];
+	}
+
+	/**
+	 Get the number of times the given listener was notified while {@link #isProfilingEnabled()} was true.
+
+	 @return number of notifications, or 0 if the listener was never timed
+	 */
+	public synchronized long getListenerNotifyCount(@NotNull L listener) {
+		if (listenerTimes == null) {
+			return 0;
+		}
+		long[] time = listenerTimes.get(listener);
+		return time == null ? 0 : time[1];
+	}
+
+	/** Reset {@link #getDispatchCount()} and all listener times */
+	public synchronized void resetCounters() {
+		dispatchCount = 0;
+		listenerTimes = null;
+	}
+
+	/**
+	 Set whether or not the time spent inside each listener should be recorded for all {@link ListenerList} instances.
+	 This is off by default since {@link System#nanoTime()} is invoked twice for every listener.
+	 */
+	public static void setProfilingEnabled(boolean enabled) {
+		profilingEnabled = enabled;
+	}
+
+	/** @see #setProfilingEnabled(boolean) */
+	public static boolean isProfilingEnabled() {
+		return profilingEnabled;
+	}
+}
@@ -2,35 +2,38 @@ package com.kaylerrenslow.armaDialogCreator.util;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.LinkedList;
-
 /**
  A wrapper class for a {@link ValueObserver} instance that provides read-only functionality
 
  @author Kayler
  @since 09/16/2016. */
 public class ReadOnlyValueObserver<V> {
+	private static final ListenerList.Notifier2<ReadOnlyValueListener<Object>, ReadOnlyValueObserver<Object>, Object, Object> NOTIFIER =
+			(listener, observer, oldValue, newValue) -> listener.valueUpdated(observer, oldValue, newValue);
+
 	private final ValueObserver<V> observer;
-	private final LinkedList<ReadOnlyValueListener<V>> listeners = new LinkedList<>();
+	private final ListenerList<ReadOnlyValueListener<V>> listeners = new ListenerList<>();
 
 	public ReadOnlyValueObserver(@NotNull ValueObserver<V> observer) {
 		this.observer = observer;
 		observer.addListener(new ValueListener<V>() {
 			@Override
 			public void valueUpdated(@NotNull ValueObserver<V> observer, V oldValue, V newValue) {
-				for (ReadOnlyValueListener<V> listener : listeners) {
-					listener.valueUpdated(ReadOnlyValueObserver.this, oldValue, newValue);
-				}
+				//the value may have changed again by the time a listener is notified, so newValue is passed along
+				listeners.notifyListeners(ReadOnlyValueObserver.this, oldValue, newValue, notifier());
 			}
 		});
 	}
 
+	@SuppressWarnings("unchecked")
+	@NotNull
+	private static <V> ListenerList.Notifier2<ReadOnlyValueListener<V>, ReadOnlyValueObserver<V>, V, V> notifier() {
+		return (ListenerList.Notifier2<ReadOnlyValueListener<V>, ReadOnlyValueObserver<V>, V, V>) (Object) NOTIFIER;
+	}
+
 	/** Set the listener that listens to the state of the value. The listener will only be added once. If it exists in the listeners list, nothing will happen. */
 	public void addListener(@NotNull ReadOnlyValueListener<V> listener) {
-		if (listeners.contains(listener)) {
-			return;
-		}
-		this.listeners.add(listener);
+		listeners.add(listener);
 	}
 
 	/** Remove the listener from the list. Returns true if the listener was inside the list */
@@ -3,28 +3,28 @@ package com.kaylerrenslow.armaDialogCreator.util;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  Created by Kayler on 07/05/2016.
  */
 public class UpdateListenerGroup<T> {
-	private final LinkedList<UpdateGroupListener<T>> updateListeners = new LinkedList<>();
-	private final LinkedList<UpdateListenerGroup<T>> chain = new LinkedList<>();
-	private final LinkedList<UpdateGroupListener<T>> newListeners = new LinkedList<>();
-	private boolean iterating = false; //prevent CoModificationException
+	private static final ListenerList.Notifier<UpdateGroupListener<Object>, UpdateListenerGroup<Object>, Object> NOTIFIER =
+			(listener, group, data) -> listener.update(group, data);
+
+	private final ListenerList<UpdateGroupListener<T>> updateListeners = new ListenerList<>(UpdateGroupListener::hasExpired);
+	private final List<UpdateListenerGroup<T>> chain = new ArrayList<>(0);
+
+	@SuppressWarnings("unchecked")
+	@NotNull
+	private static <T> ListenerList.Notifier<UpdateGroupListener<T>, UpdateListenerGroup<T>, T> notifier() {
+		return (ListenerList.Notifier<UpdateGroupListener<T>, UpdateListenerGroup<T>, T>) (Object) NOTIFIER;
+	}
 
 	/** Will add the given listener. If the listener has already been added, will do nothing (no duplicates allowed). */
 	public void addListener(@NotNull UpdateGroupListener<T> listener) {
-		if (updateListeners.contains(listener)) {
-			return;
-		}
-		if (iterating) {
-			newListeners.add(listener);
-		} else {
-			updateListeners.add(listener);
-		}
+		updateListeners.add(listener);
 	}
 
 	public boolean removeListener(@NotNull UpdateGroupListener<T> listener) {
@@ -32,25 +32,17 @@ public class UpdateListenerGroup<T> {
 	}
 
 	public void update(@Nullable T data) {
-		iterating = true;
-		Iterator<UpdateGroupListener<T>> iter = updateListeners.iterator();
-		while (iter.hasNext()) {
-			UpdateGroupListener<T> updateListener = iter.next();
-			if (updateListener.hasExpired()) {
-				iter.remove();
-				continue;
-			}
-			updateListener.update(this, data);
-		}
-		for (UpdateListenerGroup<T> group : chain) {
-			group.update(data);
-		}
-		iterating = false;
-		while (newListeners.size() > 0) {
-			updateListeners.add(newListeners.pop());
+		updateListeners.notifyListeners(this, data, notifier());
+		for (int i = 0; i < chain.size(); i++) {
+			chain.get(i).update(data);
 		}
 	}
 
+	/** @return the listeners. Can be used for profiling with {@link ListenerList#getDispatchCount()} and {@link ListenerList#getListenerTime(Object)} */
+	@NotNull
+	public ListenerList<UpdateGroupListener<T>> getListenerList() {
+		return updateListeners;
+	}
 
 	/**
 	 Chain this group and the given group together. Whenever this group gets an update via {@link #update(Object)}, the provided group will also receive the update.
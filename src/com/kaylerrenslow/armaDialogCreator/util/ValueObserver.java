@@ -5,21 +5,23 @@ import javafx.beans.Observable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-
 /**
  Simple value observer implementation
 
  @author Kayler
  @since 05/31/2016. */
 public class ValueObserver<V> implements Observable {
+	private static final ListenerList.Notifier<InvalidationListener, Observable, Object> INVALIDATION_NOTIFIER =
+			(listener, observer, data) -> listener.invalidated(observer);
+
+	private static final ListenerList.Notifier<ValueListener<Object>, ValueObserver<Object>, Object> VALUE_NOTIFIER =
+			(listener, observer, oldValue) -> listener.valueUpdated(observer, oldValue, observer.getValue());
+
 	private V value;
-	private final LinkedList<ValueListener<V>> valueListeners = new LinkedList<>();
+	private final ListenerList<ValueListener<V>> valueListeners = new ListenerList<>(ValueListener::hasExpired);
 	private ReadOnlyValueObserver<V> readOnlyValueObserver;
 
-	private final List<InvalidationListener> invalidationListeners = new LinkedList<>();
+	private final ListenerList<InvalidationListener> invalidationListeners = new ListenerList<>();
 
 	public ValueObserver(@Nullable V value) {
 		this.value = value;
@@ -45,27 +47,19 @@ public class ValueObserver<V> implements Observable {
 		V oldValue = this.value;
 		this.value = newValue;
 
-		Iterator<ValueListener<V>> iter = valueListeners.iterator();
-		while (iter.hasNext()) {
-			ValueListener<V> listener = iter.next();
-			if (listener.hasExpired()) {
-				iter.remove();
-				continue;
-			}
-			listener.valueUpdated(this, oldValue, this.value);
-		}
+		valueListeners.notifyListeners(this, oldValue, valueNotifier());
+		invalidationListeners.notifyListeners(this, null, INVALIDATION_NOTIFIER);
+	}
 
-		for (InvalidationListener listener : invalidationListeners) {
-			listener.invalidated(this);
-		}
+	@SuppressWarnings("unchecked")
+	@NotNull
+	private static <V> ListenerList.Notifier<ValueListener<V>, ValueObserver<V>, V> valueNotifier() {
+		return (ListenerList.Notifier<ValueListener<V>, ValueObserver<V>, V>) (Object) VALUE_NOTIFIER;
 	}
 
 	/** Set the listener that listens to the state of the value. The listener will only be added once. If it exists in the listeners list, nothing will happen. */
 	public void addListener(@NotNull ValueListener<V> listener) {
-		if (valueListeners.contains(listener)) {
-			return;
-		}
-		this.valueListeners.add(listener);
+		valueListeners.add(listener);
 	}
 
 	/** Remove the listener from the list */
@@ -88,4 +82,10 @@ public class ValueObserver<V> implements Observable {
 		return value;
 	}
 
+	/** @return the value listeners. Can be used for profiling with {@link ListenerList#getDispatchCount()} and {@link ListenerList#getListenerTime(Object)} */
+	@NotNull
+	public ListenerList<ValueListener<V>> getListenerList() {
+		return valueListeners;
+	}
+
 }
@@ -0,0 +1,73 @@
+package com.kaylerrenslow.armaDialogCreator.arma.header;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class HeaderParseCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void unchangedFileUsesCache() throws Exception {
+		File root = copyTestFiles();
+		HeaderParseCache cache = new HeaderParseCache(folder.newFolder("cache"));
+
+		HeaderFile parsed = cache.parse(root, folder.newFolder("temp1"));
+		HeaderFile cached = cache.parse(root, folder.newFolder("temp2"));
+
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(parsed.getAsString(), cached.getAsString());
+	}
+
+	@Test
+	public void changedIncludeInvalidatesCache() throws Exception {
+		File root = copyTestFiles();
+		HeaderParseCache cache = new HeaderParseCache(folder.newFolder("cache"));
+		File temp = folder.newFolder("temp");
+
+		cache.parse(root, temp);
+
+		try (FileWriter w = new FileWriter(new File(root.getParentFile(), "dir/dirF.h"), true)) {
+			w.write("\nclass AddedByTest {};\n");
+		}
+
+		HeaderFile reparsed = cache.parse(root, temp);
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+		assertTrue(reparsed.getAsString().contains("AddedByTest"));
+
+		cache.parse(root, temp);
+		assertEquals(1, cache.getHitCount());
+	}
+
+	private File copyTestFiles() throws Exception {
+		Path src = HeaderTestUtil.getFile("largeTest/test1Files").toPath();
+		Path dest = folder.newFolder("test1Files").toPath();
+		try (Stream<Path> paths = Files.walk(src)) {
+			for (Path p : (Iterable<Path>) paths::iterator) {
+				Path target = dest.resolve(src.relativize(p).toString());
+				if (Files.isDirectory(p)) {
+					Files.createDirectories(target);
+				} else {
+					Files.copy(p, target);
+				}
+			}
+		}
+		return dest.resolve("largeTestRoot.h").toFile();
+	}
+}
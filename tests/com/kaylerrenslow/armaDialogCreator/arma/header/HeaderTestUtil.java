@@ -15,6 +15,8 @@ public class HeaderTestUtil {
 
 	@NotNull
 	public static File getTemporaryResultsFile() {
-		return getFile("testsData_ignore");
+		File dir = getFile("testsData_ignore");
+		dir.mkdirs();
+		return dir;
 	}
 }
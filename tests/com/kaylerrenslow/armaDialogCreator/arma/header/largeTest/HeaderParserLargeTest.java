@@ -6,6 +6,7 @@ import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderParser;
 import com.kaylerrenslow.armaDialogCreator.arma.header.HeaderTestUtil;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static com.kaylerrenslow.armaDialogCreator.arma.header.HeaderParserHelpers.*;
 
 /**
@@ -126,5 +127,13 @@ public class HeaderParserLargeTest {
 		testEquivalence(headerFile, expected);
 	}
 
+	@Test
+	public void parseHeaderTest1_keepPreprocessedFile() throws Exception {
+		//streamed preprocessing should give the same result as preprocessing to a file first
+		HeaderFile streamed = HeaderParser.parse(HeaderTestUtil.getFile("largeTest/test1Files/largeTestRoot.h"), HeaderTestUtil.getTemporaryResultsFile());
+		HeaderFile fromFile = HeaderParser.parseAndKeepPreprocessedFile(HeaderTestUtil.getFile("largeTest/test1Files/largeTestRoot.h"), HeaderTestUtil.getTemporaryResultsFile());
+
+		assertEquals(fromFile.getAsString(), streamed.getAsString());
+	}
 
 }
@@ -142,6 +142,30 @@ public class PreprocessorTest {
 		);
 	}
 
+	@Test
+	public void replaceManyMacros() throws Exception {
+		//5000 macros and 50000 references
+		final int macroCount = 5000;
+		String[] toMatch = new String[macroCount];
+		String[] replace = new String[macroCount];
+		for (int i = 0; i < macroCount; i++) {
+			toMatch[i] = "MACRO_" + i;
+			replace[i] = "" + i;
+		}
+
+		StringBuilder base = new StringBuilder();
+		StringBuilder expect = new StringBuilder();
+		for (int i = 0; i < macroCount * 10; i++) {
+			base.append("v").append(i).append(" = MACRO_").append(i % macroCount).append(" + notAMacro_").append(i).append(";\n");
+			expect.append("v").append(i).append(" = ").append(i % macroCount).append(" + notAMacro_").append(i).append(";\n");
+		}
+
+		HeaderParserHelpers.assertPreprocessLine(
+				expect.toString(),
+				createFileFromText(base.toString()),
+				map(toMatch, replace)
+		);
+	}
 
 	@Test
 	public void replaceParameter() throws Exception {
@@ -615,6 +639,75 @@ public class PreprocessorTest {
 		);
 	}
 
+	@Test
+	public void multiLineArguments() throws Exception {
+		//#define BLASTOFF(UNIT,RATE) UNIT setVelocity [0,0,RATE];
+		String base = "BLASTOFF(car,\n5)\nhello=1;";
+		String expect = "car setVelocity [0,0,5];\nhello=1;";
+
+		HeaderParserHelpers.assertPreprocessLine(
+				expect,
+				createFileFromText(base),
+				mapParams("BLASTOFF", new String[]{"UNIT", "RATE"}, "UNIT setVelocity [0,0,RATE];")
+		);
+	}
+
+	@Test
+	public void commentInString() throws Exception {
+		/*
+		* #define TEST(s) s;
+		*/
+		String base = "url=\"http://www.vbs2.com\"; TEST(1) /* TEST(2) */";
+		String expect = "url=\"http://www.vbs2.com\"; 1 /* TEST(2) */";
+
+		HeaderParserHelpers.assertPreprocessLine(
+				expect,
+				createFileFromText(base),
+				mapParams("TEST", array("s"), "s")
+		);
+	}
+
+	@Test
+	public void commaInStringArgument() throws Exception {
+		/*
+		* #define TEST(s) s;
+		*/
+		String base = "msg=TEST(\"CAR, (VROOM)\");";
+		String expect = "msg=\"CAR, (VROOM)\";";
+
+		HeaderParserHelpers.assertPreprocessLine(
+				expect,
+				createFileFromText(base),
+				mapParams("TEST", array("s"), "s")
+		);
+	}
+
+	@Test
+	public void blockCommentAfterMacro() throws Exception {
+		//the text before a block comment that spans lines is still preprocessed
+		String base = "a=ARG; /*ARG\nARG*/ b=ARG;";
+		String expect = "a=1; /*ARG\nARG*/ b=1;";
+
+		HeaderParserHelpers.assertPreprocessLine(
+				expect,
+				createFileFromText(base),
+				map(array("ARG"), array("1"))
+		);
+	}
+
+	@Test
+	public void selfReference() throws Exception {
+		//#define ARG ARG + 1
+		String base = "a=ARG;";
+		String expect = "a=ARG + 1;";
+
+		HeaderParserHelpers.assertPreprocessLine(
+				expect,
+				createFileFromText(base),
+				map(array("ARG"), array("ARG + 1"))
+		);
+	}
+
 	public static String getStringFromFile(@NotNull File f) throws IOException {
 		FileInputStream fis = new FileInputStream(f);
 		byte[] arr = new byte[fis.available()];
@@ -627,6 +720,7 @@ public class PreprocessorTest {
 	@NotNull
 	private static File createFileFromText(@NotNull String textToWrite) throws Exception {
 		File f = HeaderTestUtil.getFile("preprocessorTest/createdFiles/test" + createdFileCount.incrementAndGet() + ".h");
+		f.getParentFile().mkdirs();
 		FileOutputStream fos = new FileOutputStream(f);
 		fos.write(textToWrite.getBytes());
 		fos.flush();
@@ -0,0 +1,75 @@
+package com.kaylerrenslow.armaDialogCreator.arma.stringtable;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class LanguageTokenMapTest {
+
+	@Test
+	public void putGetRemove() {
+		LanguageTokenMap map = new LanguageTokenMap();
+		CustomLanguage klingon = new CustomLanguage("Klingon");
+		assertNull(map.put(KnownLanguage.German, "Hallo"));
+		assertNull(map.put(klingon, "nuqneH"));
+		assertNull(map.put(KnownLanguage.Original, "Hello"));
+		assertEquals("Hallo", map.put(KnownLanguage.German, "Guten Tag"));
+		assertEquals(3, map.size());
+
+		assertEquals("Guten Tag", map.get(KnownLanguage.German));
+		assertEquals("nuqneH", map.get(new CustomLanguage("Klingon")));
+		assertNull(map.get(KnownLanguage.English));
+		assertFalse(map.containsKey(KnownLanguage.English));
+
+		Map<Language, String> expected = new HashMap<>();
+		expected.put(KnownLanguage.Original, "Hello");
+		expected.put(KnownLanguage.German, "Guten Tag");
+		expected.put(klingon, "nuqneH");
+		assertEquals(expected, map);
+
+		assertEquals("nuqneH", map.remove(klingon));
+		assertEquals("Hello", map.remove(KnownLanguage.Original));
+		assertNull(map.remove(KnownLanguage.Original));
+		assertEquals(1, map.size());
+		map.clear();
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void iteration() {
+		LanguageTokenMap map = new LanguageTokenMap();
+		CustomLanguage first = new CustomLanguage("First");
+		CustomLanguage second = new CustomLanguage("Second");
+		map.put(second, "2");
+		map.put(KnownLanguage.Japanese, "j");
+		map.put(first, "1");
+		map.put(KnownLanguage.Original, "o");
+
+		//known languages in values() order, then other languages in the order they were added
+		Iterator<Map.Entry<Language, String>> iterator = map.entrySet().iterator();
+		assertSame(KnownLanguage.Original, iterator.next().getKey());
+		Map.Entry<Language, String> japanese = iterator.next();
+		assertSame(KnownLanguage.Japanese, japanese.getKey());
+		japanese.setValue("jp");
+		assertSame(second, iterator.next().getKey());
+		iterator.remove();
+		assertSame(first, iterator.next().getKey());
+		assertFalse(iterator.hasNext());
+
+		assertEquals("jp", map.get(KnownLanguage.Japanese));
+		assertNull(map.get(second));
+		assertEquals(3, map.size());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullToken() {
+		new LanguageTokenMap().put(KnownLanguage.English, null);
+	}
+}
@@ -0,0 +1,182 @@
+package com.kaylerrenslow.armaDialogCreator.arma.stringtable;
+
+import com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl.StringTableImpl;
+import com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl.StringTableKeyImpl;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class StringTableImplTest {
+	private static final int BENCHMARK_KEYS = 50_000;
+
+	@Test
+	public void getKeyById() {
+		StringTableKey a = key("str_tag_a", "A");
+		StringTableKey b = key("str_tag_b", "B");
+		StringTableKey duplicate = key("STR_TAG_A", "A2");
+		StringTable table = table(a, b, duplicate);
+
+		assertSame(a, table.getKeyById("str_tag_a"));
+		assertSame(a, table.getKeyById("Str_Tag_A"));
+		assertSame(b, table.getKeyById("str_tag_b"));
+		assertNull(table.getKeyById("str_tag_c"));
+
+		StringTableKey c = key("str_tag_c", "C");
+		table.getKeys().add(c);
+		assertSame(c, table.getKeyById("str_tag_c"));
+
+		//added before the key with the same id
+		StringTableKey first = key("str_tag_b", "B0");
+		table.getKeys().add(0, first);
+		assertSame(first, table.getKeyById("str_tag_b"));
+
+		table.getKeys().remove(a);
+		assertSame(duplicate, table.getKeyById("str_tag_a"));
+
+		c.setId("str_tag_renamed");
+		assertNull(table.getKeyById("str_tag_c"));
+		assertSame(c, table.getKeyById("str_tag_renamed"));
+
+		ObservableList<StringTableKey> newKeys = FXCollections.observableArrayList(a);
+		ObservableList<StringTableKey> oldKeys = table.getKeys();
+		table.setKeys(newKeys);
+		assertSame(a, table.getKeyById("str_tag_a"));
+		assertNull(table.getKeyById("str_tag_renamed"));
+		//the old list isn't listened to anymore
+		oldKeys.clear();
+		assertSame(a, table.getKeyById("str_tag_a"));
+	}
+
+	@Test
+	public void setTo() {
+		StringTableKey a = key("str_tag_a", "A");
+		StringTable table = table(a);
+		StringTable other = table(key("STR_TAG_A", "A changed"), key("str_tag_b", "B"));
+
+		table.setTo(other);
+		assertEquals(2, table.getKeys().size());
+		assertSame(a, table.getKeyById("str_tag_a"));
+		assertEquals("A changed", a.getLanguageTokenMap().get(KnownLanguage.Original));
+		assertEquals("B", table.getKeyById("str_tag_b").getLanguageTokenMap().get(KnownLanguage.Original));
+	}
+
+	/** Keys that setTo adds are copies, so editing them doesn't touch the other table */
+	@Test
+	public void editAdoptedKeyAfterSetTo() {
+		StringTable table = table(key("str_tag_a", "A"));
+		StringTableKey otherKey = key("str_tag_b", "B");
+		StringTable other = table(otherKey);
+
+		table.setTo(other);
+		StringTableKey adopted = table.getKeyById("str_tag_b");
+		assertNotNull(adopted);
+		assertNotSame(otherKey, adopted);
+
+		adopted.setId("str_tag_b_edited");
+		assertSame(adopted, table.getKeyById("str_tag_b_edited"));
+		assertNull(table.getKeyById("str_tag_b"));
+		assertEquals("str_tag_b", otherKey.getId());
+		assertSame(otherKey, other.getKeyById("str_tag_b"));
+		assertNull(other.getKeyById("str_tag_b_edited"));
+
+		otherKey.setId("str_tag_b_other");
+		assertSame(otherKey, other.getKeyById("str_tag_b_other"));
+		assertSame(adopted, table.getKeyById("str_tag_b_edited"));
+		assertNull(table.getKeyById("str_tag_b_other"));
+	}
+
+	/** Looks up and merges {@link #BENCHMARK_KEYS} keys, which took minutes when both were a linear search. */
+	@Test
+	public void lookupAndMerge() {
+		ObservableList<StringTableKey> keys = FXCollections.observableArrayList();
+		ObservableList<StringTableKey> otherKeys = FXCollections.observableArrayList();
+		for (int i = 0; i < BENCHMARK_KEYS; i++) {
+			keys.add(key("str_tag_key" + i, "Key " + i));
+			otherKeys.add(key("STR_TAG_KEY" + (i + BENCHMARK_KEYS / 2), "Other " + i));
+		}
+		StringTable table = new StringTableImpl(new File("stringtable.xml"), keys, "test");
+
+		for (int i = 0; i < BENCHMARK_KEYS; i++) {
+			assertSame(keys.get(i), table.getKeyById("STR_tag_key" + i));
+		}
+
+		table.setTo(new StringTableImpl(new File("other.xml"), otherKeys, "test"));
+		assertEquals(BENCHMARK_KEYS + BENCHMARK_KEYS / 2, table.getKeys().size());
+		assertEquals("Other 0", table.getKeyById("str_tag_key" + BENCHMARK_KEYS / 2).getLanguageTokenMap().get(KnownLanguage.Original));
+		assertNotNull(table.getKeyById("str_tag_key" + (BENCHMARK_KEYS + BENCHMARK_KEYS / 2 - 1)));
+	}
+
+	/** Looks up keys on other threads while the keys are added, moved, renamed, and removed */
+	@Test
+	public void concurrentLookups() throws Exception {
+		ObservableList<StringTableKey> keys = FXCollections.observableArrayList();
+		for (int i = 0; i < 5_000; i++) {
+			keys.add(key("str_tag_key" + i, "Key " + i));
+		}
+		List<StringTableKey> lookedUp = new ArrayList<>(keys);
+		StringTable table = new StringTableImpl(new File("stringtable.xml"), keys, "test");
+
+		AtomicBoolean editing = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Integer>> lookups = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			lookups.add(executor.submit(() -> {
+				int count = 0;
+				do {
+					for (int i = 0; i < lookedUp.size(); i++) {
+						assertSame(lookedUp.get(i), table.getKeyById("STR_TAG_KEY" + i));
+						count++;
+					}
+				} while (editing.get());
+				return count;
+			}));
+		}
+		try {
+			for (int i = 0; i < 300; i++) {
+				StringTableKey added = key("str_tag_added" + i, "Added");
+				keys.add(added);
+				StringTableKey first = key("str_tag_first" + i, "First");
+				//rebuilds the index
+				keys.add(0, first);
+				first.setId("str_tag_renamed" + i);
+				keys.remove(added);
+				assertSame(first, table.getKeyById("str_tag_renamed" + i));
+				assertNull(table.getKeyById("str_tag_added" + i));
+			}
+		} finally {
+			editing.set(false);
+			executor.shutdown();
+		}
+		for (Future<Integer> lookup : lookups) {
+			assertTrue(lookup.get() >= 5_000);
+		}
+		assertEquals(5_300, keys.size());
+	}
+
+	@NotNull
+	private static StringTable table(@NotNull StringTableKey... keys) {
+		return new StringTableImpl(new File("stringtable.xml"), FXCollections.observableArrayList(keys), "test");
+	}
+
+	@NotNull
+	private static StringTableKey key(@NotNull String id, @NotNull String original) {
+		ObservableMap<Language, String> values = FXCollections.observableHashMap();
+		values.put(KnownLanguage.Original, original);
+		return new StringTableKeyImpl(id, values);
+	}
+}
@@ -0,0 +1,217 @@
+package com.kaylerrenslow.armaDialogCreator.arma.stringtable;
+
+import com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl.StringTableKeyImpl;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class StringTableSearchIndexTest {
+
+	@Test
+	public void searchById() {
+		StringTableKey hello = key("str_tag_hello_world", "pkg", "Hello World");
+		StringTableKey bye = key("STR_tag_Goodbye", "pkg", "Goodbye");
+		StringTableSearchIndex index = new StringTableSearchIndex(FXCollections.observableArrayList(hello, bye));
+
+		assertMatches(index.search("hello"), hello);
+		assertMatches(index.search("str_"), hello, bye);
+		assertMatches(index.search("GOOD"), bye);
+		assertMatches(index.search("_g"), bye);
+		assertMatches(index.search("nothing"));
+		//less than 2 characters matches everything
+		assertMatches(index.search("x"), hello, bye);
+	}
+
+	@Test
+	public void searchByText() {
+		StringTableKey hello = key("str_tag_hello", "pkg", "Hello World");
+		StringTableKey bye = key("str_tag_bye", "pkg", "Goodbye");
+		bye.getLanguageTokenMap().put(KnownLanguage.German, "Auf Wiedersehen");
+		StringTableSearchIndex index = new StringTableSearchIndex(FXCollections.observableArrayList(hello, bye));
+
+		assertMatches(index.search("'world"), hello);
+		assertMatches(index.search("\"WIEDER"), bye);
+		assertMatches(index.search("'o"), hello, bye);
+		assertMatches(index.search("'str_"));
+	}
+
+	@Test
+	public void searchByLanguage() {
+		StringTableKey hello = key("str_tag_hello", "pkg", "Hello");
+		StringTableKey bye = key("str_tag_bye", "pkg", "Bye");
+		bye.getLanguageTokenMap().put(KnownLanguage.German, "Tschuess");
+		bye.getLanguageTokenMap().put(new CustomLanguage("Klingon"), "Qapla'");
+		StringTableSearchIndex index = new StringTableSearchIndex(FXCollections.observableArrayList(hello, bye));
+
+		assertMatches(index.search("+germ"), bye);
+		assertMatches(index.search("!germ"), hello);
+		assertMatches(index.search("+klingon"), bye);
+		assertMatches(index.search("+orig"), hello, bye);
+		assertMatches(index.search("!orig"));
+		assertMatches(index.search("!french"), hello, bye);
+	}
+
+	@Test
+	public void searchByPath() {
+		StringTableKey noPackage = new StringTableKeyImpl("str_tag_a", new StringTableKeyPath(null), values("a"));
+		StringTableKey menu = new StringTableKeyImpl("str_tag_b", new StringTableKeyPath("Mission", "Menu", "Buttons"), values("b"));
+		StringTableKey hud = new StringTableKeyImpl("str_tag_c", new StringTableKeyPath("Mission", "Hud"), values("c"));
+		StringTableSearchIndex index = new StringTableSearchIndex(FXCollections.observableArrayList(noPackage, menu, hud));
+
+		assertMatches(index.search("/."), noPackage);
+		assertMatches(index.search("/miss"), menu, hud);
+		assertMatches(index.search("/mission/menu"), menu);
+		assertMatches(index.search("//hud"), hud);
+		assertMatches(index.search("/mission//buttons"), menu);
+	}
+
+	@Test
+	public void incrementalUpdates() {
+		StringTableKey hello = key("str_tag_hello", "pkg", "Hello");
+		ObservableList<StringTableKey> keys = FXCollections.observableArrayList(hello);
+		StringTableSearchIndex index = new StringTableSearchIndex(keys);
+
+		StringTableKey bye = key("str_tag_bye", "pkg", "Bye");
+		keys.add(bye);
+		assertEquals(2, index.size());
+		assertMatches(index.search("'bye"), bye);
+
+		hello.getLanguageTokenMap().put(KnownLanguage.Original, "Greetings");
+		assertMatches(index.search("'hello"));
+		assertMatches(index.search("'greet"), hello);
+
+		hello.setId("str_tag_greetings");
+		assertMatches(index.search("hello"));
+		assertMatches(index.search("greetings"), hello);
+
+		hello.getPath().setPackageName("Other");
+		assertMatches(index.search("/other"), hello);
+
+		keys.remove(bye);
+		assertEquals(1, index.size());
+		assertMatches(index.search("'bye"));
+
+		keys.setAll(bye);
+		assertMatches(index.search("str_"), bye);
+
+		index.dispose();
+		bye.getLanguageTokenMap().put(KnownLanguage.Original, "Changed");
+		assertMatches(index.search("'bye"), bye);
+	}
+
+	@Test
+	public void largeTable() {
+		ObservableList<StringTableKey> keys = largeKeyList(20_000, "");
+		StringTableSearchIndex index = new StringTableSearchIndex(keys);
+
+		assertEquals(20_000, index.size());
+		assertMatches(index.search("'number 1234 of"), keys.get(1234));
+		assertEquals(11, index.search("key_1999").size());
+	}
+
+	@Test
+	public void bulkRemoval() {
+		ObservableList<StringTableKey> keys = largeKeyList(20_000, "");
+		StringTableSearchIndex index = new StringTableSearchIndex(keys);
+		StringTableKey kept = keys.get(19_999);
+
+		//remove one at a time from the front, which is the worst case for a list
+		for (int i = 0; i < 15_000; i++) {
+			keys.remove(0);
+		}
+		assertEquals(5_000, index.size());
+		//compacted when more than half were removed, and again after that
+		assertTrue(index.getRemovedEntryCount() <= index.size());
+		assertMatches(index.search("'number 1234 of"));
+		assertMatches(index.search("'number 19999 of"), kept);
+		assertMatches(index.search("key_19999"), kept);
+		assertEquals(100, index.search("key_199").size());
+
+		keys.removeIf(key -> !key.getId().endsWith("0"));
+		assertEquals(500, index.size());
+		assertEquals(500, index.search("str_key").size());
+		assertMatches(index.search("key_1999"), keys.get(keys.size() - 1));
+
+		//an edited key is still found under its new id after the ids were compacted
+		StringTableKey edited = keys.get(0);
+		edited.setId("str_tag_edited");
+		assertMatches(index.search("edited"), edited);
+		assertEquals(499, index.search("str_key").size());
+
+		keys.clear();
+		assertEquals(0, index.size());
+		assertEquals(0, index.getRemovedEntryCount());
+		assertMatches(index.search("str_"));
+	}
+
+	@Test
+	public void setAllLargeList() {
+		ObservableList<StringTableKey> keys = largeKeyList(20_000, "");
+		StringTableSearchIndex index = new StringTableSearchIndex(keys);
+		List<StringTableKey> replacement = new ArrayList<>(largeKeyList(10_000, "new_"));
+		//half of the old keys stay in the list
+		replacement.addAll(keys.subList(0, 10_000));
+
+		keys.setAll(replacement);
+		assertEquals(20_000, index.size());
+		assertEquals(10_000, index.search("new_").size());
+		assertMatches(index.search("'number 1234 of"), keys.get(1234), keys.get(11_234));
+		assertMatches(index.search("'number 12345 of"));
+		assertTrue(index.getRemovedEntryCount() <= index.size());
+	}
+
+	@Test
+	public void duplicateKeys() {
+		StringTableKey hello = key("str_tag_hello", "pkg", "Hello");
+		ObservableList<StringTableKey> keys = FXCollections.observableArrayList(hello, hello);
+		StringTableSearchIndex index = new StringTableSearchIndex(keys);
+		assertEquals(1, index.size());
+
+		keys.remove(1);
+		assertMatches(index.search("hello"), hello);
+		//replacing a key with itself keeps it
+		keys.set(0, hello);
+		assertMatches(index.search("hello"), hello);
+		keys.remove(0);
+		assertMatches(index.search("hello"));
+	}
+
+	@NotNull
+	private static ObservableList<StringTableKey> largeKeyList(int size, @NotNull String idPrefix) {
+		ObservableList<StringTableKey> keys = FXCollections.observableArrayList();
+		for (int i = 0; i < size; i++) {
+			keys.add(key("str_" + idPrefix + "key_" + i, "pkg" + (i % 10), "Value number " + i + " of the table"));
+		}
+		return keys;
+	}
+
+	private static void assertMatches(@NotNull Set<StringTableKey> matches, @NotNull StringTableKey... expected) {
+		assertEquals(expected.length, matches.size());
+		for (StringTableKey key : expected) {
+			assertTrue(key.getId(), matches.contains(key));
+		}
+	}
+
+	@NotNull
+	private static StringTableKey key(@NotNull String id, @NotNull String packageName, @NotNull String original) {
+		return new StringTableKeyImpl(id, new StringTableKeyPath(packageName), values(original));
+	}
+
+	@NotNull
+	private static ObservableMap<Language, String> values(@NotNull String original) {
+		ObservableMap<Language, String> values = FXCollections.observableHashMap();
+		values.put(KnownLanguage.Original, original);
+		return values;
+	}
+}
@@ -0,0 +1,594 @@
+package com.kaylerrenslow.armaDialogCreator.arma.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ The .paa files are created by {@link PaaBuilder} so that every type and compression has a file with known pixels.
+ {@link #specLayoutFixture()} reads a file that was written out by hand instead.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class PaaImageTest {
+
+	@Test
+	public void argb8888() throws Exception {
+		int[] pixels = {0xff112233, 0x80445566, 0x00778899, 0xffaabbcc, 0x01ddeeff, 0x7f000000};
+		byte[] paa = new PaaBuilder(PaaImage.Type.ARGB8888).mipmap(3, 2, argb8888Bytes(pixels), Compression.NONE).build();
+		PaaImage image = PaaImage.read(paa, Integer.MAX_VALUE, Integer.MAX_VALUE);
+		assertEquals(PaaImage.Type.ARGB8888, image.getType());
+		assertEquals(3, image.getWidth());
+		assertEquals(2, image.getHeight());
+		assertArrayEquals(pixels, image.getArgb());
+	}
+
+	@Test
+	public void argb4444And1555() throws Exception {
+		byte[] data4444 = u16Bytes(0xf84c, 0x0000);
+		PaaImage image = PaaImage.read(new PaaBuilder(PaaImage.Type.ARGB4444).mipmap(2, 1, data4444, Compression.NONE).build(), 100, 100);
+		assertArrayEquals(new int[]{0xff8844cc, 0x00000000}, image.getArgb());
+
+		//a=1 r=31 g=0 b=16, a=0 r=0 g=31 b=0
+		byte[] data1555 = u16Bytes(0x8000 | 31 << 10 | 16, 31 << 5);
+		image = PaaImage.read(new PaaBuilder(PaaImage.Type.ARGB1555).mipmap(2, 1, data1555, Compression.NONE).build(), 100, 100);
+		assertArrayEquals(new int[]{0xffff0084, 0x0000ff00}, image.getArgb());
+	}
+
+	@Test
+	public void dxt1() throws Exception {
+		//c0 is red and c1 is blue, so there are 4 opaque colors. Pixel i uses color index i % 4
+		byte[] fourColors = dxt1Block(0xf800, 0x001f, i -> i % 4);
+		//c0 <= c1, so color index 3 is transparent
+		byte[] threeColors = dxt1Block(0x001f, 0xf800, i -> i % 4);
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		data.write(fourColors);
+		data.write(threeColors);
+
+		PaaImage image = PaaImage.read(new PaaBuilder(PaaImage.Type.DXT1).mipmap(8, 4, data.toByteArray(), Compression.NONE).build(), 100, 100);
+		int[] argb = image.getArgb();
+		assertEquals(0xffff0000, argb[0]);
+		assertEquals(0xff0000ff, argb[1]);
+		assertEquals(0xffaa0055, argb[2]);
+		assertEquals(0xff5500aa, argb[3]);
+
+		assertEquals(0xff0000ff, argb[4]);
+		assertEquals(0xffff0000, argb[5]);
+		assertEquals(0xff7f007f, argb[6]);
+		assertEquals(0x00000000, argb[7]);
+		//second row of the second block
+		assertEquals(0xff0000ff, argb[8 + 4]);
+	}
+
+	@Test
+	public void dxt5() throws Exception {
+		ByteArrayOutputStream block = new ByteArrayOutputStream();
+		//a0 > a1, pixel i uses alpha index i % 8
+		block.write(255);
+		block.write(0);
+		long alphaBits = 0;
+		for (int i = 0; i < 16; i++) {
+			alphaBits |= (long) (i % 8) << (3 * i);
+		}
+		for (int i = 0; i < 6; i++) {
+			block.write((int) (alphaBits >> (8 * i)) & 0xff);
+		}
+		//white, all pixels use c0
+		block.write(dxt1Block(0xffff, 0x0000, i -> 0));
+
+		PaaImage image = PaaImage.read(new PaaBuilder(PaaImage.Type.DXT5).mipmap(4, 4, block.toByteArray(), Compression.NONE).build(), 100, 100);
+		int[] argb = image.getArgb();
+		assertEquals(0xffffffff, argb[0]);
+		assertEquals(0x00ffffff, argb[1]);
+		assertEquals(((6 * 255) / 7) << 24 | 0xffffff, argb[2]);
+		assertEquals(((1 * 255) / 7) << 24 | 0xffffff, argb[7]);
+		assertEquals(0xffffffff, argb[8]);
+	}
+
+	@Test
+	public void dxtSizeNotMultipleOf4() throws Exception {
+		//6x3 needs 2x1 blocks
+		byte[] data = new byte[16];
+		System.arraycopy(dxt1Block(0xf800, 0xf800, i -> 0), 0, data, 0, 8);
+		System.arraycopy(dxt1Block(0x07e0, 0x07e0, i -> 0), 0, data, 8, 8);
+		PaaImage image = PaaImage.read(new PaaBuilder(PaaImage.Type.DXT1).mipmap(6, 3, data, Compression.NONE).build(), 100, 100);
+		assertEquals(18, image.getArgb().length);
+		assertEquals(0xffff0000, image.getArgb()[3]);
+		assertEquals(0xff00ff00, image.getArgb()[4]);
+		assertEquals(0xff00ff00, image.getArgb()[2 * 6 + 5]);
+	}
+
+	@Test
+	public void lzssCompressed() throws Exception {
+		for (PaaImage.Type type : new PaaImage.Type[]{PaaImage.Type.ARGB8888, PaaImage.Type.ARGB4444, PaaImage.Type.ARGB1555}) {
+			byte[] raw = patternBytes(type.getMipmapBytes(64, 32), 1);
+			PaaImage expected = PaaImage.read(new PaaBuilder(type).mipmap(64, 32, raw, Compression.NONE).build(), 100, 100);
+			byte[] compressedPaa = new PaaBuilder(type).mipmap(64, 32, raw, Compression.LZSS).build();
+			assertTrue("compressed " + type, compressedPaa.length < raw.length);
+			PaaImage actual = PaaImage.read(compressedPaa, 100, 100);
+			assertArrayEquals(type.toString(), expected.getArgb(), actual.getArgb());
+		}
+	}
+
+	@Test
+	public void lzssPointerBeforeStartIsSpaces() throws Exception {
+		//flag 0 = 8 pointers. 1 pointer of distance 5 and length 3 before any output
+		byte[] in = {0, 5, 0};
+		byte[] out = new byte[3];
+		PaaCompression.lzssDecompress(in, 0, in.length, out);
+		assertArrayEquals(new byte[]{' ', ' ', ' '}, out);
+	}
+
+	@Test
+	public void lzoCompressed() throws Exception {
+		for (PaaImage.Type type : new PaaImage.Type[]{PaaImage.Type.DXT1, PaaImage.Type.DXT5}) {
+			byte[] raw = patternBytes(type.getMipmapBytes(128, 64), 2);
+			PaaImage expected = PaaImage.read(new PaaBuilder(type).mipmap(128, 64, raw, Compression.NONE).build(), 1000, 1000);
+			byte[] compressedPaa = new PaaBuilder(type).mipmap(128, 64, raw, Compression.LZO).build();
+			assertTrue("compressed " + type, compressedPaa.length < raw.length);
+			PaaImage actual = PaaImage.read(compressedPaa, 1000, 1000);
+			assertArrayEquals(type.toString(), expected.getArgb(), actual.getArgb());
+		}
+	}
+
+	@Test
+	public void lzoLongRuns() throws Exception {
+		//long literal runs and long matches use the extended length bytes
+		byte[] raw = new byte[5000];
+		Random r = new Random(3);
+		for (int i = 0; i < 400; i++) {
+			raw[i] = (byte) r.nextInt();
+		}
+		for (int i = 400; i < raw.length; i++) {
+			raw[i] = raw[i - 400];
+		}
+		byte[] out = new byte[raw.length];
+		byte[] compressed = lzoCompress(raw);
+		PaaCompression.lzo1xDecompress(compressed, 0, compressed.length, out);
+		assertArrayEquals(raw, out);
+
+		try {
+			PaaCompression.lzo1xDecompress(compressed, 0, compressed.length, new byte[raw.length + 1]);
+			fail("the size is wrong, so an exception should have been thrown");
+		} catch (IOException ignore) {
+		}
+	}
+
+	@Test
+	public void mipmapSelection() throws Exception {
+		PaaBuilder builder = new PaaBuilder(PaaImage.Type.ARGB8888);
+		builder.mipmap(8, 8, argb8888Bytes(solid(64, 0xffff0000)), Compression.LZSS);
+		builder.mipmap(4, 4, argb8888Bytes(solid(16, 0xff00ff00)), Compression.LZSS);
+		builder.mipmap(2, 2, argb8888Bytes(solid(4, 0xff0000ff)), Compression.NONE);
+		byte[] paa = builder.build();
+
+		PaaImage image = PaaImage.read(paa, Integer.MAX_VALUE, Integer.MAX_VALUE);
+		assertEquals(0, image.getMipmapLevel());
+		assertEquals(8, image.getWidth());
+		assertEquals(0xffff0000, image.getArgb()[0]);
+
+		image = PaaImage.read(paa, 7, 100);
+		assertEquals(1, image.getMipmapLevel());
+		assertEquals(4, image.getWidth());
+		assertEquals(0xff00ff00, image.getArgb()[15]);
+
+		//nothing fits, so the smallest is used
+		image = PaaImage.read(paa, 1, 1);
+		assertEquals(2, image.getMipmapLevel());
+		assertEquals(2, image.getWidth());
+		assertEquals(0xff0000ff, image.getArgb()[3]);
+	}
+
+	@Test
+	public void unsupportedAndCorrupt() throws Exception {
+		try {
+			PaaImage.read(new byte[]{0x01, 0x02, 0, 0, 0, 0}, 10, 10);
+			fail("unsupported type");
+		} catch (IOException ignore) {
+		}
+		byte[] paa = new PaaBuilder(PaaImage.Type.ARGB8888).mipmap(4, 4, argb8888Bytes(solid(16, 0)), Compression.NONE).build();
+		byte[] truncated = new byte[paa.length - 20];
+		System.arraycopy(paa, 0, truncated, 0, truncated.length);
+		try {
+			PaaImage.read(truncated, 10, 10);
+			fail("truncated");
+		} catch (IOException ignore) {
+		}
+	}
+
+	@Test
+	public void writePng() throws Exception {
+		int[] pixels = {0xff112233, 0x80445566, 0x00000000, 0xffaabbcc};
+		File paaFile = File.createTempFile("PaaImageTest", ".paa");
+		File pngFile = File.createTempFile("PaaImageTest", ".paa.png");
+		try {
+			Files.write(paaFile.toPath(), new PaaBuilder(PaaImage.Type.ARGB8888).mipmap(2, 2, argb8888Bytes(pixels), Compression.LZSS).build());
+			PaaImage.read(paaFile).writePng(pngFile);
+			BufferedImage png = ImageIO.read(pngFile);
+			assertEquals(2, png.getWidth());
+			assertEquals(2, png.getHeight());
+			assertEquals(pixels[0], png.getRGB(0, 0));
+			assertEquals(pixels[1], png.getRGB(1, 0));
+			assertEquals(pixels[3], png.getRGB(1, 1));
+		} finally {
+			assertTrue(paaFile.delete());
+			assertTrue(pngFile.delete());
+		}
+	}
+
+	/**
+	 A DXT1 file written out byte by byte from the .paa format description (there isn't a .paa made by ImageToPAA in this project):
+	 the type tag, the AVGCTAGG, FLAGTAGG and OFFSTAGG tags, an empty palette, a 4x4 and a 2x2 mipmap, and the 6 byte terminator.
+	 Unlike the files from {@link PaaBuilder}, the offsets in OFFSTAGG point at the mipmaps.
+	 */
+	@Test
+	public void specLayoutFixture() throws Exception {
+		byte[] paa = bytes(
+				0x01, 0xff, //DXT1
+				'G', 'G', 'A', 'T', 'C', 'G', 'V', 'A', 0x04, 0x00, 0x00, 0x00, 0x80, 0x80, 0x80, 0xff,
+				'G', 'G', 'A', 'T', 'G', 'A', 'L', 'F', 0x04, 0x00, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00,
+				'G', 'G', 'A', 'T', 'S', 'F', 'F', 'O', 0x40, 0x00, 0x00, 0x00,
+				0x70, 0x00, 0x00, 0x00, 0x7f, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, 0x00, //no palette
+				//offset 0x70: 4x4, 8 bytes. c0 is red, c1 is blue, and row y uses color index y
+				0x04, 0x00, 0x04, 0x00, 0x08, 0x00, 0x00, 0x00, 0xf8, 0x1f, 0x00, 0x00, 0x55, 0xaa, 0xff,
+				//offset 0x7f: 2x2, 8 bytes. Every pixel is c0, which is green
+				0x02, 0x00, 0x02, 0x00, 0x08, 0x00, 0x00, 0xe0, 0x07, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, 0x00, 0x00, 0x00, 0x00, 0x00
+		);
+		assertEquals(0x7f + 15 + 6, paa.length);
+
+		PaaImage image = PaaImage.read(paa, 100, 100);
+		assertEquals(PaaImage.Type.DXT1, image.getType());
+		assertEquals(4, image.getWidth());
+		assertEquals(4, image.getHeight());
+		assertEquals(0, image.getMipmapLevel());
+		int[] rowColors = {0xffff0000, 0xff0000ff, 0xffaa0055, 0xff5500aa};
+		int[] argb = image.getArgb();
+		for (int i = 0; i < argb.length; i++) {
+			assertEquals("pixel " + i, rowColors[i / 4], argb[i]);
+		}
+
+		image = PaaImage.read(paa, 2, 2);
+		assertEquals(1, image.getMipmapLevel());
+		assertArrayEquals(solid(4, 0xff00ff00), image.getArgb());
+	}
+
+	private enum Compression {
+		NONE, LZSS, LZO
+	}
+
+	/** Creates the bytes of a .paa file */
+	private static class PaaBuilder {
+		private final PaaImage.Type type;
+		private final ByteArrayOutputStream mipmaps = new ByteArrayOutputStream();
+
+		PaaBuilder(@NotNull PaaImage.Type type) {
+			this.type = type;
+		}
+
+		@NotNull
+		PaaBuilder mipmap(int width, int height, @NotNull byte[] data, @NotNull Compression compression) {
+			assertEquals(type.getMipmapBytes(width, height), data.length);
+			byte[] stored;
+			int storedWidth = width;
+			switch (compression) {
+				case NONE: {
+					stored = data;
+					break;
+				}
+				case LZSS: {
+					assertFalse(type.isDxt());
+					stored = lzssCompress(data);
+					break;
+				}
+				case LZO: {
+					assertTrue(type.isDxt());
+					stored = lzoCompress(data);
+					storedWidth |= 0x8000;
+					break;
+				}
+				default: {
+					throw new IllegalStateException();
+				}
+			}
+			writeU16(mipmaps, storedWidth);
+			writeU16(mipmaps, height);
+			mipmaps.write(stored.length & 0xff);
+			mipmaps.write((stored.length >> 8) & 0xff);
+			mipmaps.write((stored.length >> 16) & 0xff);
+			mipmaps.write(stored, 0, stored.length);
+			return this;
+		}
+
+		@NotNull
+		byte[] build() {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			writeU16(out, type.getTag());
+			//average color TAGG
+			writeAscii(out, "GGATCGVA");
+			writeU32(out, 4);
+			writeU32(out, 0xff808080);
+			//offsets TAGG
+			writeAscii(out, "GGATSFFO");
+			writeU32(out, 16 * 4);
+			for (int i = 0; i < 16; i++) {
+				writeU32(out, 0);
+			}
+			//no palette
+			writeU16(out, 0);
+			byte[] m = mipmaps.toByteArray();
+			out.write(m, 0, m.length);
+			//end of mipmaps
+			for (int i = 0; i < 6; i++) {
+				out.write(0);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	/** Greedy LZSS compressor that writes the same format Bohemia Interactive uses */
+	@NotNull
+	private static byte[] lzssCompress(@NotNull byte[] in) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MatchFinder finder = new MatchFinder(in, 4095, 18);
+		int pos = 0;
+		while (pos < in.length) {
+			int flags = 0;
+			ByteArrayOutputStream group = new ByteArrayOutputStream();
+			for (int bit = 0; bit < 8 && pos < in.length; bit++) {
+				int[] match = finder.find(pos);
+				if (match == null) {
+					flags |= 1 << bit;
+					group.write(in[pos]);
+					finder.insert(pos);
+					pos++;
+					continue;
+				}
+				int distance = match[0], length = match[1];
+				group.write(distance & 0xff);
+				group.write(((distance >> 4) & 0xf0) | (length - 3));
+				for (int i = 0; i < length; i++) {
+					finder.insert(pos + i);
+				}
+				pos += length;
+			}
+			out.write(flags);
+			byte[] g = group.toByteArray();
+			out.write(g, 0, g.length);
+		}
+		int checksum = 0;
+		for (byte b : in) {
+			checksum += b & 0xff;
+		}
+		writeU32(out, checksum);
+		return out.toByteArray();
+	}
+
+	/** Greedy LZO1X compressor that only uses literal runs, 3-33+ byte matches, and the end of stream marker */
+	@NotNull
+	private static byte[] lzoCompress(@NotNull byte[] in) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MatchFinder finder = new MatchFinder(in, 16384, 264);
+		List<int[]> ops = new ArrayList<>(); //literal start, literal count, distance, match length
+		int literalStart = 0;
+		int pos = 0;
+		while (pos < in.length) {
+			int[] match = pos == 0 ? null : finder.find(pos);
+			if (match == null) {
+				finder.insert(pos);
+				pos++;
+				continue;
+			}
+			ops.add(new int[]{literalStart, pos - literalStart, match[0], match[1]});
+			for (int i = 0; i < match[1]; i++) {
+				finder.insert(pos + i);
+			}
+			pos += match[1];
+			literalStart = pos;
+		}
+		ops.add(new int[]{literalStart, pos - literalStart, 0, 0});
+
+		for (int opIndex = 0; opIndex < ops.size(); opIndex++) {
+			int[] op = ops.get(opIndex);
+			int literalCount = op[1];
+			if (opIndex == 0) {
+				//the first op always has literals since the first byte can't be a match
+				if (literalCount <= 238) {
+					out.write(17 + literalCount);
+				} else {
+					writeLzoLength(out, 0, literalCount - 3, 15);
+				}
+				out.write(in, op[0], literalCount);
+			} else if (literalCount > 3) {
+				writeLzoLength(out, 0, literalCount - 3, 15);
+				out.write(in, op[0], literalCount);
+			}
+			if (op[3] == 0) {
+				break;
+			}
+			int[] nextOp = ops.get(opIndex + 1);
+			int trailingLiterals = nextOp[1] <= 3 ? nextOp[1] : 0;
+			writeLzoLength(out, 32, op[3] - 2, 31);
+			int d = ((op[2] - 1) << 2) | trailingLiterals;
+			writeU16(out, d);
+			out.write(in, nextOp[0], trailingLiterals);
+		}
+		//end of stream
+		out.write(0x11);
+		out.write(0);
+		out.write(0);
+		return out.toByteArray();
+	}
+
+	private static void writeLzoLength(@NotNull ByteArrayOutputStream out, int marker, int length, int maxShort) {
+		if (length <= maxShort) {
+			out.write(marker | length);
+			return;
+		}
+		out.write(marker);
+		length -= maxShort;
+		while (length > 255) {
+			out.write(0);
+			length -= 255;
+		}
+		out.write(length);
+	}
+
+	/** Finds matches of at least 3 bytes with a hash chain */
+	private static class MatchFinder {
+		private final byte[] in;
+		private final int maxDistance, maxLength;
+		private final HashMap<Integer, Integer> head = new HashMap<>();
+		private final int[] prev;
+
+		MatchFinder(@NotNull byte[] in, int maxDistance, int maxLength) {
+			this.in = in;
+			this.maxDistance = maxDistance;
+			this.maxLength = maxLength;
+			this.prev = new int[in.length];
+		}
+
+		private int key(int pos) {
+			return (in[pos] & 0xff) | (in[pos + 1] & 0xff) << 8 | (in[pos + 2] & 0xff) << 16;
+		}
+
+		void insert(int pos) {
+			if (pos + 3 > in.length) {
+				return;
+			}
+			Integer last = head.put(key(pos), pos);
+			prev[pos] = last == null ? -1 : last;
+		}
+
+		/** @return {distance, length}, or null if there is no match */
+		int[] find(int pos) {
+			if (pos + 3 > in.length) {
+				return null;
+			}
+			Integer candidate = head.get(key(pos));
+			int bestLength = 0, bestDistance = 0;
+			int tries = 0;
+			while (candidate != null && candidate >= 0 && pos - candidate <= maxDistance && tries++ < 16) {
+				int length = 0;
+				while (length < maxLength && pos + length < in.length && in[candidate + length] == in[pos + length]) {
+					length++;
+				}
+				if (length > bestLength) {
+					bestLength = length;
+					bestDistance = pos - candidate;
+				}
+				candidate = prev[candidate];
+			}
+			return bestLength >= 3 ? new int[]{bestDistance, bestLength} : null;
+		}
+	}
+
+	private interface IndexForPixel {
+		int index(int pixel);
+	}
+
+	@NotNull
+	private static byte[] dxt1Block(int c0, int c1, @NotNull IndexForPixel indexForPixel) {
+		int bits = 0;
+		for (int i = 0; i < 16; i++) {
+			bits |= indexForPixel.index(i) << (2 * i);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writeU16(out, c0);
+		writeU16(out, c1);
+		writeU32(out, bits);
+		return out.toByteArray();
+	}
+
+	/** @return bytes made of repeated random chunks, so that they compress */
+	@NotNull
+	private static byte[] patternBytes(int length, long seed) {
+		Random r = new Random(seed);
+		byte[][] chunks = new byte[32][];
+		for (int i = 0; i < chunks.length; i++) {
+			chunks[i] = new byte[8 + r.nextInt(24)];
+			r.nextBytes(chunks[i]);
+		}
+		byte[] b = new byte[length];
+		int pos = 0;
+		while (pos < length) {
+			if (r.nextInt(8) == 0) {
+				b[pos++] = (byte) r.nextInt();
+				continue;
+			}
+			byte[] chunk = chunks[r.nextInt(chunks.length)];
+			int n = Math.min(chunk.length, length - pos);
+			System.arraycopy(chunk, 0, b, pos, n);
+			pos += n;
+		}
+		return b;
+	}
+
+	@NotNull
+	private static int[] solid(int count, int argb) {
+		int[] pixels = new int[count];
+		for (int i = 0; i < count; i++) {
+			pixels[i] = argb;
+		}
+		return pixels;
+	}
+
+	@NotNull
+	private static byte[] argb8888Bytes(@NotNull int[] pixels) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int pixel : pixels) {
+			writeU32(out, pixel);
+		}
+		return out.toByteArray();
+	}
+
+	@NotNull
+	private static byte[] u16Bytes(int... values) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int value : values) {
+			writeU16(out, value);
+		}
+		return out.toByteArray();
+	}
+
+	@NotNull
+	private static byte[] bytes(int... values) {
+		byte[] b = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			b[i] = (byte) values[i];
+		}
+		return b;
+	}
+
+	private static void writeU16(@NotNull ByteArrayOutputStream out, int v) {
+		out.write(v & 0xff);
+		out.write((v >> 8) & 0xff);
+	}
+
+	private static void writeU32(@NotNull ByteArrayOutputStream out, int v) {
+		writeU16(out, v & 0xffff);
+		writeU16(out, (v >>> 16) & 0xffff);
+	}
+
+	private static void writeAscii(@NotNull ByteArrayOutputStream out, @NotNull String s) {
+		for (int i = 0; i < s.length(); i++) {
+			out.write(s.charAt(i));
+		}
+	}
+}
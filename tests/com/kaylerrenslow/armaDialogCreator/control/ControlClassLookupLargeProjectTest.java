@@ -0,0 +1,147 @@
+package com.kaylerrenslow.armaDialogCreator.control;
+
+import com.kaylerrenslow.armaDialogCreator.control.sv.SVString;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ Builds and loads a project-sized amount of {@link ControlClass} instances and checks the lookup tables against a linear
+ search of the property and nested class lists.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class ControlClassLookupLargeProjectTest {
+
+	private static final int NUM_CONTROLS = 2000;
+	/** Number of classes the controls extend (like RscText, RscButton, etc) */
+	private static final int NUM_BASE_CLASSES = 20;
+	private static final ControlPropertyLookup[] LOOKUPS = ControlPropertyLookup.values();
+
+	@Test
+	public void lookupsMatchLinearSearch() throws Exception {
+		EmptySpecRegistry registry = new EmptySpecRegistry();
+		ControlClass base = new ControlClass(newSpec("Base", 0, LOOKUPS.length), registry);
+		ControlClass control = new ControlClass(newSpec("Control", 7, 60), registry);
+		control.extendControlClass(base);
+
+		for (ControlPropertyLookup lookup : LOOKUPS) {
+			assertSame(linearFind(control, lookup), control.findPropertyNullable(lookup));
+			assertSame(linearFindByName(control, lookup.getPropertyName()), control.findPropertyByNameNullable(lookup.getPropertyName()));
+		}
+		assertSame(linearFindNested(control, "Control_nested"), control.findNestedClassNullable("Control_nested"));
+		assertSame(linearFindNested(control, "Base_nested"), control.findNestedClassNullable("Base_nested"));
+
+		//renaming a nested class must update the lookup table
+		ControlClass nested = control.findNestedClass("Control_nested");
+		nested.setClassName("Renamed");
+		assertSame(null, control.findNestedClassNullable("Control_nested"));
+		assertSame(nested, control.findNestedClassNullable("Renamed"));
+
+		//temp nested classes are removed when no longer extending
+		control.extendControlClass(null);
+		assertSame(null, control.findNestedClassNullable("Base_nested"));
+	}
+
+	/**
+	 Builds a 2,000 control project where each control extends one of the base classes, sets every property the way
+	 the project loader does, and checks every lookup against a linear search.
+	 */
+	@Test
+	public void buildAndLoadProject() throws Exception {
+		EmptySpecRegistry registry = new EmptySpecRegistry();
+		List<ControlClass> bases = new ArrayList<>(NUM_BASE_CLASSES);
+		for (int i = 0; i < NUM_BASE_CLASSES; i++) {
+			bases.add(new ControlClass(newSpec("Base" + i, 0, LOOKUPS.length), registry));
+		}
+
+		List<ControlClass> controls = new ArrayList<>(NUM_CONTROLS);
+		for (int i = 0; i < NUM_CONTROLS; i++) {
+			ControlClass control = new ControlClass(newSpec("Control" + i, i % 11, 40), registry);
+			control.extendControlClass(bases.get(i % NUM_BASE_CLASSES));
+			controls.add(control);
+		}
+
+		SVString value = new SVString("value");
+		for (ControlClass control : controls) {
+			for (ControlPropertyLookup lookup : LOOKUPS) {
+				ControlProperty property = control.findPropertyByNameNullable(lookup.getPropertyName());
+				if (property != null && !property.isInherited()) {
+					control.findProperty(lookup).setValue(value);
+				}
+			}
+		}
+
+		for (int i = 0; i < controls.size(); i++) {
+			ControlClass control = controls.get(i);
+			//the linear search is slow, so only compare with it for some of the controls (with different base classes)
+			boolean compareLinear = i % 7 == 0;
+			for (ControlPropertyLookup lookup : LOOKUPS) {
+				ControlProperty property = control.findPropertyNullable(lookup);
+				if (property != null && !property.isInherited()) {
+					assertSame(value, property.getValue());
+				}
+				if (compareLinear) {
+					assertSame(linearFind(control, lookup), property);
+					assertSame(linearFindByName(control, lookup.getPropertyName()), control.findPropertyByNameNullable(lookup.getPropertyName()));
+				}
+			}
+			String nestedName = control.getClassName() + "_nested";
+			assertNotNull(control.findNestedClassNullable(nestedName));
+			assertSame(linearFindNested(control, nestedName), control.findNestedClassNullable(nestedName));
+		}
+	}
+
+	/**
+	 @return a specification with <code>count</code> properties starting at <code>LOOKUPS[offset]</code>
+	 (the first 5 are required) and one optional nested class
+	 */
+	private static ControlClassSpecification newSpec(String className, int offset, int count) {
+		List<ControlPropertySpecification> required = new ArrayList<>();
+		List<ControlPropertySpecification> optional = new ArrayList<>();
+		for (int i = 0; i < count && offset + i < LOOKUPS.length; i++) {
+			ControlPropertySpecification spec = new ControlPropertySpecification(LOOKUPS[offset + i]);
+			if (i < 5) {
+				required.add(spec);
+			} else {
+				optional.add(spec);
+			}
+		}
+		ControlClassSpecification nested = new ControlClassSpecification(className + "_nested", Collections.emptyList(), Collections.emptyList());
+		return new ControlClassSpecification(className, required, optional, ControlClassSpecification.EMPTY, Arrays.asList(nested));
+	}
+
+	private static ControlProperty linearFind(ControlClass controlClass, ControlPropertyLookupConstant lookup) {
+		for (ControlProperty property : controlClass.getAllChildProperties()) {
+			if (property.getPropertyLookup() == lookup) {
+				return property;
+			}
+		}
+		return null;
+	}
+
+	/** Required properties are searched before optional properties, like {@link ControlClass#findPropertyByNameNullable(String)} */
+	private static ControlProperty linearFindByName(ControlClass controlClass, String name) {
+		for (ControlProperty property : controlClass.getAllChildProperties()) {
+			if (property.getName().equals(name)) {
+				return property;
+			}
+		}
+		return null;
+	}
+
+	private static ControlClass linearFindNested(ControlClass controlClass, String className) {
+		for (ControlClass nested : controlClass.getAllNestedClasses()) {
+			if (nested.getClassName().equals(className)) {
+				return nested;
+			}
+		}
+		return null;
+	}
+}
@@ -3,13 +3,20 @@ package com.kaylerrenslow.armaDialogCreator.control;
 import com.kaylerrenslow.armaDialogCreator.control.sv.SVString;
 import com.kaylerrenslow.armaDialogCreator.control.sv.SerializableValue;
 import com.kaylerrenslow.armaDialogCreator.util.ReadOnlyList;
+import com.kaylerrenslow.armaDialogCreator.util.UpdateGroupListener;
+import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  This test is designed to check if properties that are inherited, and are temporary inherited properties, will be
@@ -156,6 +163,127 @@ public class ControlClassTest_DeepInheritance {
 	}
 
 
+	@Test
+	public void extendPropagatesToExistingSubClasses() {
+		//a class that already has sub classes starts extending a class. The sub classes need to get the new temporary properties.
+
+		EmptySpecRegistry registry = new EmptySpecRegistry();
+		RscText rscText = new RscText(registry);
+		Empty empty = new Empty("Empty", registry);
+		Empty empty2 = new Empty("Empty2", registry);
+
+		SerializableValue style = new SVString("style");
+		rscText.findProperty(ControlPropertyLookup.STYLE).setValue(style);
+
+		empty2.extendControlClass(empty);
+		UpdateCounter counter = new UpdateCounter(empty2);
+
+		empty.extendControlClass(rscText);
+
+		assertEquals(style, empty.findProperty(ControlPropertyLookup.STYLE).getValue());
+		assertEquals(style, empty2.findProperty(ControlPropertyLookup.STYLE).getValue());
+		assertEquals(1, counter.updates.size());
+		assertTrue(counter.updates.get(0) instanceof ControlClassInheritanceBatchUpdate);
+
+		empty.extendControlClass(null);
+
+		assertEquals(null, empty2.findProperty(ControlPropertyLookup.STYLE).getValue());
+		assertEquals(false, empty2.findProperty(ControlPropertyLookup.STYLE).isInherited());
+		assertEquals(2, counter.updates.size());
+	}
+
+	/** A chain of 10 classes where the top of the chain starts extending a class with every property */
+	@Test
+	public void deepChain() {
+		EmptySpecRegistry registry = new EmptySpecRegistry();
+		ControlClass base = new ControlClass(allPropertiesSpecification(), registry);
+		List<ControlClass> chain = new ArrayList<>();
+		List<UpdateCounter> counters = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Empty empty = new Empty("Chain" + i, registry);
+			if (i > 0) {
+				empty.extendControlClass(chain.get(i - 1));
+			}
+			chain.add(empty);
+			counters.add(new UpdateCounter(empty));
+		}
+		int propertyCount = propertyCount(base);
+
+		chain.get(0).extendControlClass(base);
+		for (UpdateCounter counter : counters) {
+			assertEquals(1, counter.batchUpdates);
+			assertEquals(propertyCount, counter.recorded);
+		}
+
+		chain.get(0).extendControlClass(null);
+		for (UpdateCounter counter : counters) {
+			assertEquals(2, counter.batchUpdates);
+			assertEquals(propertyCount * 2, counter.recorded);
+		}
+	}
+
+	/** 500 classes extend the same class and then that class starts extending a class with every property */
+	@Test
+	public void wideSubClasses() {
+		EmptySpecRegistry registry = new EmptySpecRegistry();
+		ControlClass base = new ControlClass(allPropertiesSpecification(), registry);
+		Empty parent = new Empty("Parent", registry);
+		List<UpdateCounter> counters = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			Empty empty = new Empty("Sub" + i, registry);
+			empty.extendControlClass(parent);
+			counters.add(new UpdateCounter(empty));
+		}
+		int propertyCount = propertyCount(base);
+
+		parent.extendControlClass(base);
+		for (UpdateCounter counter : counters) {
+			assertEquals(1, counter.batchUpdates);
+			assertEquals(propertyCount, counter.recorded);
+		}
+
+		parent.extendControlClass(null);
+		for (UpdateCounter counter : counters) {
+			assertEquals(2, counter.batchUpdates);
+			assertEquals(propertyCount * 2, counter.recorded);
+		}
+	}
+
+	/** @return number of properties a sub class inherits. Properties are inherited by name, and 2 lookups share the name "color". */
+	private static int propertyCount(@NotNull ControlClass controlClass) {
+		Set<String> names = new HashSet<>();
+		for (ControlProperty property : controlClass.getAllChildProperties()) {
+			names.add(property.getName());
+		}
+		return names.size();
+	}
+
+	private static ControlClassSpecification allPropertiesSpecification() {
+		List<ControlPropertySpecification> optional = new ArrayList<>();
+		for (ControlPropertyLookup lookup : ControlPropertyLookup.values()) {
+			optional.add(new ControlPropertySpecification(lookup));
+		}
+		return new ControlClassSpecification("AllProperties", Collections.emptyList(), optional);
+	}
+
+	private static class UpdateCounter implements UpdateGroupListener<ControlClassUpdate> {
+		final List<ControlClassUpdate> updates = new ArrayList<>();
+		int batchUpdates, recorded;
+
+		UpdateCounter(@NotNull ControlClass controlClass) {
+			controlClass.getControlClassUpdateGroup().addListener(this);
+		}
+
+		@Override
+		public void update(@NotNull UpdateListenerGroup<ControlClassUpdate> group, ControlClassUpdate data) {
+			updates.add(data);
+			if (data instanceof ControlClassInheritanceBatchUpdate) {
+				batchUpdates++;
+				recorded += ((ControlClassInheritanceBatchUpdate) data).getRecordedCount();
+			}
+		}
+	}
+
 	//	@Test
 	//	public void forceInheritNestedClasses() {
 	//		//this tests for forcibly inheriting nested classes
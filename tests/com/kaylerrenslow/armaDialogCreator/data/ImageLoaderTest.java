@@ -0,0 +1,132 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ JavaFX images can't be created without the toolkit, so these tests use {@link FileLruCache} with Strings and
+ an {@link ImageLoader} with a loader that returns null.
+
+ @author Kayler
+ @since 10/17/2026 */
+public class ImageLoaderTest {
+
+	@Test
+	public void dedupInFlight() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger(0);
+		ImageLoader loader = new ImageLoader(pool, requestedFile -> {
+			loads.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException ignore) {
+			}
+			return null;
+		});
+
+		CountDownLatch done = new CountDownLatch(11);
+		List<String> results = Collections.synchronizedList(new ArrayList<>());
+		for (int i = 0; i < 10; i++) {
+			loader.load(new File("a.png"), image -> {
+				results.add("a:" + image);
+				done.countDown();
+				return null;
+			});
+		}
+		loader.load(new File("b.png"), image -> {
+			results.add("b:" + image);
+			done.countDown();
+			return null;
+		});
+		release.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		pool.shutdown();
+		assertEquals(2, loads.get());
+		assertEquals(11, results.size());
+		assertEquals(11, loader.getRequestCount());
+		assertEquals(9, loader.getDedupedCount());
+		assertEquals(2, loader.getLoadCount());
+	}
+
+	@Test
+	public void nullFile() throws Exception {
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		ImageLoader loader = new ImageLoader(pool, requestedFile -> {
+			throw new IllegalStateException("shouldn't be loaded");
+		});
+		CountDownLatch done = new CountDownLatch(1);
+		loader.load(null, image -> {
+			assertNull(image);
+			done.countDown();
+			return null;
+		});
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		pool.shutdown();
+		assertEquals(0, loader.getRequestCount());
+	}
+
+	@Test
+	public void cacheKeyedByLastModified() throws Exception {
+		File f = File.createTempFile("ImageLoaderTest", ".png");
+		f.deleteOnExit();
+		FileLruCache<String> cache = new FileLruCache<>(1000, String::length);
+
+		cache.put(f, f.lastModified(), "image");
+		assertEquals("image", cache.get(f));
+		assertEquals(1, cache.getHitCount());
+
+		assertTrue(f.setLastModified(f.lastModified() - 10_000));
+		assertNull(cache.get(f));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getUsedBytes());
+
+		cache.put(f, f.lastModified(), "image2");
+		cache.invalidate(f);
+		assertNull(cache.get(f));
+		assertTrue(f.delete());
+	}
+
+	@Test
+	public void cacheBudget() throws Exception {
+		File dir = Files.createTempDirectory("ImageLoaderTest").toFile();
+		FileLruCache<String> cache = new FileLruCache<>(100, String::length);
+		File a = new File(dir, "a"), b = new File(dir, "b"), c = new File(dir, "c"), big = new File(dir, "big");
+		//files don't exist, so lastModified is 0
+		cache.put(a, 0, "aaaaaaaaaaaaaaaaaaaa"); //20
+		cache.put(b, 0, "bbbbbbbbbbbbbbbbbbbbbbbbb"); //25
+		cache.put(c, 0, "cccccccccccccccccccccccc"); //24
+		assertEquals(69, cache.getUsedBytes());
+
+		assertNotNull(cache.get(a)); //a is now most recently used
+		cache.put(new File(dir, "d"), 0, "dddddddddddddddddddddddddddddddddddddddd".substring(0, 25));
+		cache.put(new File(dir, "e"), 0, "eeeeeeeeeeeeeeeeeeeeeeeee");
+		assertNull(cache.get(b)); //least recently used
+		assertNotNull(cache.get(a));
+		assertTrue(cache.getUsedBytes() <= 100);
+		assertEquals(1, cache.getEvictionCount());
+
+		//more than a quarter of the budget isn't cached
+		cache.put(big, 0, "0123456789012345678901234567890");
+		assertNull(cache.get(big));
+
+		cache.setBudgetBytes(30);
+		assertTrue(cache.getUsedBytes() <= 30);
+		cache.clear();
+		assertEquals(0, cache.getUsedBytes());
+		assertTrue(dir.delete());
+	}
+}
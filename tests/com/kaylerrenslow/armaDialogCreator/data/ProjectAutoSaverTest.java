@@ -0,0 +1,170 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class ProjectAutoSaverTest {
+
+	@Test
+	public void skipWhenNothingChanged() throws Exception {
+		Changelog changelog = new Changelog(20);
+		AtomicInteger snapshots = new AtomicInteger(0);
+		ProjectAutoSaver saver = new ProjectAutoSaver(changelog, Runnable::run, () -> {
+			snapshots.incrementAndGet();
+			return () -> 10;
+		});
+
+		assertFalse(saver.isDirty());
+		assertFalse(saver.autoSave());
+		assertEquals(0, snapshots.get());
+		assertEquals(1, saver.getSkippedCount());
+		assertEquals(-1, saver.getLastBytesWritten());
+	}
+
+	@Test
+	public void saveAfterChange() throws Exception {
+		Changelog changelog = new Changelog(20);
+		AtomicInteger writes = new AtomicInteger(0);
+		ProjectAutoSaver saver = new ProjectAutoSaver(changelog, Runnable::run, () -> () -> {
+			writes.incrementAndGet();
+			return 1234;
+		});
+
+		changelog.addChange(new TestChange());
+		assertTrue(saver.isDirty());
+		assertTrue(saver.autoSave());
+		assertFalse(saver.isDirty());
+		assertEquals(1, writes.get());
+		assertEquals(1234, saver.getLastBytesWritten());
+		assertTrue(saver.getLastSaveMillis() >= 0);
+		assertTrue(saver.getLastSaveTime() > 0);
+
+		assertFalse(saver.autoSave());
+		assertEquals(1, writes.get());
+		assertEquals(1, saver.getSaveCount());
+		assertEquals(1, saver.getSkippedCount());
+
+		changelog.undo();
+		assertTrue(saver.autoSave());
+		assertEquals(2, writes.get());
+	}
+
+	@Test
+	public void snapshotTakenOnProjectThread() throws Exception {
+		Changelog changelog = new Changelog(20);
+		ExecutorService projectThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "project thread"));
+		AtomicReference<String> snapshotThread = new AtomicReference<>();
+		AtomicReference<String> writeThread = new AtomicReference<>();
+		ProjectAutoSaver saver = new ProjectAutoSaver(changelog, projectThread, () -> {
+			snapshotThread.set(Thread.currentThread().getName());
+			return () -> {
+				writeThread.set(Thread.currentThread().getName());
+				return 1;
+			};
+		});
+
+		changelog.addChange(new TestChange());
+		assertTrue(saver.autoSave());
+		assertEquals("project thread", snapshotThread.get());
+		assertEquals(Thread.currentThread().getName(), writeThread.get());
+		assertTrue(saver.getLastSnapshotMillis() >= 0);
+
+		projectThread.shutdown();
+	}
+
+	@Test
+	public void changeDuringWriteStaysDirty() throws Exception {
+		Changelog changelog = new Changelog(20);
+		ProjectAutoSaver saver = new ProjectAutoSaver(changelog, Runnable::run, () -> () -> {
+			//change made after the snapshot was taken
+			changelog.addChange(new TestChange());
+			return 1;
+		});
+
+		changelog.addChange(new TestChange());
+		assertTrue(saver.autoSave());
+		assertTrue(saver.isDirty());
+	}
+
+	@Test
+	public void failedSaveStaysDirty() throws Exception {
+		Changelog changelog = new Changelog(20);
+		IOException error = new IOException("disk full");
+		ProjectAutoSaver saver = new ProjectAutoSaver(changelog, Runnable::run, () -> () -> {
+			throw error;
+		});
+
+		changelog.addChange(new TestChange());
+		try {
+			saver.autoSave();
+			fail("expected IOException");
+		} catch (IOException e) {
+			assertSame(error, e);
+		}
+		assertTrue(saver.isDirty());
+		assertSame(error, saver.getLastError());
+		assertEquals(0, saver.getSaveCount());
+	}
+
+	@Test
+	public void saveSnapshotMarksSaved() throws Exception {
+		Changelog changelog = new Changelog(20);
+		AtomicInteger snapshots = new AtomicInteger(0);
+		ProjectAutoSaver saver = new ProjectAutoSaver(changelog, Runnable::run, () -> {
+			snapshots.incrementAndGet();
+			return () -> 1;
+		});
+
+		changelog.addChange(new TestChange());
+		saver.saveSnapshot(() -> 55, saver.getChangeCount());
+		assertFalse(saver.isDirty());
+		assertEquals(55, saver.getLastBytesWritten());
+		assertFalse(saver.autoSave());
+		assertEquals(0, snapshots.get());
+
+		saver.stop();
+		changelog.addChange(new TestChange());
+		assertFalse(saver.isDirty());
+	}
+
+	private static class TestChange implements Change {
+		private final ChangeRegistrar registrar = new ChangeRegistrar() {
+			@Override
+			public void undo(@NotNull Change c) {
+			}
+
+			@Override
+			public void redo(@NotNull Change c) {
+			}
+		};
+
+		@NotNull
+		@Override
+		public String getShortName() {
+			return "test";
+		}
+
+		@NotNull
+		@Override
+		public String getDescription() {
+			return "test";
+		}
+
+		@NotNull
+		@Override
+		public ChangeRegistrar getRegistrar() {
+			return registrar;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package com.kaylerrenslow.armaDialogCreator.data;
+
+import com.kaylerrenslow.armaDialogCreator.control.Macro;
+import com.kaylerrenslow.armaDialogCreator.control.sv.SVDouble;
+import com.kaylerrenslow.armaDialogCreator.control.sv.SVExpression;
+import com.kaylerrenslow.armaDialogCreator.control.sv.SVString;
+import com.kaylerrenslow.armaDialogCreator.expression.SimpleEnv;
+import com.kaylerrenslow.armaDialogCreator.expression.Value;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class ProjectMacroRegistryTest {
+
+	@Test
+	public void lookupByKey() throws Exception {
+		ProjectMacroRegistry registry = new ProjectMacroRegistry();
+		Macro<SVDouble> gridW = Macro.newMacro("GUI_GRID_W", new SVDouble(0.025));
+		Macro<SVString> text = Macro.newMacro("TEXT", new SVString("text"));
+		registry.addMacro(gridW);
+		registry.addMacro(text);
+
+		assertSame(gridW, registry.findMacroByKey("GUI_GRID_W"));
+		assertNull(registry.findMacroByKey("gui_grid_w"));
+		assertEquals(0.025, registry.getMacroValue("GUI_GRID_W").v(), 0);
+		assertNull(registry.getMacroValue("TEXT"));
+		assertNull(registry.getMacroValue("NOT_A_MACRO"));
+
+		gridW.setValue(new SVDouble(0.5));
+		assertEquals(0.5, registry.getMacroValue("GUI_GRID_W").v(), 0);
+
+		gridW.setKey("GUI_GRID_H");
+		assertNull(registry.findMacroByKey("GUI_GRID_W"));
+		assertNull(registry.getMacroValue("GUI_GRID_W"));
+		assertEquals(0.5, registry.getMacroValue("GUI_GRID_H").v(), 0);
+
+		registry.removeMacro(gridW);
+		assertNull(registry.getMacroValue("GUI_GRID_H"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void duplicateKey() throws Exception {
+		ProjectMacroRegistry registry = new ProjectMacroRegistry();
+		registry.addMacro(Macro.newMacro("KEY", new SVDouble(1)));
+		registry.addMacro(Macro.newMacro("KEY", new SVDouble(2)));
+	}
+
+	@Test
+	public void onlyDependentsAreNotified() throws Exception {
+		ProjectMacroRegistry registry = new ProjectMacroRegistry();
+		Macro<SVDouble> gridW = Macro.newMacro("GUI_GRID_W", new SVDouble(0.025));
+		Macro<SVDouble> gridH = Macro.newMacro("GUI_GRID_H", new SVDouble(0.04));
+		registry.addMacro(gridW);
+		registry.addMacro(gridH);
+
+		RecordingDependent usesW = new RecordingDependent();
+		RecordingDependent usesH = new RecordingDependent();
+		registry.setDependencies(usesW, "safeZoneX + 2 * GUI_GRID_W", "1e5", "0.5");
+		registry.setDependencies(usesH, "10 * GUI_GRID_H");
+		assertEquals(1, registry.getDependentCount("GUI_GRID_W"));
+
+		gridW.setValue(new SVDouble(1));
+		assertEquals(1, usesW.updated.size());
+		assertEquals(0, usesH.updated.size());
+
+		//replace the old dependencies
+		registry.setDependencies(usesW, "GUI_GRID_H");
+		gridW.setValue(new SVDouble(2));
+		assertEquals(1, usesW.updated.size());
+		assertEquals(0, registry.getDependentCount("GUI_GRID_W"));
+
+		gridH.setValue(new SVDouble(2));
+		assertEquals(2, usesW.updated.size());
+		assertEquals(1, usesH.updated.size());
+
+		//adding a macro that an expression was already using
+		registry.setDependencies(usesW, "NEW_MACRO + 1");
+		registry.addMacro(Macro.newMacro("NEW_MACRO", new SVDouble(3)));
+		assertEquals("NEW_MACRO", usesW.updated.get(2));
+
+		registry.removeDependent(usesH);
+		gridH.setValue(new SVDouble(3));
+		assertEquals(1, usesH.updated.size());
+		assertEquals(0, registry.getDependentCount("GUI_GRID_H"));
+	}
+
+	@Test
+	public void expressionMacroDependenciesAreTransitive() throws Exception {
+		ProjectMacroRegistry registry = new ProjectMacroRegistry();
+		SimpleEnv env = new SimpleEnv();
+		env.put("GUI_GRID_W", new Value.NumVal(0.025));
+		env.put("ROW_W", new Value.NumVal(0.25));
+		env.put("CYCLE", new Value.NumVal(0.25));
+		Macro<SVDouble> gridW = Macro.newMacro("GUI_GRID_W", new SVDouble(0.025));
+		Macro<SVExpression> rowW = Macro.newMacro("ROW_W", new SVExpression("10 * GUI_GRID_W", env));
+		//uses each other, which shouldn't loop forever
+		Macro<SVExpression> cycle = Macro.newMacro("CYCLE", new SVExpression("ROW_W", env));
+		registry.addMacro(gridW);
+		registry.addMacro(rowW);
+		registry.addMacro(cycle);
+
+		RecordingDependent usesRow = new RecordingDependent();
+		registry.setDependencies(usesRow, "2 * ROW_W");
+		//macros that use a key aren't dependents of it
+		assertEquals(0, registry.getDependentCount("GUI_GRID_W"));
+		assertEquals(1, registry.getDependentCount("ROW_W"));
+
+		gridW.setValue(new SVDouble(0.5));
+		assertEquals(1, usesRow.updated.size());
+		assertEquals("ROW_W", usesRow.updated.get(0));
+
+		cycle.setValue(new SVExpression("CYCLE + ROW_W", env));
+		rowW.setValue(new SVExpression("CYCLE", env));
+		assertEquals(2, usesRow.updated.size());
+		gridW.setValue(new SVDouble(1));
+		assertEquals(2, usesRow.updated.size());
+		cycle.setValue(new SVExpression("ROW_W", env));
+		assertEquals(3, usesRow.updated.size());
+
+		//still expressions, but they no longer use other macros
+		rowW.setValue(new SVExpression("1", env));
+		cycle.setValue(new SVExpression("2", env));
+		assertEquals(4, usesRow.updated.size());
+
+		registry.setDependencies(usesRow, "CYCLE");
+		cycle.setValue(new SVExpression("GUI_GRID_W", env));
+		assertEquals(5, usesRow.updated.size());
+		gridW.setValue(new SVDouble(2));
+		assertEquals(6, usesRow.updated.size());
+		assertEquals("CYCLE", usesRow.updated.get(5));
+		registry.removeMacro(cycle);
+		assertEquals(7, usesRow.updated.size());
+		gridW.setValue(new SVDouble(3));
+		assertEquals(7, usesRow.updated.size());
+	}
+
+	@Test
+	public void findIdentifiers() throws Exception {
+		Set<String> identifiers = new HashSet<>();
+		ProjectMacroRegistry.findIdentifiers("safeZoneX + 0.5e3 * (GUI_GRID_W max _a1) + 0xFF", identifiers);
+		assertEquals(4, identifiers.size());
+		assertTrue(identifiers.contains("safeZoneX"));
+		assertTrue(identifiers.contains("GUI_GRID_W"));
+		assertTrue(identifiers.contains("max"));
+		assertTrue(identifiers.contains("_a1"));
+	}
+
+	private static class RecordingDependent implements MacroDependent {
+		final List<String> updated = new ArrayList<>();
+
+		@Override
+		public void macroUpdated(@NotNull String macroKey) {
+			updated.add(macroKey);
+		}
+	}
+}
@@ -1,16 +1,21 @@
 package com.kaylerrenslow.armaDialogCreator.data.xml;
 
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.*;
+import com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl.StringTableImpl;
 import com.kaylerrenslow.armaDialogCreator.arma.stringtable.impl.StringTableKeyImpl;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
 
+import static org.junit.Assert.*;
+
 /**
  @author Kayler
  @since 12/12/2016 */
@@ -130,6 +135,74 @@ public class DefaultStringTableXmlParserTest {
 		testTable(testKeys, tableInstance, true);
 	}
 
+	@Test
+	public void writeAndParse() throws Exception {
+		File dir = Files.createTempDirectory("DefaultStringTableXmlParserTest").toFile();
+		File file = new File(dir, "stringtable.xml");
+		try {
+			ObservableMap<Language, String> values = FXCollections.observableHashMap();
+			values.put(KnownLanguage.Original, "<t size='2'>Tom & \"Jerry\"</t>");
+			values.put(new CustomLanguage("Klingon"), "Qapla'");
+			StringTableKey nested = new StringTableKeyImpl("str_tag_nested", new StringTableKeyPath("Pkg \"1\"", "A", "B"), values);
+			StringTableKey noPackage = new TestStringTableKey("str_tag_root", null, null,
+					new Language[]{KnownLanguage.English}, new String[]{"root"}
+			);
+			StringTableKey inA = new TestStringTableKey("str_tag_inA", "Pkg \"1\"", "A", new Language[]{KnownLanguage.German}, new String[]{"a"});
+			ObservableList<StringTableKey> keys = FXCollections.observableArrayList(nested, noPackage, inA);
+			new StringTableXmlWriter().writeTable(new StringTableImpl(file, keys, "Tom & Jerry"));
+
+			DefaultStringTableXmlParser parser = new DefaultStringTableXmlParser(file);
+			StringTable parsed = parser.createStringTableInstance();
+			assertEquals("Tom & Jerry", parsed.getStringTableProjectName());
+			assertEquals(3, parsed.getKeys().size());
+			assertEquals(3, parser.getParsedKeyCount());
+			for (StringTableKey key : keys) {
+				StringTableKey parsedKey = parsed.getKeyById(key.getId());
+				assertNotNull(key.getId(), parsedKey);
+				assertTrue(key.getId(), key.equalsKey(parsedKey));
+			}
+		} finally {
+			file.delete();
+			dir.delete();
+		}
+	}
+
+	/** Writes and streams a large table without keeping the parsed keys */
+	@Test
+	public void parseThroughput() throws Exception {
+		final int numKeys = 50_000;
+		File dir = Files.createTempDirectory("DefaultStringTableXmlParserTest").toFile();
+		File file = new File(dir, "stringtable.xml");
+		try {
+			ObservableList<StringTableKey> keys = FXCollections.observableArrayList();
+			for (int i = 0; i < numKeys; i++) {
+				ObservableMap<Language, String> values = LanguageTokenMap.newObservableMap();
+				for (KnownLanguage language : KnownLanguage.values()) {
+					values.put(language, language.getName() + " text of key number " + i);
+				}
+				keys.add(new StringTableKeyImpl("str_tag_key" + i, new StringTableKeyPath("Package" + (i % 5), "Container" + (i % 50)), values));
+			}
+			new StringTableXmlWriter().writeTable(new StringTableImpl(file, keys, "Big"));
+			keys.clear();
+
+			DefaultStringTableXmlParser parser = new DefaultStringTableXmlParser(file);
+			int[] count = {0};
+			int[] valueCount = {0};
+			parser.parseKeys(key -> {
+				count[0]++;
+				valueCount[0] += key.getLanguageTokenMap().size();
+			});
+			assertEquals(numKeys, count[0]);
+			assertEquals(numKeys * KnownLanguage.values().length, valueCount[0]);
+			assertEquals(numKeys, parser.getParsedKeyCount());
+			assertTrue(parser.getParseNanos() > 0);
+			assertTrue(parser.getKeysPerSecond() > 0);
+		} finally {
+			file.delete();
+			dir.delete();
+		}
+	}
+
 	private void testTable(TestStringTableKey[] testKeys, StringTable tableInstance, boolean expectError) {
 		List<StringTableKey> keys = tableInstance.getKeys();
 		String errMsg = "";
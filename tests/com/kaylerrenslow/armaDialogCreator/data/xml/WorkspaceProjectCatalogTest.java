@@ -0,0 +1,164 @@
+package com.kaylerrenslow.armaDialogCreator.data.xml;
+
+import com.kaylerrenslow.armaDialogCreator.data.Project;
+import com.kaylerrenslow.armaDialogCreator.data.Workspace;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class WorkspaceProjectCatalogTest {
+	private static final Executor DIRECT = Runnable::run;
+
+	private File root;
+	private File workspaceDirectory;
+	private File indexFile;
+	private Workspace workspace;
+
+	@Before
+	public void setUp() throws IOException {
+		root = Files.createTempDirectory("WorkspaceProjectCatalogTest").toFile();
+		workspaceDirectory = new File(root, "workspace");
+		workspaceDirectory.mkdirs();
+		indexFile = new File(root, "index/" + WorkspaceProjectCatalog.CATALOG_FILE_NAME);
+		workspace = new Workspace(workspaceDirectory);
+	}
+
+	@After
+	public void tearDown() {
+		delete(root);
+	}
+
+	@Test
+	public void refreshAndLoadIndex() throws Exception {
+		writeProject("p1", "<project name='Project 1' save-version='1' save-time='100' control-count='5'><display/></project>");
+		writeProject("p2", "<project name='Project 2' save-version='1' save-time='200'></project>");
+		new File(workspaceDirectory, "not a project").mkdirs();
+
+		WorkspaceProjectCatalog catalog = new WorkspaceProjectCatalog(workspace, indexFile);
+		assertFalse(catalog.loadIndex());
+		assertTrue(catalog.refresh(DIRECT).get());
+
+		List<WorkspaceProjectCatalog.Entry> entries = catalog.getEntries();
+		assertEquals(2, entries.size());
+		assertEntry(entries.get(0), "p1", "Project 1", 100, 5);
+		assertEntry(entries.get(1), "p2", "Project 2", 200, -1);
+		assertEquals(new File(workspaceDirectory, "p1/" + Project.PROJECT_SAVE_FILE_NAME).length(), entries.get(0).getFileSize());
+		assertTrue(indexFile.isFile());
+
+		WorkspaceProjectCatalog loaded = new WorkspaceProjectCatalog(workspace, indexFile);
+		assertTrue(loaded.loadIndex());
+		assertEquals(entries, loaded.getEntries());
+		assertFalse(loaded.refresh(DIRECT).get());
+
+		List<ProjectXmlLoader.ProjectPreviewParseResult> results = loaded.getPreviewParseResults();
+		assertEquals(2, results.size());
+		assertEquals("Project 1", results.get(0).getProjectInfo().getProjectName());
+	}
+
+	@Test
+	public void namesThatNeedEscaping() throws Exception {
+		writeProject("A & B", "<project name='Tom &amp; Jerry &lt;\"1\"&gt; &#39;s' save-version='1' save-time='100'/>");
+
+		WorkspaceProjectCatalog catalog = new WorkspaceProjectCatalog(workspace, indexFile);
+		assertTrue(catalog.refresh(DIRECT).get());
+		assertEntry(catalog.getEntries().get(0), "A & B", "Tom & Jerry <\"1\"> 's", 100, -1);
+
+		WorkspaceProjectCatalog loaded = new WorkspaceProjectCatalog(workspace, indexFile);
+		assertTrue(loaded.loadIndex());
+		assertEquals(catalog.getEntries(), loaded.getEntries());
+	}
+
+	@Test
+	public void onlyModifiedProjectsAreRead() throws Exception {
+		File p1 = writeProject("p1", "<project name='aaa' save-version='1'/>");
+		long lastModified = p1.lastModified();
+		WorkspaceProjectCatalog catalog = new WorkspaceProjectCatalog(workspace, indexFile);
+		assertTrue(catalog.refresh(DIRECT).get());
+
+		//same size and last modified time, so it isn't read again
+		writeProject("p1", "<project name='bbb' save-version='1'/>");
+		p1.setLastModified(lastModified);
+		assertFalse(catalog.refresh(DIRECT).get());
+		assertEquals("aaa", catalog.getEntries().get(0).getProjectName());
+
+		p1.setLastModified(lastModified + 10_000);
+		assertTrue(catalog.refresh(DIRECT).get());
+		assertEquals("bbb", catalog.getEntries().get(0).getProjectName());
+	}
+
+	@Test
+	public void removedAndBadProjects() throws Exception {
+		File p1 = writeProject("p1", "<project name='a' save-version='1'/>");
+		writeProject("p2", "not xml");
+		WorkspaceProjectCatalog catalog = new WorkspaceProjectCatalog(workspace, indexFile);
+		assertTrue(catalog.refresh(DIRECT).get());
+		assertEquals(1, catalog.getEntries().size());
+
+		delete(p1.getParentFile());
+		assertTrue(catalog.refresh(DIRECT).get());
+		assertEquals(0, catalog.getEntries().size());
+	}
+
+	@Test
+	public void parallelRefresh() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			writeProject("p" + i, "<project name='Project " + i + "' save-version='1' control-count='" + i + "'/>");
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			WorkspaceProjectCatalog catalog = new WorkspaceProjectCatalog(workspace, indexFile);
+			assertTrue(catalog.refresh(executor).get());
+			assertEquals(50, catalog.getEntries().size());
+			for (WorkspaceProjectCatalog.Entry entry : catalog.getEntries()) {
+				assertEquals("Project " + entry.getControlCount(), entry.getProjectName());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void assertEntry(@NotNull WorkspaceProjectCatalog.Entry entry, @NotNull String directoryName,
+									@NotNull String projectName, long saveTime, int controlCount) {
+		assertEquals(directoryName, entry.getDirectoryName());
+		assertEquals(projectName, entry.getProjectName());
+		assertEquals(saveTime, entry.getSaveTime());
+		assertEquals(controlCount, entry.getControlCount());
+	}
+
+	@NotNull
+	private File writeProject(@NotNull String directoryName, @NotNull String xml) throws IOException {
+		File directory = new File(workspaceDirectory, directoryName);
+		directory.mkdirs();
+		File projectFile = new File(directory, Project.PROJECT_SAVE_FILE_NAME);
+		try (FileOutputStream fos = new FileOutputStream(projectFile)) {
+			fos.write(("<?xml version='1.0' encoding='UTF-8' ?>" + xml).getBytes(StandardCharsets.UTF_8));
+		}
+		return projectFile;
+	}
+
+	private static void delete(@NotNull File f) {
+		File[] children = f.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		f.delete();
+	}
+}
@@ -0,0 +1,118 @@
+package com.kaylerrenslow.armaDialogCreator.data.xml;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class XmlLoaderTest {
+	private static final String XML = "<?xml version='1.0' encoding='UTF-8' ?>" +
+			"<project name='my &lt;project&gt;' save-version='1'>" +
+			"<project-description>a &amp; b</project-description>" +
+			"<display><display-controls type='main'>" +
+			"<control class-name='c1'><property id='1'>text <![CDATA[<cdata>]]> after</property></control>" +
+			"<folder name='f'><control class-name='c2'/></folder>" +
+			"</display-controls></display>" +
+			"<macros>\n\t<macro key='m'>v</macro>\n</macros>" +
+			"</project>";
+
+	@Test
+	public void readElementMatchesParsedDocument() throws Exception {
+		Document parsed = XmlLoader.getDocumentBuilder().parse(newInputStream());
+		parsed.getDocumentElement().normalize();
+
+		Document owner = XmlLoader.getDocumentBuilder().newDocument();
+		XMLStreamReader reader = XmlLoader.newStreamReader(newInputStream());
+		reader.nextTag();
+		Element streamed = XmlLoader.readElement(reader, owner);
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+		assertEquals("project", reader.getLocalName());
+
+		assertSameNode(parsed.getDocumentElement(), streamed);
+	}
+
+	@Test
+	public void skipElement() throws Exception {
+		Document owner = XmlLoader.getDocumentBuilder().newDocument();
+		XMLStreamReader reader = XmlLoader.newStreamReader(newInputStream());
+		reader.nextTag();
+		Element project = XmlLoader.newElement(reader, owner);
+		assertEquals("my <project>", project.getAttribute("name"));
+		assertEquals(0, project.getChildNodes().getLength());
+
+		int event;
+		StringBuilder read = new StringBuilder();
+		while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			read.append(reader.getLocalName()).append(',');
+			XmlLoader.skipElement(reader);
+			assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+		}
+		assertEquals("project-description,display,macros,", read.toString());
+		assertEquals("project", reader.getLocalName());
+	}
+
+	@Test
+	public void readRootAttribute() throws Exception {
+		File f = File.createTempFile("XmlLoaderTest", ".xml");
+		f.deleteOnExit();
+		try (FileOutputStream fos = new FileOutputStream(f)) {
+			fos.write(XML.getBytes(StandardCharsets.UTF_8));
+		}
+		assertEquals("1", XmlLoader.readRootAttribute(f, "save-version"));
+		assertEquals("my <project>", XmlLoader.readRootAttribute(f, "name"));
+		assertEquals("", XmlLoader.readRootAttribute(f, "not-an-attribute"));
+	}
+
+	@Test(expected = XmlParseException.class)
+	public void readRootAttributeBadXml() throws Exception {
+		File f = File.createTempFile("XmlLoaderTest", ".xml");
+		f.deleteOnExit();
+		try (FileOutputStream fos = new FileOutputStream(f)) {
+			fos.write("not xml".getBytes(StandardCharsets.UTF_8));
+		}
+		XmlLoader.readRootAttribute(f, "name");
+	}
+
+	private static InputStream newInputStream() {
+		return new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void assertSameNode(Node expected, Node actual) {
+		assertEquals(expected.getNodeType(), actual.getNodeType());
+		assertEquals(expected.getNodeName(), actual.getNodeName());
+		if (expected.getNodeType() == Node.ELEMENT_NODE) {
+			Element expectedElement = (Element) expected;
+			Element actualElement = (Element) actual;
+			assertEquals(expectedElement.getAttributes().getLength(), actualElement.getAttributes().getLength());
+			for (int i = 0; i < expectedElement.getAttributes().getLength(); i++) {
+				Node attribute = expectedElement.getAttributes().item(i);
+				assertEquals(attribute.getNodeValue(), actualElement.getAttribute(attribute.getNodeName()));
+			}
+		} else {
+			assertEquals(expected.getNodeValue(), actual.getNodeValue());
+		}
+		NodeList expectedChildren = expected.getChildNodes();
+		NodeList actualChildren = actual.getChildNodes();
+		assertEquals(expected.getNodeName(), expectedChildren.getLength(), actualChildren.getLength());
+		for (int i = 0; i < expectedChildren.getLength(); i++) {
+			assertSameNode(expectedChildren.item(i), actualChildren.item(i));
+		}
+	}
+}
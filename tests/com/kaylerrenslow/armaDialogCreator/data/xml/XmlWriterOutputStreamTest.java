@@ -0,0 +1,173 @@
+package com.kaylerrenslow.armaDialogCreator.data.xml;
+
+import com.kaylerrenslow.armaDialogCreator.control.*;
+import com.kaylerrenslow.armaDialogCreator.control.sv.*;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class XmlWriterOutputStreamTest {
+
+	@Test
+	public void closeReplacesFileAndKeepsBackup() throws Exception {
+		File dir = Files.createTempDirectory("XmlWriterOutputStreamTest").toFile();
+		File xml = new File(dir, "save.xml");
+		write(xml, "old");
+		write(new File(dir, "save.xml.backup"), "older");
+
+		XmlWriterOutputStream stm = new XmlWriterOutputStream(xml);
+		stm.writeBeginTag("new");
+		stm.flush();
+		assertEquals("old", read(xml));
+		stm.close();
+		stm.close();
+
+		assertEquals("<new>", read(xml));
+		assertEquals("old", read(stm.getBackupFile()));
+		assertEquals(5, stm.getBytesWritten());
+		assertEquals(2, dir.listFiles().length);
+
+		deleteDir(dir);
+	}
+
+	@Test
+	public void closeWithoutExistingFile() throws Exception {
+		File dir = Files.createTempDirectory("XmlWriterOutputStreamTest").toFile();
+		File xml = new File(dir, "save.xml");
+
+		XmlWriterOutputStream stm = new XmlWriterOutputStream(xml);
+		stm.writeDefaultProlog();
+		stm.close();
+
+		assertEquals("<?xml version='1.0' encoding='UTF-8' ?>", read(xml));
+		assertFalse(stm.getBackupFile().exists());
+		assertEquals(1, dir.listFiles().length);
+
+		deleteDir(dir);
+	}
+
+	@Test
+	public void discardLeavesFileUntouched() throws Exception {
+		File dir = Files.createTempDirectory("XmlWriterOutputStreamTest").toFile();
+		File xml = new File(dir, "save.xml");
+		write(xml, "old");
+
+		XmlWriterOutputStream stm = new XmlWriterOutputStream(xml);
+		stm.writeBeginTag("new");
+		stm.discard();
+		stm.close();
+
+		assertEquals("old", read(xml));
+		assertEquals(1, dir.listFiles().length);
+
+		deleteDir(dir);
+	}
+
+	@Test
+	public void writeEscapedAndUtf8() throws Exception {
+		File dir = Files.createTempDirectory("XmlWriterOutputStreamTest").toFile();
+		File xml = new File(dir, "save.xml");
+		String text = "Don't <press> \"\u00fcber\" & \u65e5\u672c";
+
+		XmlWriterOutputStream stm = new XmlWriterOutputStream(xml);
+		stm.writeEscaped(text);
+		stm.write("|");
+		stm.write(XmlWriterOutputStream.esc(text));
+		stm.write("|".getBytes(StandardCharsets.UTF_8));
+		stm.write("\u00fc".getBytes(StandardCharsets.UTF_8));
+		stm.close();
+
+		String expected = "Don&#39;t &lt;press&gt; &quot;\u00fcber&quot; &amp; \u65e5\u672c";
+		assertEquals(expected + "|" + expected + "|\u00fc", read(xml));
+		assertEquals(expected, XmlWriterOutputStream.esc(text));
+		String plain = "nothing to escape";
+		assertSame(plain, XmlWriterOutputStream.esc(plain));
+
+		deleteDir(dir);
+	}
+
+	/**
+	 Saves a project with 5,000 controls 5 times. The controls are written the same way {@link ProjectSaveXmlWriter} writes them
+	 (controls can't be created without the JavaFX toolkit).
+	 */
+	@Test
+	public void save5000Controls() throws Exception {
+		File dir = Files.createTempDirectory("XmlWriterOutputStreamTest").toFile();
+		File saveFile = new File(dir, "project.xml");
+
+		List<ControlPropertySpecification> properties = new ArrayList<>();
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.IDC, new SVInteger(-1), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.X, new SVDouble(0.25), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.Y, new SVDouble(0.125), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.W, new SVDouble(0.3), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.H, new SVDouble(0.04), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.SIZE_EX, new SVDouble(0.035), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.FONT, SVFont.DEFAULT, null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.COLOR_TEXT, new SVColorArray(1.0, 1.0, 1.0, 1.0), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.COLOR_BACKGROUND, new SVColorArray(0.1, 0.2, 0.3, 0.75), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.TEXT, new SVString("Don't <press> this"), null));
+		properties.add(new ControlPropertySpecification(ControlPropertyLookup.TOOLTIP, new SVString("Tooltip text"), null));
+		ControlClassSpecification nested = new ControlClassSpecification("ScrollBar",
+				Collections.singletonList(new ControlPropertySpecification(ControlPropertyLookup.COLOR_TEXT, new SVColorArray(1.0, 1.0, 1.0, 0.6), null)),
+				Collections.singletonList(new ControlPropertySpecification(ControlPropertyLookup.TOOLTIP))
+		);
+
+		int controls = 5000;
+		for (int run = 0; run < 5; run++) {
+			XmlWriterOutputStream stm = new XmlWriterOutputStream(saveFile);
+			stm.writeDefaultProlog();
+			stm.write("<project name='Benchmark' save-version='1' save-time='" + System.currentTimeMillis() + "'>");
+			stm.write("<display><display-controls type='main'>");
+			for (int i = 0; i < controls; i++) {
+				stm.write("<control control-id='0' class-name='Control_" + i + "' extend-class='RscText'>");
+				for (ControlPropertySpecification property : properties) {
+					ProjectXmlUtil.writeControlPropertySpecification(stm, property);
+				}
+				ProjectXmlUtil.writeInheritControlPropertyLookup(stm, ControlPropertyLookup.STYLE);
+				stm.writeBeginTag("nested-required");
+				ProjectXmlUtil.writeControlClassSpecification(stm, nested);
+				stm.writeCloseTag("nested-required");
+				stm.write("</control>");
+			}
+			stm.write("</display-controls></display></project>");
+			stm.flush();
+			stm.close();
+			assertEquals(saveFile.length(), stm.getBytesWritten());
+		}
+
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(saveFile);
+		assertEquals(controls, document.getElementsByTagName("control").getLength());
+		Document backup = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(dir, "project.xml.backup"));
+		assertEquals(controls, backup.getElementsByTagName("control").getLength());
+		assertEquals(2, dir.listFiles().length);
+
+		deleteDir(dir);
+	}
+
+	private static void write(File f, String text) throws Exception {
+		Files.write(f.toPath(), text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(File f) throws Exception {
+		return new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+	}
+
+	private static void deleteDir(File dir) {
+		for (File f : dir.listFiles()) {
+			assertTrue(f.delete());
+		}
+		assertTrue(dir.delete());
+	}
+}
@@ -745,4 +745,60 @@ public class ExpressionInterpreterTest {
 		Value ret = interpreter.evaluate(eval, env).get();
 		assertEquals(new Value.NumVal(1), ret);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void evaluateNow() throws Exception {
+		double expected = 1 + (3 * 2);
+		String eval = "1 + (3 * 2)";
+		Value.NumVal ret = (Value.NumVal) interpreter.evaluateNow(eval, env);
+		assertEquals("", expected, ret.v(), 0);
+	}
+
+	@Test
+	public void evaluateNow_cachedExpressionUsesCurrentEnv() throws Exception {
+		SimpleEnv env = new SimpleEnv();
+		String eval = "a * 2";
+
+		env.put("a", new Value.NumVal(2));
+		assertEquals(new Value.NumVal(4), interpreter.evaluateNow(eval, env));
+
+		env.put("a", new Value.NumVal(3));
+		assertEquals(new Value.NumVal(6), interpreter.evaluateNow(eval, env));
+	}
+
+	@Test(expected = ExpressionEvaluationException.class)
+	public void evaluateNow_noInput() throws Exception {
+		interpreter.evaluateNow(" ", env);
+	}
+
+	@Test
+	public void parsedExpressionCache_evictsLeastRecentlyUsed() throws Exception {
+		ParsedExpressionCache cache = new ParsedExpressionCache(2);
+		AST.Expr one = new AST.IntegerExpr(1);
+		cache.put("1", one);
+		cache.put("2", new AST.IntegerExpr(2));
+		cache.get("1");
+		cache.put("3", new AST.IntegerExpr(3));
+
+		assertEquals(2, cache.size());
+		assertEquals(one, cache.get("1"));
+		assertEquals(null, cache.get("2"));
+	}
+
+	@Test
+	public void evaluateNow_nonNumeric() throws Exception {
+		assertEquals(new Value.StringLiteral("ab"), interpreter.evaluateNow("\"a\" + \"b\"", env));
+		assertEquals(Value.True, interpreter.evaluateNow("1 < 2", env));
+	}
+
+	@Test
+	public void evaluateNow_numericMatchesEvaluate() throws Exception {
+		String eval = "(2 max -a) + abs -3 * (7 % 4) / 2 ^ 2 - (1 min 0.5)";
+		assertEquals(interpreter.evaluate(eval, env).get(), interpreter.evaluateNow(eval, env));
+	}
+
+	@Test(expected = TerminateEvaluationException.class)
+	public void evaluateNow_stepLimitExceeded() throws Exception {
+		interpreter.evaluateNow("for [{}, {true}, {}] do {}", new SimpleEnv(), 1000);
+	}
+}
@@ -0,0 +1,94 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import com.kaylerrenslow.armaDialogCreator.arma.control.impl.utility.AlternatorHelper;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class AnimationRegistryTest {
+
+	@Test
+	public void earliestDeadline() {
+		AnimationRegistry registry = new AnimationRegistry();
+		assertFalse(registry.isAnimating());
+		assertFalse(registry.isFrameDue(Long.MAX_VALUE - 1));
+		assertEquals(AnimationRegistry.NO_DEADLINE, registry.getNextDeadline());
+
+		registry.registerEffect(500);
+		registry.registerEffect(200);
+		registry.registerEffect(900);
+		assertTrue(registry.isAnimating());
+		assertEquals(200, registry.getNextDeadline());
+		assertEquals(3, registry.getEffectCount());
+		assertFalse(registry.isFrameDue(199));
+		assertTrue(registry.isFrameDue(200));
+
+		registry.clear();
+		assertFalse(registry.isAnimating());
+		assertEquals(0, registry.getEffectCount());
+	}
+
+	@Test
+	public void alternatorRegistersOnlyWhileAlternating() {
+		AnimationRegistry registry = new AnimationRegistry();
+		AlternatorHelper alternator = new AlternatorHelper(0);
+		assertEquals(0, alternator.updateAndGetRatio(registry), 0);
+		assertFalse(registry.isAnimating());
+
+		alternator.setAlternateMillis(500);
+		double ratio = alternator.updateAndGetRatio(registry);
+		assertTrue(ratio >= 0 && ratio <= 1);
+		assertTrue(registry.isAnimating());
+		assertTrue(registry.isFrameDue(System.currentTimeMillis()));
+	}
+
+	@Test
+	public void alternatorResumesAfterNotBeingUsed() {
+		AnimationRegistry registry = new AnimationRegistry();
+		AlternatorHelper alternator = new AlternatorHelper(20);
+		assertEquals(0, alternator.updateAndGetRatio(registry, 1000), 0);
+		registry.clear();
+		assertEquals(0.5, alternator.updateAndGetRatio(registry, 1010), 0);
+		//not painted in the previous frame, so it doesn't jump ahead
+		registry.clear();
+		registry.clear();
+		assertEquals(0.5, alternator.updateAndGetRatio(registry, 1050), 0);
+		assertEquals(1, registry.getEffectCount());
+	}
+
+	@Test
+	public void alternatorKeepsAlternatingWithSlowFrames() {
+		AnimationRegistry registry = new AnimationRegistry();
+		AlternatorHelper alternator = new AlternatorHelper(20);
+		assertEquals(0, alternator.updateAndGetRatio(registry, 1000), 0);
+		//each frame takes longer than the alternate time
+		registry.clear();
+		assertEquals(0.25, alternator.updateAndGetRatio(registry, 1045), 0);
+		registry.clear();
+		assertEquals(0.5, alternator.updateAndGetRatio(registry, 1090), 0);
+		registry.clear();
+		assertEquals(0.75, alternator.updateAndGetRatio(registry, 1135), 0);
+	}
+
+	@Test
+	public void idlePercentage() {
+		FrameTimeMetric metric = new FrameTimeMetric();
+		assertEquals(0, metric.getIdlePercentage(), 0);
+
+		metric.frameFinished(1000, false);
+		metric.pulse(true);
+		for (int i = 0; i < 3; i++) {
+			metric.pulse(false);
+		}
+		assertEquals(4, metric.getPulseCount());
+		assertEquals(1, metric.getFrameCount());
+		assertEquals(75, metric.getIdlePercentage(), 0.0001);
+
+		metric.reset();
+		assertEquals(0, metric.getPulseCount());
+		assertEquals(0, metric.getIdlePercentage(), 0);
+	}
+}
@@ -0,0 +1,236 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class CanvasControlSpatialIndexTest {
+
+	private static final int CANVAS_WIDTH = 1920;
+	private static final int CANVAS_HEIGHT = 1080;
+
+	@Test
+	public void topmostControlIsInFront() throws Exception {
+		TestCanvasDisplay display = new TestCanvasDisplay();
+		TestCanvasControl back = control("back", 0, 0, 200, 200);
+		TestCanvasControl front = control("front", 50, 50, 50, 50);
+		TestCanvasControl bg = control("bg", 0, 0, 1000, 1000);
+		display.getControls().add(back);
+		display.getControls().add(front);
+		display.getBackgroundControls().add(bg);
+
+		CanvasControlSpatialIndex<TestCanvasControl> index = new CanvasControlSpatialIndex<>(display);
+		assertSame(front, index.getTopmostControlAt(75, 75));
+		assertSame(back, index.getTopmostControlAt(150, 150));
+		assertSame(bg, index.getTopmostControlAt(500, 500));
+		assertNull(index.getTopmostControlAt(1001, 10));
+
+		front.setEnabled(false);
+		assertSame(back, index.getTopmostControlAt(75, 75));
+	}
+
+	@Test
+	public void movedControlIsReindexed() throws Exception {
+		TestCanvasDisplay display = new TestCanvasDisplay();
+		TestCanvasControl control = control("control", 0, 0, 10, 10);
+		display.getControls().add(control);
+
+		CanvasControlSpatialIndex<TestCanvasControl> index = new CanvasControlSpatialIndex<>(display);
+		assertSame(control, index.getTopmostControlAt(5, 5));
+
+		control.translate(500, 500);
+		assertNull(index.getTopmostControlAt(5, 5));
+		assertSame(control, index.getTopmostControlAt(505, 505));
+
+		control.setPositionWH(-300, -300, 1000, 1000);
+		assertSame(control, index.getTopmostControlAt(-250, 650));
+	}
+
+	@Test
+	public void displayChangesRebuildIndex() throws Exception {
+		TestCanvasDisplay display = new TestCanvasDisplay();
+		TestCanvasControl control0 = control("control0", 0, 0, 10, 10);
+		TestCanvasControl control1 = control("control1", 0, 0, 10, 10);
+		display.getControls().add(control0);
+		display.getControls().add(control1);
+
+		CanvasControlSpatialIndex<TestCanvasControl> index = new CanvasControlSpatialIndex<>(display);
+		assertSame(control1, index.getTopmostControlAt(5, 5));
+
+		display.getControls().move(control1, 0);
+		assertSame(control0, index.getTopmostControlAt(5, 5));
+
+		display.getControls().remove(control0);
+		assertSame(control1, index.getTopmostControlAt(5, 5));
+		assertEquals(1, index.size());
+
+		//removed controls must not be re-indexed when they move
+		control0.translate(100, 100);
+		assertNull(index.getTopmostControlAt(105, 105));
+
+		display.getControls().clear();
+		assertNull(index.getTopmostControlAt(5, 5));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	public void controlsInsideRegion() throws Exception {
+		TestCanvasDisplay display = new TestCanvasDisplay();
+		TestCanvasControl inside0 = control("inside0", 10, 10, 20, 20);
+		TestCanvasControl inside1 = control("inside1", 100, 100, 200, 200);
+		TestCanvasControl overlapping = control("overlapping", 250, 250, 200, 200);
+		TestCanvasControl outside = control("outside", 600, 600, 10, 10);
+		display.getControls().add(inside0);
+		display.getControls().add(inside1);
+		display.getControls().add(overlapping);
+		display.getControls().add(outside);
+
+		CanvasControlSpatialIndex<TestCanvasControl> index = new CanvasControlSpatialIndex<>(display, 32);
+		List<TestCanvasControl> found = index.getControlsInside(new SimpleCanvasComponent(0, 0, 400, 400));
+		assertEquals(2, found.size());
+		assertSame(inside1, found.get(0));
+		assertSame(inside0, found.get(1));
+	}
+
+	@Test
+	public void matchesLinearScanOnMousePath() throws Exception {
+		Random random = new Random(8);
+		TestCanvasDisplay display = createLargeDisplay(random, 800);
+		CanvasControlSpatialIndex<TestCanvasControl> index = new CanvasControlSpatialIndex<>(display);
+
+		int[] path = recordMousePath(random, 5000);
+		for (int i = 0; i < path.length; i += 2) {
+			assertSame(linearTopmost(display, path[i], path[i + 1]), index.getTopmostControlAt(path[i], path[i + 1]));
+			if (i % 200 == 0) {
+				//move a control like a user dragging it would
+				display.getControls().get(random.nextInt(display.getControls().size())).translate(random.nextInt(41) - 20, random.nextInt(41) - 20);
+			}
+		}
+
+		for (int i = 0; i + 3 < path.length; i += 40) {
+			SimpleCanvasComponent selection = new SimpleCanvasComponent(0, 0, 0, 0);
+			selection.setPosition(path[i], path[i + 1], path[i + 2] + random.nextInt(600), path[i + 3] + random.nextInt(600));
+			assertEquals(linearInside(display, selection), index.getControlsInside(selection));
+		}
+	}
+
+	@Test
+	public void controlsMovedOnOtherThreads() throws Exception {
+		TestCanvasDisplay display = new TestCanvasDisplay();
+		List<TestCanvasControl> controls = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			TestCanvasControl control = control("control" + i, i * 20, 0, 10, 10);
+			controls.add(control);
+			display.getControls().add(control);
+		}
+		CanvasControlSpatialIndex<TestCanvasControl> index = new CanvasControlSpatialIndex<>(display);
+		assertEquals(40, index.size());
+
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int first = t * 10;
+			threads[t] = new Thread(() -> {
+				for (int i = first; i < first + 10; i++) {
+					controls.get(i).translate(0, 500);
+				}
+			});
+			threads[t].start();
+		}
+		for (int i = 0; !allDone(threads); i++) {
+			//query while the controls are moving
+			index.getTopmostControlAt(i % 800, 5);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		for (int i = 0; i < controls.size(); i++) {
+			assertNull(index.getTopmostControlAt(i * 20 + 5, 5));
+			assertSame(controls.get(i), index.getTopmostControlAt(i * 20 + 5, 505));
+		}
+	}
+
+	private static boolean allDone(Thread[] threads) {
+		for (Thread thread : threads) {
+			if (thread.isAlive()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static TestCanvasControl control(String name, int x, int y, int w, int h) {
+		TestCanvasControl control = new TestCanvasControl(name);
+		control.setPositionWH(x, y, w, h);
+		return control;
+	}
+
+	/** Mostly small controls (like a HUD or inventory list) with a few large ones and some disabled ones */
+	private static TestCanvasDisplay createLargeDisplay(Random random, int numControls) {
+		TestCanvasDisplay display = new TestCanvasDisplay();
+		display.getBackgroundControls().add(control("background", 0, 0, CANVAS_WIDTH, CANVAS_HEIGHT));
+		for (int i = 0; i < numControls; i++) {
+			int w, h;
+			if (random.nextInt(50) == 0) {
+				w = 300 + random.nextInt(1200);
+				h = 200 + random.nextInt(700);
+			} else {
+				w = 10 + random.nextInt(120);
+				h = 10 + random.nextInt(40);
+			}
+			TestCanvasControl control = control("control" + i, random.nextInt(CANVAS_WIDTH - w), random.nextInt(CANVAS_HEIGHT - h), w, h);
+			control.setEnabled(random.nextInt(10) != 0);
+			display.getControls().add(control);
+		}
+		return display;
+	}
+
+	/** @return x,y pairs of a mouse wandering over the canvas */
+	private static int[] recordMousePath(Random random, int moves) {
+		int[] path = new int[moves * 2];
+		int x = CANVAS_WIDTH / 2, y = CANVAS_HEIGHT / 2;
+		int dx = 0, dy = 0;
+		for (int i = 0; i < path.length; i += 2) {
+			dx = Math.max(-25, Math.min(25, dx + random.nextInt(7) - 3));
+			dy = Math.max(-25, Math.min(25, dy + random.nextInt(7) - 3));
+			x = Math.max(0, Math.min(CANVAS_WIDTH, x + dx));
+			y = Math.max(0, Math.min(CANVAS_HEIGHT, y + dy));
+			path[i] = x;
+			path[i + 1] = y;
+		}
+		return path;
+	}
+
+	private static TestCanvasControl linearTopmost(TestCanvasDisplay display, int x, int y) {
+		Iterator<TestCanvasControl> iterator = display.iteratorForAllControls(true);
+		while (iterator.hasNext()) {
+			TestCanvasControl control = iterator.next();
+			if (control.isEnabled() && control.containsPoint(x, y)) {
+				return control;
+			}
+		}
+		return null;
+	}
+
+	private static List<TestCanvasControl> linearInside(TestCanvasDisplay display, Region region) {
+		List<TestCanvasControl> inside = new ArrayList<>();
+		Iterator<TestCanvasControl> iterator = display.iteratorForAllControls(true);
+		while (iterator.hasNext()) {
+			TestCanvasControl control = iterator.next();
+			if (control.isEnabled() && region.contains(control)) {
+				inside.add(control);
+			}
+		}
+		return inside;
+	}
+}
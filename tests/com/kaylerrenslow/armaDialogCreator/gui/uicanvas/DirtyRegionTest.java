@@ -0,0 +1,76 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class DirtyRegionTest {
+
+	@Test
+	public void addIsUnion() throws Exception {
+		DirtyRegion region = new DirtyRegion();
+		assertTrue(region.isEmpty());
+
+		region.add(10, 20, 30, 40);
+		region.add(-5, 25, 15, 100);
+
+		assertFalse(region.isEmpty());
+		assertEquals(-5, region.getLeftX());
+		assertEquals(20, region.getTopY());
+		assertEquals(30, region.getRightX());
+		assertEquals(100, region.getBottomY());
+		assertEquals(35, region.getWidth());
+		assertEquals(80, region.getHeight());
+	}
+
+	@Test
+	public void invalidAreaIsIgnored() throws Exception {
+		DirtyRegion region = new DirtyRegion();
+		region.add(10, 10, 5, 20);
+		assertTrue(region.isEmpty());
+	}
+
+	@Test
+	public void clearThenAdd() throws Exception {
+		DirtyRegion region = new DirtyRegion();
+		region.add(0, 0, 100, 100);
+		region.clear();
+		region.add(50, 50, 60, 60);
+		assertEquals(50, region.getLeftX());
+		assertEquals(60, region.getBottomY());
+	}
+
+	@Test
+	public void clamp() throws Exception {
+		DirtyRegion region = new DirtyRegion();
+		region.add(-20, -20, 50, 2000);
+		region.clamp(100, 100);
+		assertEquals(0, region.getLeftX());
+		assertEquals(0, region.getTopY());
+		assertEquals(50, region.getRightX());
+		assertEquals(100, region.getBottomY());
+
+		region.clear();
+		region.add(150, 150, 200, 200);
+		region.clamp(100, 100);
+		assertTrue(region.isEmpty());
+	}
+
+	@Test
+	public void intersects() throws Exception {
+		DirtyRegion region = new DirtyRegion();
+		assertFalse(region.intersects(0, 0, 10, 10));
+
+		region.add(10, 10, 20, 20);
+		assertTrue(region.intersects(0, 0, 10, 10));
+		assertTrue(region.intersects(12, 12, 15, 15));
+		assertTrue(region.intersects(0, 0, 100, 100));
+		assertFalse(region.intersects(21, 0, 30, 30));
+		assertFalse(region.intersects(0, 0, 9, 100));
+	}
+}
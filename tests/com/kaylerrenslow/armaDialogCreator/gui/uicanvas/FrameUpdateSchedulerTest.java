@@ -0,0 +1,116 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class FrameUpdateSchedulerTest {
+
+	@Test
+	public void coalesce() throws Exception {
+		FrameUpdateScheduler scheduler = new FrameUpdateScheduler(false);
+		List<String> ran = new ArrayList<>();
+		Runnable render1 = () -> ran.add("render1");
+		Runnable render2 = () -> ran.add("render2");
+
+		scheduler.schedule(render1);
+		scheduler.schedule(render2);
+		scheduler.schedule(render1);
+		assertEquals(2, scheduler.getQueueDepth());
+
+		scheduler.drain();
+		assertEquals(2, ran.size());
+		assertEquals("render1", ran.get(0));
+		assertEquals("render2", ran.get(1));
+		assertEquals(0, scheduler.getQueueDepth());
+		assertEquals(3, scheduler.getRequestCount());
+		assertEquals(1, scheduler.getCoalescedCount());
+		assertEquals(1, scheduler.getDrainCount());
+
+		//nothing to run
+		scheduler.drain();
+		assertEquals(1, scheduler.getDrainCount());
+	}
+
+	@Test
+	public void scheduleWhileDraining() throws Exception {
+		FrameUpdateScheduler scheduler = new FrameUpdateScheduler(false);
+		List<String> ran = new ArrayList<>();
+		Runnable later = () -> ran.add("later");
+		Runnable first = () -> {
+			ran.add("first");
+			scheduler.schedule(later);
+			scheduler.drain(); //does nothing since already draining
+		};
+
+		scheduler.schedule(first);
+		scheduler.drain();
+		assertEquals(1, ran.size());
+		assertEquals(1, scheduler.getQueueDepth());
+
+		scheduler.drain();
+		assertEquals(2, ran.size());
+		assertEquals("later", ran.get(1));
+	}
+
+	@Test
+	public void exceptionDoesNotStopOtherUpdates() throws Exception {
+		FrameUpdateScheduler scheduler = new FrameUpdateScheduler(false);
+		List<String> ran = new ArrayList<>();
+		scheduler.schedule(() -> {
+			throw new IllegalStateException();
+		});
+		scheduler.schedule(() -> ran.add("ran"));
+		try {
+			scheduler.drain();
+			fail("exception should have been thrown");
+		} catch (IllegalStateException ignore) {
+		}
+		assertEquals(1, ran.size());
+		assertEquals(0, scheduler.getQueueDepth());
+	}
+
+	/** 200 controls that each request 50 renders before the next frame (like pasting controls or changing the resolution) */
+	@Test
+	public void renderStorm() throws Exception {
+		FrameUpdateScheduler scheduler = new FrameUpdateScheduler(false);
+		int[] renders = new int[200];
+		List<Integer> order = new ArrayList<>();
+		List<Runnable> controls = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			final int control = i;
+			controls.add(() -> {
+				renders[control]++;
+				order.add(control);
+			});
+		}
+
+		for (int frame = 1; frame <= 2; frame++) {
+			for (int request = 0; request < 50; request++) {
+				for (Runnable control : controls) {
+					scheduler.schedule(control);
+				}
+			}
+			assertEquals(200, scheduler.getQueueDepth());
+			scheduler.drain();
+
+			//each control rendered once per frame, in the order they were first scheduled
+			for (int i = 0; i < renders.length; i++) {
+				assertEquals(frame, renders[i]);
+				assertEquals(i, (int) order.get((frame - 1) * 200 + i));
+			}
+			assertEquals(0, scheduler.getQueueDepth());
+			assertEquals(frame, scheduler.getDrainCount());
+			assertEquals(frame * 200, scheduler.getUpdateCount());
+			assertEquals(frame * 10000, scheduler.getRequestCount());
+			assertEquals(frame * 9800, scheduler.getCoalescedCount());
+			assertEquals(200, scheduler.getMaxQueueDepth());
+		}
+	}
+}
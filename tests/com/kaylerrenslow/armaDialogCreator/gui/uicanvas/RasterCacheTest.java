@@ -0,0 +1,145 @@
+package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class RasterCacheTest {
+
+	private final GraphicsContext gc = new Canvas(400, 400).getGraphicsContext2D();
+
+	@Test
+	public void rasterizedOnSecondPaint() throws Exception {
+		TestRasterCache cache = new TestRasterCache(RasterCache.DEFAULT_BUDGET_BYTES);
+		CountingPainter painter = new CountingPainter();
+		Object key = new Object();
+
+		cache.paint(key, gc, 0, 0, 10, 20, painter);
+		assertEquals(1, painter.paints);
+		assertEquals(0, cache.rasterized);
+		assertEquals(0, cache.getUsedBytes());
+
+		cache.paint(key, gc, 0, 0, 10, 20, painter);
+		assertEquals(2, painter.paints);
+		assertEquals(1, cache.rasterized);
+		assertEquals(10 * 20 * 4, cache.getUsedBytes());
+		assertEquals(2, cache.getMissCount());
+
+		cache.paint(key, gc, 0, 0, 10, 20, painter);
+		assertEquals(2, painter.paints);
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void invalidateAndMove() throws Exception {
+		TestRasterCache cache = new TestRasterCache(RasterCache.DEFAULT_BUDGET_BYTES);
+		CountingPainter painter = new CountingPainter();
+		Object key = new Object();
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		assertEquals(400, cache.getUsedBytes());
+
+		cache.invalidate(key);
+		assertEquals(0, cache.getUsedBytes());
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		assertEquals(1, cache.rasterized);
+
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		assertEquals(2, cache.rasterized);
+		//a different area is a new image
+		cache.paint(key, gc, 5, 0, 10, 10, painter);
+		assertEquals(0, cache.getUsedBytes());
+		assertEquals(0, cache.getHitCount());
+	}
+
+	@Test
+	public void leastRecentlyPaintedIsEvicted() throws Exception {
+		//room for 4 images of 10x5
+		TestRasterCache cache = new TestRasterCache(800);
+		CountingPainter painter = new CountingPainter();
+		Object[] keys = new Object[5];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Object();
+		}
+		for (int i = 0; i < 4; i++) {
+			cache.paint(keys[i], gc, 0, 0, 10, 5, painter);
+			cache.paint(keys[i], gc, 0, 0, 10, 5, painter);
+		}
+		assertEquals(800, cache.getUsedBytes());
+
+		cache.paint(keys[0], gc, 0, 0, 10, 5, painter);
+		cache.paint(keys[4], gc, 0, 0, 10, 5, painter);
+		cache.paint(keys[4], gc, 0, 0, 10, 5, painter);
+		assertEquals(800, cache.getUsedBytes());
+		assertEquals(1, cache.getEvictionCount());
+
+		//keys[1] was painted least recently
+		long hits = cache.getHitCount();
+		cache.paint(keys[0], gc, 0, 0, 10, 5, painter);
+		assertEquals(hits + 1, cache.getHitCount());
+		cache.paint(keys[1], gc, 0, 0, 10, 5, painter);
+		assertEquals(hits + 1, cache.getHitCount());
+
+		cache.setBudgetBytes(0);
+		assertEquals(0, cache.getUsedBytes());
+	}
+
+	@Test
+	public void disabledOrTooLarge() throws Exception {
+		TestRasterCache cache = new TestRasterCache(4000);
+		CountingPainter painter = new CountingPainter();
+		Object key = new Object();
+		//more than a quarter of the budget is never cached
+		for (int i = 0; i < 3; i++) {
+			cache.paint(key, gc, 0, 0, 20, 20, painter);
+		}
+		assertEquals(3, painter.paints);
+		assertEquals(0, cache.rasterized);
+
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		assertEquals(400, cache.getUsedBytes());
+
+		cache.setEnabled(false);
+		assertEquals(0, cache.getUsedBytes());
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		cache.paint(key, gc, 0, 0, 10, 10, painter);
+		assertEquals(7, painter.paints);
+		assertEquals(1, cache.rasterized);
+	}
+
+	private static class CountingPainter implements Consumer<GraphicsContext> {
+		int paints = 0;
+
+		@Override
+		public void accept(GraphicsContext gc) {
+			paints++;
+		}
+	}
+
+	/** Doesn't take a snapshot, since that needs a running JavaFX toolkit */
+	private static class TestRasterCache extends RasterCache {
+		int rasterized = 0;
+
+		TestRasterCache(long budgetBytes) {
+			super(budgetBytes);
+		}
+
+		@NotNull
+		@Override
+		WritableImage rasterize(@NotNull GraphicsContext gc, int leftX, int topY, int width, int height, @NotNull Consumer<GraphicsContext> painter) {
+			rasterized++;
+			painter.accept(gc);
+			return new WritableImage(width, height);
+		}
+	}
+}
@@ -1,9 +1,11 @@
 package com.kaylerrenslow.armaDialogCreator.gui.uicanvas;
 
 import com.kaylerrenslow.armaDialogCreator.util.DataContext;
+import com.kaylerrenslow.armaDialogCreator.util.ListMergeIterator;
 import com.kaylerrenslow.armaDialogCreator.util.UpdateListenerGroup;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
@@ -33,7 +35,7 @@ public class TestCanvasDisplay implements CanvasDisplay<TestCanvasControl> {
 	@NotNull
 	@Override
 	public Iterator<TestCanvasControl> iteratorForAllControls(boolean backwards) {
-		return null;
+		return new ListMergeIterator<>(backwards, Arrays.asList(backgroundControls, controls));
 	}
 
 	@Override
@@ -0,0 +1,254 @@
+package com.kaylerrenslow.armaDialogCreator.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ @author Kayler
+ @since 10/17/2026 */
+public class ListenerListTest {
+
+	@Test
+	public void noDuplicates() throws Exception {
+		UpdateListenerGroup<String> group = new UpdateListenerGroup<>();
+		Recorder recorder = new Recorder();
+		group.addListener(recorder);
+		group.addListener(recorder);
+		group.update("a");
+
+		assertEquals(1, recorder.updates.size());
+		assertEquals(1, group.getListenerList().size());
+		assertTrue(group.removeListener(recorder));
+		assertFalse(group.removeListener(recorder));
+	}
+
+	@Test
+	public void addAndRemoveWhileNotifying() throws Exception {
+		UpdateListenerGroup<String> group = new UpdateListenerGroup<>();
+		Recorder added = new Recorder();
+		Recorder removed = new Recorder();
+		group.addListener((g, data) -> {
+			g.addListener(added);
+			g.removeListener(removed);
+		});
+		group.addListener(removed);
+		group.update("a");
+
+		//added listeners are notified on the next update, removed listeners aren't notified after they were removed
+		assertEquals(0, added.updates.size());
+		assertEquals(0, removed.updates.size());
+
+		group.update("b");
+		assertEquals(1, added.updates.size());
+		assertEquals("b", added.updates.get(0));
+	}
+
+	@Test
+	public void expiredListenersAreRemoved() throws Exception {
+		UpdateListenerGroup<String> group = new UpdateListenerGroup<>();
+		List<Recorder> recorders = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Recorder recorder = new Recorder();
+			recorders.add(recorder);
+			group.addListener(recorder);
+		}
+		for (int i = 0; i < 10; i += 2) {
+			recorders.get(i).expired = true;
+		}
+		group.update("a");
+
+		assertEquals(5, group.getListenerList().size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i % 2 == 0 ? 0 : 1, recorders.get(i).updates.size());
+		}
+
+		//an expired listener can be added again after it was removed
+		recorders.get(0).expired = false;
+		group.addListener(recorders.get(0));
+		assertEquals(6, group.getListenerList().size());
+	}
+
+	@Test
+	public void valueObserver() throws Exception {
+		ValueObserver<String> observer = new ValueObserver<>("a");
+		List<String> updates = new ArrayList<>();
+		ValueListener<String> listener = (o, oldValue, newValue) -> updates.add(oldValue + "->" + newValue);
+		observer.addListener(listener);
+		observer.addListener(listener);
+		observer.getReadOnlyValueObserver().addListener((o, oldValue, newValue) -> updates.add("read only " + oldValue + "->" + newValue));
+
+		observer.updateValue("b");
+		observer.updateValue("b");
+
+		assertEquals(2, updates.size());
+		assertEquals("a->b", updates.get(0));
+		assertEquals("read only a->b", updates.get(1));
+	}
+
+	@Test
+	public void profiling() throws Exception {
+		UpdateListenerGroup<String> group = new UpdateListenerGroup<>();
+		UpdateGroupListener<String> slow = (g, data) -> {
+			long start = System.nanoTime();
+			while (System.nanoTime() - start < 1_000_000) {
+				//spin for 1ms
+			}
+		};
+		group.addListener(slow);
+		ListenerList.setProfilingEnabled(true);
+		try {
+			group.update("a");
+			group.update("b");
+		} finally {
+			ListenerList.setProfilingEnabled(false);
+		}
+		group.update("c");
+
+		ListenerList<UpdateGroupListener<String>> list = group.getListenerList();
+		assertEquals(3, list.getDispatchCount());
+		assertEquals(2, list.getListenerNotifyCount(slow));
+		assertTrue(list.getListenerTime(slow) >= 2_000_000);
+
+		list.resetCounters();
+		assertEquals(0, list.getDispatchCount());
+		assertEquals(0, list.getListenerTime(slow));
+	}
+
+	@Test
+	public void manyListeners() throws Exception {
+		UpdateListenerGroup<String> group = new UpdateListenerGroup<>();
+		List<Recorder> recorders = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			recorders.add(new Recorder());
+		}
+		for (Recorder recorder : recorders) {
+			group.addListener(recorder);
+			group.addListener(recorder);
+		}
+		assertEquals(5000, group.getListenerList().size());
+		for (Recorder recorder : recorders) {
+			assertTrue(group.removeListener(recorder));
+		}
+		assertEquals(0, group.getListenerList().size());
+
+		UpdateListenerGroup<String> group100 = new UpdateListenerGroup<>();
+		int[] count = {0};
+		for (int i = 0; i < 100; i++) {
+			//capturing lambda, so each listener is a new instance
+			group100.addListener((g, data) -> count[0]++);
+		}
+		for (int i = 0; i < 10000; i++) {
+			group100.update("update");
+		}
+		assertEquals(10000, group100.getListenerList().getDispatchCount());
+		assertEquals(1000000, count[0]);
+	}
+
+	@Test
+	public void equalListenersAreDuplicates() throws Exception {
+		UpdateListenerGroup<String> group = new UpdateListenerGroup<>();
+		List<String> updates = new ArrayList<>();
+		group.addListener(new EqualListener("a", updates));
+		group.addListener(new EqualListener("a", updates));
+		group.addListener(new EqualListener("b", updates));
+		assertEquals(2, group.getListenerList().size());
+
+		group.update("1");
+		assertEquals(2, updates.size());
+
+		//removing an equal instance removes the listener that was added
+		assertTrue(group.removeListener(new EqualListener("a", updates)));
+		assertFalse(group.removeListener(new EqualListener("a", updates)));
+		group.update("2");
+		assertEquals(3, updates.size());
+		assertEquals("b2", updates.get(2));
+	}
+
+	@Test
+	public void equalListenersAboveSetThreshold() throws Exception {
+		ListenerList<UpdateGroupListener<String>> list = new ListenerList<>();
+		List<String> updates = new ArrayList<>();
+		int count = ListenerList.SET_THRESHOLD * 3;
+		for (int i = 0; i < count; i++) {
+			assertTrue(list.add(new EqualListener("l" + i, updates)));
+			assertFalse(list.add(new EqualListener("l" + i, updates)));
+		}
+		assertEquals(count, list.size());
+		assertTrue(list.contains(new EqualListener("l0", updates)));
+
+		//shrinks back below the threshold, where the array is searched again
+		for (int i = 0; i < count - 1; i++) {
+			assertTrue(list.remove(new EqualListener("l" + i, updates)));
+			assertFalse(list.contains(new EqualListener("l" + i, updates)));
+		}
+		assertEquals(1, list.size());
+		assertTrue(list.contains(new EqualListener("l" + (count - 1), updates)));
+		assertFalse(list.add(new EqualListener("l" + (count - 1), updates)));
+		assertTrue(list.add(new EqualListener("l0", updates)));
+		assertEquals(2, list.size());
+	}
+
+	@Test
+	public void readOnlyObserverGetsTheNewValue() throws Exception {
+		ValueObserver<String> observer = new ValueObserver<>("a");
+		List<String> updates = new ArrayList<>();
+		//changes the value again before the second read only listener is notified
+		observer.getReadOnlyValueObserver().addListener((o, oldValue, newValue) -> {
+			if ("b".equals(newValue)) {
+				observer.updateValue("c");
+			}
+		});
+		observer.getReadOnlyValueObserver().addListener((o, oldValue, newValue) -> updates.add(oldValue + "->" + newValue));
+
+		observer.updateValue("b");
+		assertEquals("c", observer.getValue());
+		assertEquals(2, updates.size());
+		assertEquals("b->c", updates.get(0));
+		assertEquals("a->b", updates.get(1));
+	}
+
+	private static class EqualListener implements UpdateGroupListener<String> {
+		private final String name;
+		private final List<String> updates;
+
+		EqualListener(@NotNull String name, @NotNull List<String> updates) {
+			this.name = name;
+			this.updates = updates;
+		}
+
+		@Override
+		public void update(@NotNull UpdateListenerGroup<String> group, String data) {
+			updates.add(name + data);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof EqualListener && ((EqualListener) o).name.equals(name);
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode();
+		}
+	}
+
+	private static class Recorder implements UpdateGroupListener<String> {
+		final List<String> updates = new ArrayList<>();
+		boolean expired = false;
+
+		@Override
+		public void update(@NotNull UpdateListenerGroup<String> group, String data) {
+			updates.add(data);
+		}
+
+		@Override
+		public boolean hasExpired() {
+			return expired;
+		}
+	}
+}